@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a {@link FilterTemplate} against building the same filter with {@link FilterBuilder}.
+ * <p>
+ * {@code hot} renders values from a small set that stays cached, {@code cold} renders values that are rarely
+ * repeated, so it measures the render itself plus a cache miss. Run with {@code -t 4} or more to see contention
+ * on the render cache.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterTemplateBenchmark {
+
+    private static final String[] GENRES = {"action", "comedy", "drama", "horror", "sci-fi", "it's", "war", "noir"};
+
+    private FilterTemplate template;
+
+    @Setup
+    public void setUp() {
+        template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.equal("genres", FilterTemplate.string("genre")))
+            .and(expression -> expression.to("year", FilterTemplate.number("from"), FilterTemplate.number("to")))
+            .and(expression -> expression.gt("rating", FilterTemplate.number("rating"))));
+    }
+
+    @Benchmark
+    public String builder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String genre = GENRES[random.nextInt(GENRES.length)];
+        int from = 1990 + random.nextInt(8);
+        return FilterBuilder.builder(expression -> expression.equal("genres", genre))
+            .and(expression -> expression.to("year", from, from + 10))
+            .and(expression -> expression.gt("rating", 7.5))
+            .build();
+    }
+
+    @Benchmark
+    public String hot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = 1990 + random.nextInt(8);
+        return template.render(GENRES[random.nextInt(GENRES.length)], from, from + 10, 7.5);
+    }
+
+    @Benchmark
+    public String cold() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(1_000_000);
+        return template.render(GENRES[random.nextInt(GENRES.length)], from, from + 10, 7.5);
+    }
+
+}
@@ -59,6 +59,21 @@ public final class MSearchConfig {
 
     private final ResponseFilter responseFilter;
 
+    private final boolean typedProjection;
+
+    /**
+     * Creates a new config without typed projection.
+     *
+     * @param serverUrl      server url
+     * @param apiKey         api key
+     * @param jsonHandler    json handler
+     * @param httpClient     http client
+     * @param responseFilter response filter
+     */
+    public MSearchConfig(String serverUrl, String apiKey, JsonHandler jsonHandler, ReactiveHttpUtils httpClient, ResponseFilter responseFilter) {
+        this(serverUrl, apiKey, jsonHandler, httpClient, responseFilter, false);
+    }
+
     /**
      * Creates and returns a new instance of the Builder class.
      *
@@ -92,6 +107,7 @@ public final class MSearchConfig {
         private JsonHandler jsonHandler;
         private ReactiveHttpUtils httpClient;
         private ResponseFilter responseFilter = (response, bytes) -> Mono.just(bytes);
+        private boolean typedProjection = false;
 
         private Builder() {
         }
@@ -184,6 +200,19 @@ public final class MSearchConfig {
             return this;
         }
 
+        /**
+         * Typed documents and search operators only retrieve the attributes their document type reads,
+         * unless the request sets {@code attributesToRetrieve} or {@code fields} itself. Default false.
+         *
+         * @param typedProjection the {@code typedProjection} to set
+         * @return a reference to this Builder
+         * @see JsonHandler#attributes(io.github.honhimw.ms.json.TypeRef)
+         */
+        public Builder typedProjection(boolean typedProjection) {
+            this.typedProjection = typedProjection;
+            return this;
+        }
+
         /**
          * Returns a {@code MSearchConfig} built from the parameters previously set.
          *
@@ -197,7 +226,7 @@ public final class MSearchConfig {
             Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
             Asserts.status(Objects.nonNull(httpClient), "httpClient must not be null");
             Asserts.status(Objects.nonNull(responseFilter), "responseConsumer must not be null");
-            return new MSearchConfig(serverUrl, apiKey, jsonHandler, httpClient, responseFilter);
+            return new MSearchConfig(serverUrl, apiKey, jsonHandler, httpClient, responseFilter, typedProjection);
         }
     }
 }
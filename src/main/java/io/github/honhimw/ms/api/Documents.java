@@ -22,10 +22,12 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import jakarta.annotation.Nullable;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Documents are objects composed of fields that can store any type of data.
@@ -113,6 +115,52 @@ public interface Documents {
     @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
     <T> Page<T> list(Consumer<GetDocumentRequest> page, Class<T> type);
 
+    /**
+     * List all documents lazily, fetching the next page while the current one is consumed.
+     * Closing the stream cancels the iteration.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @return all documents
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    Stream<Map<String, Object>> stream(GetDocumentRequest request);
+
+    /**
+     * List all documents lazily, fetching the next page while the current one is consumed.
+     * Stopping before the end leaves the page in flight until the iterator is garbage collected,
+     * prefer {@link #stream(GetDocumentRequest)} in try-with-resources.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @return all documents
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    Iterator<Map<String, Object>> iterator(GetDocumentRequest request);
+
+    /**
+     * List all documents lazily, fetching the next page while the current one is consumed.
+     * Closing the stream cancels the iteration.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @param typeRef type
+     * @param <T>     document type
+     * @return all documents
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    <T> Stream<T> stream(GetDocumentRequest request, TypeRef<T> typeRef);
+
+    /**
+     * List all documents lazily, fetching the next page while the current one is consumed.
+     * Stopping before the end leaves the page in flight until the iterator is garbage collected,
+     * prefer {@link #stream(GetDocumentRequest, TypeRef)} in try-with-resources.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @param typeRef type
+     * @param <T>     document type
+     * @return all documents
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    <T> Iterator<T> iterator(GetDocumentRequest request, TypeRef<T> typeRef);
+
     /**
      * Add a list of documents or replace them if they already exist.
      * <p>
@@ -19,11 +19,13 @@ import io.github.honhimw.ms.model.*;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.annotation.Nullable;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * An index is an entity that gathers a set of documents with its own settings. Learn more about indexes.
@@ -62,6 +64,27 @@ public interface Indexes {
     @Operation(method = "GET", tags = "/indexes")
     Page<Index> list(PageRequest page);
 
+    /**
+     * List all indexes lazily, fetching the next page while the current one is consumed.
+     * Closing the stream cancels the iteration.
+     *
+     * @param pageSize number of indexes per request
+     * @return all indexes
+     */
+    @Operation(method = "GET", tags = "/indexes")
+    Stream<Index> stream(int pageSize);
+
+    /**
+     * List all indexes lazily, fetching the next page while the current one is consumed.
+     * Stopping before the end leaves the page in flight until the iterator is garbage collected,
+     * prefer {@link #stream(int)} in try-with-resources.
+     *
+     * @param pageSize number of indexes per request
+     * @return all indexes
+     */
+    @Operation(method = "GET", tags = "/indexes")
+    Iterator<Index> iterator(int pageSize);
+
     /**
      * Get information about an index.
      *
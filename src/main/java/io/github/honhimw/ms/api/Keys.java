@@ -18,8 +18,10 @@ import io.github.honhimw.ms.model.*;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.annotation.Nullable;
 
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Manage API keys for a Meilisearch instance. Each key has a given set of permissions.
@@ -55,6 +57,27 @@ public interface Keys {
         return list(pageRequest.toOffset(), pageRequest.toLimit());
     }
 
+    /**
+     * List all keys lazily, fetching the next page while the current one is consumed.
+     * Closing the stream cancels the iteration.
+     *
+     * @param pageSize number of keys per request
+     * @return all keys
+     */
+    @Operation(method = "GET", tags = "/keys")
+    Stream<Key> stream(int pageSize);
+
+    /**
+     * List all keys lazily, fetching the next page while the current one is consumed.
+     * Stopping before the end leaves the page in flight until the iterator is garbage collected,
+     * prefer {@link #stream(int)} in try-with-resources.
+     *
+     * @param pageSize number of keys per request
+     * @return all keys
+     */
+    @Operation(method = "GET", tags = "/keys")
+    Iterator<Key> iterator(int pageSize);
+
     /**
      * Get information on the specified key. Attempting to use this endpoint with a non-existent or deleted key will result in an error.
      *
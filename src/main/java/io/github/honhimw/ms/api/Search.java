@@ -17,6 +17,7 @@ package io.github.honhimw.ms.api;
 import io.github.honhimw.ms.json.TypeRef;
 import io.github.honhimw.ms.model.FacetSearchRequest;
 import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchIds;
 import io.github.honhimw.ms.model.SearchRequest;
 import io.github.honhimw.ms.model.SearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -152,4 +153,17 @@ public interface Search {
     @Operation(method = "POST", tags = "/indexes/{indexUid}/facet-search")
     FacetSearchResponse facetSearch(Consumer<FacetSearchRequest.Builder> builder);
 
+    /**
+     * Search for primary keys and ranking scores only.
+     * <p>
+     * Forces {@code attributesToRetrieve=[primaryKey]} and {@code showRankingScore=true}, and reads the response
+     * straight into id and score arrays without decoding hits, for first-stage retrieval of re-ranking pipelines.
+     *
+     * @param request    SearchRequest
+     * @param primaryKey primary key of the index
+     * @return ids and scores in hit order
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/search")
+    SearchIds ids(SearchRequest request, String primaryKey);
+
 }
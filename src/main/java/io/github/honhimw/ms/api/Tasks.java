@@ -18,10 +18,18 @@ import io.github.honhimw.ms.model.CancelTasksRequest;
 import io.github.honhimw.ms.model.GetTasksRequest;
 import io.github.honhimw.ms.model.Page;
 import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.support.Paginator;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The tasks route gives information about the progress of the asynchronous operations.
@@ -54,6 +62,47 @@ public interface Tasks {
         return list(_builder.build());
     }
 
+    /**
+     * List all tasks lazily, fetching the next page while the current one is consumed.
+     * Closing the stream cancels the iteration.
+     *
+     * @param request filters, {@code limit} is the number of tasks per request
+     * @return all tasks
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Stream<TaskInfo> stream(GetTasksRequest request) {
+        Integer limit = Optional.ofNullable(request.getLimit()).orElse(Paginator.DEFAULT_PAGE_SIZE);
+        return Paginator.<String, TaskInfo>cursor(request.getFrom(), from -> Mono.fromCallable(() -> list(builder -> builder
+                .limit(limit)
+                .from(from)
+                .uids(request.getUids())
+                .statuses(request.getStatuses())
+                .types(request.getTypes())
+                .indexUids(request.getIndexUids())
+                .canceledBy(request.getCanceledBy())
+                .beforeEnqueuedAt(request.getBeforeEnqueuedAt())
+                .beforeStartedAt(request.getBeforeStartedAt())
+                .beforeFinishedAt(request.getBeforeFinishedAt())
+                .afterEnqueuedAt(request.getAfterEnqueuedAt())
+                .afterStartedAt(request.getAfterStartedAt())
+                .afterFinishedAt(request.getAfterFinishedAt()))),
+            (from, page) -> Objects.nonNull(page.getNext()) ? String.valueOf(page.getNext()) : null)
+            .toStream();
+    }
+
+    /**
+     * List all tasks lazily, fetching the next page while the current one is consumed.
+     * Stopping before the end leaves the page in flight until the iterator is garbage collected,
+     * prefer {@link #stream(GetTasksRequest)} in try-with-resources.
+     *
+     * @param request filters, {@code limit} is the number of tasks per request
+     * @return all tasks
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Iterator<TaskInfo> iterator(GetTasksRequest request) {
+        return stream(request).iterator();
+    }
+
     /**
      * Delete finished tasks
      *
@@ -112,12 +161,43 @@ public interface Tasks {
     }
 
     /**
-     * Wait for task finish
+     * Wait for task finish, for at most 5 seconds
      *
      * @param uid task uid
+     * @throws IllegalStateException if the task has not finished in time
      */
     void waitForTask(int uid);
 
+    /**
+     * Wait for task finish, polling adaptively
+     *
+     * @param uid     task uid
+     * @param timeout longest wait, none if null
+     * @return the finished task
+     * @throws IllegalStateException if the task has not finished in time
+     */
+    default TaskInfo waitForTask(int uid, @Nullable Duration timeout) {
+        long deadline = Objects.nonNull(timeout) ? System.nanoTime() + timeout.toNanos() : Long.MAX_VALUE;
+        long delay = TimeUnit.MILLISECONDS.toNanos(10);
+        while (true) {
+            TaskInfo task = get(uid);
+            if (task.finished()) {
+                return task;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException(String.format("task [%d] has not finished in %s", uid, timeout));
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(delay, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(String.format("interrupted waiting for task [%d]", uid), e);
+            }
+            delay = Math.min(delay * 2, TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
     /**
      * Wait for task finish
      *
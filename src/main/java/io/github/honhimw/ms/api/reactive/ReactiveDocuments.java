@@ -17,16 +17,19 @@ package io.github.honhimw.ms.api.reactive;
 import io.github.honhimw.ms.Experimental;
 import io.github.honhimw.ms.json.TypeRef;
 import io.github.honhimw.ms.model.*;
+import io.github.honhimw.ms.support.CollectionUtils;
+import io.github.honhimw.ms.support.DocumentIds;
+import io.github.honhimw.ms.support.FilterBuilder;
+import io.github.honhimw.ms.support.IdChunks;
+import io.github.honhimw.ms.support.Paginator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Consumer;
 
 /**
@@ -78,6 +81,70 @@ public interface ReactiveDocuments {
     @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
     Mono<Page<Map<String, Object>>> list(GetDocumentRequest page);
 
+    /**
+     * Get all documents lazily.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @return all matching documents, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    default Flux<Map<String, Object>> all(GetDocumentRequest request) {
+        return Paginator.offsets(request.toOffset(), request.toLimit(), (offset, limit) -> {
+            GetDocumentRequest page = new GetDocumentRequest();
+            page.setOffset(offset);
+            page.setLimit(limit);
+            page.setFields(request.getFields());
+            page.setFilter(request.getFilter());
+            return list(page);
+        });
+    }
+
+    /**
+     * Get all documents lazily.
+     *
+     * @param request request builder
+     * @return all matching documents, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    default Flux<Map<String, Object>> all(Consumer<GetDocumentRequest> request) {
+        GetDocumentRequest _request = new GetDocumentRequest();
+        request.accept(_request);
+        return all(_request);
+    }
+
+    /**
+     * Get all documents lazily with type.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @param typeRef type
+     * @param <T>     document type
+     * @return all matching documents, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    default <T> Flux<T> all(GetDocumentRequest request, TypeRef<T> typeRef) {
+        return Paginator.offsets(request.toOffset(), request.toLimit(), (offset, limit) -> {
+            GetDocumentRequest page = new GetDocumentRequest();
+            page.setOffset(offset);
+            page.setLimit(limit);
+            page.setFields(request.getFields());
+            page.setFilter(request.getFilter());
+            return list(page, typeRef);
+        });
+    }
+
+    /**
+     * Get all documents lazily with type.
+     *
+     * @param request first offset, {@code limit} as documents per request, fields and filter
+     * @param type    type
+     * @param <T>     document type
+     * @return all matching documents, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes/{indexUid}/documents")
+    default <T> Flux<T> all(GetDocumentRequest request, Class<T> type) {
+        return all(request, TypeRef.of(type));
+    }
+
     /**
      * Get documents by batch with type.
      *
@@ -330,6 +397,91 @@ public interface ReactiveDocuments {
         return batchGet(_builder.build(), TypeRef.of(type));
     }
 
+    /**
+     * Get documents by primary key, for id sets of any size.
+     * <p>
+     * Ids are split into chunks of {@link IdChunks#FETCH_IDS}, each fetched with a {@code <primaryKey> IN [...]} filter,
+     * {@link IdChunks#CONCURRENCY} chunks at a time. Documents are emitted in input order, ids without a document are skipped.
+     * The primary key must be one of the index's {@code filterableAttributes}.
+     *
+     * @param primaryKey primary key of the index
+     * @param ids        document ids
+     * @param fields     fields to retrieve, all fields if null or empty
+     * @return documents in input order
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
+    default Flux<Map<String, Object>> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields) {
+        return batchGet(primaryKey, ids, fields, IdChunks.FETCH_IDS, IdChunks.CONCURRENCY);
+    }
+
+    /**
+     * Get documents by primary key, for id sets of any size.
+     *
+     * @param primaryKey  primary key of the index, must be filterable
+     * @param ids         document ids
+     * @param fields      fields to retrieve, all fields if null or empty
+     * @param chunkSize   maximum ids per request
+     * @param concurrency maximum requests in flight
+     * @return documents in input order
+     * @see #batchGet(String, Collection, List)
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
+    default Flux<Map<String, Object>> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields, int chunkSize, int concurrency) {
+        boolean stripKey = CollectionUtils.isNotEmpty(fields) && !fields.contains(primaryKey) && !fields.contains("*");
+        List<String> _fields = CollectionUtils.isEmpty(fields) ? null : new ArrayList<>(fields);
+        if (stripKey) {
+            _fields.add(primaryKey);
+        }
+        List<String> projection = _fields;
+        return Flux.fromIterable(IdChunks.split(ids, chunkSize, IdChunks.FETCH_CHARS))
+            .flatMapSequential(chunk -> batchGet(BatchGetDocumentsRequest.builder()
+                .filter(FilterBuilder.singleExpression(expression -> expression.in(primaryKey, chunk.toArray(new String[0]))))
+                .limit(chunk.size())
+                .fields(projection)
+                .build())
+                .flatMapIterable(page -> {
+                    Map<String, Map<String, Object>> found = new HashMap<>();
+                    for (Map<String, Object> document : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                        found.put(DocumentIds.of(stripKey ? document.remove(primaryKey) : document.get(primaryKey)), document);
+                    }
+                    List<Map<String, Object>> ordered = new ArrayList<>(found.size());
+                    for (String id : chunk) {
+                        Map<String, Object> document = found.get(id);
+                        if (Objects.nonNull(document)) {
+                            ordered.add(document);
+                        }
+                    }
+                    return ordered;
+                }), concurrency);
+    }
+
+    /**
+     * Get documents by primary key, for id sets of any size.
+     * <p>
+     * The client emits documents in input order and skips ids without a document, like
+     * {@link #batchGet(String, Collection, List)}. This default can not read the primary key of a {@code T}: chunks
+     * are emitted in input order, documents within a chunk in index order.
+     *
+     * @param primaryKey primary key of the index, must be filterable
+     * @param ids        document ids
+     * @param fields     fields to retrieve, all fields if null or empty
+     * @param typeRef    type reference
+     * @param <T>        document type
+     * @return documents
+     * @see #batchGet(String, Collection, List)
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
+    default <T> Flux<T> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields, TypeRef<T> typeRef) {
+        List<String> projection = CollectionUtils.isEmpty(fields) ? null : fields;
+        return Flux.fromIterable(IdChunks.split(ids, IdChunks.FETCH_IDS, IdChunks.FETCH_CHARS))
+            .flatMapSequential(chunk -> batchGet(BatchGetDocumentsRequest.builder()
+                .filter(FilterBuilder.singleExpression(expression -> expression.in(primaryKey, chunk.toArray(new String[0]))))
+                .limit(chunk.size())
+                .fields(projection)
+                .build(), typeRef)
+                .flatMapIterable(page -> Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())), IdChunks.CONCURRENCY);
+    }
+
     /**
      * Delete a set of documents based on an array of document ids.
      *
@@ -339,6 +491,20 @@ public interface ReactiveDocuments {
     @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/delete-batch")
     Mono<TaskInfo> batchDelete(List<String> ids);
 
+    /**
+     * Delete a set of documents of any size, split into chunks of {@code chunkSize} ids.
+     *
+     * @param ids         document ids
+     * @param chunkSize   maximum ids per request, {@link IdChunks#DELETE_IDS} is a sensible default
+     * @param concurrency maximum requests in flight
+     * @return delete task of each chunk, in input order
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/delete-batch")
+    default Flux<TaskInfo> batchDelete(Collection<String> ids, int chunkSize, int concurrency) {
+        return Flux.fromIterable(IdChunks.split(ids, chunkSize, IdChunks.DELETE_CHARS))
+            .flatMapSequential(this::batchDelete, concurrency);
+    }
+
     /**
      * Delete a set of documents based on a filter.
      *
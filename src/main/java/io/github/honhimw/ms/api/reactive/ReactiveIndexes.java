@@ -17,7 +17,9 @@ package io.github.honhimw.ms.api.reactive;
 import io.github.honhimw.ms.json.TypeRef;
 import io.github.honhimw.ms.model.*;
 import io.swagger.v3.oas.annotations.Operation;
+import io.github.honhimw.ms.support.Paginator;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -66,6 +68,27 @@ public interface ReactiveIndexes {
         return list(page.toOffset(), page.toLimit());
     }
 
+    /**
+     * List all indexes lazily, {@link Paginator#DEFAULT_PAGE_SIZE} per page.
+     *
+     * @return all indexes, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes")
+    default Flux<Index> all() {
+        return all(Paginator.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * List all indexes lazily.
+     *
+     * @param pageSize number of indexes per request
+     * @return all indexes, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/indexes")
+    default Flux<Index> all(int pageSize) {
+        return Paginator.offsets(0, pageSize, (offset, limit) -> list(offset, limit));
+    }
+
     /**
      * Get information about an index.
      *
@@ -16,7 +16,9 @@ package io.github.honhimw.ms.api.reactive;
 
 import io.github.honhimw.ms.model.*;
 import io.swagger.v3.oas.annotations.Operation;
+import io.github.honhimw.ms.support.Paginator;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.function.Consumer;
@@ -54,6 +56,27 @@ public interface ReactiveKeys {
         return list(pageRequest.toOffset(), pageRequest.toLimit());
     }
 
+    /**
+     * Get all Keys lazily, {@link Paginator#DEFAULT_PAGE_SIZE} per page.
+     *
+     * @return all keys, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/keys")
+    default Flux<Key> all() {
+        return all(Paginator.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Get all Keys lazily.
+     *
+     * @param pageSize number of keys per request
+     * @return all keys, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/keys")
+    default Flux<Key> all(int pageSize) {
+        return Paginator.offsets(0, pageSize, (offset, limit) -> list(offset, limit));
+    }
+
     /**
      * Get information on the specified key. Attempting to use this endpoint with a non-existent or deleted key will result in an error.
      *
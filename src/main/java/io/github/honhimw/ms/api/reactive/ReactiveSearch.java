@@ -17,6 +17,7 @@ package io.github.honhimw.ms.api.reactive;
 import io.github.honhimw.ms.json.TypeRef;
 import io.github.honhimw.ms.model.FacetSearchRequest;
 import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchIds;
 import io.github.honhimw.ms.model.SearchRequest;
 import io.github.honhimw.ms.model.SearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -168,4 +169,32 @@ public interface ReactiveSearch {
         return facetSearch(_builder.build());
     }
 
+    /**
+     * Search for primary keys and ranking scores only.
+     * <p>
+     * Forces {@code attributesToRetrieve=[primaryKey]} and {@code showRankingScore=true}, and reads the response
+     * straight into id and score arrays without decoding hits, for first-stage retrieval of re-ranking pipelines.
+     *
+     * @param request    SearchRequest
+     * @param primaryKey primary key of the index
+     * @return ids and scores in hit order
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/search")
+    Mono<SearchIds> ids(SearchRequest request, String primaryKey);
+
+    /**
+     * Search for primary keys and ranking scores only.
+     *
+     * @param builder    request builder
+     * @param primaryKey primary key of the index
+     * @return ids and scores in hit order
+     * @see #ids(SearchRequest, String)
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/search")
+    default Mono<SearchIds> ids(Consumer<SearchRequest.Builder> builder, String primaryKey) {
+        SearchRequest.Builder _builder = SearchRequest.builder();
+        builder.accept(_builder);
+        return ids(_builder.build(), primaryKey);
+    }
+
 }
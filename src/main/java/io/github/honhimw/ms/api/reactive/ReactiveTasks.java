@@ -15,11 +15,16 @@
 package io.github.honhimw.ms.api.reactive;
 
 import io.github.honhimw.ms.model.*;
+import io.github.honhimw.ms.support.Paginator;
+import io.github.honhimw.ms.support.TaskWaiter;
+import io.github.honhimw.ms.support.TaskWatcher;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.RetrySpec;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
@@ -53,6 +58,52 @@ public interface ReactiveTasks {
         return list(_builder.build());
     }
 
+    /**
+     * Get all tasks lazily, following the {@code from}/{@code next} cursor.
+     *
+     * @param request filters, {@code limit} is the number of tasks per request, {@link Paginator#DEFAULT_PAGE_SIZE} if null
+     * @return all matching tasks, newest first, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Flux<TaskInfo> all(GetTasksRequest request) {
+        return all(builder -> builder
+            .limit(request.getLimit())
+            .from(request.getFrom())
+            .uids(request.getUids())
+            .statuses(request.getStatuses())
+            .types(request.getTypes())
+            .indexUids(request.getIndexUids())
+            .canceledBy(request.getCanceledBy())
+            .beforeEnqueuedAt(request.getBeforeEnqueuedAt())
+            .beforeStartedAt(request.getBeforeStartedAt())
+            .beforeFinishedAt(request.getBeforeFinishedAt())
+            .afterEnqueuedAt(request.getAfterEnqueuedAt())
+            .afterStartedAt(request.getAfterStartedAt())
+            .afterFinishedAt(request.getAfterFinishedAt()));
+    }
+
+    /**
+     * Get all tasks lazily, following the {@code from}/{@code next} cursor.
+     *
+     * @param builder request builder, {@code limit} is the number of tasks per request, {@link Paginator#DEFAULT_PAGE_SIZE} if null
+     * @return all matching tasks, newest first, fetching the next page while the current one is consumed
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Flux<TaskInfo> all(Consumer<GetTasksRequest.Builder> builder) {
+        GetTasksRequest.Builder _first = GetTasksRequest.builder();
+        builder.accept(_first);
+        String from = _first.build().getFrom();
+        return Paginator.cursor(from, _from -> {
+            GetTasksRequest.Builder _builder = GetTasksRequest.builder();
+            builder.accept(_builder);
+            GetTasksRequest request = _builder.from(_from).build();
+            if (Objects.isNull(request.getLimit())) {
+                request.setLimit(Paginator.DEFAULT_PAGE_SIZE);
+            }
+            return list(request);
+        }, (_from, page) -> Objects.nonNull(page.getNext()) ? String.valueOf(page.getNext()) : null);
+    }
+
     /**
      * Delete finished tasks
      *
@@ -111,31 +162,67 @@ public interface ReactiveTasks {
     }
 
     /**
-     * Wait for task to complete
+     * Watch task status transitions. Every watch of the same client is served by one shared poller, which only
+     * fetches new tasks and tasks finished since its last poll, polling faster while tasks are moving.
+     * This default runs a {@link TaskWatcher} per subscription.
+     *
+     * @param request filters of the tasks to watch, {@code limit} and {@code from} are ignored
+     * @return infinite stream of tasks whose status changed
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Flux<TaskInfo> watch(GetTasksRequest request) {
+        return Flux.using(() -> TaskWatcher.builder().tasks(this).build(), watcher -> watcher.watch(request), TaskWatcher::close);
+    }
+
+    /**
+     * Watch task status transitions.
+     *
+     * @param builder request builder
+     * @return infinite stream of tasks whose status changed
+     */
+    @Operation(method = "GET", tags = "/tasks")
+    default Flux<TaskInfo> watch(Consumer<GetTasksRequest.Builder> builder) {
+        GetTasksRequest.Builder _builder = GetTasksRequest.builder();
+        builder.accept(_builder);
+        return watch(_builder.build());
+    }
+
+    /**
+     * Wait for task to complete, polling adaptively for at most 5 seconds
      *
      * @param uid task uid
-     * @return None
+     * @return None, or a {@link java.util.concurrent.TimeoutException} if the task has not finished in time
+     * @see #waitForTask(int, Duration)
      */
     default Mono<Void> waitForTask(int uid) {
-        return waitForTask(uid, 100, Duration.ofMillis(50));
+        return waitForTask(uid, Duration.ofSeconds(5)).then();
+    }
+
+    /**
+     * Wait for task to complete. Polls back off exponentially with jitter while the task is enqueued, and are timed
+     * by its processing time predicted from similar tasks once it is processing. This default starts without any
+     * recorded processing times.
+     *
+     * @param uid     task uid
+     * @param timeout longest wait, none if null
+     * @return the finished task, or a {@link java.util.concurrent.TimeoutException} if it has not finished in time
+     */
+    default Mono<TaskInfo> waitForTask(int uid, @Nullable Duration timeout) {
+        return TaskWaiter.builder().tasks(this).build().await(uid, timeout);
     }
 
     /**
-     * Wait for task to complete
+     * Wait for task to complete, polling at a fixed delay
      *
      * @param uid         task uid
      * @param maxAttempts max attempts
      * @param fixedDelay  fixed delay
-     * @return None
+     * @return None, or an {@link IllegalStateException} if the task has not finished after all attempts
      */
     default Mono<Void> waitForTask(int uid, int maxAttempts, Duration fixedDelay) {
         return get(uid)
-            .doOnNext(taskInfo -> {
-                if (taskInfo.getStatus() != TaskStatus.SUCCEEDED && taskInfo.getStatus() != TaskStatus.FAILED) {
-                    throw new IllegalStateException("task not completed");
-                }
-            })
-            .retryWhen(RetrySpec.fixedDelay(maxAttempts, fixedDelay))
+            .filter(taskInfo -> taskInfo.finished())
+            .repeatWhenEmpty(maxAttempts, attempts -> attempts.delayElements(fixedDelay))
             .then();
     }
 
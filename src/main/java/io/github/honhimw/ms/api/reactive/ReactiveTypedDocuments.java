@@ -15,15 +15,20 @@
 package io.github.honhimw.ms.api.reactive;
 
 import io.github.honhimw.ms.model.*;
+import io.github.honhimw.ms.support.CollectionUtils;
+import io.github.honhimw.ms.support.DocumentIds;
+import io.github.honhimw.ms.support.FilterBuilder;
+import io.github.honhimw.ms.support.IdChunks;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Documents are objects composed of fields that can store any type of data.
@@ -171,6 +176,71 @@ public interface ReactiveTypedDocuments<T> {
     @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
     Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch);
 
+    /**
+     * Get documents by primary key, for id sets of any size.
+     * <p>
+     * Ids are split into chunks of {@link IdChunks#FETCH_IDS}, each fetched with a {@code <primaryKey> IN [...]} filter,
+     * {@link IdChunks#CONCURRENCY} chunks at a time. The client emits documents in input order and skips ids without a
+     * document. This default can not read the primary key of a {@code T}: chunks are emitted in input order, documents
+     * within a chunk in index order, pass {@code idOf} to order them. The primary key must be one of the index's
+     * {@code filterableAttributes}.
+     *
+     * @param primaryKey primary key of the index
+     * @param ids        document ids
+     * @param fields     fields to retrieve, all fields if null or empty
+     * @return documents in input order
+     * @see #batchGet(String, Collection, List, Function, int, int)
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
+    default Flux<T> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields) {
+        return batchGet(primaryKey, ids, fields, null, IdChunks.FETCH_IDS, IdChunks.CONCURRENCY);
+    }
+
+    /**
+     * Get documents by primary key, for id sets of any size.
+     * <p>
+     * Chunks are fetched {@code concurrency} at a time and emitted in input order. With {@code idOf}, documents are
+     * emitted in input order and ids without a document are skipped, otherwise documents within a chunk are emitted
+     * in index order.
+     *
+     * @param primaryKey  primary key of the index, must be filterable
+     * @param ids         document ids
+     * @param fields      fields to retrieve, all fields if null or empty, must include the primary key when {@code idOf} is used
+     * @param idOf        primary key of a document, null to keep index order within a chunk
+     * @param chunkSize   maximum ids per request
+     * @param concurrency maximum requests in flight
+     * @return documents
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/fetch")
+    default Flux<T> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields,
+                             @Nullable Function<? super T, ?> idOf, int chunkSize, int concurrency) {
+        List<String> projection = CollectionUtils.isEmpty(fields) ? null : fields;
+        return Flux.fromIterable(IdChunks.split(ids, chunkSize, IdChunks.FETCH_CHARS))
+            .flatMapSequential(chunk -> batchGet(BatchGetDocumentsRequest.builder()
+                .filter(FilterBuilder.singleExpression(expression -> expression.in(primaryKey, chunk.toArray(new String[0]))))
+                .limit(chunk.size())
+                .fields(projection)
+                .build())
+                .flatMapIterable(page -> {
+                    List<T> results = Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+                    if (Objects.isNull(idOf)) {
+                        return results;
+                    }
+                    Map<String, T> found = new HashMap<>();
+                    for (T document : results) {
+                        found.put(DocumentIds.of(idOf.apply(document)), document);
+                    }
+                    List<T> ordered = new ArrayList<>(found.size());
+                    for (String id : chunk) {
+                        T document = found.get(id);
+                        if (Objects.nonNull(document)) {
+                            ordered.add(document);
+                        }
+                    }
+                    return ordered;
+                }), concurrency);
+    }
+
     /**
      * Delete a set of documents based on an array of document ids.
      *
@@ -180,6 +250,20 @@ public interface ReactiveTypedDocuments<T> {
     @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/delete-batch")
     Mono<TaskInfo> batchDelete(Collection<String> ids);
 
+    /**
+     * Delete a set of documents of any size, split into chunks of {@code chunkSize} ids.
+     *
+     * @param ids         document ids
+     * @param chunkSize   maximum ids per request, {@link IdChunks#DELETE_IDS} is a sensible default
+     * @param concurrency maximum requests in flight
+     * @return delete task of each chunk, in input order
+     */
+    @Operation(method = "POST", tags = "/indexes/{indexUid}/documents/delete-batch")
+    default Flux<TaskInfo> batchDelete(Collection<String> ids, int chunkSize, int concurrency) {
+        return Flux.fromIterable(IdChunks.split(ids, chunkSize, IdChunks.DELETE_CHARS))
+            .flatMapSequential(this::batchDelete, concurrency);
+    }
+
     /**
      * Delete a set of documents based on a filter.
      *
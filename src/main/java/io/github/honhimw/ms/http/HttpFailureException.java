@@ -89,6 +89,15 @@ public class HttpFailureException extends IllegalStateException {
         return String.format("failure with status code: [%d] [%s] %s, %s", statusCode, method, uri, getMessage());
     }
 
+    /**
+     * Whether the server refused the request body itself: 400, 413, 415 or 422. Sending the same body again can not
+     * succeed, unlike authentication (401, 403), missing resource (404) or throttling (408, 429) failures.
+     * @return true if the request body was refused
+     */
+    public boolean isPayloadRejected() {
+        return statusCode == 400 || statusCode == 413 || statusCode == 415 || statusCode == 422;
+    }
+
     @Override
     public String getLocalizedMessage() {
         return formatted();
@@ -22,10 +22,12 @@ import io.github.honhimw.ms.support.ReactorUtils;
 import jakarta.annotation.Nullable;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author hon_him
@@ -75,6 +77,26 @@ class DocumentsImpl implements Documents {
         return ReactorUtils.blockNonNull(_documents.list(page, type));
     }
 
+    @Override
+    public Stream<Map<String, Object>> stream(GetDocumentRequest request) {
+        return _documents.all(request).toStream();
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator(GetDocumentRequest request) {
+        return _documents.all(request).toIterable().iterator();
+    }
+
+    @Override
+    public <T> Stream<T> stream(GetDocumentRequest request, TypeRef<T> typeRef) {
+        return _documents.all(request, typeRef).toStream();
+    }
+
+    @Override
+    public <T> Iterator<T> iterator(GetDocumentRequest request, TypeRef<T> typeRef) {
+        return _documents.all(request, typeRef).toIterable().iterator();
+    }
+
     @Override
     public TaskInfo save(@Nullable String json) {
         return ReactorUtils.blockNonNull(_documents.save(json));
@@ -21,11 +21,13 @@ import io.github.honhimw.ms.model.*;
 import io.github.honhimw.ms.support.ReactorUtils;
 import jakarta.annotation.Nullable;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * @author hon_him
@@ -55,6 +57,16 @@ class IndexesImpl implements Indexes {
         return ReactorUtils.blockNonNull(_indexes.list(page));
     }
 
+    @Override
+    public Stream<Index> stream(int pageSize) {
+        return _indexes.all(pageSize).toStream();
+    }
+
+    @Override
+    public Iterator<Index> iterator(int pageSize) {
+        return _indexes.all(pageSize).toIterable().iterator();
+    }
+
     @Override
     public Optional<Index> get(String uid) {
         return _indexes.get(uid).blockOptional();
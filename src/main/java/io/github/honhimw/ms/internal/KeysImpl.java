@@ -23,8 +23,10 @@ import io.github.honhimw.ms.model.UpdateKeyRequest;
 import io.github.honhimw.ms.support.ReactorUtils;
 import jakarta.annotation.Nullable;
 
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author hon_him
@@ -44,6 +46,16 @@ class KeysImpl implements Keys {
         return ReactorUtils.blockNonNull(_reactive.list(offset, limit));
     }
 
+    @Override
+    public Stream<Key> stream(int pageSize) {
+        return _reactive.all(pageSize).toStream();
+    }
+
+    @Override
+    public Iterator<Key> iterator(int pageSize) {
+        return _reactive.all(pageSize).toIterable().iterator();
+    }
+
     @Override
     public Optional<Key> get(String keyOrUid) {
         return _reactive.get(keyOrUid).blockOptional();
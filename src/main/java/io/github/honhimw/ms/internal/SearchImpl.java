@@ -33,6 +33,7 @@ import io.github.honhimw.ms.api.reactive.ReactiveSearch;
 import io.github.honhimw.ms.json.TypeRef;
 import io.github.honhimw.ms.model.FacetSearchRequest;
 import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchIds;
 import io.github.honhimw.ms.model.SearchRequest;
 import io.github.honhimw.ms.model.SearchResponse;
 import io.github.honhimw.ms.support.ReactorUtils;
@@ -107,4 +108,9 @@ class SearchImpl implements Search {
     public FacetSearchResponse facetSearch(Consumer<FacetSearchRequest.Builder> builder) {
         return ReactorUtils.blockNonNull(_search.facetSearch(builder));
     }
+
+    @Override
+    public SearchIds ids(SearchRequest request, String primaryKey) {
+        return ReactorUtils.blockNonNull(_search.ids(request, primaryKey));
+    }
 }
@@ -21,8 +21,12 @@ import io.github.honhimw.ms.model.GetTasksRequest;
 import io.github.honhimw.ms.model.Page;
 import io.github.honhimw.ms.model.TaskInfo;
 import io.github.honhimw.ms.support.ReactorUtils;
+import jakarta.annotation.Nullable;
 
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 /**
  * @author hon_him
@@ -42,6 +46,16 @@ class TasksImpl implements Tasks {
         return ReactorUtils.blockNonNull(_reactive.list(request));
     }
 
+    @Override
+    public Stream<TaskInfo> stream(GetTasksRequest request) {
+        return _reactive.all(request).toStream();
+    }
+
+    @Override
+    public Iterator<TaskInfo> iterator(GetTasksRequest request) {
+        return _reactive.all(request).toIterable().iterator();
+    }
+
     @Override
     public TaskInfo delete(GetTasksRequest request) {
         return ReactorUtils.blockNonNull(_reactive.delete(request));
@@ -59,7 +73,15 @@ class TasksImpl implements Tasks {
 
     @Override
     public void waitForTask(int uid) {
-        _reactive.waitForTask(uid).block();
+        _reactive.waitForTask(uid)
+            .onErrorMap(TimeoutException.class, e -> new IllegalStateException(e.getMessage(), e))
+            .block();
+    }
+
+    @Override
+    public TaskInfo waitForTask(int uid, @Nullable Duration timeout) {
+        return ReactorUtils.blockNonNull(_reactive.waitForTask(uid, timeout)
+            .onErrorMap(TimeoutException.class, e -> new IllegalStateException(e.getMessage(), e)));
     }
 
     @Override
@@ -18,12 +18,18 @@ import io.github.honhimw.ms.http.HttpFailureException;
 import io.github.honhimw.ms.http.ReactiveHttpUtils;
 import io.github.honhimw.ms.json.JsonHandler;
 import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.support.TypeRefs;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * @author hon_him
@@ -95,25 +101,48 @@ abstract class AbstractReactiveImpl {
     }
 
     protected <T> Mono<T> request(String method, String path, Consumer<ReactiveHttpUtils.Configurer> configurer, TypeRef<T> typeRef) {
+        return request(method, path, configurer, s -> jsonHandler.fromJson(s, typeRef));
+    }
+
+    protected <T> Mono<T> request(String method, String path, Consumer<ReactiveHttpUtils.Configurer> configurer, Function<String, T> decoder) {
+        return extract(receiver(method, path, configurer), decoder);
+    }
+
+    /**
+     * Same as {@link #request(String, String, Consumer, Function)} but the decoder reads the response bytes,
+     * for decoders that stream the body instead of materializing it as a string.
+     */
+    protected <T> Mono<T> requestBytes(String method, String path, Consumer<ReactiveHttpUtils.Configurer> configurer, BiFunction<byte[], Charset, T> decoder) {
+        return extractBytes(receiver(method, path, configurer), decoder);
+    }
+
+    private ReactiveHttpUtils.ReactiveHttpResult receiver(String method, String path, Consumer<ReactiveHttpUtils.Configurer> configurer) {
         if (Objects.nonNull(_client.apiKey)) {
             Consumer<ReactiveHttpUtils.Configurer> _apiKey_configurer = configurer1 -> configurer1
                 .header("Authorization", String.format("Bearer %s", _client.apiKey));
             configurer = _apiKey_configurer.andThen(configurer);
         }
-        ReactiveHttpUtils.ReactiveHttpResult receiver = getHttpClient().receiver(method, fulfillUri(path), configurer);
-        return extract(receiver, typeRef);
+        return getHttpClient().receiver(method, fulfillUri(path), configurer);
     }
 
     protected <T> Mono<T> extract(ReactiveHttpUtils.ReactiveHttpResult receiver, TypeRef<T> typeRef) {
+        return extract(receiver, s -> jsonHandler.fromJson(s, typeRef));
+    }
+
+    protected <T> Mono<T> extract(ReactiveHttpUtils.ReactiveHttpResult receiver, Function<String, T> decoder) {
+        return extractBytes(receiver, (bytes, charset) -> decoder.apply(new String(bytes, charset)));
+    }
+
+    protected <T> Mono<T> extractBytes(ReactiveHttpUtils.ReactiveHttpResult receiver, BiFunction<byte[], Charset, T> decoder) {
         return receiver.responseSingle((httpClientResponse, byteBufMono) -> {
                 HttpResponseStatus status = httpClientResponse.status();
                 int code = status.code();
                 Charset charset = ReactiveHttpUtils.getCharset(httpClientResponse);
-                Mono<String> stringMono = byteBufMono.asByteArray()
-                    .flatMap(bytes -> _client.responseFilter.accept(httpClientResponse, bytes))
-                    .map(bytes -> new String(bytes, charset));
+                Mono<byte[]> bytesMono = byteBufMono.asByteArray()
+                    .flatMap(bytes -> _client.responseFilter.accept(httpClientResponse, bytes));
                 if (code < 200 || 300 <= code) {
-                    return stringMono
+                    return bytesMono
+                        .map(bytes -> new String(bytes, charset))
                         .switchIfEmpty(Mono.just(status.reasonPhrase()))
                         .handle((s, sink) -> {
                             HttpFailureException httpFailureException = new HttpFailureException(code, s);
@@ -122,8 +151,8 @@ abstract class AbstractReactiveImpl {
                             sink.error(httpFailureException);
                         });
                 } else {
-                    return stringMono
-                        .mapNotNull(s -> jsonHandler.fromJson(s, typeRef));
+                    return bytesMono
+                        .mapNotNull(bytes -> decoder.apply(bytes, charset));
                 }
             })
             .onErrorResume(throwable -> {
@@ -144,4 +173,24 @@ abstract class AbstractReactiveImpl {
         configurer.body(payload -> payload.raw(raw -> raw.json(json)));
     }
 
+    /**
+     * @param typeRef document type
+     * @return attributes read by the document type, empty if typed projection is disabled or unknown
+     */
+    protected List<String> projection(TypeRef<?> typeRef) {
+        return _client.typedProjection ? jsonHandler.attributes(typeRef) : Collections.emptyList();
+    }
+
+    /**
+     * @param request    request body
+     * @param attribute  projection attribute of the request
+     * @param projection attributes to retrieve
+     * @return request body with the projection attribute set
+     */
+    protected Map<String, Object> project(Object request, String attribute, List<String> projection) {
+        Map<String, Object> body = jsonHandler.transform(request, TypeRefs.StringObjectMapRef.INSTANCE);
+        body.put(attribute, projection);
+        return body;
+    }
+
 }
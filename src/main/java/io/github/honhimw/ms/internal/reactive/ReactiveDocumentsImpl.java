@@ -22,6 +22,7 @@ import io.github.honhimw.ms.support.CollectionUtils;
 import io.github.honhimw.ms.support.StringUtils;
 import io.github.honhimw.ms.support.TypeRefs;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
@@ -118,6 +119,12 @@ class ReactiveDocumentsImpl extends AbstractReactiveImpl implements ReactiveDocu
             });
     }
 
+    @Override
+    public <T> Flux<T> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields, TypeRef<T> typeRef) {
+        // fetched as maps to read the primary key for input order
+        return batchGet(primaryKey, ids, fields).map(document -> jsonHandler.transform(document, typeRef));
+    }
+
     @Override
     public Mono<TaskInfo> batchDelete(List<String> ids) {
         return post(String.format("/indexes/%s/documents/delete-batch", indexUid), configurer -> json(configurer, ids), TypeRefs.TaskInfoRef.INSTANCE);
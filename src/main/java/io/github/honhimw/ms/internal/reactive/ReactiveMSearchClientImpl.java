@@ -65,6 +65,8 @@ import io.github.honhimw.ms.model.MultiSearchRequest;
 import io.github.honhimw.ms.model.SearchResponse;
 import io.github.honhimw.ms.model.TaskInfo;
 import io.github.honhimw.ms.model.Version;
+import io.github.honhimw.ms.support.TaskWaiter;
+import io.github.honhimw.ms.support.TaskWatcher;
 import io.github.honhimw.ms.support.TypeRefs;
 import reactor.core.publisher.Mono;
 
@@ -104,8 +106,17 @@ public class ReactiveMSearchClientImpl implements ReactiveMSearchClient {
      */
     protected final ResponseFilter responseFilter;
 
+    /**
+     * Whether typed operators derive their projection from the document type.
+     */
+    protected final boolean typedProjection;
+
     private SimpleReactiveImpl simpleReactive;
 
+    private volatile TaskWatcher taskWatcher;
+
+    private volatile TaskWaiter taskWaiter;
+
     /**
      * Construct a new {@link ReactiveMSearchClientImpl} with the given {@link MSearchConfig}.
      * @param config the {@link MSearchConfig}
@@ -116,6 +127,7 @@ public class ReactiveMSearchClientImpl implements ReactiveMSearchClient {
         this.jsonHandler = config.getJsonHandler();
         this.httpClient = config.getHttpClient();
         this.responseFilter = config.getResponseFilter();
+        this.typedProjection = config.isTypedProjection();
     }
 
     @Override
@@ -180,8 +192,40 @@ public class ReactiveMSearchClientImpl implements ReactiveMSearchClient {
         return simpleReactive;
     }
 
+    /**
+     * @return the task watcher shared by every {@link ReactiveTasks#watch(io.github.honhimw.ms.model.GetTasksRequest)} of this client
+     */
+    TaskWatcher getTaskWatcher() {
+        if (Objects.isNull(taskWatcher)) {
+            synchronized (this) {
+                if (Objects.isNull(taskWatcher)) {
+                    taskWatcher = TaskWatcher.builder().tasks(new ReactiveTasksImpl(this)).build();
+                }
+            }
+        }
+        return taskWatcher;
+    }
+
+    /**
+     * @return the task waiter shared by every {@link ReactiveTasks#waitForTask(int, java.time.Duration)} of this client,
+     * so that processing time predictions learn from all of them
+     */
+    TaskWaiter getTaskWaiter() {
+        if (Objects.isNull(taskWaiter)) {
+            synchronized (this) {
+                if (Objects.isNull(taskWaiter)) {
+                    taskWaiter = TaskWaiter.builder().tasks(new ReactiveTasksImpl(this)).build();
+                }
+            }
+        }
+        return taskWaiter;
+    }
+
     @Override
     public void close() {
+        if (Objects.nonNull(taskWatcher)) {
+            taskWatcher.close();
+        }
         this.httpClient.close();
     }
 }
@@ -16,14 +16,14 @@ package io.github.honhimw.ms.internal.reactive;
 
 import io.github.honhimw.ms.api.reactive.ReactiveSearch;
 import io.github.honhimw.ms.json.ComplexTypeRef;
+import io.github.honhimw.ms.json.SearchIdsReader;
 import io.github.honhimw.ms.json.TypeRef;
-import io.github.honhimw.ms.model.FacetSearchRequest;
-import io.github.honhimw.ms.model.FacetSearchResponse;
-import io.github.honhimw.ms.model.SearchRequest;
-import io.github.honhimw.ms.model.SearchResponse;
+import io.github.honhimw.ms.model.*;
 import io.github.honhimw.ms.support.TypeRefs;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -85,4 +85,14 @@ class ReactiveSearchImpl extends AbstractReactiveImpl implements ReactiveSearch
                 .body(payload -> payload.raw(raw -> raw.json(jsonHandler.toJson(request))))
             , TypeRefs.of(FacetSearchResponse.class));
     }
+
+    @Override
+    public Mono<SearchIds> ids(SearchRequest request, String primaryKey) {
+        Map<String, Object> body = project(request, "attributesToRetrieve", Collections.singletonList(primaryKey));
+        body.put("showRankingScore", true);
+        return requestBytes("POST", String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, body),
+            (bytes, charset) -> StandardCharsets.UTF_8.equals(charset)
+                ? SearchIdsReader.read(bytes, primaryKey)
+                : SearchIdsReader.read(new String(bytes, charset), primaryKey));
+    }
 }
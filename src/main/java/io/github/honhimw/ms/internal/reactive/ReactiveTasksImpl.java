@@ -20,8 +20,11 @@ import io.github.honhimw.ms.model.GetTasksRequest;
 import io.github.honhimw.ms.model.Page;
 import io.github.honhimw.ms.model.TaskInfo;
 import io.github.honhimw.ms.support.TypeRefs;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -63,4 +66,14 @@ class ReactiveTasksImpl extends AbstractReactiveImpl implements ReactiveTasks {
             configurer.params(parameters);
         }, TypeRefs.TaskInfoRef.INSTANCE);
     }
+
+    @Override
+    public Flux<TaskInfo> watch(GetTasksRequest request) {
+        return _client.getTaskWatcher().watch(request);
+    }
+
+    @Override
+    public Mono<TaskInfo> waitForTask(int uid, @Nullable Duration timeout) {
+        return _client.getTaskWaiter().await(uid, timeout);
+    }
 }
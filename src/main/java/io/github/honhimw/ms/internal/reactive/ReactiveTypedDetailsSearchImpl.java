@@ -36,24 +36,30 @@ class ReactiveTypedDetailsSearchImpl<T> extends AbstractReactiveImpl implements
 
     private final String indexUid;
     private final TypeRef<T> typeRef;
+    private final List<String> projection;
 
     public ReactiveTypedDetailsSearchImpl(ReactiveIndexesImpl indexes, String indexUid, TypeRef<T> typeRef) {
         super(indexes._client);
         this.indexUid = indexUid;
         this.typeRef = typeRef;
+        this.projection = projection(typeRef);
     }
 
     @Override
     public Mono<SearchDetailsResponse<T>> find(String q) {
-        Map<String, String> obj = new HashMap<>();
+        Map<String, Object> obj = new HashMap<>();
         obj.put("q", q);
+        if (CollectionUtils.isNotEmpty(projection)) {
+            obj.put("attributesToRetrieve", projection);
+        }
         return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(obj)), TypeRefs.StringObjectMapSearchResponseRef.INSTANCE)
             .map(this::transform);
     }
 
     @Override
     public Mono<SearchDetailsResponse<T>> find(SearchRequest request) {
-        return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(request)), TypeRefs.StringObjectMapSearchResponseRef.INSTANCE)
+        Object body = CollectionUtils.isEmpty(request.getAttributesToRetrieve()) && CollectionUtils.isNotEmpty(projection) ? project(request, "attributesToRetrieve", projection) : request;
+        return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(body)), TypeRefs.StringObjectMapSearchResponseRef.INSTANCE)
             .map(this::transform);
     }
 
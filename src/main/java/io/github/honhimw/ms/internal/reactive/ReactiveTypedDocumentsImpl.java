@@ -22,6 +22,7 @@ import io.github.honhimw.ms.support.CollectionUtils;
 import io.github.honhimw.ms.support.StringUtils;
 import io.github.honhimw.ms.support.TypeRefs;
 import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Collection;
@@ -39,6 +40,7 @@ class ReactiveTypedDocumentsImpl<T> extends AbstractReactiveImpl implements Reac
     private final String indexUid;
     private final TypeRef<T> typeRef;
     private final ComplexTypeRef<Page<T>> complexTypeRef;
+    private final List<String> projection;
 
     protected ReactiveTypedDocumentsImpl(ReactiveIndexesImpl indexes, String indexUid, TypeRef<T> typeRef) {
         super(indexes._client);
@@ -47,12 +49,13 @@ class ReactiveTypedDocumentsImpl<T> extends AbstractReactiveImpl implements Reac
         this.typeRef = typeRef;
         this.complexTypeRef = new ComplexTypeRef<Page<T>>(typeRef) {
         };
+        this.projection = projection(typeRef);
     }
 
     @Override
     public Mono<Page<T>> list(GetDocumentRequest page) {
         return get(String.format("/indexes/%s/documents", indexUid), configurer -> {
-            List<String> fields = page.getFields();
+            List<String> fields = CollectionUtils.isNotEmpty(page.getFields()) ? page.getFields() : projection;
             if (CollectionUtils.isNotEmpty(fields)) {
                 configurer.param("fields", String.join(",", fields));
             }
@@ -93,10 +96,18 @@ class ReactiveTypedDocumentsImpl<T> extends AbstractReactiveImpl implements Reac
 
     @Override
     public Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch) {
-        return post(String.format("/indexes/%s/documents/fetch", indexUid), configurer -> json(configurer, fetch),
+        Object body = CollectionUtils.isEmpty(fetch.getFields()) && CollectionUtils.isNotEmpty(projection) ? project(fetch, "fields", projection) : fetch;
+        return post(String.format("/indexes/%s/documents/fetch", indexUid), configurer -> json(configurer, body),
             complexTypeRef);
     }
 
+    @Override
+    public Flux<T> batchGet(String primaryKey, Collection<String> ids, @Nullable List<String> fields) {
+        // fetched as maps to read the primary key for input order
+        return indexes.documents(indexUid).batchGet(primaryKey, ids, CollectionUtils.isNotEmpty(fields) ? fields : projection)
+            .map(document -> jsonHandler.transform(document, typeRef));
+    }
+
     @Override
     public Mono<TaskInfo> batchDelete(Collection<String> ids) {
         return post(String.format("/indexes/%s/documents/delete-batch", indexUid), configurer -> json(configurer, ids), TypeRefs.TaskInfoRef.INSTANCE);
@@ -110,7 +121,9 @@ class ReactiveTypedDocumentsImpl<T> extends AbstractReactiveImpl implements Reac
     @Override
     public Mono<T> get(String id, @Nullable String... fields) {
         String _fields;
-        if (Objects.isNull(fields) || fields.length == 0) {
+        if ((Objects.isNull(fields) || fields.length == 0) && CollectionUtils.isNotEmpty(projection)) {
+            _fields = String.join(",", projection);
+        } else if (Objects.isNull(fields) || fields.length == 0) {
             _fields = "*";
         } else {
             _fields = String.join(",", fields);
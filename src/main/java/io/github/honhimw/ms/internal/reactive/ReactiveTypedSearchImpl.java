@@ -21,10 +21,12 @@ import io.github.honhimw.ms.model.FacetSearchRequest;
 import io.github.honhimw.ms.model.FacetSearchResponse;
 import io.github.honhimw.ms.model.SearchRequest;
 import io.github.honhimw.ms.model.SearchResponse;
+import io.github.honhimw.ms.support.CollectionUtils;
 import io.github.honhimw.ms.support.TypeRefs;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,6 +39,7 @@ class ReactiveTypedSearchImpl<T> extends AbstractReactiveImpl implements Reactiv
     private final String indexUid;
     private final TypeRef<T> typeRef;
     private final ComplexTypeRef<SearchResponse<T>> complexTypeRef;
+    private final List<String> projection;
 
     public ReactiveTypedSearchImpl(ReactiveIndexesImpl indexes, String indexUid, TypeRef<T> typeRef) {
         super(indexes._client);
@@ -44,18 +47,23 @@ class ReactiveTypedSearchImpl<T> extends AbstractReactiveImpl implements Reactiv
         this.typeRef = typeRef;
         this.complexTypeRef = new ComplexTypeRef<SearchResponse<T>>(typeRef) {
         };
+        this.projection = projection(typeRef);
     }
 
     @Override
     public Mono<SearchResponse<T>> find(String q) {
-        Map<String, String> obj = new HashMap<>();
+        Map<String, Object> obj = new HashMap<>();
         obj.put("q", q);
+        if (CollectionUtils.isNotEmpty(projection)) {
+            obj.put("attributesToRetrieve", projection);
+        }
         return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(obj)), complexTypeRef);
     }
 
     @Override
     public Mono<SearchResponse<T>> find(SearchRequest request) {
-        return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(request)), complexTypeRef);
+        Object body = CollectionUtils.isEmpty(request.getAttributesToRetrieve()) && CollectionUtils.isNotEmpty(projection) ? project(request, "attributesToRetrieve", projection) : request;
+        return post(String.format("/indexes/%s/search", indexUid), configurer -> json(configurer, jsonHandler.toJson(body)), complexTypeRef);
     }
 
     @Override
@@ -15,19 +15,24 @@
 package io.github.honhimw.ms.json;
 
 import com.google.gson.*;
+import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import io.github.honhimw.ms.model.PrimitiveVector;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.github.honhimw.ms.support.DateTimeUtils.RFC_3339;
 import static io.github.honhimw.ms.support.DateTimeUtils.RFC_3339_FORMATTER;
@@ -41,6 +46,8 @@ public class GsonJsonHandler implements JsonHandler {
 
     private final Gson gson;
 
+    private final Map<Type, List<String>> attributesCache = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance of the GsonJsonHandler.
      */
@@ -121,6 +128,45 @@ public class GsonJsonHandler implements JsonHandler {
                     return LocalDateTime.parse(in.nextString(), RFC_3339_FORMATTER).toInstant(ZoneOffset.UTC);
                 }
             })
+            .registerTypeAdapter(PrimitiveVector.class, new TypeAdapter<PrimitiveVector>() {
+                @Override
+                public void write(JsonWriter out, PrimitiveVector value) throws IOException {
+                    if (value == null) {
+                        out.nullValue();
+                        return;
+                    }
+                    out.beginArray();
+                    if (value.isFloat()) {
+                        for (float f : value.floats()) {
+                            out.value(f);
+                        }
+                    } else {
+                        for (double d : value.doubles()) {
+                            out.value(d);
+                        }
+                    }
+                    out.endArray();
+                }
+
+                @Override
+                public PrimitiveVector read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    float[] floats = new float[16];
+                    int size = 0;
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (size == floats.length) {
+                            floats = Arrays.copyOf(floats, size << 1);
+                        }
+                        floats[size++] = (float) in.nextDouble();
+                    }
+                    in.endArray();
+                    return PrimitiveVector.of(size == floats.length ? floats : Arrays.copyOf(floats, size));
+                }
+            })
             .setLongSerializationPolicy(LongSerializationPolicy.STRING)
             .setFieldNamingStrategy(FieldNamingPolicy.IDENTITY)
             .registerTypeAdapterFactory(new TypeAdapterFactory() {
@@ -185,4 +231,31 @@ public class GsonJsonHandler implements JsonHandler {
     public <T> T transform(Object o, TypeRef<T> typeRef) {
         return gson.fromJson(gson.toJsonTree(o), typeRef.getType());
     }
+
+    @Override
+    public List<String> attributes(TypeRef<?> typeRef) {
+        return attributesCache.computeIfAbsent(typeRef.getType(), type -> {
+            Class<?> rawClass = TypeToken.get(type).getRawType();
+            if (rawClass.isPrimitive() || rawClass.isArray() || rawClass.isEnum() || rawClass.isInterface()
+                || Modifier.isAbstract(rawClass.getModifiers()) || rawClass.getName().startsWith("java.")) {
+                return Collections.emptyList();
+            }
+            Set<String> names = new LinkedHashSet<>();
+            for (Class<?> current = rawClass; Objects.nonNull(current) && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isSynthetic() || Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                        continue;
+                    }
+                    SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                    if (Objects.nonNull(serializedName)) {
+                        names.add(serializedName.value());
+                        names.addAll(Arrays.asList(serializedName.alternate()));
+                    } else {
+                        names.add(gson.fieldNamingStrategy().translateName(field));
+                    }
+                }
+            }
+            return Collections.unmodifiableList(new ArrayList<>(names));
+        });
+    }
 }
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.module.SimpleDeserializers;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -28,19 +29,20 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import io.github.honhimw.ms.model.PrimitiveVector;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.io.IOException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.github.honhimw.ms.support.DateTimeUtils.RFC_3339;
 import static io.github.honhimw.ms.support.DateTimeUtils.RFC_3339_FORMATTER;
@@ -55,6 +57,9 @@ public class JacksonJsonHandler implements JsonHandler {
 
     private final JsonMapper jsonMapper;
 
+    @Getter(AccessLevel.NONE)
+    private final Map<Type, List<String>> attributesCache = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance of the JacksonJsonHandler.
      */
@@ -118,6 +123,22 @@ public class JacksonJsonHandler implements JsonHandler {
                 gen.writeString(value.value());
             }
         });
+        simpleModule.addSerializer(PrimitiveVector.class, new JsonSerializer<PrimitiveVector>() {
+            @Override
+            public void serialize(PrimitiveVector value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                if (value.isFloat()) {
+                    float[] floats = value.floats();
+                    gen.writeStartArray(value, floats.length);
+                    for (float f : floats) {
+                        gen.writeNumber(f);
+                    }
+                    gen.writeEndArray();
+                } else {
+                    double[] doubles = value.doubles();
+                    gen.writeArray(doubles, 0, doubles.length);
+                }
+            }
+        });
         simpleModule
             .setDeserializers(new SimpleDeserializers() {
                 @Override
@@ -139,6 +160,13 @@ public class JacksonJsonHandler implements JsonHandler {
                     return super.findEnumDeserializer(type, config, beanDesc);
                 }
             });
+        // after setDeserializers, which replaces the registered ones
+        simpleModule.addDeserializer(PrimitiveVector.class, new JsonDeserializer<PrimitiveVector>() {
+            @Override
+            public PrimitiveVector deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+                return PrimitiveVector.of(p.readValueAs(float[].class));
+            }
+        });
 
         builder
             .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
@@ -195,6 +223,32 @@ public class JacksonJsonHandler implements JsonHandler {
         }
     }
 
+    @Override
+    public List<String> attributes(TypeRef<?> typeRef) {
+        return attributesCache.computeIfAbsent(typeRef.getType(), type -> {
+            JavaType javaType = jsonMapper.constructType(type);
+            Class<?> rawClass = javaType.getRawClass();
+            if (javaType.isContainerType() || javaType.isPrimitive() || javaType.isEnumType() || rawClass.isInterface()
+                || Modifier.isAbstract(rawClass.getModifiers()) || rawClass.getName().startsWith("java.")) {
+                return Collections.emptyList();
+            }
+            BeanDescription description = jsonMapper.getDeserializationConfig().introspect(javaType);
+            if (Objects.nonNull(description.findAnySetterAccessor())) {
+                return Collections.emptyList();
+            }
+            Set<String> names = new LinkedHashSet<>();
+            for (BeanPropertyDefinition property : description.findProperties()) {
+                if (property.couldDeserialize()) {
+                    names.add(property.getName());
+                    for (PropertyName alias : property.findAliases()) {
+                        names.add(alias.getSimpleName());
+                    }
+                }
+            }
+            return Collections.unmodifiableList(new ArrayList<>(names));
+        });
+    }
+
     /**
      * Get current json mapper
      * @return current json mapper
@@ -28,6 +28,9 @@
 
 package io.github.honhimw.ms.json;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * JSON handler interface.
  *
@@ -92,4 +95,15 @@ public interface JsonHandler {
         return fromJson(json, typeRef);
     }
 
+    /**
+     * Top-level attribute names a document type reads, used as {@code attributesToRetrieve} or {@code fields}
+     * projection of typed operators.
+     *
+     * @param typeRef the type reference of a document
+     * @return attribute names, or an empty list if the type may read any attribute, e.g. a {@link java.util.Map}
+     */
+    default List<String> attributes(TypeRef<?> typeRef) {
+        return Collections.emptyList();
+    }
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.honhimw.ms.model.SearchIds;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Single-pass reader of a search response into {@link SearchIds}, on Jackson's streaming parser.
+ * <p>
+ * Only the primary key and {@code _rankingScore} of each hit and the hit counters are read,
+ * everything else is skipped without being decoded, so no per-hit object is created besides string ids.
+ * Independent of the configured {@link JsonHandler}.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public final class SearchIdsReader {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+
+    private final String primaryKey;
+
+    private String[] strings;
+
+    private long[] longs = new long[16];
+
+    private double[] scores = new double[16];
+
+    private int size;
+
+    private SearchIdsReader(JsonParser parser, String primaryKey) {
+        this.parser = parser;
+        this.primaryKey = primaryKey;
+    }
+
+    /**
+     * Read a search response.
+     *
+     * @param json       search response body, UTF-8/16/32 encoded
+     * @param primaryKey primary key of the index
+     * @return ids and scores in hit order
+     * @throws IllegalArgumentException if the body is not a json object
+     */
+    public static SearchIds read(byte[] json, String primaryKey) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return new SearchIdsReader(parser, primaryKey).read();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("json decode exception: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read a search response.
+     *
+     * @param json       search response body
+     * @param primaryKey primary key of the index
+     * @return ids and scores in hit order
+     * @throws IllegalArgumentException if the body is not a json object
+     */
+    public static SearchIds read(String json, String primaryKey) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return new SearchIdsReader(parser, primaryKey).read();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("json decode exception: " + e.getMessage(), e);
+        }
+    }
+
+    private SearchIds read() throws IOException {
+        Integer estimatedTotalHits = null;
+        Integer totalHits = null;
+        Integer processingTimeMs = null;
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "hits":
+                    hits(value);
+                    break;
+                case "estimatedTotalHits":
+                    estimatedTotalHits = intOrNull(value);
+                    break;
+                case "totalHits":
+                    totalHits = intOrNull(value);
+                    break;
+                case "processingTimeMs":
+                    processingTimeMs = intOrNull(value);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        expect(parser.currentToken(), JsonToken.END_OBJECT);
+        return new SearchIds(
+            strings == null ? null : Arrays.copyOf(strings, size),
+            longs == null ? null : Arrays.copyOf(longs, size),
+            Arrays.copyOf(scores, size),
+            estimatedTotalHits, totalHits, processingTimeMs);
+    }
+
+    private void hits(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expect(token, JsonToken.START_ARRAY);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            grow();
+            scores[size] = Double.NaN;
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (name.equals(primaryKey)) {
+                    id(value);
+                    found = true;
+                } else if (name.equals("_rankingScore")) {
+                    scores[size] = value == JsonToken.VALUE_NULL ? Double.NaN : parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                toStrings();
+                strings[size] = null;
+            }
+            size++;
+        }
+        expect(parser.currentToken(), JsonToken.END_ARRAY);
+    }
+
+    private void id(JsonToken token) throws IOException {
+        if (longs != null && token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            longs[size] = parser.getLongValue();
+            return;
+        }
+        if (token != JsonToken.VALUE_STRING && !token.isNumeric()) {
+            throw error("a string or number id");
+        }
+        toStrings();
+        strings[size] = parser.getText();
+    }
+
+    private void grow() {
+        if (size == scores.length) {
+            int capacity = size << 1;
+            scores = Arrays.copyOf(scores, capacity);
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, capacity);
+            }
+            if (strings != null) {
+                strings = Arrays.copyOf(strings, capacity);
+            }
+        }
+    }
+
+    private void toStrings() {
+        if (strings == null) {
+            strings = new String[scores.length];
+            for (int i = 0; i < size; i++) {
+                strings[i] = String.valueOf(longs[i]);
+            }
+            longs = null;
+        }
+    }
+
+    private Integer intOrNull(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isNumeric()) {
+            throw error("a number");
+        }
+        return (int) parser.getDoubleValue();
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw error(expected.asString() == null ? expected.name() : expected.asString());
+        }
+    }
+
+    private IllegalArgumentException error(String expected) {
+        return new IllegalArgumentException(String.format("json decode exception: expected %s at %s", expected, parser.currentLocation()));
+    }
+
+}
@@ -58,4 +58,31 @@ public class Page<T> implements Serializable {
     @Schema(description = "results")
     private List<T> results;
 
+    /**
+     * Uid of the first result of the page, for cursor-paginated routes such as {@code /tasks}
+     */
+    @Schema(description = "Uid of the first result of the page, for cursor-paginated routes such as /tasks")
+    private Integer from;
+
+    /**
+     * Value of {@code from} for the next page, null on the last page
+     */
+    @Schema(description = "Value of from for the next page, null on the last page")
+    private Integer next;
+
+    /**
+     * Constructs a {@code Page} of an offset-paginated route.
+     *
+     * @param limit   limit
+     * @param offset  offset
+     * @param total   total
+     * @param results results
+     */
+    public Page(Integer limit, Integer offset, Integer total, List<T> results) {
+        this.limit = limit;
+        this.offset = offset;
+        this.total = total;
+        this.results = results;
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Embedding backed by a primitive {@code float[]} or {@code double[]}.
+ * <p>
+ * It is a read-only {@code List<Number>}, so it fits {@link VectorizedDocument#get_vectors()} and
+ * {@link SearchRequest#getVector()} as is, while the default {@link io.github.honhimw.ms.json.JacksonJsonHandler}
+ * and {@link io.github.honhimw.ms.json.GsonJsonHandler} write the primitive array directly instead of boxing every element.
+ *
+ * <pre>
+ * SearchRequest.builder().vector(PrimitiveVector.of(embedding)).build();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public final class PrimitiveVector extends AbstractList<Number> implements RandomAccess, Serializable {
+
+    private final float[] floats;
+
+    private final double[] doubles;
+
+    private PrimitiveVector(float[] floats, double[] doubles) {
+        this.floats = floats;
+        this.doubles = doubles;
+    }
+
+    /**
+     * Wrap a float array without copying.
+     *
+     * @param values embedding
+     * @return vector
+     */
+    public static PrimitiveVector of(float... values) {
+        return new PrimitiveVector(values, null);
+    }
+
+    /**
+     * Wrap a double array without copying.
+     *
+     * @param values embedding
+     * @return vector
+     */
+    public static PrimitiveVector of(double... values) {
+        return new PrimitiveVector(null, values);
+    }
+
+    /**
+     * @return whether the vector is backed by a float array
+     */
+    public boolean isFloat() {
+        return floats != null;
+    }
+
+    /**
+     * Backing float array, no copy.
+     *
+     * @return float array, or null if backed by a double array
+     */
+    public float[] floats() {
+        return floats;
+    }
+
+    /**
+     * Backing double array, no copy.
+     *
+     * @return double array, or null if backed by a float array
+     */
+    public double[] doubles() {
+        return doubles;
+    }
+
+    /**
+     * @param index element index
+     * @return element as primitive float
+     */
+    public float getFloat(int index) {
+        return floats != null ? floats[index] : (float) doubles[index];
+    }
+
+    /**
+     * @param index element index
+     * @return element as primitive double
+     */
+    public double getDouble(int index) {
+        return floats != null ? floats[index] : doubles[index];
+    }
+
+    @Override
+    public Number get(int index) {
+        return floats != null ? (Number) floats[index] : (Number) doubles[index];
+    }
+
+    @Override
+    public int size() {
+        return floats != null ? floats.length : doubles.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PrimitiveVector) {
+            PrimitiveVector that = (PrimitiveVector) o;
+            return Arrays.equals(floats, that.floats) && Arrays.equals(doubles, that.doubles);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.model;
+
+import jakarta.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Primary keys and ranking scores of search hits, in hit order.
+ * <p>
+ * Ids are held as a {@code long[]} when every id is an integer, otherwise as a {@code String[]}.
+ * Scores are {@link Double#NaN} when the response carries no {@code _rankingScore}.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public final class SearchIds implements Serializable {
+
+    @Nullable
+    private final String[] ids;
+
+    @Nullable
+    private final long[] longIds;
+
+    private final double[] scores;
+
+    @Nullable
+    private final Integer estimatedTotalHits;
+
+    @Nullable
+    private final Integer totalHits;
+
+    @Nullable
+    private final Integer processingTimeMs;
+
+    /**
+     * @param ids                string ids, null if ids are numeric
+     * @param longIds            numeric ids, null if ids are strings
+     * @param scores             ranking scores
+     * @param estimatedTotalHits estimated total number of matches
+     * @param totalHits          exhaustive total number of matches
+     * @param processingTimeMs   processing time of the query
+     */
+    public SearchIds(@Nullable String[] ids, @Nullable long[] longIds, double[] scores,
+                     @Nullable Integer estimatedTotalHits, @Nullable Integer totalHits, @Nullable Integer processingTimeMs) {
+        this.ids = ids;
+        this.longIds = longIds;
+        this.scores = scores;
+        this.estimatedTotalHits = estimatedTotalHits;
+        this.totalHits = totalHits;
+        this.processingTimeMs = processingTimeMs;
+    }
+
+    /**
+     * @return number of hits
+     */
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * @return true if ids are held as {@code long[]}
+     */
+    public boolean isNumeric() {
+        return Objects.nonNull(longIds);
+    }
+
+    /**
+     * @param index hit index
+     * @return id of the hit
+     */
+    public String id(int index) {
+        return Objects.nonNull(longIds) ? String.valueOf(longIds[index]) : ids[index];
+    }
+
+    /**
+     * @param index hit index
+     * @return numeric id of the hit
+     * @throws IllegalStateException if ids are not numeric
+     */
+    public long longId(int index) {
+        if (Objects.isNull(longIds)) {
+            throw new IllegalStateException("ids are not numeric");
+        }
+        return longIds[index];
+    }
+
+    /**
+     * @param index hit index
+     * @return ranking score of the hit
+     */
+    public double score(int index) {
+        return scores[index];
+    }
+
+    /**
+     * @return ids as strings, converted on each call if ids are numeric
+     */
+    public String[] ids() {
+        if (Objects.nonNull(longIds)) {
+            String[] strings = new String[longIds.length];
+            for (int i = 0; i < longIds.length; i++) {
+                strings[i] = String.valueOf(longIds[i]);
+            }
+            return strings;
+        }
+        return ids;
+    }
+
+    /**
+     * @return numeric ids
+     * @throws IllegalStateException if ids are not numeric
+     */
+    public long[] longIds() {
+        if (Objects.isNull(longIds)) {
+            throw new IllegalStateException("ids are not numeric");
+        }
+        return longIds;
+    }
+
+    /**
+     * @return ranking scores
+     */
+    public double[] scores() {
+        return scores;
+    }
+
+    /**
+     * @return estimated total number of matches
+     */
+    @Nullable
+    public Integer getEstimatedTotalHits() {
+        return estimatedTotalHits;
+    }
+
+    /**
+     * @return exhaustive total number of matches
+     */
+    @Nullable
+    public Integer getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * @return processing time of the query
+     */
+    @Nullable
+    public Integer getProcessingTimeMs() {
+        return processingTimeMs;
+    }
+
+}
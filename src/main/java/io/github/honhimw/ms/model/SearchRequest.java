@@ -470,6 +470,18 @@ public class SearchRequest extends FilterableAttributesRequest {
             return this;
         }
 
+        /**
+         * Sets the {@code vector} from a primitive embedding without boxing.
+         *
+         * @param val the {@code vector} to set
+         * @return a reference to this Builder
+         * @see PrimitiveVector
+         */
+        public Builder vector(float[] val) {
+            vector = PrimitiveVector.of(val);
+            return this;
+        }
+
         /**
          * Returns a {@code SearchRequest} built from the parameters previously set.
          *
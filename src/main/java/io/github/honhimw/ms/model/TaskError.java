@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskError implements Serializable {
+
+    /**
+     * Human-readable description of the error
+     */
+    @Schema(description = "Human-readable description of the error")
+    private String message;
+
+    /**
+     * Error code
+     */
+    @Schema(description = "Error code", example = "index_creation_failed")
+    private String code;
+
+    /**
+     * Type of error
+     */
+    @Schema(description = "Type of error", example = "invalid_request")
+    private String type;
+
+    /**
+     * Link to the relevant section of the documentation
+     */
+    @Schema(description = "Link to the relevant section of the documentation")
+    private String link;
+
+}
@@ -22,6 +22,8 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * @author hon_him
@@ -64,4 +66,85 @@ public class TaskInfo implements Serializable {
     @Schema(description = "Represents the date and time in the RFC 3339 format when the task has been enqueued")
     private LocalDateTime enqueuedAt;
 
+    /**
+     * Unique sequential identifier of the task, as returned by the tasks routes
+     */
+    @Schema(description = "Unique sequential identifier of the task, as returned by the tasks routes")
+    private Integer uid;
+
+    /**
+     * Represents the date and time in the RFC 3339 format when the task has been dequeued and started being processed
+     */
+    @Schema(description = "Represents the date and time in the RFC 3339 format when the task has been dequeued and started being processed")
+    private LocalDateTime startedAt;
+
+    /**
+     * Represents the date and time in the RFC 3339 format when the task has failed, succeeded or was canceled
+     */
+    @Schema(description = "Represents the date and time in the RFC 3339 format when the task has failed, succeeded or was canceled")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Total elapsed time the engine was in the processing state, in the ISO 8601 format
+     */
+    @Schema(description = "Total elapsed time the engine was in the processing state, in the ISO 8601 format", example = "PT0.024S")
+    private String duration;
+
+    /**
+     * Detailed information on the task payload, depends on the task type
+     */
+    @Schema(description = "Detailed information on the task payload, depends on the task type")
+    private Map<String, Object> details;
+
+    /**
+     * Error details and context, only present when a task has the failed status
+     */
+    @Schema(description = "Error details and context, only present when a task has the failed status")
+    private TaskError error;
+
+    /**
+     * Uid of the task that canceled this one, only present when a task has the canceled status
+     */
+    @Schema(description = "Uid of the task that canceled this one, only present when a task has the canceled status")
+    private Integer canceledBy;
+
+    /**
+     * Uid of the batch that processed this task
+     */
+    @Schema(description = "Uid of the batch that processed this task")
+    private Integer batchUid;
+
+    /**
+     * Constructs a {@code TaskInfo} of an enqueued task.
+     *
+     * @param taskUid    task uid
+     * @param indexUid   index uid
+     * @param status     status
+     * @param type       type
+     * @param enqueuedAt enqueued at
+     */
+    public TaskInfo(Integer taskUid, String indexUid, TaskStatus status, TaskType type, LocalDateTime enqueuedAt) {
+        this.taskUid = taskUid;
+        this.indexUid = indexUid;
+        this.status = status;
+        this.type = type;
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    /**
+     * Task uid, whether this was returned by a write ({@code taskUid}) or by the tasks routes ({@code uid}).
+     *
+     * @return task uid
+     */
+    public Integer uid() {
+        return Objects.nonNull(uid) ? uid : taskUid;
+    }
+
+    /**
+     * @return true if the task has succeeded, failed or was canceled
+     */
+    public boolean finished() {
+        return status == TaskStatus.SUCCEEDED || status == TaskStatus.FAILED || status == TaskStatus.CANCELED;
+    }
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * <p>
+ * Bits and hash functions are sized for {@code expectedInsertions} at false positive probability {@code fpp},
+ * positions are derived from one 64-bit {@link HashUtils#hash64(CharSequence)} by double hashing.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    BloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value value
+     * @return true if any bit changed, i.e. the value was definitely absent before
+     */
+    boolean put(CharSequence value) {
+        long hash1 = HashUtils.hash64(value);
+        long hash2 = HashUtils.fmix64(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        boolean changed = false;
+        long combined = hash1;
+        for (int i = 0; i < hashFunctions; i++) {
+            combined += hash2;
+            long bit = (combined & Long.MAX_VALUE) % bitSize;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            while (((word = words.get(index)) & mask) == 0) {
+                if (words.compareAndSet(index, word, word | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param value value
+     * @return false if the value was definitely never added
+     */
+    boolean mightContain(CharSequence value) {
+        long hash1 = HashUtils.hash64(value);
+        long hash2 = HashUtils.fmix64(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        long combined = hash1;
+        for (int i = 0; i < hashFunctions; i++) {
+            combined += hash2;
+            long bit = (combined & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return bitSize;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+}
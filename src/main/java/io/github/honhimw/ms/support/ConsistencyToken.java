@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.TaskInfo;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A write to wait for before reading: the uid of its task and the index it targets.
+ * <p>
+ * Meilisearch processes the tasks of an index in order, so the write is visible once its task or any later task
+ * of the same index has finished. The text form {@code <indexUid>:<taskUid>} can be handed to a client,
+ * e.g. in a cookie, and {@link #parse(String) parsed} back on its next request.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public final class ConsistencyToken implements Serializable {
+
+    private final String indexUid;
+
+    private final int taskUid;
+
+    private ConsistencyToken(String indexUid, int taskUid) {
+        this.indexUid = indexUid;
+        this.taskUid = taskUid;
+    }
+
+    /**
+     * @param indexUid index uid
+     * @param taskUid  task uid
+     * @return token
+     */
+    public static ConsistencyToken of(String indexUid, int taskUid) {
+        Asserts.status(StringUtils.isNotBlank(indexUid), "indexUid must not be blank");
+        Asserts.status(taskUid >= 0, "taskUid must not be negative");
+        return new ConsistencyToken(indexUid, taskUid);
+    }
+
+    /**
+     * @param taskInfo enqueued write task
+     * @return token of the write
+     */
+    public static ConsistencyToken of(TaskInfo taskInfo) {
+        Asserts.status(Objects.nonNull(taskInfo.getTaskUid()), "taskUid must not be null");
+        return of(taskInfo.getIndexUid(), taskInfo.getTaskUid());
+    }
+
+    /**
+     * @param token text form, {@code <indexUid>:<taskUid>}
+     * @return token
+     * @throws IllegalArgumentException if the text is not a token
+     */
+    public static ConsistencyToken parse(String token) {
+        int separator = token.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("invalid consistency token: " + token);
+        }
+        try {
+            return of(token.substring(0, separator), Integer.parseInt(token.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid consistency token: " + token, e);
+        }
+    }
+
+    /**
+     * @param other token of the same index
+     * @return the token of the later write
+     */
+    public ConsistencyToken max(ConsistencyToken other) {
+        Asserts.status(indexUid.equals(other.indexUid), "tokens of different indexes");
+        return other.taskUid > taskUid ? other : this;
+    }
+
+    /**
+     * @return index uid
+     */
+    public String getIndexUid() {
+        return indexUid;
+    }
+
+    /**
+     * @return task uid
+     */
+    public int getTaskUid() {
+        return taskUid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConsistencyToken)) {
+            return false;
+        }
+        ConsistencyToken that = (ConsistencyToken) o;
+        return taskUid == that.taskUid && indexUid.equals(that.indexUid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(indexUid, taskUid);
+    }
+
+    @Override
+    public String toString() {
+        return indexUid + ":" + taskUid;
+    }
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-your-writes consistency without blocking every write on {@code waitForTask}.
+ * <p>
+ * Reads carrying a {@link ConsistencyToken} wait until the token's task, or a later task of the same index, has
+ * finished; reads without a token, e.g. of other sessions, never wait. The tracker keeps one finished-task watermark
+ * per index and one poller shared by all waiters: while any read waits, every {@code pollInterval} it fetches the
+ * lowest awaited task of each index, and releases all readers up to it once it has finished, then moves on to the
+ * next awaited one. Finished tasks learnt elsewhere can be fed in with {@link #finished(String, int)}.
+ * A failed or canceled task releases its readers too; its write is simply not there to read. A token whose task is
+ * not found, e.g. pruned or made up, or whose task belongs to another index, releases only its own readers and says
+ * nothing about the watermark.
+ *
+ * <pre>
+ * ConsistencyTracker tracker = ConsistencyTracker.builder().tasks(client.tasks()).build();
+ * ConsistencyTracker.Session session = tracker.session();
+ * session.write(documents.save(movie)).block();
+ * SearchResponse&lt;Movie&gt; response = session.read("movies", search.find("matrix")).block();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ConsistencyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsistencyTracker.class);
+
+    private final ReactiveTasks tasks;
+
+    private final Duration pollInterval;
+
+    private final Scheduler scheduler;
+
+    private final Map<String, IndexState> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private ConsistencyTracker(Builder builder) {
+        this.tasks = builder.tasks;
+        this.pollInterval = builder.pollInterval;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a new session, holding the tokens of its own writes
+     */
+    public Session session() {
+        return new Session();
+    }
+
+    /**
+     * Wait until the token's write is visible.
+     *
+     * @param token token of a write, no wait if null
+     * @return completes once the task or a later one of the same index has finished
+     */
+    public Mono<Void> await(@Nullable ConsistencyToken token) {
+        if (Objects.isNull(token)) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            IndexState state = state(token.getIndexUid());
+            int uid = token.getTaskUid();
+            if (uid <= state.finished) {
+                return Mono.empty();
+            }
+            Sinks.Empty<Void> waiter = Sinks.empty();
+            state.waiters.compute(uid, (key, queue) -> {
+                Queue<Sinks.Empty<Void>> _queue = Objects.nonNull(queue) ? queue : new ConcurrentLinkedQueue<>();
+                _queue.add(waiter);
+                return _queue;
+            });
+            if (uid <= state.finished) {
+                waiter.tryEmitEmpty();
+                release(state);
+            } else {
+                poll();
+            }
+            return waiter.asMono().doOnCancel(() -> state.waiters.computeIfPresent(uid, (key, queue) -> {
+                queue.remove(waiter);
+                return queue.isEmpty() ? null : queue;
+            }));
+        });
+    }
+
+    /**
+     * Run a read once the token's write is visible.
+     *
+     * @param token token of a write, no wait if null
+     * @param read  read to run
+     * @param <T>   result type
+     * @return the read
+     */
+    public <T> Mono<T> after(@Nullable ConsistencyToken token, Mono<T> read) {
+        return await(token).then(read);
+    }
+
+    /**
+     * Record a finished task learnt elsewhere, e.g. from {@code waitForTask}.
+     *
+     * @param indexUid index uid
+     * @param taskUid  uid of a finished task
+     */
+    public void finished(String indexUid, int taskUid) {
+        IndexState state = state(indexUid);
+        advance(state, taskUid);
+    }
+
+    /**
+     * @param indexUid index uid
+     * @return uid of the latest task of the index known to have finished, -1 if none
+     */
+    public int watermark(String indexUid) {
+        IndexState state = indexes.get(indexUid);
+        return Objects.nonNull(state) ? state.finished : -1;
+    }
+
+    private IndexState state(String indexUid) {
+        return indexes.computeIfAbsent(indexUid, IndexState::new);
+    }
+
+    private void advance(IndexState state, int uid) {
+        synchronized (state) {
+            if (uid > state.finished) {
+                state.finished = uid;
+            }
+        }
+        release(state);
+    }
+
+    private void release(IndexState state) {
+        ConcurrentNavigableMap<Integer, Queue<Sinks.Empty<Void>>> done = state.waiters.headMap(state.finished, true);
+        while (!done.isEmpty()) {
+            Map.Entry<Integer, Queue<Sinks.Empty<Void>>> entry = done.pollFirstEntry();
+            if (Objects.isNull(entry)) {
+                break;
+            }
+            for (Sinks.Empty<Void> waiter : entry.getValue()) {
+                waiter.tryEmitEmpty();
+            }
+        }
+    }
+
+    /**
+     * Release the readers of one task only, leaving the watermark unchanged.
+     */
+    private void releaseOnly(IndexState state, int uid) {
+        Queue<Sinks.Empty<Void>> queue = state.waiters.remove(uid);
+        if (Objects.nonNull(queue)) {
+            for (Sinks.Empty<Void> waiter : queue) {
+                waiter.tryEmitEmpty();
+            }
+        }
+    }
+
+    private boolean waiting() {
+        for (IndexState state : indexes.values()) {
+            if (!state.waiters.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start the shared poller unless it is running, it stops once nobody waits.
+     */
+    private void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        Flux.interval(pollInterval, scheduler)
+            .onBackpressureDrop()
+            .concatMap(tick -> Flux.fromIterable(indexes.values())
+                .flatMap(this::pollIndex)
+                .then(Mono.fromSupplier(this::waiting)), 1)
+            .takeUntil(waiting -> !waiting)
+            .doFinally(signal -> {
+                polling.set(false);
+                if (waiting()) {
+                    poll();
+                }
+            })
+            .subscribe(null, throwable -> log.warn("consistency tracker poll failed", throwable));
+    }
+
+    /**
+     * Fetch the lowest awaited task of an index, and the next ones as long as they have finished.
+     */
+    private Mono<Void> pollIndex(IndexState state) {
+        Map.Entry<Integer, Queue<Sinks.Empty<Void>>> lowest = state.waiters.firstEntry();
+        if (Objects.isNull(lowest)) {
+            return Mono.empty();
+        }
+        int uid = lowest.getKey();
+        return tasks.get(uid)
+            .map(Optional::of)
+            .onErrorResume(HttpFailureException.class, e -> e.getStatusCode() == 404
+                ? Mono.just(Optional.empty()) : Mono.error(e))
+            .flatMap(found -> {
+                if (!found.isPresent() || !Objects.equals(state.indexUid, found.get().getIndexUid())) {
+                    log.debug("task [{}] of index [{}] not found, releasing its readers only", uid, state.indexUid);
+                    releaseOnly(state, uid);
+                    return pollIndex(state);
+                }
+                TaskStatus status = found.get().getStatus();
+                if (status == TaskStatus.ENQUEUED || status == TaskStatus.PROCESSING) {
+                    return Mono.empty();
+                }
+                advance(state, uid);
+                return pollIndex(state);
+            })
+            .onErrorResume(throwable -> {
+                log.debug("cannot get task [{}]", uid, throwable);
+                return Mono.empty();
+            });
+    }
+
+    private static final class IndexState {
+
+        private final String indexUid;
+
+        private volatile int finished = -1;
+
+        private final ConcurrentSkipListMap<Integer, Queue<Sinks.Empty<Void>>> waiters = new ConcurrentSkipListMap<>();
+
+        private IndexState(String indexUid) {
+            this.indexUid = indexUid;
+        }
+    }
+
+    /**
+     * Tokens of one session's writes, the latest per index. Thread-safe.
+     */
+    public final class Session {
+
+        private final Map<String, ConsistencyToken> tokens = new ConcurrentHashMap<>();
+
+        private Session() {
+        }
+
+        /**
+         * Record the token of a write once it is enqueued.
+         *
+         * @param write write returning its task
+         * @return the write
+         */
+        public Mono<TaskInfo> write(Mono<TaskInfo> write) {
+            return write.doOnNext(this::record);
+        }
+
+        /**
+         * Record the token of an enqueued write.
+         *
+         * @param taskInfo enqueued task
+         */
+        public void record(TaskInfo taskInfo) {
+            if (Objects.nonNull(taskInfo.getTaskUid()) && Objects.nonNull(taskInfo.getIndexUid())) {
+                record(ConsistencyToken.of(taskInfo));
+            }
+        }
+
+        /**
+         * Record a token, e.g. one parsed from a client request.
+         *
+         * @param token token of a write
+         */
+        public void record(ConsistencyToken token) {
+            tokens.merge(token.getIndexUid(), token, ConsistencyToken::max);
+        }
+
+        /**
+         * @param indexUid index uid
+         * @return token of the latest write of this session to the index, null if none
+         */
+        @Nullable
+        public ConsistencyToken token(String indexUid) {
+            return tokens.get(indexUid);
+        }
+
+        /**
+         * Run a read once this session's writes to the index are visible.
+         *
+         * @param indexUid index uid
+         * @param read     read to run
+         * @param <T>      result type
+         * @return the read
+         */
+        public <T> Mono<T> read(String indexUid, Mono<T> read) {
+            return Mono.defer(() -> after(token(indexUid), read));
+        }
+
+        /**
+         * Run a read once this session's writes to the index are visible.
+         *
+         * @param indexUid index uid
+         * @param read     read to run
+         * @param <T>      result type
+         * @return the read
+         */
+        public <T> Flux<T> read(String indexUid, Flux<T> read) {
+            return Flux.defer(() -> await(token(indexUid)).thenMany(read));
+        }
+    }
+
+    /**
+     * {@code ConsistencyTracker} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveTasks tasks;
+        private Duration pollInterval = Duration.ofMillis(50);
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Tasks operator used to poll awaited tasks.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * Interval between polls while a read waits, default 50ms.
+         *
+         * @param val the {@code pollInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder pollInterval(Duration val) {
+            pollInterval = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the poll timer, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code ConsistencyTracker} built from the parameters previously set.
+         *
+         * @return a {@code ConsistencyTracker} built with parameters of this {@code ConsistencyTracker.Builder}
+         */
+        public ConsistencyTracker build() {
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(pollInterval) && !pollInterval.isNegative() && !pollInterval.isZero(), "pollInterval must be positive");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new ConsistencyTracker(this);
+        }
+    }
+
+}
@@ -0,0 +1,375 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Off-heap primary-key to 64-bit content-hash table.
+ * <p>
+ * Slots are kept in a direct buffer with linear probing, keys are stored UTF-8 encoded in a direct arena,
+ * so 30M entries cost roughly {@code 24 * capacity + key bytes} outside the java heap.
+ * Every {@link #put(String, long)}/{@link #update(String, long)} marks the key as seen,
+ * so that keys missing from a full pass can be listed by {@link #forEachUnseen(Consumer)} and dropped by {@link #retainSeen()}.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ContentHashIndex {
+
+    private static final long MAGIC = 0x4d53444c54413031L;
+
+    private static final int SLOT_BYTES = 24;
+
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private ByteBuffer slots;
+
+    private ByteBuffer keys;
+
+    private BitSet seen;
+
+    private int capacity;
+
+    private int size;
+
+    /**
+     * Construct an empty index.
+     */
+    public ContentHashIndex() {
+        this(1024);
+    }
+
+    /**
+     * Construct an empty index sized for the expected number of keys.
+     *
+     * @param expectedSize expected number of keys
+     */
+    public ContentHashIndex(int expectedSize) {
+        int _capacity = 16;
+        while (_capacity < MAX_CAPACITY && _capacity * 3L / 4 < expectedSize) {
+            _capacity <<= 1;
+        }
+        this.capacity = _capacity;
+        this.slots = ByteBuffer.allocateDirect(_capacity * SLOT_BYTES);
+        this.keys = ByteBuffer.allocateDirect((int) Math.min(1 << 30, Math.max(4096L, expectedSize * 16L)));
+        this.seen = new BitSet(_capacity);
+    }
+
+    /**
+     * Number of keys.
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the key is present.
+     *
+     * @param key primary key
+     * @return true if present
+     */
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return slotOf(bytes, keyHash(bytes)) >= 0;
+    }
+
+    /**
+     * Get the content hash of the key.
+     *
+     * @param key          primary key
+     * @param defaultValue returned when the key is absent
+     * @return content hash
+     */
+    public long get(String key, long defaultValue) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = slotOf(bytes, keyHash(bytes));
+        return slot >= 0 ? slots.getLong(slot * SLOT_BYTES + 8) : defaultValue;
+    }
+
+    /**
+     * Put the content hash of the key and mark it as seen.
+     *
+     * @param key         primary key
+     * @param contentHash content hash
+     */
+    public void put(String key, long contentHash) {
+        update(key, contentHash);
+    }
+
+    /**
+     * Put the content hash of the key and mark it as seen.
+     *
+     * @param key         primary key
+     * @param contentHash content hash
+     * @return true if the key is new or its content hash changed
+     */
+    public boolean update(String key, long contentHash) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long keyHash = keyHash(bytes);
+        int slot = slotOf(bytes, keyHash);
+        if (slot >= 0) {
+            seen.set(slot);
+            int position = slot * SLOT_BYTES + 8;
+            if (slots.getLong(position) == contentHash) {
+                return false;
+            }
+            slots.putLong(position, contentHash);
+            return true;
+        }
+        if ((size + 1) * 4L > capacity * 3L) {
+            resize(capacity << 1);
+        }
+        int offset = appendKey(bytes);
+        slot = insert(slots, capacity, keyHash, contentHash, offset);
+        seen.set(slot);
+        size++;
+        return true;
+    }
+
+    /**
+     * Mark the key as seen if present, leaving its content hash unchanged.
+     *
+     * @param key         primary key
+     * @param contentHash content hash to compare
+     * @return true if the key is absent or its content hash differs
+     */
+    public boolean touch(String key, long contentHash) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = slotOf(bytes, keyHash(bytes));
+        if (slot < 0) {
+            return true;
+        }
+        seen.set(slot);
+        return slots.getLong(slot * SLOT_BYTES + 8) != contentHash;
+    }
+
+    /**
+     * Visit every key not seen since the last {@link #clearSeen()} or {@link #retainSeen()}.
+     *
+     * @param consumer key consumer
+     */
+    public void forEachUnseen(Consumer<String> consumer) {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (slots.getLong(slot * SLOT_BYTES) != 0 && !seen.get(slot)) {
+                consumer.accept(readKey(slots.getLong(slot * SLOT_BYTES + 16)));
+            }
+        }
+    }
+
+    /**
+     * Keys not seen since the last {@link #clearSeen()} or {@link #retainSeen()}.
+     *
+     * @return unseen keys
+     */
+    public List<String> unseenKeys() {
+        List<String> unseen = new ArrayList<>();
+        forEachUnseen(unseen::add);
+        return unseen;
+    }
+
+    /**
+     * Forget which keys have been seen.
+     */
+    public void clearSeen() {
+        seen.clear();
+    }
+
+    /**
+     * Drop every key not seen since the last pass, compact the key arena and clear the seen marks.
+     *
+     * @return number of dropped keys
+     */
+    public int retainSeen() {
+        ContentHashIndex retained = new ContentHashIndex(seen.cardinality());
+        for (int slot = seen.nextSetBit(0); slot >= 0; slot = seen.nextSetBit(slot + 1)) {
+            int position = slot * SLOT_BYTES;
+            byte[] bytes = readKeyBytes(slots.getLong(position + 16));
+            int offset = retained.appendKey(bytes);
+            insert(retained.slots, retained.capacity, slots.getLong(position), slots.getLong(position + 8), offset);
+            retained.size++;
+        }
+        int dropped = size - retained.size;
+        this.slots = retained.slots;
+        this.keys = retained.keys;
+        this.capacity = retained.capacity;
+        this.size = retained.size;
+        this.seen = retained.seen;
+        return dropped;
+    }
+
+    /**
+     * Persist all entries to the given file, atomically replacing it.
+     *
+     * @param path target file
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(size);
+            for (int slot = 0; slot < capacity; slot++) {
+                int position = slot * SLOT_BYTES;
+                if (slots.getLong(position) != 0) {
+                    byte[] bytes = readKeyBytes(slots.getLong(position + 16));
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    out.writeLong(slots.getLong(position + 8));
+                }
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load an index previously written by {@link #save(Path)}, or an empty one if the file does not exist.
+     * No key of the loaded index is marked as seen.
+     *
+     * @param path source file
+     * @return loaded index
+     * @throws IOException if an I/O error occurs
+     */
+    public static ContentHashIndex load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new ContentHashIndex();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException(String.format("[%s] is not a content hash index file", path));
+            }
+            int count = in.readInt();
+            ContentHashIndex index = new ContentHashIndex(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                long contentHash = in.readLong();
+                int offset = index.appendKey(bytes);
+                insert(index.slots, index.capacity, keyHash(bytes), contentHash, offset);
+                index.size++;
+            }
+            return index;
+        }
+    }
+
+    private int slotOf(byte[] bytes, long keyHash) {
+        int mask = capacity - 1;
+        for (int slot = (int) (keyHash & mask); ; slot = (slot + 1) & mask) {
+            long current = slots.getLong(slot * SLOT_BYTES);
+            if (current == 0) {
+                return -1;
+            }
+            if (current == keyHash && keyEquals(slots.getLong(slot * SLOT_BYTES + 16), bytes)) {
+                return slot;
+            }
+        }
+    }
+
+    private static int insert(ByteBuffer slots, int capacity, long keyHash, long contentHash, long offset) {
+        int mask = capacity - 1;
+        int slot = (int) (keyHash & mask);
+        while (slots.getLong(slot * SLOT_BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int position = slot * SLOT_BYTES;
+        slots.putLong(position, keyHash);
+        slots.putLong(position + 8, contentHash);
+        slots.putLong(position + 16, offset);
+        return slot;
+    }
+
+    private void resize(int newCapacity) {
+        Asserts.status(newCapacity <= MAX_CAPACITY, "content hash index is full");
+        ByteBuffer newSlots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+        BitSet newSeen = new BitSet(newCapacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = slot * SLOT_BYTES;
+            long keyHash = slots.getLong(position);
+            if (keyHash != 0) {
+                int newSlot = insert(newSlots, newCapacity, keyHash, slots.getLong(position + 8), slots.getLong(position + 16));
+                if (seen.get(slot)) {
+                    newSeen.set(newSlot);
+                }
+            }
+        }
+        this.slots = newSlots;
+        this.seen = newSeen;
+        this.capacity = newCapacity;
+    }
+
+    private int appendKey(byte[] bytes) {
+        int required = 4 + bytes.length;
+        if (keys.remaining() < required) {
+            long newCapacity = Math.max((long) keys.capacity() << 1, (long) keys.position() + required);
+            Asserts.status(newCapacity <= Integer.MAX_VALUE, "content hash index key arena is full");
+            ByteBuffer newKeys = ByteBuffer.allocateDirect((int) newCapacity);
+            keys.flip();
+            newKeys.put(keys);
+            this.keys = newKeys;
+        }
+        int offset = keys.position();
+        keys.putInt(bytes.length);
+        keys.put(bytes);
+        return offset;
+    }
+
+    private boolean keyEquals(long offset, byte[] bytes) {
+        int position = (int) offset;
+        if (keys.getInt(position) != bytes.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < bytes.length; i++) {
+            if (keys.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readKeyBytes(long offset) {
+        int position = (int) offset;
+        byte[] bytes = new byte[keys.getInt(position)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = keys.get(position + 4 + i);
+        }
+        return bytes;
+    }
+
+    private String readKey(long offset) {
+        return new String(readKeyBytes(offset), StandardCharsets.UTF_8);
+    }
+
+    private static long keyHash(byte[] bytes) {
+        long hash = HashUtils.hash64(bytes);
+        return hash == 0 ? 1 : hash;
+    }
+
+}
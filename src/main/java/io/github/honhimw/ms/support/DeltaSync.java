@@ -0,0 +1,431 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import jakarta.annotation.Nullable;
+import lombok.Data;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Turns full re-syncs into incremental ones.
+ * <p>
+ * Every document of a full pass is hashed by its canonical JSON(keys sorted recursively), only documents
+ * whose hash differs from the last confirmed one are sent through {@link ReactiveDocuments#save(Collection)},
+ * and primary keys missing from the pass are deleted through {@link ReactiveDocuments#batchDelete(List)}.
+ * Hashes are kept in an off-heap {@link ContentHashIndex}: the new hash of a document is only recorded once the task
+ * of its batch succeeded, and the keys of a failed deletion batch are kept, so whatever a failed task carried is sent
+ * again by the next pass. The index is persisted to {@code stateFile} once every task of the pass has finished;
+ * a pass that errors (e.g. a request fails or a task is not finished within {@code taskTimeout}) leaves the state
+ * file untouched. Keys and hashes do not depend on the {@link JsonHandler}: integral numbers read as doubles are
+ * normalized, see {@link DocumentIds}.
+ * <p>
+ * Only one pass per state file may run at a time.
+ *
+ * <pre>
+ * DeltaSync deltaSync = DeltaSync.builder()
+ *     .documents(client.indexes().documents("movies"))
+ *     .tasks(client.tasks())
+ *     .jsonHandler(jsonHandler)
+ *     .primaryKey("id")
+ *     .stateFile(Paths.get("movies.delta"))
+ *     .build();
+ * deltaSync.sync(Flux.fromIterable(movies)).block();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DeltaSync {
+
+    private final ReactiveDocuments documents;
+
+    private final ReactiveTasks tasks;
+
+    private final JsonHandler jsonHandler;
+
+    private final String primaryKey;
+
+    private final Path stateFile;
+
+    private final int batchSize;
+
+    private final boolean deleteVanished;
+
+    private final Duration taskTimeout;
+
+    private DeltaSync(Builder builder) {
+        this.documents = builder.documents;
+        this.tasks = builder.tasks;
+        this.jsonHandler = builder.jsonHandler;
+        this.primaryKey = builder.primaryKey;
+        this.stateFile = builder.stateFile;
+        this.batchSize = builder.batchSize;
+        this.deleteVanished = builder.deleteVanished;
+        this.taskTimeout = builder.taskTimeout;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Run a full pass over the source, sending only changed documents and deleting vanished ones.
+     *
+     * @param source every document of the index
+     * @return pass result, emitted after every task has finished and the state file has been persisted
+     */
+    public Mono<Result> sync(Flux<?> source) {
+        return Mono.fromCallable(() -> ContentHashIndex.load(stateFile))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(index -> {
+                Result result = new Result();
+                Flux<Batch> upserts = source
+                    .<Change>handle((document, sink) -> {
+                        Change change = change(index, document, result);
+                        if (Objects.nonNull(change)) {
+                            sink.next(change);
+                        }
+                    })
+                    .buffer(batchSize)
+                    .concatMap(changes -> {
+                        List<Object> batch = new ArrayList<>(changes.size());
+                        for (Change change : changes) {
+                            batch.add(change.document);
+                        }
+                        return documents.save(batch).map(task -> new Batch(task, changes, null));
+                    });
+                Flux<Batch> deletes = deleteVanished ? Flux.defer(() -> Flux.fromIterable(unseenKeys(index)))
+                    .doOnNext(key -> result.deleted++)
+                    .buffer(batchSize)
+                    .concatMap(keys -> documents.batchDelete(keys).map(task -> new Batch(task, null, keys))) : Flux.empty();
+                return Flux.concat(upserts, deletes)
+                    .doOnNext(batch -> result.tasks.add(batch.task))
+                    .flatMap(batch -> tasks.waitForTask(batch.task.uid(), taskTimeout)
+                        .doOnNext(task -> confirm(index, batch, task, result)))
+                    .then(Mono.fromCallable(() -> {
+                        synchronized (index) {
+                            if (deleteVanished) {
+                                index.retainSeen();
+                            }
+                            index.save(stateFile);
+                        }
+                        return result;
+                    }).subscribeOn(Schedulers.boundedElastic()));
+            });
+    }
+
+    /**
+     * Forget all recorded hashes, the next pass will send every document.
+     *
+     * @throws IOException if the state file can not be deleted
+     */
+    public void reset() throws IOException {
+        Files.deleteIfExists(stateFile);
+    }
+
+    @Nullable
+    private Change change(ContentHashIndex index, Object document, Result result) {
+        result.scanned++;
+        Map<String, Object> map = jsonHandler.transform(document, TypeRefs.StringObjectMapRef.INSTANCE);
+        Object id = map.get(primaryKey);
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException(String.format("document without primary key [%s]", primaryKey));
+        }
+        String key = DocumentIds.of(id);
+        long contentHash = HashUtils.hash64(jsonHandler.toJson(canonical(map)));
+        boolean changed;
+        synchronized (index) {
+            changed = index.touch(key, contentHash);
+        }
+        if (!changed) {
+            return null;
+        }
+        result.upserted++;
+        return new Change(document, key, contentHash);
+    }
+
+    private static List<String> unseenKeys(ContentHashIndex index) {
+        synchronized (index) {
+            return index.unseenKeys();
+        }
+    }
+
+    /**
+     * Record the hashes of a succeeded upsert batch, keep the keys of a failed deletion batch for the next pass.
+     */
+    private static void confirm(ContentHashIndex index, Batch batch, TaskInfo task, Result result) {
+        boolean succeeded = task.getStatus() == TaskStatus.SUCCEEDED;
+        synchronized (index) {
+            if (Objects.nonNull(batch.changes)) {
+                if (succeeded) {
+                    for (Change change : batch.changes) {
+                        index.put(change.key, change.contentHash);
+                    }
+                } else {
+                    result.failed += batch.changes.size();
+                }
+            } else if (!succeeded) {
+                for (String key : batch.keys) {
+                    index.touch(key, 0);
+                }
+                result.failed += batch.keys.size();
+            }
+            if (!succeeded) {
+                result.failedTasks.add(task);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object canonical(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<String, Object>) value).forEach((k, v) -> sorted.put(k, canonical(v)));
+            return sorted;
+        }
+        if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                list.add(canonical(element));
+            }
+            return list;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            // Gson reads every number as a double, hash 42.0 the way Jackson reads 42
+            double number = ((Number) value).doubleValue();
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                long integral = (long) number;
+                return integral == (int) integral ? (Object) (int) integral : (Object) integral;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Result of one pass.
+     */
+    @Data
+    public static class Result {
+
+        /**
+         * Number of documents read from the source.
+         */
+        private long scanned;
+
+        /**
+         * Number of new or changed documents sent.
+         */
+        private long upserted;
+
+        /**
+         * Number of vanished primary keys deleted.
+         */
+        private long deleted;
+
+        /**
+         * Number of documents or ids whose task did not succeed, the next pass sends them again.
+         */
+        private long failed;
+
+        /**
+         * Tasks enqueued by this pass.
+         */
+        private final List<TaskInfo> tasks = new ArrayList<>();
+
+        /**
+         * Finished tasks of this pass that did not succeed.
+         */
+        private final List<TaskInfo> failedTasks = new ArrayList<>();
+
+    }
+
+    /**
+     * A new or changed document, its hash is recorded once its batch succeeded.
+     */
+    private static final class Change {
+
+        private final Object document;
+
+        private final String key;
+
+        private final long contentHash;
+
+        private Change(Object document, String key, long contentHash) {
+            this.document = document;
+            this.key = key;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Enqueued task of either upserted changes or deleted keys.
+     */
+    private static final class Batch {
+
+        private final TaskInfo task;
+
+        private final List<Change> changes;
+
+        private final List<String> keys;
+
+        private Batch(TaskInfo task, @Nullable List<Change> changes, @Nullable List<String> keys) {
+            this.task = task;
+            this.changes = changes;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * {@code DeltaSync} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private ReactiveTasks tasks;
+        private JsonHandler jsonHandler;
+        private String primaryKey;
+        private Path stateFile;
+        private int batchSize = 1000;
+        private boolean deleteVanished = true;
+        private Duration taskTimeout = Duration.ofMinutes(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Target documents operator.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Tasks operator of the same client, to confirm the enqueued tasks.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * Json handler used for canonical JSON.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Primary key attribute of the index.
+         *
+         * @param val the {@code primaryKey} to set
+         * @return a reference to this Builder
+         */
+        public Builder primaryKey(String val) {
+            primaryKey = val;
+            return this;
+        }
+
+        /**
+         * Local file the hashes are persisted to.
+         *
+         * @param val the {@code stateFile} to set
+         * @return a reference to this Builder
+         */
+        public Builder stateFile(Path val) {
+            stateFile = val;
+            return this;
+        }
+
+        /**
+         * Documents or ids per request, default 1000.
+         *
+         * @param val the {@code batchSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder batchSize(int val) {
+            batchSize = val;
+            return this;
+        }
+
+        /**
+         * Whether primary keys missing from a pass are deleted, default true.
+         * Disable it when the source is not the whole index.
+         *
+         * @param val the {@code deleteVanished} to set
+         * @return a reference to this Builder
+         */
+        public Builder deleteVanished(boolean val) {
+            deleteVanished = val;
+            return this;
+        }
+
+        /**
+         * Longest wait for each task of a pass, default 5 minutes.
+         *
+         * @param val the {@code taskTimeout} to set
+         * @return a reference to this Builder
+         */
+        public Builder taskTimeout(Duration val) {
+            taskTimeout = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code DeltaSync} built from the parameters previously set.
+         *
+         * @return a {@code DeltaSync} built with parameters of this {@code DeltaSync.Builder}
+         */
+        public DeltaSync build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(StringUtils.isNotBlank(primaryKey), "primaryKey must not be blank");
+            Asserts.status(Objects.nonNull(stateFile), "stateFile must not be null");
+            Asserts.status(batchSize > 0, "batchSize must be positive");
+            Asserts.status(Objects.nonNull(taskTimeout) && !taskTimeout.isNegative(), "taskTimeout must not be negative");
+            return new DeltaSync(this);
+        }
+    }
+
+}
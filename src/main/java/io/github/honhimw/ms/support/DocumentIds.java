@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+/**
+ * Primary key values read back from documents as the text the server uses for them.
+ * <p>
+ * JSON handlers disagree on untyped numbers: Jackson reads {@code 42} as an {@link Integer}, Gson as the
+ * {@link Double} {@code 42.0}. Keys taken from a {@code Map} view of a document go through {@link #of(Object)}, so
+ * both give {@code "42"}, the id {@code GET /documents/42} expects.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentIds {
+
+    /**
+     * @param key primary key value
+     * @return primary key as text, integral numbers without a fraction
+     */
+    public static String of(Object key) {
+        if (key instanceof Double || key instanceof Float) {
+            double number = ((Number) key).doubleValue();
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                return String.valueOf((long) number);
+            }
+        }
+        return String.valueOf(key);
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.model.TaskInfo;
+import lombok.Data;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Resumable streaming import of a NDJSON or JSON array file.
+ * <p>
+ * The file is streamed and split into JSON array chunks of at most {@code chunkBytes} at record boundaries
+ * without parsing documents, chunks are uploaded through {@link ReactiveDocuments#save(String)} with at most
+ * {@code concurrency} requests in flight, and every enqueued chunk is appended to {@code checkpointFile}.
+ * Running the same import again skips the contiguous prefix of completed chunks by seeking straight past it,
+ * and skips any later completed chunk by index.
+ * A file ending inside a record fails the import with an {@link java.io.EOFException}, once the complete chunks
+ * before the truncated record have been enqueued and checkpointed.
+ *
+ * <pre>
+ * DocumentsImporter.builder()
+ *     .documents(client.indexes().documents("movies"))
+ *     .file(Paths.get("movies.ndjson"))
+ *     .build()
+ *     .run()
+ *     .block();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentsImporter {
+
+    private final ReactiveDocuments documents;
+
+    private final Path file;
+
+    private final Path checkpointFile;
+
+    private final int chunkBytes;
+
+    private final int concurrency;
+
+    private DocumentsImporter(Builder builder) {
+        this.documents = builder.documents;
+        this.file = builder.file;
+        this.checkpointFile = Optional.ofNullable(builder.checkpointFile)
+            .orElseGet(() -> builder.file.resolveSibling(builder.file.getFileName() + ".checkpoint"));
+        this.chunkBytes = builder.chunkBytes;
+        this.concurrency = builder.concurrency;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Import the file, resuming from the checkpoint file if present.
+     *
+     * @return import result
+     */
+    public Mono<Result> run() {
+        return Mono.using(
+            () -> new Checkpoint(checkpointFile, chunkBytes),
+            checkpoint -> Flux.using(
+                    () -> new JsonChunker(file, chunkBytes, checkpoint.watermark, checkpoint.nextIndex),
+                    chunker -> Flux.<JsonChunker.Chunk>generate(sink -> {
+                        try {
+                            JsonChunker.Chunk chunk = chunker.next();
+                            if (Objects.isNull(chunk)) {
+                                sink.complete();
+                            } else {
+                                sink.next(chunk);
+                            }
+                        } catch (IOException e) {
+                            sink.error(e);
+                        }
+                    }),
+                    DocumentsImporter::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(checkpoint::pending)
+                // a truncated tail fails the import only after the chunks before it are checkpointed
+                .flatMapDelayError(chunk -> documents.save(new String(chunk.json, StandardCharsets.UTF_8))
+                    .doOnNext(taskInfo -> checkpoint.complete(chunk, taskInfo)), concurrency, 1)
+                .then(Mono.fromCallable(() -> checkpoint.result)),
+            checkpoint -> checkpoint.close());
+    }
+
+    private static void closeQuietly(JsonChunker chunker) {
+        try {
+            chunker.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Result of one run.
+     */
+    @Data
+    public static class Result {
+
+        /**
+         * Number of chunks uploaded by this run.
+         */
+        private long chunks;
+
+        /**
+         * Number of chunks skipped as already completed.
+         */
+        private long skipped;
+
+        /**
+         * Number of records uploaded by this run.
+         */
+        private long records;
+
+        /**
+         * Number of bytes uploaded by this run.
+         */
+        private long bytes;
+
+        /**
+         * Tasks enqueued by this run.
+         */
+        private final List<TaskInfo> tasks = new ArrayList<>();
+
+    }
+
+    private static class Checkpoint {
+
+        private final Map<Integer, Long> completed = new HashMap<>();
+
+        private final FileChannel channel;
+
+        private final Result result = new Result();
+
+        private long watermark;
+
+        private int nextIndex;
+
+        private Checkpoint(Path path, int chunkBytes) throws IOException {
+            String header = String.format("# chunkBytes %d", chunkBytes);
+            if (Files.exists(path)) {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && !Objects.equals(lines.get(0), header)) {
+                    throw new IllegalStateException(String.format("checkpoint [%s] was written with [%s], expected [%s]", path, lines.get(0), header));
+                }
+                for (String line : lines) {
+                    String[] parts = line.split(" ");
+                    if (line.startsWith("#") || parts.length < 3) {
+                        continue;
+                    }
+                    completed.put(Integer.parseInt(parts[0]), Long.parseLong(parts[2]));
+                }
+            }
+            while (completed.containsKey(nextIndex)) {
+                watermark = completed.get(nextIndex);
+                nextIndex++;
+            }
+            boolean created = !Files.exists(path);
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (created) {
+                append(header);
+            }
+        }
+
+        private synchronized boolean pending(JsonChunker.Chunk chunk) {
+            if (completed.containsKey(chunk.index)) {
+                result.skipped++;
+                return false;
+            }
+            return true;
+        }
+
+        private synchronized void complete(JsonChunker.Chunk chunk, TaskInfo taskInfo) {
+            try {
+                append(String.format("%d %d %d %s", chunk.index, chunk.start, chunk.end, taskInfo.getTaskUid()));
+            } catch (IOException e) {
+                throw new IllegalStateException("checkpoint write failed", e);
+            }
+            completed.put(chunk.index, chunk.end);
+            result.chunks++;
+            result.records += chunk.records;
+            result.bytes += chunk.json.length;
+            result.tasks.add(taskInfo);
+        }
+
+        private void append(String line) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * {@code DocumentsImporter} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private Path file;
+        private Path checkpointFile;
+        private int chunkBytes = 8 * 1024 * 1024;
+        private int concurrency = 4;
+
+        private Builder() {
+        }
+
+        /**
+         * Target documents operator.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * NDJSON or JSON array file to import.
+         *
+         * @param val the {@code file} to set
+         * @return a reference to this Builder
+         */
+        public Builder file(Path val) {
+            file = val;
+            return this;
+        }
+
+        /**
+         * Checkpoint file, default {@code file} + {@code .checkpoint}.
+         *
+         * @param val the {@code checkpointFile} to set
+         * @return a reference to this Builder
+         */
+        public Builder checkpointFile(Path val) {
+            checkpointFile = val;
+            return this;
+        }
+
+        /**
+         * Upper bound of a chunk in bytes, default 8MB. Must stay the same across resumed runs.
+         *
+         * @param val the {@code chunkBytes} to set
+         * @return a reference to this Builder
+         */
+        public Builder chunkBytes(int val) {
+            chunkBytes = val;
+            return this;
+        }
+
+        /**
+         * Maximum concurrent uploads, default 4.
+         *
+         * @param val the {@code concurrency} to set
+         * @return a reference to this Builder
+         */
+        public Builder concurrency(int val) {
+            concurrency = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code DocumentsImporter} built from the parameters previously set.
+         *
+         * @return a {@code DocumentsImporter} built with parameters of this {@code DocumentsImporter.Builder}
+         */
+        public DocumentsImporter build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(file), "file must not be null");
+            Asserts.status(chunkBytes > 2, "chunkBytes must be positive");
+            Asserts.status(concurrency > 0, "concurrency must be positive");
+            return new DocumentsImporter(this);
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.BatchGetDocumentsRequest;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch-coalescing loader for single document lookups.
+ * <p>
+ * {@link #load(String, String...)} calls arriving within {@code window} and asking for the same set of fields are
+ * gathered into one {@code POST /documents/fetch} with an {@code <primaryKey> IN [...]} filter, and the returned page
+ * is split back to each caller by primary key. A batch is sent early once it holds {@code maxBatchSize} ids.
+ * Callers asking for a document that does not exist get an empty {@link Mono}, like {@link ReactiveDocuments#get(String, String...)}.
+ * <p>
+ * The primary key must be one of the index's {@code filterableAttributes}.
+ *
+ * <pre>
+ * DocumentsLoader loader = DocumentsLoader.builder()
+ *     .documents(client.indexes().documents("movies"))
+ *     .primaryKey("id")
+ *     .build();
+ * Mono&lt;Map&lt;String, Object&gt;&gt; movie = loader.load("42", "id", "title");
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentsLoader {
+
+    private final ReactiveDocuments documents;
+
+    private final String primaryKey;
+
+    @Nullable
+    private final JsonHandler jsonHandler;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final Scheduler scheduler;
+
+    private final Map<List<String>, Batch> pending = new HashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private DocumentsLoader(Builder builder) {
+        this.documents = builder.documents;
+        this.primaryKey = builder.primaryKey;
+        this.jsonHandler = builder.jsonHandler;
+        this.window = builder.window;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Load one document, batched with concurrent loads asking for the same fields.
+     *
+     * @param id     document id
+     * @param fields fields to retrieve, all fields if empty
+     * @return the document, or empty if not found
+     */
+    public Mono<Map<String, Object>> load(String id, @Nullable String... fields) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            Sinks.One<Map<String, Object>> sink = Sinks.one();
+            List<String> projection = projection(fields);
+            Batch ready = null;
+            synchronized (pending) {
+                Batch batch = pending.get(projection);
+                if (Objects.isNull(batch)) {
+                    batch = new Batch(projection);
+                    pending.put(projection, batch);
+                    Batch scheduled = batch;
+                    scheduler.schedule(() -> flush(scheduled), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                batch.waiters.computeIfAbsent(id, key -> new ArrayList<>(1)).add(sink);
+                if (batch.waiters.size() >= maxBatchSize) {
+                    pending.remove(projection);
+                    ready = batch;
+                }
+            }
+            if (Objects.nonNull(ready)) {
+                send(ready);
+            }
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * Load one document as {@code T}, requires a {@code jsonHandler}.
+     *
+     * @param id      document id
+     * @param typeRef document type
+     * @param fields  fields to retrieve, all fields if empty
+     * @param <T>     document type
+     * @return the document, or empty if not found
+     */
+    public <T> Mono<T> load(String id, TypeRef<T> typeRef, @Nullable String... fields) {
+        Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+        return load(id, fields).map(document -> jsonHandler.transform(document, typeRef));
+    }
+
+    /**
+     * @return number of load calls
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of fetch requests sent
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    private void flush(Batch batch) {
+        synchronized (pending) {
+            if (pending.get(batch.projection) != batch) {
+                return;
+            }
+            pending.remove(batch.projection);
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        batches.incrementAndGet();
+        List<String> ids = new ArrayList<>(batch.waiters.keySet());
+        boolean stripKey = !batch.projection.isEmpty() && !batch.projection.contains(primaryKey);
+        List<String> fields = null;
+        if (!batch.projection.isEmpty()) {
+            fields = new ArrayList<>(batch.projection);
+            if (stripKey) {
+                fields.add(primaryKey);
+            }
+        }
+        BatchGetDocumentsRequest request = BatchGetDocumentsRequest.builder()
+            .filter(FilterBuilder.singleExpression(expression -> expression.in(primaryKey, ids.toArray(new String[0]))))
+            .limit(ids.size())
+            .fields(fields)
+            .build();
+        documents.batchGet(request).subscribe(page -> {
+            Map<String, Map<String, Object>> found = new HashMap<>();
+            for (Map<String, Object> document : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                String id = DocumentIds.of(stripKey ? document.remove(primaryKey) : document.get(primaryKey));
+                found.put(id, document);
+            }
+            batch.waiters.forEach((id, sinks) -> {
+                Map<String, Object> document = found.get(id);
+                for (Sinks.One<Map<String, Object>> sink : sinks) {
+                    if (Objects.isNull(document)) {
+                        sink.tryEmitEmpty();
+                    } else {
+                        sink.tryEmitValue(sinks.size() > 1 ? new LinkedHashMap<>(document) : document);
+                    }
+                }
+            });
+        }, throwable -> batch.waiters.values().forEach(sinks -> sinks.forEach(sink -> sink.tryEmitError(throwable))), () -> batch.waiters.values().forEach(sinks -> sinks.forEach(Sinks.One::tryEmitEmpty)));
+    }
+
+    private static List<String> projection(@Nullable String... fields) {
+        if (Objects.isNull(fields) || fields.length == 0) {
+            return Collections.emptyList();
+        }
+        TreeSet<String> sorted = new TreeSet<>(Arrays.asList(fields));
+        if (sorted.contains("*")) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(sorted);
+    }
+
+    private static final class Batch {
+
+        private final List<String> projection;
+
+        private final Map<String, List<Sinks.One<Map<String, Object>>>> waiters = new LinkedHashMap<>();
+
+        private Batch(List<String> projection) {
+            this.projection = projection;
+        }
+    }
+
+    /**
+     * {@code DocumentsLoader} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private String primaryKey;
+        private JsonHandler jsonHandler;
+        private Duration window = Duration.ofMillis(2);
+        private int maxBatchSize = 100;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Documents operator of the index.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Primary key of the index, must be filterable.
+         *
+         * @param val the {@code primaryKey} to set
+         * @return a reference to this Builder
+         */
+        public Builder primaryKey(String val) {
+            primaryKey = val;
+            return this;
+        }
+
+        /**
+         * Json handler for typed loads, optional.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * How long the first load of a batch waits for others, default 2ms.
+         *
+         * @param val the {@code window} to set
+         * @return a reference to this Builder
+         */
+        public Builder window(Duration val) {
+            window = val;
+            return this;
+        }
+
+        /**
+         * Maximum ids per fetch request, default 100.
+         *
+         * @param val the {@code maxBatchSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxBatchSize(int val) {
+            maxBatchSize = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the window timer, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code DocumentsLoader} built from the parameters previously set.
+         *
+         * @return a {@code DocumentsLoader} built with parameters of this {@code DocumentsLoader.Builder}
+         */
+        public DocumentsLoader build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(primaryKey), "primaryKey must not be null");
+            Asserts.status(Objects.nonNull(window) && !window.isNegative(), "window must not be negative");
+            Asserts.status(maxBatchSize > 0, "maxBatchSize must be positive");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new DocumentsLoader(this);
+        }
+    }
+
+}
@@ -0,0 +1,694 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.TaskInfo;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable local write-ahead spool in front of {@link ReactiveDocuments}.
+ * <p>
+ * Writes are appended to a segmented append-only log under {@code directory} and acknowledged once fsynced,
+ * fsync is batched every {@code syncInterval} so that concurrent producers share one {@link FileChannel#force(boolean)}.
+ * A background drainer replays records in order, and after each accepted record writes a checkpoint
+ * made of the record sequence and the returned {@link TaskInfo#getTaskUid()}.
+ * While Meilisearch is unavailable the drainer backs off and producers keep appending.
+ * <p>
+ * Delivery is at-least-once: records accepted right before a crash may be replayed after restart.
+ * Records whose payload the server refuses (400, 413, 415, 422), or whose payload can not be decoded, are logged and
+ * skipped; any other failure, including 401/403 of an expired API key, is retried.
+ * <p>
+ * An append that fails to write its record is truncated away and not acknowledged. If even the truncation fails, the
+ * spool refuses further appends, so no acknowledged record can end up behind a torn one.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentsSpool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentsSpool.class);
+
+    private static final int HEADER_BYTES = 17;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final ReactiveDocuments documents;
+
+    private final JsonHandler jsonHandler;
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final Duration syncInterval;
+
+    private final Duration retryBackoff;
+
+    private final Object writeLock = new Object();
+
+    private final List<Pending> pending = new ArrayList<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Scheduler scheduler;
+
+    private FileChannel writeChannel;
+
+    private long writeSegment;
+
+    private long nextSeq;
+
+    private long writtenSeq;
+
+    private volatile long durableSegment;
+
+    private volatile long durablePosition;
+
+    private FileChannel readChannel;
+
+    private long readSegment;
+
+    private long readPosition;
+
+    private volatile long appliedSeq;
+
+    private volatile Integer appliedTaskUid;
+
+    private volatile boolean closed;
+
+    @Nullable
+    private IOException torn;
+
+    private Disposable ticker;
+
+    private DocumentsSpool(Builder builder) {
+        this.documents = builder.documents;
+        this.jsonHandler = builder.jsonHandler;
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.syncInterval = builder.syncInterval;
+        this.retryBackoff = builder.retryBackoff;
+        this.scheduler = Schedulers.newSingle("ms-spool");
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Spool a list of documents to be added or replaced.
+     *
+     * @param collection documents
+     * @return spool sequence, emitted once durable
+     */
+    public Mono<Long> save(Collection<?> collection) {
+        return append(Operation.SAVE, () -> jsonHandler.toJson(collection));
+    }
+
+    /**
+     * Spool a json formatted array of documents to be added or replaced.
+     *
+     * @param json json formatted array
+     * @return spool sequence, emitted once durable
+     */
+    public Mono<Long> save(String json) {
+        return append(Operation.SAVE, () -> json);
+    }
+
+    /**
+     * Spool a list of documents to be added or partially updated.
+     *
+     * @param collection documents
+     * @return spool sequence, emitted once durable
+     */
+    public Mono<Long> update(Collection<?> collection) {
+        return append(Operation.UPDATE, () -> jsonHandler.toJson(collection));
+    }
+
+    /**
+     * Spool a json formatted array of documents to be added or partially updated.
+     *
+     * @param json json formatted array
+     * @return spool sequence, emitted once durable
+     */
+    public Mono<Long> update(String json) {
+        return append(Operation.UPDATE, () -> json);
+    }
+
+    /**
+     * Spool a set of document ids to be deleted.
+     *
+     * @param ids document ids
+     * @return spool sequence, emitted once durable
+     */
+    public Mono<Long> batchDelete(List<String> ids) {
+        return append(Operation.DELETE, () -> jsonHandler.toJson(ids));
+    }
+
+    /**
+     * Sequence of the last record accepted by the server.
+     *
+     * @return applied sequence
+     */
+    public long appliedSeq() {
+        return appliedSeq;
+    }
+
+    /**
+     * Task uid returned for the last record accepted by the server, null if unknown.
+     *
+     * @return task uid
+     */
+    public Integer appliedTaskUid() {
+        return appliedTaskUid;
+    }
+
+    /**
+     * Number of spooled records not yet accepted by the server.
+     *
+     * @return lag in records
+     */
+    public long lag() {
+        synchronized (writeLock) {
+            return writtenSeq - appliedSeq;
+        }
+    }
+
+    /**
+     * Stop draining and release files, pending producers are completed after a final fsync.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (Objects.nonNull(ticker)) {
+            ticker.dispose();
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("final spool fsync failed", e);
+        }
+        scheduler.dispose();
+        synchronized (writeLock) {
+            closeQuietly(writeChannel);
+            closeQuietly(readChannel);
+            for (Pending p : pending) {
+                p.sink.error(new IllegalStateException("spool closed"));
+            }
+            pending.clear();
+        }
+    }
+
+    private void start() throws IOException {
+        Files.createDirectories(directory);
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            appliedSeq = buffer.getLong();
+            int taskUid = buffer.getInt();
+            appliedTaskUid = taskUid < 0 ? null : taskUid;
+        }
+        List<Long> segments = segments();
+        long lastSeq = appliedSeq;
+        if (segments.isEmpty()) {
+            writeSegment = appliedSeq + 1;
+            writeChannel = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        } else {
+            writeSegment = segments.get(segments.size() - 1);
+            writeChannel = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long position = 0;
+            Record record;
+            while (Objects.nonNull(record = read(writeChannel, position, writeChannel.size()))) {
+                lastSeq = Math.max(lastSeq, record.seq);
+                position = record.next;
+            }
+            if (position < writeChannel.size()) {
+                log.warn("truncating torn tail of spool segment [{}] at {}", writeSegment, position);
+                writeChannel.truncate(position);
+            }
+            writeChannel.position(position);
+            if (lastSeq < writeSegment) {
+                lastSeq = writeSegment - 1;
+            }
+        }
+        nextSeq = lastSeq + 1;
+        writtenSeq = lastSeq;
+        durablePosition = writeChannel.position();
+        durableSegment = writeSegment;
+        long interval = syncInterval.toMillis();
+        ticker = scheduler.schedulePeriodically(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private Mono<Long> append(Operation operation, Supplier<String> json) {
+        return Mono.create(sink -> {
+            try {
+                byte[] payload = json.get().getBytes(StandardCharsets.UTF_8);
+                synchronized (writeLock) {
+                    Asserts.status(!closed, "spool closed");
+                    if (Objects.nonNull(torn)) {
+                        throw new IllegalStateException("spool log is torn, appends refused", torn);
+                    }
+                    long seq = write(operation, payload);
+                    pending.add(new Pending(seq, sink));
+                }
+            } catch (Exception e) {
+                sink.error(e);
+            }
+        });
+    }
+
+    private long write(Operation operation, byte[] payload) throws IOException {
+        if (writeChannel.position() >= segmentSize) {
+            writeChannel.force(false);
+            writeChannel.close();
+            writeSegment = nextSeq;
+            writeChannel = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+        long seq = nextSeq;
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length)
+            .putLong(seq)
+            .put(operation.code)
+            .putInt((int) crc32.getValue())
+            .put(payload)
+            .flip();
+        long start = writeChannel.position();
+        try {
+            while (buffer.hasRemaining()) {
+                writeChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            // e.g. a full disk: cut the partial record, later appends must not land behind it
+            try {
+                writeChannel.truncate(start);
+                writeChannel.position(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+                torn = e;
+            }
+            throw e;
+        }
+        nextSeq = seq + 1;
+        writtenSeq = seq;
+        return seq;
+    }
+
+    private void tick() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.error("spool fsync failed", e);
+        }
+        drain();
+    }
+
+    private void flush() throws IOException {
+        List<Pending> durable;
+        synchronized (writeLock) {
+            if (pending.isEmpty() && durableSegment == writeSegment && durablePosition == writeChannel.position()) {
+                return;
+            }
+            writeChannel.force(false);
+            // position first: a reader seeing the new segment must also see its position
+            durablePosition = writeChannel.position();
+            durableSegment = writeSegment;
+            durable = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Pending p : durable) {
+            p.sink.success(p.seq);
+        }
+    }
+
+    private void drain() {
+        if (closed || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        boolean sending = false;
+        try {
+            Record record = readNext();
+            if (Objects.nonNull(record)) {
+                // checkpoint file I/O must not run on the event loop the response arrives on
+                Mono.defer(() -> send(record))
+                    .publishOn(Schedulers.boundedElastic())
+                    .subscribe(taskInfo -> applied(record, taskInfo.getTaskUid()), throwable -> rejected(record, throwable));
+                sending = true;
+            }
+        } catch (Exception e) {
+            log.error("spool drain failed", e);
+        } finally {
+            if (!sending) {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void rejected(Record record, Throwable throwable) {
+        if (Failures.isRejected(throwable)) {
+            log.warn("skipping spool record [{}] rejected by server", record.seq, throwable);
+            applied(record, null);
+        } else if (!closed) {
+            log.debug("spool record [{}] not accepted, retry in {}", record.seq, retryBackoff, throwable);
+            scheduler.schedule(() -> {
+                draining.set(false);
+                drain();
+            }, retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Mono<TaskInfo> send(Record record) {
+        String json = new String(record.payload, StandardCharsets.UTF_8);
+        Mono<TaskInfo> request;
+        switch (record.operation) {
+            case UPDATE:
+                request = documents.update(json);
+                break;
+            case DELETE:
+                request = documents.batchDelete(jsonHandler.fromJson(json, TypeRefs.StringListRef.INSTANCE));
+                break;
+            case SAVE:
+            default:
+                request = documents.save(json);
+                break;
+        }
+        return request.switchIfEmpty(Mono.error(() -> new IllegalStateException("no task returned")));
+    }
+
+    private void applied(Record record, Integer taskUid) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(12);
+            buffer.putLong(record.seq).putInt(Objects.nonNull(taskUid) ? taskUid : -1);
+            Path checkpoint = directory.resolve(CHECKPOINT);
+            Path tmp = directory.resolve(CHECKPOINT + ".tmp");
+            Files.write(tmp, buffer.array());
+            Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("spool checkpoint failed", e);
+        }
+        readPosition = record.next;
+        appliedSeq = record.seq;
+        appliedTaskUid = taskUid;
+        draining.set(false);
+        if (!closed) {
+            scheduler.schedule(this::drain);
+        }
+    }
+
+    private Record readNext() throws IOException {
+        if (Objects.isNull(readChannel)) {
+            List<Long> segments = segments();
+            if (segments.isEmpty()) {
+                return null;
+            }
+            readSegment = segments.get(0);
+            for (Long segment : segments) {
+                if (segment <= appliedSeq + 1) {
+                    readSegment = segment;
+                }
+            }
+            for (Long segment : segments) {
+                if (segment < readSegment) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+            readChannel = FileChannel.open(segmentPath(readSegment), StandardOpenOption.READ);
+            readPosition = 0;
+        }
+        while (true) {
+            long limit = readSegment == durableSegment ? durablePosition : readChannel.size();
+            Record record = read(readChannel, readPosition, limit);
+            if (Objects.isNull(record)) {
+                if (readSegment == durableSegment) {
+                    return null;
+                }
+                Optional<Long> next = segments().stream().filter(segment -> segment > readSegment).findFirst();
+                if (!next.isPresent()) {
+                    return null;
+                }
+                readChannel.close();
+                Files.deleteIfExists(segmentPath(readSegment));
+                readSegment = next.get();
+                readChannel = FileChannel.open(segmentPath(readSegment), StandardOpenOption.READ);
+                readPosition = 0;
+                continue;
+            }
+            if (record.seq <= appliedSeq) {
+                readPosition = record.next;
+                continue;
+            }
+            return record;
+        }
+    }
+
+    private static Record read(FileChannel channel, long position, long limit) throws IOException {
+        if (position + HEADER_BYTES > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, position);
+        header.flip();
+        int length = header.getInt();
+        long seq = header.getLong();
+        Operation operation = Operation.of(header.get());
+        int crc = header.getInt();
+        if (length < 0 || Objects.isNull(operation) || position + HEADER_BYTES + length > limit) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + HEADER_BYTES);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload.array());
+        if ((int) crc32.getValue() != crc) {
+            return null;
+        }
+        return new Record(seq, operation, payload.array(), position + HEADER_BYTES + length);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("unexpected end of spool segment");
+            }
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(String.format("%020d%s", firstSeq, SEGMENT_SUFFIX));
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (Objects.nonNull(channel)) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private enum Operation {
+        SAVE((byte) 1),
+        UPDATE((byte) 2),
+        DELETE((byte) 3),
+        ;
+
+        private final byte code;
+
+        Operation(byte code) {
+            this.code = code;
+        }
+
+        private static Operation of(byte code) {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Record {
+        private final long seq;
+        private final Operation operation;
+        private final byte[] payload;
+        private final long next;
+
+        private Record(long seq, Operation operation, byte[] payload, long next) {
+            this.seq = seq;
+            this.operation = operation;
+            this.payload = payload;
+            this.next = next;
+        }
+    }
+
+    private static class Pending {
+        private final long seq;
+        private final MonoSink<Long> sink;
+
+        private Pending(long seq, MonoSink<Long> sink) {
+            this.seq = seq;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * {@code DocumentsSpool} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private JsonHandler jsonHandler;
+        private Path directory;
+        private long segmentSize = 64L * 1024 * 1024;
+        private Duration syncInterval = Duration.ofMillis(10);
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Target documents operator.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Json handler used to encode spooled documents.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Local directory holding segments and the checkpoint.
+         *
+         * @param val the {@code directory} to set
+         * @return a reference to this Builder
+         */
+        public Builder directory(Path val) {
+            directory = val;
+            return this;
+        }
+
+        /**
+         * Segment size in bytes before rolling to a new segment, default 64MB.
+         *
+         * @param val the {@code segmentSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder segmentSize(long val) {
+            segmentSize = val;
+            return this;
+        }
+
+        /**
+         * Interval of batched fsync and drain wake-up, default 10ms.
+         *
+         * @param val the {@code syncInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder syncInterval(Duration val) {
+            syncInterval = val;
+            return this;
+        }
+
+        /**
+         * Delay before replaying a record the server did not accept, default 1s.
+         *
+         * @param val the {@code retryBackoff} to set
+         * @return a reference to this Builder
+         */
+        public Builder retryBackoff(Duration val) {
+            retryBackoff = val;
+            return this;
+        }
+
+        /**
+         * Returns a started {@code DocumentsSpool} built from the parameters previously set,
+         * recovering segments and checkpoint left in {@code directory}.
+         *
+         * @return a {@code DocumentsSpool} built with parameters of this {@code DocumentsSpool.Builder}
+         * @throws IOException if the spool directory can not be recovered
+         */
+        public DocumentsSpool build() throws IOException {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(Objects.nonNull(directory), "directory must not be null");
+            Asserts.status(segmentSize > HEADER_BYTES, "segmentSize too small");
+            Asserts.status(Objects.nonNull(syncInterval) && syncInterval.toMillis() > 0, "syncInterval must be positive");
+            Asserts.status(Objects.nonNull(retryBackoff), "retryBackoff must not be null");
+            DocumentsSpool spool = new DocumentsSpool(this);
+            spool.start();
+            return spool;
+        }
+    }
+
+}
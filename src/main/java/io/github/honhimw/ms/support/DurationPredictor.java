@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.TaskType;
+import jakarta.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processing time estimates of tasks, learnt from finished ones.
+ * <p>
+ * Keeps exponentially weighted moving averages of the processing time per task type and document count magnitude
+ * (powers of two), per task type, and of the time per document per task type. A prediction uses the most specific
+ * estimate available: same type and magnitude, else the type's time per document times the count, else the type's
+ * average. Thread-safe.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class DurationPredictor {
+
+    /**
+     * Weight of the latest sample.
+     */
+    private static final double ALPHA = 0.3;
+
+    /**
+     * Detail attributes holding the number of documents of a task, in order of preference.
+     */
+    private static final String[] DOCUMENT_COUNTS = {"receivedDocuments", "providedIds", "indexedDocuments", "deletedDocuments"};
+
+    private final Map<String, Average> averages = new ConcurrentHashMap<>();
+
+    /**
+     * @param type       task type
+     * @param documents  number of documents of the task, negative if unknown
+     * @param processing processing time of the task
+     */
+    void record(TaskType type, long documents, Duration processing) {
+        double nanos = processing.toNanos();
+        if (nanos < 0) {
+            return;
+        }
+        average(type.name()).update(nanos);
+        if (documents >= 0) {
+            average(type.name() + '#' + magnitude(documents)).update(nanos);
+        }
+        if (documents > 0) {
+            average(type.name() + "/document").update(nanos / documents);
+        }
+    }
+
+    /**
+     * @param type      task type
+     * @param documents number of documents of the task, negative if unknown
+     * @return predicted processing time, null if no task of the type was recorded
+     */
+    @Nullable
+    Duration predict(TaskType type, long documents) {
+        Duration predicted = null;
+        if (documents >= 0) {
+            predicted = duration(type.name() + '#' + magnitude(documents), 1);
+        }
+        if (Objects.isNull(predicted) && documents > 0) {
+            predicted = duration(type.name() + "/document", documents);
+        }
+        return Objects.nonNull(predicted) ? predicted : duration(type.name(), 1);
+    }
+
+    /**
+     * @param details task details
+     * @return number of documents of the task, -1 if unknown
+     */
+    static long documents(@Nullable Map<String, Object> details) {
+        if (Objects.isNull(details)) {
+            return -1;
+        }
+        for (String attribute : DOCUMENT_COUNTS) {
+            Object value = details.get(attribute);
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param documents non-negative document count
+     * @return 0 for none, else the number of bits of the count
+     */
+    static int magnitude(long documents) {
+        return 64 - Long.numberOfLeadingZeros(documents);
+    }
+
+    private Average average(String key) {
+        return averages.computeIfAbsent(key, k -> new Average());
+    }
+
+    @Nullable
+    private Duration duration(String key, long times) {
+        Average average = averages.get(key);
+        return Objects.nonNull(average) ? average.duration(times) : null;
+    }
+
+    private static final class Average {
+
+        private double value = Double.NaN;
+
+        private synchronized void update(double sample) {
+            value = Double.isNaN(value) ? sample : value + ALPHA * (sample - value);
+        }
+
+        @Nullable
+        private synchronized Duration duration(long times) {
+            return Double.isNaN(value) ? null : Duration.ofNanos((long) Math.min(value * times, Long.MAX_VALUE));
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU of embeddings keyed by the 64-bit hash of their embedder and text.
+ * <p>
+ * Only the hash is kept, never the text, so an entry costs the vector plus a few dozen bytes. Vectors are stored
+ * as given, callers copy them in and out.
+ * The cache can be written to and read back from a flat binary file: {@code [int count]} followed by
+ * {@code [long hash][int dimensions][float...]} per entry, least recently used first.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class EmbeddingCache {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Long, float[]> entries;
+
+    EmbeddingCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, float[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+                return size() > EmbeddingCache.this.capacity;
+            }
+        };
+    }
+
+    static long key(String text) {
+        return HashUtils.hash64(text);
+    }
+
+    /**
+     * @param embedder embedder and model the vector comes from
+     * @param text     embedded text
+     * @return key of the text's vector for this embedder
+     */
+    static long key(String embedder, String text) {
+        return HashUtils.hash64(embedder + '\u0000' + text);
+    }
+
+    synchronized float[] get(long key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(long key, float[] vector) {
+        entries.put(key, vector);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write all entries to {@code file}, through a temporary sibling and an atomic move.
+     *
+     * @param file target file
+     * @throws IOException if an I/O error occurs
+     */
+    void save(Path file) throws IOException {
+        List<Map.Entry<Long, float[]>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Long, float[]> entry : snapshot) {
+                float[] vector = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeInt(vector.length);
+                for (float f : vector) {
+                    out.writeFloat(f);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read entries written by {@link #save(Path)}, keeping the most recent {@code capacity} of them.
+     *
+     * @param file     source file
+     * @param capacity maximum entries
+     * @return loaded cache
+     * @throws IOException if an I/O error occurs
+     */
+    static EmbeddingCache load(Path file, int capacity) throws IOException {
+        EmbeddingCache cache = new EmbeddingCache(capacity);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                float[] vector = new float[in.readInt()];
+                for (int j = 0; j < vector.length; j++) {
+                    vector[j] = in.readFloat();
+                }
+                cache.entries.put(key, vector);
+            }
+        }
+        return cache;
+    }
+
+}
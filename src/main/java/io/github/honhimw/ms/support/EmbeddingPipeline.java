@@ -0,0 +1,382 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.model.PrimitiveVector;
+import io.github.honhimw.ms.model.SearchRequest;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.VectorizedDocument;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Client-side embedding stage for {@code userProvided} embedders.
+ * <p>
+ * Texts are looked up in a bounded LRU keyed by the 64-bit hash of {@code embedderName}, {@code model} and text,
+ * duplicates within a call are embedded once, and the remaining texts are sent to the {@code embedder} function in
+ * batches of {@code batchSize}. The cache can be persisted to {@code cacheFile}, so repeated hybrid queries skip the
+ * embedding call across restarts; set {@code model} so a cache file written for another model is not served.
+ * Every returned vector is a copy, the cache can not be modified through it.
+ *
+ * <pre>
+ * EmbeddingPipeline pipeline = EmbeddingPipeline.builder()
+ *     .embedder(texts -&gt; openAi.embed(texts))
+ *     .embedderName("default")
+ *     .model("text-embedding-3-small")
+ *     .build();
+ * pipeline.vectorize(SearchRequest.builder().q("wizard").hybrid(hybrid).build())
+ *     .flatMap(request -&gt; search.find(request));
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class EmbeddingPipeline {
+
+    private final Function<List<String>, Mono<List<float[]>>> embedder;
+
+    private final String embedderName;
+
+    private final String namespace;
+
+    private final int batchSize;
+
+    private final int concurrency;
+
+    private final Path cacheFile;
+
+    private final EmbeddingCache cache;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private EmbeddingPipeline(Builder builder, EmbeddingCache cache) {
+        this.embedder = builder.embedder;
+        this.embedderName = builder.embedderName;
+        this.namespace = builder.embedderName + '\u0000' + Optional.ofNullable(builder.model).orElse("");
+        this.batchSize = builder.batchSize;
+        this.concurrency = builder.concurrency;
+        this.cacheFile = builder.cacheFile;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Embed one text.
+     *
+     * @param text text to embed
+     * @return embedding
+     */
+    public Mono<float[]> embed(String text) {
+        return embedAll(Collections.singletonList(text)).map(vectors -> vectors.get(0));
+    }
+
+    /**
+     * Embed texts, keeping input order.
+     *
+     * @param texts texts to embed
+     * @return embeddings, one per text
+     */
+    public Mono<List<float[]>> embedAll(List<String> texts) {
+        return Mono.defer(() -> {
+            float[][] vectors = new float[texts.size()][];
+            Map<Long, List<Integer>> missing = new LinkedHashMap<>();
+            List<String> missingTexts = new ArrayList<>();
+            for (int i = 0; i < texts.size(); i++) {
+                String text = texts.get(i);
+                long key = EmbeddingCache.key(namespace, text);
+                float[] vector = cache.get(key);
+                if (Objects.nonNull(vector)) {
+                    hits.incrementAndGet();
+                    vectors[i] = vector.clone();
+                    continue;
+                }
+                misses.incrementAndGet();
+                List<Integer> slots = missing.get(key);
+                if (Objects.isNull(slots)) {
+                    slots = new ArrayList<>(1);
+                    missing.put(key, slots);
+                    missingTexts.add(text);
+                }
+                slots.add(i);
+            }
+            if (missingTexts.isEmpty()) {
+                return Mono.just(Arrays.asList(vectors));
+            }
+            List<Long> keys = new ArrayList<>(missing.keySet());
+            int batches = (missingTexts.size() + batchSize - 1) / batchSize;
+            return Flux.range(0, batches)
+                .flatMap(batch -> {
+                    int from = batch * batchSize;
+                    int to = Math.min(from + batchSize, missingTexts.size());
+                    calls.incrementAndGet();
+                    return embedder.apply(missingTexts.subList(from, to))
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException(String.format("embedder returned nothing for %d texts", to - from))))
+                        .doOnNext(result -> {
+                            if (result.size() != to - from) {
+                                throw new IllegalStateException(String.format("embedder returned %d vectors for %d texts", result.size(), to - from));
+                            }
+                            for (int j = 0; j < result.size(); j++) {
+                                float[] vector = result.get(j);
+                                if (Objects.isNull(vector) || vector.length == 0) {
+                                    throw new IllegalStateException(String.format("embedder returned an empty vector for text %d of %d", j, to - from));
+                                }
+                            }
+                            for (int j = 0; j < result.size(); j++) {
+                                long key = keys.get(from + j);
+                                float[] vector = result.get(j);
+                                cache.put(key, vector.clone());
+                                List<Integer> slots = missing.get(key);
+                                vectors[slots.get(0)] = vector;
+                                for (int k = 1; k < slots.size(); k++) {
+                                    vectors[slots.get(k)] = vector.clone();
+                                }
+                            }
+                        });
+                }, concurrency)
+                .then(Mono.fromSupplier(() -> Arrays.asList(vectors)));
+        });
+    }
+
+    /**
+     * Fill {@code _vectors[embedderName]} of every document that has text and no vector for this embedder yet.
+     *
+     * @param documents documents to vectorize in place
+     * @return the same documents
+     */
+    public Mono<List<VectorizedDocument>> vectorize(Collection<VectorizedDocument> documents) {
+        List<VectorizedDocument> all = new ArrayList<>(documents);
+        List<VectorizedDocument> pending = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (VectorizedDocument document : all) {
+            Map<String, List<Number>> vectors = document.get_vectors();
+            if (Objects.nonNull(document.getText()) && (Objects.isNull(vectors) || !vectors.containsKey(embedderName))) {
+                pending.add(document);
+                texts.add(document.getText());
+            }
+        }
+        if (pending.isEmpty()) {
+            return Mono.just(all);
+        }
+        return embedAll(texts).map(embeddings -> {
+            for (int i = 0; i < pending.size(); i++) {
+                VectorizedDocument document = pending.get(i);
+                if (Objects.isNull(document.get_vectors())) {
+                    document.set_vectors(new HashMap<>());
+                }
+                document.get_vectors().put(embedderName, PrimitiveVector.of(embeddings.get(i)));
+            }
+            return all;
+        });
+    }
+
+    /**
+     * Fill {@link SearchRequest#getVector()} from the query if it is not set.
+     *
+     * @param request search request to vectorize in place
+     * @return the same request
+     */
+    public Mono<SearchRequest> vectorize(SearchRequest request) {
+        if (Objects.nonNull(request.getVector()) || Objects.isNull(request.getQ()) || request.getQ().isEmpty()) {
+            return Mono.just(request);
+        }
+        return embed(request.getQ()).map(vector -> {
+            request.setVector(PrimitiveVector.of(vector));
+            return request;
+        });
+    }
+
+    /**
+     * Vectorize and save documents.
+     *
+     * @param documents target documents operator
+     * @param collection documents to save
+     * @return task info
+     */
+    public Mono<TaskInfo> saveVectorized(ReactiveDocuments documents, Collection<VectorizedDocument> collection) {
+        return vectorize(collection).flatMap(documents::saveVectorized);
+    }
+
+    /**
+     * Write the cache to {@code cacheFile}, no-op without one.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void persist() throws IOException {
+        if (Objects.nonNull(cacheFile)) {
+            cache.save(cacheFile);
+        }
+    }
+
+    /**
+     * @return number of texts served from the cache
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of texts not found in the cache
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of embedder calls
+     */
+    public long calls() {
+        return calls.get();
+    }
+
+    /**
+     * @return number of cached embeddings
+     */
+    public int cached() {
+        return cache.size();
+    }
+
+    /**
+     * {@code EmbeddingPipeline} builder static inner class.
+     */
+    public static final class Builder {
+        private Function<List<String>, Mono<List<float[]>>> embedder;
+        private String embedderName = "default";
+        private String model;
+        private int batchSize = 64;
+        private int concurrency = 2;
+        private int cacheSize = 10_000;
+        private Path cacheFile;
+
+        private Builder() {
+        }
+
+        /**
+         * Embedding function, must return one vector per text in order.
+         *
+         * @param val the {@code embedder} to set
+         * @return a reference to this Builder
+         */
+        public Builder embedder(Function<List<String>, Mono<List<float[]>>> val) {
+            embedder = val;
+            return this;
+        }
+
+        /**
+         * Name of the {@code userProvided} embedder in the index settings, default {@code default}.
+         *
+         * @param val the {@code embedderName} to set
+         * @return a reference to this Builder
+         */
+        public Builder embedderName(String val) {
+            embedderName = val;
+            return this;
+        }
+
+        /**
+         * Name and version of the embedding model, part of the cache key, optional.
+         *
+         * @param val the {@code model} to set
+         * @return a reference to this Builder
+         */
+        public Builder model(String val) {
+            model = val;
+            return this;
+        }
+
+        /**
+         * Maximum texts per embedder call, default 64.
+         *
+         * @param val the {@code batchSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder batchSize(int val) {
+            batchSize = val;
+            return this;
+        }
+
+        /**
+         * Maximum concurrent embedder calls, default 2.
+         *
+         * @param val the {@code concurrency} to set
+         * @return a reference to this Builder
+         */
+        public Builder concurrency(int val) {
+            concurrency = val;
+            return this;
+        }
+
+        /**
+         * Maximum cached embeddings, default 10000.
+         *
+         * @param val the {@code cacheSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder cacheSize(int val) {
+            cacheSize = val;
+            return this;
+        }
+
+        /**
+         * Cache file, loaded on build if present and written by {@link EmbeddingPipeline#persist()}.
+         *
+         * @param val the {@code cacheFile} to set
+         * @return a reference to this Builder
+         */
+        public Builder cacheFile(Path val) {
+            cacheFile = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code EmbeddingPipeline} built from the parameters previously set.
+         *
+         * @return a {@code EmbeddingPipeline} built with parameters of this {@code EmbeddingPipeline.Builder}
+         * @throws IOException if the cache file cannot be read
+         */
+        public EmbeddingPipeline build() throws IOException {
+            Asserts.status(Objects.nonNull(embedder), "embedder must not be null");
+            Asserts.status(Objects.nonNull(embedderName), "embedderName must not be null");
+            Asserts.status(batchSize > 0, "batchSize must be positive");
+            Asserts.status(concurrency > 0, "concurrency must be positive");
+            Asserts.status(cacheSize > 0, "cacheSize must be positive");
+            EmbeddingCache cache = Objects.nonNull(cacheFile) && Files.exists(cacheFile)
+                ? EmbeddingCache.load(cacheFile, cacheSize)
+                : new EmbeddingCache(cacheSize);
+            return new EmbeddingPipeline(this, cache);
+        }
+    }
+
+}
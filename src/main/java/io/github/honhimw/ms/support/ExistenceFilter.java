@@ -0,0 +1,575 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Negative-lookup filter of an index's primary keys.
+ * <p>
+ * {@link #rebuild()} streams every primary key of the index into a fresh {@link BloomFilter} and swaps it in;
+ * with {@code rebuildInterval} set, it runs right after build and then periodically. Keys are paged by offset; a
+ * deletion during the scan shifts later documents towards pages already read, so a rebuild that sees the total drop
+ * fails and keeps the current filter rather than swap in one missing keys. A rebuild requested while one is running
+ * joins it.
+ * <p>
+ * Documents written through {@link #wrap(ReactiveDocuments)} are added before the write is sent and stay journaled
+ * until their task has completed: a rebuild replays every id added while it ran, and every id whose write was still
+ * unfinished when it started, into the new filter when it is swapped in, since the scan may not have seen them.
+ * Once seeded, {@code get(id)} for an id the filter has definitely never seen returns empty without a request;
+ * possible hits, and every lookup before the first rebuild completes, go to the server as usual.
+ * <p>
+ * Deletes do not clear bits, so deleted ids keep costing a round trip until the next rebuild. Documents written
+ * by other clients are only visible after the next rebuild, so keep {@code rebuildInterval} below their write latency
+ * budget or do not use this filter for indexes with foreign writers.
+ *
+ * <pre>
+ * ExistenceFilter filter = ExistenceFilter.builder()
+ *     .documents(client.indexes().documents("products"))
+ *     .tasks(client.tasks())
+ *     .jsonHandler(jsonHandler)
+ *     .primaryKey("id")
+ *     .rebuildInterval(Duration.ofMinutes(10))
+ *     .build();
+ * ReactiveDocuments documents = filter.wrap(client.indexes().documents("products"));
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ExistenceFilter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ExistenceFilter.class);
+
+    private final ReactiveDocuments documents;
+
+    private final ReactiveTasks tasks;
+
+    private final Duration taskTimeout;
+
+    private final JsonHandler jsonHandler;
+
+    private final String primaryKey;
+
+    private final long expectedSize;
+
+    private final double fpp;
+
+    private final int pageSize;
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong passed = new AtomicLong();
+
+    private final Map<String, Integer> unfinished = new ConcurrentHashMap<>();
+
+    private final AtomicReference<Mono<Long>> running = new AtomicReference<>();
+
+    private volatile BloomFilter current;
+
+    private volatile Queue<String> journal;
+
+    private Disposable rebuilder;
+
+    private ExistenceFilter(Builder builder) {
+        this.documents = builder.documents;
+        this.tasks = builder.tasks;
+        this.taskTimeout = builder.taskTimeout;
+        this.jsonHandler = builder.jsonHandler;
+        this.primaryKey = builder.primaryKey;
+        this.expectedSize = builder.expectedSize;
+        this.fpp = builder.fpp;
+        this.pageSize = builder.pageSize;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Attach this filter to a documents operator of the same index.
+     *
+     * @param delegate documents operator
+     * @return filtering documents operator
+     */
+    public ReactiveDocuments wrap(ReactiveDocuments delegate) {
+        return new FilteredDocuments(delegate);
+    }
+
+    /**
+     * Stream all primary keys into a new filter and swap it in, or join the rebuild already running.
+     *
+     * @return number of keys loaded
+     */
+    public Mono<Long> rebuild() {
+        return Mono.defer(() -> {
+            while (true) {
+                Mono<Long> active = running.get();
+                if (Objects.nonNull(active)) {
+                    return active;
+                }
+                AtomicReference<Mono<Long>> self = new AtomicReference<>();
+                Mono<Long> created = load()
+                    // cleared before the result is delivered, so a rebuild requested on receiving it runs again
+                    .doOnEach(signal -> running.compareAndSet(self.get(), null))
+                    .cache();
+                self.set(created);
+                if (running.compareAndSet(null, created)) {
+                    return created;
+                }
+            }
+        });
+    }
+
+    private Mono<Long> load() {
+        return Mono.defer(() -> {
+            AtomicLong count = new AtomicLong();
+            AtomicLong offset = new AtomicLong();
+            AtomicLong firstTotal = new AtomicLong(-1);
+            AtomicReference<BloomFilter> building = new AtomicReference<>();
+            Queue<String> _journal = new ConcurrentLinkedQueue<>();
+            journal = _journal;
+            // after publishing the journal, so a write tracked later is added to it
+            _journal.addAll(unfinished.keySet());
+            return page(0)
+                .expand(page -> {
+                    List<Map<String, Object>> results = Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+                    if (results.size() < pageSize) {
+                        return Mono.empty();
+                    }
+                    return page(Math.toIntExact(offset.addAndGet(results.size())));
+                })
+                .doOnNext(page -> {
+                    long total = Optional.ofNullable(page.getTotal()).orElse(0);
+                    if (firstTotal.compareAndSet(-1, total)) {
+                        building.set(new BloomFilter(Math.max(expectedSize, total + (total >> 2)), fpp));
+                    } else if (total < firstTotal.get()) {
+                        throw new IllegalStateException(String.format("documents deleted while scanning, %d of %d left", total, firstTotal.get()));
+                    }
+                    BloomFilter filter = building.get();
+                    for (Map<String, Object> document : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                        Object id = document.get(primaryKey);
+                        if (Objects.nonNull(id)) {
+                            filter.put(DocumentIds.of(id));
+                            count.incrementAndGet();
+                        }
+                    }
+                })
+                .then(Mono.fromSupplier(() -> {
+                    if (journal != _journal) {
+                        // disabled by an unreadable write while scanning
+                        return count.get();
+                    }
+                    BloomFilter filter = building.get();
+                    current = filter;
+                    for (String id : _journal) {
+                        filter.put(id);
+                    }
+                    journal = null;
+                    return count.get();
+                }))
+                .doOnError(throwable -> journal = null);
+        });
+    }
+
+    private Mono<Page<Map<String, Object>>> page(int offset) {
+        GetDocumentRequest request = new GetDocumentRequest();
+        request.setOffset(offset);
+        request.setLimit(pageSize);
+        request.setFields(Collections.singletonList(primaryKey));
+        return documents.list(request);
+    }
+
+    /**
+     * @param id document id
+     * @return false if the document definitely does not exist, true if it may exist or the filter is not seeded yet
+     */
+    public boolean mightContain(String id) {
+        BloomFilter filter = current;
+        return Objects.isNull(filter) || filter.mightContain(id);
+    }
+
+    /**
+     * Record a document id written outside {@link #wrap(ReactiveDocuments)}.
+     *
+     * @param id document id
+     */
+    public void add(String id) {
+        Queue<String> added = journal;
+        if (Objects.nonNull(added)) {
+            added.add(id);
+        }
+        BloomFilter filter = current;
+        if (Objects.nonNull(filter)) {
+            filter.put(id);
+        }
+    }
+
+    /**
+     * @return number of lookups answered empty without a request
+     */
+    public long skipped() {
+        return skipped.get();
+    }
+
+    /**
+     * @return number of lookups sent to the server
+     */
+    public long passed() {
+        return passed.get();
+    }
+
+    /**
+     * Stop periodic rebuilds.
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(rebuilder)) {
+            rebuilder.dispose();
+        }
+    }
+
+    private void start(Duration rebuildInterval) {
+        rebuilder = Flux.interval(Duration.ZERO, rebuildInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> rebuild()
+                .doOnNext(count -> log.debug("existence filter rebuilt with {} keys", count))
+                .onErrorResume(throwable -> {
+                    log.warn("existence filter rebuild failed", throwable);
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    private List<String> ids(Collection<?> collection) {
+        List<String> ids = new ArrayList<>(collection.size());
+        for (Object document : collection) {
+            Object id = jsonHandler.transform(document, TypeRefs.StringObjectMapRef.INSTANCE).get(primaryKey);
+            if (Objects.nonNull(id)) {
+                ids.add(DocumentIds.of(id));
+            }
+        }
+        return ids;
+    }
+
+    private List<String> ids(String json) {
+        try {
+            String trimmed = json.trim();
+            if (trimmed.startsWith("{")) {
+                return ids(Collections.singletonList(jsonHandler.fromJson(trimmed, TypeRefs.StringObjectMapRef.INSTANCE)));
+            } else {
+                return ids(jsonHandler.fromJson(trimmed, TypeRefs.StringObjectMapListRef.INSTANCE));
+            }
+        } catch (RuntimeException e) {
+            log.warn("cannot read ids of a raw json write, existence filter disabled until the next rebuild", e);
+            journal = null;
+            current = null;
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Add the ids, and keep them journaled for rebuilds until the write's task has completed.
+     */
+    private Mono<TaskInfo> tracked(List<String> ids, Mono<TaskInfo> write) {
+        // tracked before added, so a rebuild starting in between still replays them
+        for (String id : ids) {
+            unfinished.merge(id, 1, Integer::sum);
+        }
+        for (String id : ids) {
+            add(id);
+        }
+        return write
+            .doOnNext(taskInfo -> tasks.waitForTask(taskInfo.getTaskUid(), taskTimeout)
+                .doFinally(signal -> untrack(ids))
+                .subscribe(null, throwable -> log.debug("cannot wait for task [{}]", taskInfo.getTaskUid(), throwable)))
+            .doOnError(throwable -> untrack(ids))
+            .doOnCancel(() -> untrack(ids));
+    }
+
+    private void untrack(List<String> ids) {
+        for (String id : ids) {
+            unfinished.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * @return number of distinct ids whose write has not completed yet
+     */
+    int unfinished() {
+        return unfinished.size();
+    }
+
+    private <V> Mono<V> lookup(String id, Supplier<Mono<V>> loader) {
+        if (!mightContain(id)) {
+            skipped.incrementAndGet();
+            return Mono.empty();
+        }
+        passed.incrementAndGet();
+        return loader.get();
+    }
+
+    private final class FilteredDocuments implements ReactiveDocuments {
+
+        private final ReactiveDocuments delegate;
+
+        private FilteredDocuments(ReactiveDocuments delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+            return delegate.list(page);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(@Nullable Integer offset, @Nullable Integer limit, TypeRef<T> typeRef) {
+            return delegate.list(offset, limit, typeRef);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(GetDocumentRequest page, TypeRef<T> typeRef) {
+            return delegate.list(page, typeRef);
+        }
+
+        @Override
+        public Mono<TaskInfo> save(String json) {
+            return Mono.defer(() -> tracked(ids(json), delegate.save(json)));
+        }
+
+        @Override
+        public Mono<TaskInfo> save(Collection<?> collection) {
+            return Mono.defer(() -> tracked(ids(collection), delegate.save(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> saveVectorized(Collection<VectorizedDocument> collection) {
+            return Mono.defer(() -> tracked(ids(collection), delegate.saveVectorized(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(String json) {
+            return Mono.defer(() -> tracked(ids(json), delegate.update(json)));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(Collection<?> collection) {
+            return Mono.defer(() -> tracked(ids(collection), delegate.update(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> deleteAll() {
+            return delegate.deleteAll();
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+            return delegate.batchGet(fetch);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch, TypeRef<T> typeRef) {
+            return delegate.batchGet(fetch, typeRef);
+        }
+
+        @Override
+        public Mono<TaskInfo> batchDelete(List<String> ids) {
+            return delegate.batchDelete(ids);
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(FilterableAttributesRequest filter) {
+            return delegate.delete(filter);
+        }
+
+        @Override
+        public Mono<Map<String, Object>> get(String id, @Nullable String... fields) {
+            return lookup(id, () -> delegate.get(id, fields));
+        }
+
+        @Override
+        public <T> Mono<T> get(String id, TypeRef<T> typeRef, @Nullable String... fields) {
+            return lookup(id, () -> delegate.get(id, typeRef, fields));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(String id) {
+            return delegate.delete(id);
+        }
+    }
+
+    /**
+     * {@code ExistenceFilter} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private ReactiveTasks tasks;
+        private Duration taskTimeout = Duration.ofMinutes(5);
+        private JsonHandler jsonHandler;
+        private String primaryKey;
+        private long expectedSize = 1_000_000;
+        private double fpp = 0.01;
+        private int pageSize = 1000;
+        private Duration rebuildInterval;
+
+        private Builder() {
+        }
+
+        /**
+         * Documents operator used to stream primary keys.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Tasks operator used to learn when writes have completed.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * How long a written id stays journaled at most while its task is unfinished, default 5min.
+         *
+         * @param val the {@code taskTimeout} to set
+         * @return a reference to this Builder
+         */
+        public Builder taskTimeout(Duration val) {
+            taskTimeout = val;
+            return this;
+        }
+
+        /**
+         * Json handler to read ids of written documents.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Primary key of the index.
+         *
+         * @param val the {@code primaryKey} to set
+         * @return a reference to this Builder
+         */
+        public Builder primaryKey(String val) {
+            primaryKey = val;
+            return this;
+        }
+
+        /**
+         * Expected number of documents, default 1000000. A rebuild grows the filter if the index is larger.
+         *
+         * @param val the {@code expectedSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder expectedSize(long val) {
+            expectedSize = val;
+            return this;
+        }
+
+        /**
+         * False positive probability, default 0.01.
+         *
+         * @param val the {@code fpp} to set
+         * @return a reference to this Builder
+         */
+        public Builder fpp(double val) {
+            fpp = val;
+            return this;
+        }
+
+        /**
+         * Primary keys per page when rebuilding, default 1000.
+         *
+         * @param val the {@code pageSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder pageSize(int val) {
+            pageSize = val;
+            return this;
+        }
+
+        /**
+         * Rebuild right after build and then at this interval, no automatic rebuild if null.
+         *
+         * @param val the {@code rebuildInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder rebuildInterval(Duration val) {
+            rebuildInterval = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code ExistenceFilter} built from the parameters previously set.
+         *
+         * @return a {@code ExistenceFilter} built with parameters of this {@code ExistenceFilter.Builder}
+         */
+        public ExistenceFilter build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(taskTimeout) && !taskTimeout.isNegative() && !taskTimeout.isZero(), "taskTimeout must be positive");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(Objects.nonNull(primaryKey), "primaryKey must not be null");
+            Asserts.status(expectedSize > 0, "expectedSize must be positive");
+            Asserts.status(fpp > 0 && fpp < 1, "fpp must be between 0 and 1");
+            Asserts.status(pageSize > 0, "pageSize must be positive");
+            ExistenceFilter filter = new ExistenceFilter(this);
+            if (Objects.nonNull(rebuildInterval)) {
+                filter.start(rebuildInterval);
+            }
+            return filter;
+        }
+    }
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveFacetingSettings;
+import io.github.honhimw.ms.api.reactive.ReactiveSearch;
+import io.github.honhimw.ms.model.FacetSearchRequest;
+import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchRequest;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local facet values of one facet, answering facet search prefix lookups in memory.
+ * <p>
+ * Values and counts are loaded from the {@code facetDistribution} of an empty placeholder search, which returns at most
+ * {@code faceting.maxValuesPerFacet} values. The limit is read from the {@code faceting} settings if set, otherwise
+ * taken from {@code maxValuesPerFacet} (default 100, the server default). A refresh loading as many values as the limit
+ * may be truncated: it fails, and the index is unloaded so that facet searches go to the server until a refresh fits.
+ * Values are kept in a sorted array of word starts, see {@link FacetValues}.
+ * <p>
+ * {@link #facetSearch(FacetSearchRequest)} answers locally when the request only carries the facet name and a
+ * {@code facetQuery}, and falls back to the server when it has a {@code q}, a {@code filter}, or the index is not loaded.
+ * Local matching is by word prefix, without typo tolerance.
+ *
+ * <pre>
+ * FacetIndex genres = FacetIndex.builder()
+ *     .search(client.indexes().search("movies"))
+ *     .faceting(client.indexes().settings("movies").faceting())
+ *     .facetName("genres")
+ *     .refreshInterval(Duration.ofMinutes(5))
+ *     .build();
+ * genres.start();
+ * List&lt;FacetSearchResponse.FacetHit&gt; hits = genres.lookup("sci", 10);
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FacetIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetIndex.class);
+
+    private static final int DEFAULT_MAX_VALUES_PER_FACET = 100;
+
+    private final ReactiveSearch search;
+
+    @Nullable
+    private final ReactiveFacetingSettings faceting;
+
+    private final int maxValuesPerFacet;
+
+    private final String facetName;
+
+    private final int maxHits;
+
+    private final boolean sortByCount;
+
+    @Nullable
+    private final Duration refreshInterval;
+
+    private volatile FacetValues snapshot;
+
+    private volatile Disposable refreshing;
+
+    private final AtomicLong local = new AtomicLong();
+
+    private final AtomicLong remote = new AtomicLong();
+
+    private FacetIndex(Builder builder) {
+        this.search = builder.search;
+        this.faceting = builder.faceting;
+        this.maxValuesPerFacet = builder.maxValuesPerFacet;
+        this.facetName = builder.facetName;
+        this.maxHits = builder.maxHits;
+        this.sortByCount = builder.sortByCount;
+        this.refreshInterval = builder.refreshInterval;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Load the facet values, then reload them every {@code refreshInterval} if set.
+     *
+     * @return this
+     */
+    public FacetIndex start() {
+        Asserts.status(Objects.isNull(refreshing), "already started");
+        Flux<Long> ticks = Objects.nonNull(refreshInterval) ? Flux.interval(Duration.ZERO, refreshInterval) : Flux.just(0L);
+        refreshing = ticks
+            .concatMap(tick -> refresh().onErrorResume(throwable -> {
+                log.warn("facet index [{}] refresh failed", facetName, throwable);
+                return Mono.empty();
+            }))
+            .subscribe();
+        return this;
+    }
+
+    /**
+     * Reload the facet values.
+     *
+     * @return number of distinct values
+     * @throws IllegalStateException (as an error signal) if as many values as {@code maxValuesPerFacet} were returned,
+     *                               in which case the index is unloaded
+     */
+    public Mono<Integer> refresh() {
+        SearchRequest request = SearchRequest.builder()
+            .q("")
+            .limit(0)
+            .facets(Collections.singletonList(facetName))
+            .build();
+        Mono<Integer> limit = Objects.nonNull(faceting)
+            ? faceting.get().map(settings -> Optional.ofNullable(settings.getMaxValuesPerFacet()).orElse(DEFAULT_MAX_VALUES_PER_FACET))
+            : Mono.just(maxValuesPerFacet);
+        return limit.flatMap(max -> search.find(request).map(response -> {
+            Map<String, Integer> distribution = Optional.ofNullable(response.getFacetDistribution())
+                .map(facets -> facets.get(facetName))
+                .orElse(Collections.emptyMap());
+            if (distribution.size() >= max) {
+                snapshot = null;
+                throw new IllegalStateException(String.format(
+                    "facet [%s] returned %d values, the faceting.maxValuesPerFacet limit: values may be truncated, raise it",
+                    facetName, distribution.size()));
+            }
+            FacetValues loaded = new FacetValues(distribution);
+            snapshot = loaded;
+            log.debug("facet index [{}] loaded {} values", facetName, loaded.size());
+            return loaded.size();
+        }));
+    }
+
+    /**
+     * Reload the facet values once {@code completion} completes, e.g. {@code tasks.waitForTask(uid)} of a write.
+     *
+     * @param completion completion of a write
+     * @return number of distinct values
+     */
+    public Mono<Integer> refreshAfter(Mono<?> completion) {
+        return completion.then(refresh());
+    }
+
+    /**
+     * @return true once the facet values are loaded
+     */
+    public boolean isLoaded() {
+        return Objects.nonNull(snapshot);
+    }
+
+    /**
+     * Facet values having a word starting with {@code facetQuery}.
+     *
+     * @param facetQuery prefix, all values if empty
+     * @param limit      maximum hits
+     * @return facet hits, sorted by value or by count
+     * @throws IllegalStateException if the facet values are not loaded
+     */
+    public List<FacetSearchResponse.FacetHit> lookup(@Nullable String facetQuery, int limit) {
+        FacetValues current = snapshot;
+        Asserts.status(Objects.nonNull(current), "facet index is not loaded");
+        local.incrementAndGet();
+        return current.lookup(Optional.ofNullable(facetQuery).orElse(""), limit, sortByCount);
+    }
+
+    /**
+     * Facet search, answered locally if possible.
+     *
+     * @param request facet-search request
+     * @return search result
+     */
+    public Mono<FacetSearchResponse> facetSearch(FacetSearchRequest request) {
+        boolean localOnly = facetName.equals(request.getFacetName())
+            && StringUtils.isEmpty(request.getQ())
+            && StringUtils.isEmpty(request.getFilter())
+            && isLoaded();
+        if (!localOnly) {
+            remote.incrementAndGet();
+            return search.facetSearch(request);
+        }
+        return Mono.fromSupplier(() -> {
+            long start = System.nanoTime();
+            FacetSearchResponse response = new FacetSearchResponse();
+            response.setFacetHits(lookup(request.getFacetQuery(), maxHits));
+            response.setFacetQuery(request.getFacetQuery());
+            response.setProcessingTimeMs((System.nanoTime() - start) / 1_000_000);
+            return response;
+        });
+    }
+
+    /**
+     * @return number of lookups answered locally
+     */
+    public long local() {
+        return local.get();
+    }
+
+    /**
+     * @return number of facet searches sent to the server
+     */
+    public long remote() {
+        return remote.get();
+    }
+
+    @Override
+    public void close() {
+        Disposable current = refreshing;
+        if (Objects.nonNull(current)) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * {@code FacetIndex} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveSearch search;
+        private ReactiveFacetingSettings faceting;
+        private int maxValuesPerFacet = DEFAULT_MAX_VALUES_PER_FACET;
+        private String facetName;
+        private int maxHits = 100;
+        private boolean sortByCount = false;
+        private Duration refreshInterval;
+
+        private Builder() {
+        }
+
+        /**
+         * Search operator of the index.
+         *
+         * @param val the {@code search} to set
+         * @return a reference to this Builder
+         */
+        public Builder search(ReactiveSearch val) {
+            search = val;
+            return this;
+        }
+
+        /**
+         * Faceting settings of the index, to read {@code maxValuesPerFacet} on every refresh, optional.
+         *
+         * @param val the {@code faceting} to set
+         * @return a reference to this Builder
+         */
+        public Builder faceting(ReactiveFacetingSettings val) {
+            faceting = val;
+            return this;
+        }
+
+        /**
+         * {@code faceting.maxValuesPerFacet} of the index when {@code faceting} is not set, default 100.
+         *
+         * @param val the {@code maxValuesPerFacet} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxValuesPerFacet(int val) {
+            maxValuesPerFacet = val;
+            return this;
+        }
+
+        /**
+         * Facet to index, must be one of the index's {@code filterableAttributes}.
+         *
+         * @param val the {@code facetName} to set
+         * @return a reference to this Builder
+         */
+        public Builder facetName(String val) {
+            facetName = val;
+            return this;
+        }
+
+        /**
+         * Maximum hits of a local facet search, default 100 like the server's {@code maxFacetHits}.
+         *
+         * @param val the {@code maxHits} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxHits(int val) {
+            maxHits = val;
+            return this;
+        }
+
+        /**
+         * Sort local hits by descending count instead of by value, default false.
+         *
+         * @param val the {@code sortByCount} to set
+         * @return a reference to this Builder
+         */
+        public Builder sortByCount(boolean val) {
+            sortByCount = val;
+            return this;
+        }
+
+        /**
+         * Reload interval after {@link #start()}, optional.
+         *
+         * @param val the {@code refreshInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder refreshInterval(Duration val) {
+            refreshInterval = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code FacetIndex} built from the parameters previously set.
+         *
+         * @return a {@code FacetIndex} built with parameters of this {@code FacetIndex.Builder}
+         */
+        public FacetIndex build() {
+            Asserts.status(Objects.nonNull(search), "search must not be null");
+            Asserts.status(StringUtils.isNotBlank(facetName), "facetName must not be blank");
+            Asserts.status(maxHits > 0, "maxHits must be positive");
+            Asserts.status(maxValuesPerFacet > 0, "maxValuesPerFacet must be positive");
+            Asserts.status(Objects.isNull(refreshInterval) || !refreshInterval.isNegative() && !refreshInterval.isZero(), "refreshInterval must be positive");
+            return new FacetIndex(this);
+        }
+    }
+
+}
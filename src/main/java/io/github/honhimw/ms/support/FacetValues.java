@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.FacetSearchResponse;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable facet values with counts, indexed for word-prefix lookups.
+ * <p>
+ * Every word start of every value is kept as a normalized (lower-cased, accent-folded) suffix in one sorted array,
+ * a lookup is a binary search for the first suffix starting with the normalized query and a scan of the matching ones.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class FacetValues {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final String[] values;
+
+    private final int[] counts;
+
+    /**
+     * Normalized suffix of a value from one of its word starts, sorted.
+     */
+    private final String[] keys;
+
+    /**
+     * Value index of each key.
+     */
+    private final int[] owners;
+
+    FacetValues(Map<String, Integer> distribution) {
+        String[][] sorted = new String[distribution.size()][];
+        int i = 0;
+        for (String value : distribution.keySet()) {
+            sorted[i++] = new String[]{normalize(value), value};
+        }
+        Arrays.sort(sorted, (a, b) -> {
+            int compare = a[0].compareTo(b[0]);
+            return compare != 0 ? compare : a[1].compareTo(b[1]);
+        });
+        this.values = new String[sorted.length];
+        this.counts = new int[sorted.length];
+        List<String> suffixes = new ArrayList<>(sorted.length * 2);
+        List<Integer> suffixOwners = new ArrayList<>(sorted.length * 2);
+        for (i = 0; i < sorted.length; i++) {
+            String normalized = sorted[i][0];
+            values[i] = sorted[i][1];
+            counts[i] = Optional.ofNullable(distribution.get(values[i])).orElse(0);
+            for (int start = 0; start < normalized.length(); start++) {
+                if (start == 0 || Character.isLetterOrDigit(normalized.charAt(start))
+                    && !Character.isLetterOrDigit(normalized.charAt(start - 1))) {
+                    suffixes.add(normalized.substring(start));
+                    suffixOwners.add(i);
+                }
+            }
+        }
+        Integer[] order = new Integer[suffixes.size()];
+        for (i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(suffixes::get));
+        this.keys = new String[order.length];
+        this.owners = new int[order.length];
+        for (i = 0; i < order.length; i++) {
+            keys[i] = suffixes.get(order[i]);
+            owners[i] = suffixOwners.get(order[i]);
+        }
+    }
+
+    /**
+     * @param value facet value or query
+     * @return lower-cased value without diacritics
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param query       prefix of a word of the values, all values if empty
+     * @param limit       maximum hits
+     * @param sortByCount sort by descending count instead of by value
+     * @return facet hits
+     */
+    List<FacetSearchResponse.FacetHit> lookup(String query, int limit, boolean sortByCount) {
+        String prefix = normalize(query);
+        BitSet matched = new BitSet(values.length);
+        if (prefix.isEmpty()) {
+            matched.set(0, values.length);
+        } else {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (int i = low; i < keys.length && keys[i].startsWith(prefix); i++) {
+                matched.set(owners[i]);
+            }
+        }
+        List<FacetSearchResponse.FacetHit> hits = new ArrayList<>(Math.min(limit, matched.cardinality()));
+        if (sortByCount) {
+            Integer[] order = new Integer[matched.cardinality()];
+            int n = 0;
+            for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                order[n++] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(counts[b], counts[a]));
+            for (int k = 0; k < order.length && hits.size() < limit; k++) {
+                hits.add(hit(order[k]));
+            }
+        } else {
+            for (int i = matched.nextSetBit(0); i >= 0 && hits.size() < limit; i = matched.nextSetBit(i + 1)) {
+                hits.add(hit(i));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    int size() {
+        return values.length;
+    }
+
+    private FacetSearchResponse.FacetHit hit(int index) {
+        FacetSearchResponse.FacetHit hit = new FacetSearchResponse.FacetHit();
+        hit.setValue(values[index]);
+        hit.setCount(counts[index]);
+        return hit;
+    }
+
+}
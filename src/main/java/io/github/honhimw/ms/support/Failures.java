@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.http.HttpFailureException;
+
+/**
+ * Classification of write failures shared by the retrying writers.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class Failures {
+
+    private Failures() {
+    }
+
+    /**
+     * A write failing this way would fail again with the same payload, so it is dropped rather than retried.
+     * Authentication, missing index and throttling failures are retried, they may pass once the cause is fixed.
+     *
+     * @param throwable failure of a write
+     * @return true if the payload can never be accepted: refused by the server, or not encodable
+     */
+    static boolean isRejected(Throwable throwable) {
+        if (throwable instanceof IllegalArgumentException) {
+            return true;
+        }
+        return throwable instanceof HttpFailureException && ((HttpFailureException) throwable).isPayloadRejected();
+    }
+
+}
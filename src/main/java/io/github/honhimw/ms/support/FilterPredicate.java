@@ -0,0 +1,874 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Meilisearch filter expression compiled into a predicate over documents.
+ * <p>
+ * Supports comparisons ({@code =}, {@code !=}, {@code >}, {@code >=}, {@code <}, {@code <=}), {@code TO} ranges,
+ * {@code [NOT] IN}, {@code [NOT] EXISTS}, {@code IS [NOT] NULL}, {@code IS [NOT] EMPTY}, {@code NOT}, {@code AND},
+ * {@code OR}, parentheses, {@code _geoRadius} and {@code _geoBoundingBox}, following the server's semantics:
+ * <ul>
+ *     <li>string equality is case-insensitive, a value equals a filter value if either the numbers or the strings are equal</li>
+ *     <li>an array attribute matches if any of its elements matches</li>
+ *     <li>{@code a.b} reads the flattened key {@code "a.b"} or the nested attribute {@code b} of {@code a}, through arrays of objects</li>
+ *     <li>negated conditions such as {@code !=} and {@code NOT IN} also match documents without the attribute</li>
+ * </ul>
+ * Numbers follow a strict decimal grammar, {@code 1f}, {@code 1d}, {@code 0x1} or {@code NaN} are strings rather than
+ * numbers. Parsing rejects invalid filters with an {@link IllegalArgumentException}. Evaluation allocates nothing per
+ * document except iterators of non random-access collections, elements of primitive arrays are compared unboxed.
+ *
+ * <pre>
+ * FilterPredicate predicate = FilterPredicate.compile("genres = action AND (rating &gt;= 8 OR year 2000 TO 2010)");
+ * List&lt;Map&lt;String, Object&gt;&gt; narrowed = hits.stream().filter(predicate).collect(Collectors.toList());
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public final class FilterPredicate implements Predicate<Map<String, Object>> {
+
+    /**
+     * Value an {@link Accessor} returns for an attribute the document does not have.
+     */
+    public static final Object ABSENT = new Object() {
+        @Override
+        public String toString() {
+            return "ABSENT";
+        }
+    };
+
+    private static final Accessor<Map<String, Object>> MAP_ACCESSOR = FilterPredicate::get;
+
+    private final String filter;
+
+    private final Node root;
+
+    private FilterPredicate(String filter, Node root) {
+        this.filter = filter;
+        this.root = root;
+    }
+
+    /**
+     * Compile a filter expression.
+     *
+     * @param filter filter expression
+     * @return compiled predicate
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    public static FilterPredicate compile(String filter) {
+        Asserts.status(Objects.nonNull(filter), "filter must not be null");
+        Parser parser = new Parser(filter);
+        Node root = parser.expression();
+        parser.skipWhitespace();
+        if (!parser.end()) {
+            throw parser.error("AND, OR or end of filter");
+        }
+        return new FilterPredicate(filter, root);
+    }
+
+    /**
+     * Reject an invalid filter expression before it is sent.
+     *
+     * @param filter filter expression
+     * @return the filter
+     * @throws IllegalArgumentException if the filter is invalid
+     */
+    public static String validate(String filter) {
+        compile(filter);
+        return filter;
+    }
+
+    /**
+     * @return the filter expression
+     */
+    public String filter() {
+        return filter;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean test(Map<String, Object> document) {
+        return root.test(document, (Accessor) MAP_ACCESSOR);
+    }
+
+    /**
+     * Predicate over typed documents.
+     *
+     * @param accessor reads top-level attributes, nested attributes are read from {@link Map} and {@link List} values
+     * @param <T>      document type
+     * @return predicate
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Predicate<T> forType(Accessor<T> accessor) {
+        Accessor<Object> _accessor = (Accessor<Object>) accessor;
+        return document -> root.test(document, _accessor);
+    }
+
+    @Override
+    public String toString() {
+        return filter;
+    }
+
+    /**
+     * Reads a top-level attribute of a document.
+     *
+     * @param <T> document type
+     */
+    @FunctionalInterface
+    public interface Accessor<T> {
+
+        /**
+         * @param document  document
+         * @param attribute attribute name
+         * @return attribute value, {@link #ABSENT} if the document does not have the attribute
+         */
+        Object get(T document, String attribute);
+    }
+
+    /**
+     * Equality conditions every match satisfies: the {@code =} and {@code IN} conditions of the top-level
+     * {@code AND} chain, used to narrow candidates with an index before testing them.
+     *
+     * @return accepted filter values by attribute
+     */
+    Map<String, List<String>> equalities() {
+        Map<String, List<String>> equalities = new LinkedHashMap<>();
+        collect(root, equalities);
+        return equalities;
+    }
+
+    private static void collect(Node node, Map<String, List<String>> equalities) {
+        if (node instanceof And) {
+            collect(((And) node).left, equalities);
+            collect(((And) node).right, equalities);
+        } else if (node instanceof Equal) {
+            equalities.putIfAbsent(((Equal) node).attribute(), Collections.singletonList(((Equal) node).literal.text));
+        } else if (node instanceof In) {
+            List<String> values = new ArrayList<>();
+            for (Literal literal : ((In) node).literals) {
+                values.add(literal.text);
+            }
+            equalities.putIfAbsent(((In) node).attribute(), values);
+        }
+    }
+
+    /**
+     * @param text filter value
+     * @return the value as a finite number, {@link Double#NaN} if it is not one
+     */
+    static double number(String text) {
+        String trimmed = text.trim();
+        if (!decimal(trimmed)) {
+            return Double.NaN;
+        }
+        try {
+            double number = Double.parseDouble(trimmed);
+            return Double.isInfinite(number) ? Double.NaN : number;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * {@code [+-]? (digits [. digits?] | . digits) ([eE] [+-]? digits)?}, the grammar of a filter number.
+     * {@link Double#parseDouble(String)} alone also accepts type suffixes, hexadecimal, {@code NaN} and {@code Infinity}.
+     */
+    private static boolean decimal(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int exponent = i;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == exponent) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static Object get(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return Objects.isNull(value) && !map.containsKey(key) ? ABSENT : value;
+    }
+
+    // ---------------------------------------------------------------- nodes
+
+    private abstract static class Node {
+        abstract boolean test(Object document, Accessor<Object> accessor);
+    }
+
+    private static final class And extends Node {
+        private final Node left;
+        private final Node right;
+
+        private And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(Object document, Accessor<Object> accessor) {
+            return left.test(document, accessor) && right.test(document, accessor);
+        }
+    }
+
+    private static final class Or extends Node {
+        private final Node left;
+        private final Node right;
+
+        private Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(Object document, Accessor<Object> accessor) {
+            return left.test(document, accessor) || right.test(document, accessor);
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node node;
+
+        private Not(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        boolean test(Object document, Accessor<Object> accessor) {
+            return !node.test(document, accessor);
+        }
+    }
+
+    /**
+     * Positive condition on an attribute path, negated conditions wrap it in {@link Not}.
+     */
+    private abstract static class Condition extends Node {
+
+        /**
+         * Path segments.
+         */
+        private final String[] segments;
+
+        /**
+         * {@code suffixes[i]} joins {@code segments[i..]} with dots, to read flattened keys.
+         */
+        private final String[] suffixes;
+
+        Condition(String attribute) {
+            this.segments = attribute.split("\\.", -1);
+            this.suffixes = new String[segments.length];
+            String suffix = null;
+            for (int i = segments.length - 1; i >= 0; i--) {
+                suffix = Objects.isNull(suffix) ? segments[i] : segments[i] + "." + suffix;
+                suffixes[i] = suffix;
+            }
+        }
+
+        final String attribute() {
+            return suffixes[0];
+        }
+
+        @Override
+        final boolean test(Object document, Accessor<Object> accessor) {
+            if (segments.length > 1) {
+                Object flattened = accessor.get(document, suffixes[0]);
+                if (flattened != ABSENT) {
+                    return value(flattened);
+                }
+            }
+            return descend(accessor.get(document, segments[0]), 1);
+        }
+
+        private boolean descend(Object value, int index) {
+            if (index == segments.length) {
+                return value(value);
+            }
+            if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                if (index < segments.length - 1) {
+                    Object flattened = get(map, suffixes[index]);
+                    if (flattened != ABSENT) {
+                        return value(flattened);
+                    }
+                }
+                return descend(get(map, segments[index]), index + 1);
+            }
+            if (value instanceof List && value instanceof RandomAccess) {
+                List<?> list = (List<?>) value;
+                for (int i = 0; i < list.size(); i++) {
+                    if (list.get(i) instanceof Map && descend(list.get(i), index)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (element instanceof Map && descend(element, index)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return value(ABSENT);
+        }
+
+        /**
+         * @param value attribute value, {@link #ABSENT} if missing
+         * @return true if matches
+         */
+        abstract boolean value(Object value);
+    }
+
+    /**
+     * Condition testing each scalar of a value, an array matches if any element matches.
+     */
+    private abstract static class ScalarCondition extends Condition {
+
+        ScalarCondition(String attribute) {
+            super(attribute);
+        }
+
+        @Override
+        final boolean value(Object value) {
+            if (value == ABSENT || Objects.isNull(value)) {
+                return false;
+            }
+            if (value instanceof List && value instanceof RandomAccess) {
+                List<?> list = (List<?>) value;
+                for (int i = 0; i < list.size(); i++) {
+                    if (Objects.nonNull(list.get(i)) && scalar(list.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (Objects.nonNull(element) && scalar(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (value.getClass().isArray()) {
+                Class<?> type = value.getClass().getComponentType();
+                boolean numeric = type.isPrimitive() && type != boolean.class && type != char.class;
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    if (numeric) {
+                        // Array.get would box the element
+                        if (number(Array.getDouble(value, i))) {
+                            return true;
+                        }
+                        continue;
+                    }
+                    Object element = Array.get(value, i);
+                    if (Objects.nonNull(element) && scalar(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return scalar(value);
+        }
+
+        abstract boolean scalar(Object value);
+
+        /**
+         * Same as {@link #scalar(Object)} of a number, without boxing it.
+         */
+        abstract boolean number(double value);
+    }
+
+    /**
+     * A filter value, both as text and as number if it is one.
+     */
+    private static final class Literal {
+        private final String text;
+        private final double number;
+        private final boolean numeric;
+
+        private Literal(String text) {
+            this.text = text;
+            this.number = number(text);
+            this.numeric = !Double.isNaN(number);
+        }
+
+        private boolean matches(double value) {
+            return numeric && value == number;
+        }
+
+        private boolean matches(Object value) {
+            if (value instanceof Number) {
+                return matches(((Number) value).doubleValue());
+            }
+            if (value instanceof CharSequence) {
+                return text.equalsIgnoreCase(value.toString());
+            }
+            if (value instanceof Boolean) {
+                return text.equalsIgnoreCase((Boolean) value ? "true" : "false");
+            }
+            return false;
+        }
+    }
+
+    private static final class Equal extends ScalarCondition {
+        private final Literal literal;
+
+        private Equal(String attribute, Literal literal) {
+            super(attribute);
+            this.literal = literal;
+        }
+
+        @Override
+        boolean scalar(Object value) {
+            return literal.matches(value);
+        }
+
+        @Override
+        boolean number(double value) {
+            return literal.matches(value);
+        }
+    }
+
+    private static final class In extends ScalarCondition {
+        private final Literal[] literals;
+
+        private In(String attribute, Literal[] literals) {
+            super(attribute);
+            this.literals = literals;
+        }
+
+        @Override
+        boolean scalar(Object value) {
+            for (Literal literal : literals) {
+                if (literal.matches(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean number(double value) {
+            for (Literal literal : literals) {
+                if (literal.matches(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Range extends ScalarCondition {
+        private final double min;
+        private final boolean minInclusive;
+        private final double max;
+        private final boolean maxInclusive;
+
+        private Range(String attribute, double min, boolean minInclusive, double max, boolean maxInclusive) {
+            super(attribute);
+            this.min = min;
+            this.minInclusive = minInclusive;
+            this.max = max;
+            this.maxInclusive = maxInclusive;
+        }
+
+        @Override
+        boolean scalar(Object value) {
+            return value instanceof Number && number(((Number) value).doubleValue());
+        }
+
+        @Override
+        boolean number(double value) {
+            return (minInclusive ? value >= min : value > min) && (maxInclusive ? value <= max : value < max);
+        }
+    }
+
+    private static final class Exists extends Condition {
+        private Exists(String attribute) {
+            super(attribute);
+        }
+
+        @Override
+        boolean value(Object value) {
+            return value != ABSENT;
+        }
+    }
+
+    private static final class IsNull extends Condition {
+        private IsNull(String attribute) {
+            super(attribute);
+        }
+
+        @Override
+        boolean value(Object value) {
+            return Objects.isNull(value);
+        }
+    }
+
+    private static final class IsEmpty extends Condition {
+        private IsEmpty(String attribute) {
+            super(attribute);
+        }
+
+        @Override
+        boolean value(Object value) {
+            if (value instanceof CharSequence) {
+                return ((CharSequence) value).length() == 0;
+            }
+            if (value instanceof Collection) {
+                return ((Collection<?>) value).isEmpty();
+            }
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).isEmpty();
+            }
+            return Objects.nonNull(value) && value != ABSENT && value.getClass().isArray() && Array.getLength(value) == 0;
+        }
+    }
+
+    /**
+     * {@code _geoRadius} and {@code _geoBoundingBox} over the {@code _geo} attribute.
+     */
+    private static final class Geo extends Condition {
+        private final double[] args;
+        private final boolean radius;
+
+        private Geo(double[] args, boolean radius) {
+            super("_geo");
+            this.args = args;
+            this.radius = radius;
+        }
+
+        @Override
+        boolean value(Object value) {
+            if (!(value instanceof Map)) {
+                return false;
+            }
+            double lat = coordinate(((Map<?, ?>) value).get("lat"));
+            double lng = coordinate(((Map<?, ?>) value).get("lng"));
+            if (Double.isNaN(lat) || Double.isNaN(lng)) {
+                return false;
+            }
+            if (radius) {
+                return distance(args[0], args[1], lat, lng) <= args[2];
+            }
+            // [top, right], [bottom, left], a left edge east of the right one crosses the antimeridian
+            boolean inLat = lat <= args[0] && lat >= args[2];
+            boolean inLng = args[3] <= args[1] ? lng >= args[3] && lng <= args[1] : lng >= args[3] || lng <= args[1];
+            return inLat && inLng;
+        }
+
+        private static double coordinate(Object value) {
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            if (value instanceof CharSequence) {
+                return number(value.toString());
+            }
+            return Double.NaN;
+        }
+
+        private static double distance(double lat1, double lng1, double lat2, double lng2) {
+            double dLat = Math.toRadians(lat2 - lat1);
+            double dLng = Math.toRadians(lng2 - lng1);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+            return 2 * 6_371_008.8 * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+    }
+
+    // ---------------------------------------------------------------- parser
+
+    private static final class Parser {
+
+        private final String input;
+
+        private int pos;
+
+        private Parser(String input) {
+            this.input = input;
+        }
+
+        private Node expression() {
+            Node left = and();
+            while (keyword("OR")) {
+                left = new Or(left, and());
+            }
+            return left;
+        }
+
+        private Node and() {
+            Node left = not();
+            while (keyword("AND")) {
+                left = new And(left, not());
+            }
+            return left;
+        }
+
+        private Node not() {
+            if (keyword("NOT")) {
+                return new Not(not());
+            }
+            return primary();
+        }
+
+        private Node primary() {
+            skipWhitespace();
+            if (consume('(')) {
+                Node node = expression();
+                expect(')');
+                return node;
+            }
+            if (keyword("_geoRadius")) {
+                return new Geo(numbers(3), true);
+            }
+            if (keyword("_geoBoundingBox")) {
+                expect('(');
+                expect('[');
+                double[] args = new double[4];
+                args[0] = number();
+                expect(',');
+                args[1] = number();
+                expect(']');
+                expect(',');
+                expect('[');
+                args[2] = number();
+                expect(',');
+                args[3] = number();
+                expect(']');
+                expect(')');
+                return new Geo(args, false);
+            }
+            return condition();
+        }
+
+        private Node condition() {
+            String attribute = value("attribute");
+            skipWhitespace();
+            if (consume("!=")) {
+                return new Not(new Equal(attribute, new Literal(value("value"))));
+            }
+            if (consume(">=")) {
+                return new Range(attribute, number(), true, Double.POSITIVE_INFINITY, true);
+            }
+            if (consume("<=")) {
+                return new Range(attribute, Double.NEGATIVE_INFINITY, true, number(), true);
+            }
+            if (consume('=')) {
+                return new Equal(attribute, new Literal(value("value")));
+            }
+            if (consume('>')) {
+                return new Range(attribute, number(), false, Double.POSITIVE_INFINITY, true);
+            }
+            if (consume('<')) {
+                return new Range(attribute, Double.NEGATIVE_INFINITY, true, number(), false);
+            }
+            if (keyword("EXISTS")) {
+                return new Exists(attribute);
+            }
+            if (keyword("IN")) {
+                return new In(attribute, list());
+            }
+            if (keyword("IS")) {
+                boolean negated = keyword("NOT");
+                Node node;
+                if (keyword("NULL")) {
+                    node = new IsNull(attribute);
+                } else if (keyword("EMPTY")) {
+                    node = new IsEmpty(attribute);
+                } else {
+                    throw error("NULL or EMPTY");
+                }
+                return negated ? new Not(node) : node;
+            }
+            if (keyword("NOT")) {
+                if (keyword("EXISTS")) {
+                    return new Not(new Exists(attribute));
+                }
+                if (keyword("IN")) {
+                    return new Not(new In(attribute, list()));
+                }
+                throw error("EXISTS or IN");
+            }
+            double min = number();
+            if (!keyword("TO")) {
+                throw error("TO");
+            }
+            return new Range(attribute, min, true, number(), true);
+        }
+
+        private Literal[] list() {
+            expect('[');
+            List<Literal> literals = new ArrayList<>();
+            skipWhitespace();
+            if (!consume(']')) {
+                do {
+                    literals.add(new Literal(value("value")));
+                } while (consume(','));
+                expect(']');
+            }
+            return literals.toArray(new Literal[0]);
+        }
+
+        private double[] numbers(int count) {
+            expect('(');
+            double[] numbers = new double[count];
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    expect(',');
+                }
+                numbers[i] = number();
+            }
+            expect(')');
+            return numbers;
+        }
+
+        private double number() {
+            int start = pos;
+            double number = FilterPredicate.number(value("number"));
+            if (!Double.isNaN(number)) {
+                return number;
+            }
+            pos = start;
+            skipWhitespace();
+            throw error("number");
+        }
+
+        /**
+         * A quoted string or an unquoted word.
+         */
+        private String value(String expected) {
+            skipWhitespace();
+            if (end()) {
+                throw error(expected);
+            }
+            char quote = input.charAt(pos);
+            if (quote == '\'' || quote == '"') {
+                pos++;
+                StringBuilder builder = new StringBuilder();
+                while (pos < input.length()) {
+                    char c = input.charAt(pos++);
+                    if (c == quote) {
+                        return builder.toString();
+                    }
+                    if (c == '\\' && pos < input.length()) {
+                        c = input.charAt(pos++);
+                    }
+                    builder.append(c);
+                }
+                throw error("closing quote");
+            }
+            int start = pos;
+            while (pos < input.length() && !delimiter(input.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error(expected);
+            }
+            return input.substring(start, pos);
+        }
+
+        private boolean keyword(String keyword) {
+            skipWhitespace();
+            int end = pos + keyword.length();
+            if (input.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == input.length() || delimiter(input.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean delimiter(char c) {
+            return Character.isWhitespace(c) || c == '(' || c == ')' || c == '[' || c == ']' || c == ','
+                || c == '=' || c == '!' || c == '<' || c == '>' || c == '\'' || c == '"';
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consume(String s) {
+            if (input.startsWith(s, pos)) {
+                pos += s.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("'" + c + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean end() {
+            return pos >= input.length();
+        }
+
+        private IllegalArgumentException error(String expected) {
+            return new IllegalArgumentException(String.format("invalid filter, expected %s at %d: %s", expected, pos, input));
+        }
+    }
+
+}
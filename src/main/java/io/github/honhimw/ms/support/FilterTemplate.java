@@ -0,0 +1,410 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A {@link FilterBuilder} filter compiled once with named placeholders, rendered with bound values.
+ * <p>
+ * Placeholders are passed to {@link FilterBuilder.Expression} methods in place of values:
+ * {@link #string(String)} and {@link #number(String)} for single values, {@link #strings(String)} and
+ * {@link #numbers(String)} as the only element of {@code in}/{@code notIn} values.
+ * Rendering appends the literal segments and the escaped values into a thread-local {@link StringBuilder},
+ * string values are escaped for single-quoted filter strings and joined the way {@link FilterBuilder} joins them.
+ * Rendered filters of frequent value combinations are cached, unless the template has collection placeholders.
+ * The cache is striped by the hash of the values so that concurrent renders of one template rarely share a lock.
+ *
+ * <pre>
+ * FilterTemplate template = FilterTemplate.compile(filter -&gt; filter
+ *     .base(expression -&gt; expression.equal("genres", FilterTemplate.string("genre")))
+ *     .and(expression -&gt; expression.ge("year", FilterTemplate.number("year"))));
+ * String filter = template.render("sci-fi", 2000); // genres = 'sci-fi' AND year &gt;= 2000
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FilterTemplate {
+
+    private static final char MARK = '\u0001';
+
+    private static final char STRING = 's';
+
+    private static final char NUMBER = 'n';
+
+    private static final char STRINGS = 'S';
+
+    private static final char NUMBERS = 'N';
+
+    private static final String NOT_IN = " " + FilterBuilder.Operator.NOT_IN.symbol() + " ['";
+
+    private static final int STRIPE_SIZE = 64;
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * Literal segments, {@code segments[i]} precedes {@code slots[i]}, the last one closes the filter.
+     */
+    private final String[] segments;
+
+    /**
+     * Parameter index of each placeholder occurrence.
+     */
+    private final int[] slots;
+
+    /**
+     * Separator between the elements of each placeholder occurrence, only used by collection placeholders.
+     */
+    private final String[] separators;
+
+    /**
+     * Kind of each parameter.
+     */
+    private final char[] kinds;
+
+    private final List<String> names;
+
+    private final int capacity;
+
+    private final List<TinyLfuCache<List<Object>, String>> stripes;
+
+    private FilterTemplate(String[] segments, int[] slots, char[] kinds, List<String> names, int cacheSize) {
+        this.segments = segments;
+        this.slots = slots;
+        this.separators = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            switch (kinds[slots[i]]) {
+                case STRINGS:
+                    separators[i] = segments[i].endsWith(NOT_IN) ? "','" : "', '";
+                    break;
+                case NUMBERS:
+                    separators[i] = ", ";
+                    break;
+                default:
+                    break;
+            }
+        }
+        this.kinds = kinds;
+        this.names = names;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.capacity = length + 16 * slots.length;
+        boolean scalar = true;
+        for (char kind : kinds) {
+            scalar &= kind == STRING || kind == NUMBER;
+        }
+        if (cacheSize > 0 && scalar) {
+            int count = Integer.highestOneBit(Math.max(1, Math.min(cacheSize / STRIPE_SIZE, MAX_STRIPES)));
+            this.stripes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                stripes.add(new TinyLfuCache<>(cacheSize / count));
+            }
+        } else {
+            this.stripes = null;
+        }
+    }
+
+    /**
+     * Compile a filter with a render cache of 1024 entries.
+     *
+     * @param filter filter using placeholders as values
+     * @return compiled template
+     */
+    public static FilterTemplate compile(Consumer<FilterBuilder> filter) {
+        return compile(filter, 1024);
+    }
+
+    /**
+     * Compile a filter.
+     *
+     * @param filter    filter using placeholders as values
+     * @param cacheSize rendered filters to cache, 0 to disable
+     * @return compiled template
+     */
+    public static FilterTemplate compile(Consumer<FilterBuilder> filter, int cacheSize) {
+        FilterBuilder builder = FilterBuilder.builder();
+        filter.accept(builder);
+        return compile(builder.build(), cacheSize);
+    }
+
+    /**
+     * Compile a filter string containing placeholders.
+     *
+     * @param filter    filter string
+     * @param cacheSize rendered filters to cache, 0 to disable
+     * @return compiled template
+     */
+    public static FilterTemplate compile(String filter, int cacheSize) {
+        Asserts.status(cacheSize >= 0, "cacheSize must not be negative");
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        StringBuilder kinds = new StringBuilder();
+        int from = 0;
+        int start;
+        while ((start = filter.indexOf(MARK, from)) >= 0) {
+            int end = filter.indexOf(MARK, start + 1);
+            Asserts.status(end > start + 1, "unterminated placeholder");
+            char kind = filter.charAt(start + 1);
+            String name = filter.substring(start + 2, end);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+                kinds.append(kind);
+            } else {
+                Asserts.status(kinds.charAt(index) == kind, String.format("placeholder [%s] used as different kinds", name));
+            }
+            segments.add(filter.substring(from, start));
+            slots.add(index);
+            from = end + 1;
+        }
+        segments.add(filter.substring(from));
+        int[] _slots = new int[slots.size()];
+        for (int i = 0; i < _slots.length; i++) {
+            _slots[i] = slots.get(i);
+        }
+        return new FilterTemplate(segments.toArray(new String[0]), _slots, kinds.toString().toCharArray(),
+            Collections.unmodifiableList(names), cacheSize);
+    }
+
+    /**
+     * @param name parameter name
+     * @return placeholder of a string value
+     */
+    public static String string(String name) {
+        return placeholder(STRING, name);
+    }
+
+    /**
+     * @param name parameter name
+     * @return placeholder of a number value
+     */
+    public static Number number(String name) {
+        return new Placeholder(placeholder(NUMBER, name));
+    }
+
+    /**
+     * @param name parameter name
+     * @return placeholder of a collection of strings, as the only {@code in}/{@code notIn} value
+     */
+    public static String strings(String name) {
+        return placeholder(STRINGS, name);
+    }
+
+    /**
+     * @param name parameter name
+     * @return placeholder of a collection of numbers, as the only {@code in} value
+     */
+    public static Number numbers(String name) {
+        return new Placeholder(placeholder(NUMBERS, name));
+    }
+
+    /**
+     * @return parameter names in order of first use
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Render with values bound by name.
+     *
+     * @param values parameter values
+     * @return filter string
+     */
+    public String render(Map<String, ?> values) {
+        Object[] ordered = new Object[names.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            String name = names.get(i);
+            if (!values.containsKey(name)) {
+                throw new IllegalStateException(String.format("parameter [%s] is not bound", name));
+            }
+            ordered[i] = values.get(name);
+        }
+        return render(ordered);
+    }
+
+    /**
+     * Render with values bound by position, in the order of {@link #names()}.
+     *
+     * @param values parameter values
+     * @return filter string
+     */
+    public String render(Object... values) {
+        if (values.length != names.size()) {
+            throw new IllegalStateException(String.format("expected %d values but got %d", names.size(), values.length));
+        }
+        if (Objects.isNull(stripes)) {
+            return doRender(values);
+        }
+        List<Object> key = Arrays.asList(values);
+        int hash = key.hashCode();
+        TinyLfuCache<List<Object>, String> cache = stripes.get((hash ^ (hash >>> 16)) & (stripes.size() - 1));
+        String rendered = cache.get(key);
+        if (Objects.isNull(rendered)) {
+            rendered = doRender(values);
+            cache.put(Arrays.asList(values.clone()), rendered);
+        }
+        return rendered;
+    }
+
+    private String doRender(Object[] values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(capacity);
+        for (int i = 0; i < slots.length; i++) {
+            buffer.append(segments[i]);
+            int slot = slots[i];
+            Object value = values[slot];
+            if (Objects.isNull(value)) {
+                throw new IllegalStateException(String.format("parameter [%s] must not be null", names.get(slot)));
+            }
+            switch (kinds[slot]) {
+                case STRING:
+                    escape(buffer, value.toString());
+                    break;
+                case NUMBER:
+                    number(buffer, value, slot);
+                    break;
+                case STRINGS: {
+                    boolean first = true;
+                    for (Object element : iterable(value, slot)) {
+                        if (!first) {
+                            buffer.append(separators[i]);
+                        }
+                        escape(buffer, String.valueOf(element));
+                        first = false;
+                    }
+                    break;
+                }
+                case NUMBERS: {
+                    boolean first = true;
+                    for (Object element : iterable(value, slot)) {
+                        if (!first) {
+                            buffer.append(separators[i]);
+                        }
+                        number(buffer, element, slot);
+                        first = false;
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("unknown placeholder kind: " + kinds[slot]);
+            }
+        }
+        buffer.append(segments[segments.length - 1]);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > 16 * 1024) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    private void number(StringBuilder buffer, Object value, int slot) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            buffer.append(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw new IllegalArgumentException(String.format("parameter [%s] must be finite", names.get(slot)));
+            }
+            buffer.append(Double.toString(d));
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            if (Float.isNaN(f) || Float.isInfinite(f)) {
+                throw new IllegalArgumentException(String.format("parameter [%s] must be finite", names.get(slot)));
+            }
+            buffer.append(Float.toString(f));
+        } else if (value instanceof Number) {
+            buffer.append(value);
+        } else {
+            throw new IllegalArgumentException(String.format("parameter [%s] must be a number", names.get(slot)));
+        }
+    }
+
+    private Iterable<?> iterable(Object value, int slot) {
+        if (value instanceof Iterable) {
+            return (Iterable<?>) value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        throw new IllegalArgumentException(String.format("parameter [%s] must be a collection or an array", names.get(slot)));
+    }
+
+    /**
+     * Escape a value for a single-quoted filter string.
+     */
+    private static void escape(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'' || c == '\\') {
+                buffer.append('\\');
+            }
+            buffer.append(c);
+        }
+    }
+
+    private static String placeholder(char kind, String name) {
+        Asserts.status(StringUtils.isNotBlank(name) && name.indexOf(MARK) < 0, "invalid placeholder name");
+        return MARK + String.valueOf(kind) + name + MARK;
+    }
+
+    /**
+     * Number whose string form is a placeholder, only meaningful while compiling.
+     */
+    private static final class Placeholder extends Number {
+
+        private final String placeholder;
+
+        private Placeholder(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        @Override
+        public int intValue() {
+            throw new UnsupportedOperationException(placeholder);
+        }
+
+        @Override
+        public long longValue() {
+            throw new UnsupportedOperationException(placeholder);
+        }
+
+        @Override
+        public float floatValue() {
+            throw new UnsupportedOperationException(placeholder);
+        }
+
+        @Override
+        public double doubleValue() {
+            throw new UnsupportedOperationException(placeholder);
+        }
+
+        @Override
+        public String toString() {
+            return placeholder;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Non-cryptographic 64-bit hashing, FNV-1a with a murmur3 finalizer for better avalanche.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class HashUtils {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 64-bit hash of the given bytes.
+     *
+     * @param bytes bytes to hash
+     * @return 64-bit hash
+     */
+    public static long hash64(byte[] bytes) {
+        return hash64(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 64-bit hash of a range of the given bytes.
+     *
+     * @param bytes  bytes to hash
+     * @param offset start offset
+     * @param length number of bytes
+     * @return 64-bit hash
+     */
+    public static long hash64(byte[] bytes, int offset, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= bytes[i] & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return fmix64(hash);
+    }
+
+    /**
+     * 64-bit hash of the UTF-8 encoding of the given text.
+     *
+     * @param text text to hash
+     * @return 64-bit hash
+     */
+    public static long hash64(CharSequence text) {
+        return hash64(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Murmur3 64-bit finalizer.
+     *
+     * @param h value to mix
+     * @return mixed value
+     */
+    public static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.util.*;
+
+/**
+ * Split large document id sets into request-sized chunks.
+ * <p>
+ * A chunk is closed once it holds {@code maxIds} ids or once its ids would take more than {@code maxChars}
+ * characters in a request, counting 4 characters of quoting and separator per id.
+ * Duplicate ids are dropped, the first occurrence keeps its position.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IdChunks {
+
+    /**
+     * Default ids per {@code POST /documents/fetch} chunk.
+     */
+    public static final int FETCH_IDS = 1_000;
+
+    /**
+     * Default filter length of a {@code POST /documents/fetch} chunk.
+     */
+    public static final int FETCH_CHARS = 64 * 1024;
+
+    /**
+     * Default ids per {@code POST /documents/delete-batch} chunk.
+     */
+    public static final int DELETE_IDS = 10_000;
+
+    /**
+     * Default body length of a {@code POST /documents/delete-batch} chunk.
+     */
+    public static final int DELETE_CHARS = 1024 * 1024;
+
+    /**
+     * Default number of chunk requests in flight.
+     */
+    public static final int CONCURRENCY = 4;
+
+    /**
+     * Split ids into chunks in input order.
+     *
+     * @param ids      document ids
+     * @param maxIds   maximum ids per chunk
+     * @param maxChars maximum characters per chunk
+     * @return chunks, empty if ids is empty
+     */
+    public static List<List<String>> split(Collection<String> ids, int maxIds, int maxChars) {
+        Asserts.status(maxIds > 0, "maxIds must be positive");
+        Asserts.status(maxChars > 0, "maxChars must be positive");
+        if (CollectionUtils.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        Set<String> unique = ids instanceof LinkedHashSet ? (Set<String>) ids : new LinkedHashSet<>(ids);
+        List<List<String>> chunks = new ArrayList<>(unique.size() / maxIds + 1);
+        List<String> chunk = new ArrayList<>(Math.min(maxIds, unique.size()));
+        long chars = 0;
+        for (String id : unique) {
+            int length = id.length() + 4;
+            if (!chunk.isEmpty() && (chunk.size() >= maxIds || chars + length > maxChars)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(Math.min(maxIds, unique.size()));
+                chars = 0;
+            }
+            chunk.add(id);
+            chars += length;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+}
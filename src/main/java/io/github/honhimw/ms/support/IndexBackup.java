@@ -0,0 +1,537 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.api.reactive.ReactiveIndexes;
+import io.github.honhimw.ms.api.reactive.ReactiveSettings;
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.Index;
+import io.github.honhimw.ms.model.Page;
+import io.github.honhimw.ms.model.Setting;
+import io.github.honhimw.ms.model.TaskInfo;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-index backup to a gzip NDJSON file, plus a settings JSON sidecar ({@code file} + {@code .settings.json}) and,
+ * when {@code indexes} and {@code indexUid} are set, an index sidecar ({@code file} + {@code .index.json}) holding
+ * the primary key.
+ * <p>
+ * Backup pages through {@link ReactiveDocuments#list(Integer, Integer)} and writes each page before requesting
+ * the next one, so memory stays bounded to a couple of pages. Restore first creates the index with the saved primary
+ * key (or sets it on an existing index without one) so that it does not depend on primary key inference, then
+ * re-applies the settings, then streams the file back in batches of {@code batchSize} with at most
+ * {@code concurrency} uploads in flight. The optional {@code listener} receives the running {@link Progress} after
+ * every page or batch.
+ *
+ * <pre>
+ * IndexBackup backup = IndexBackup.builder()
+ *     .indexes(client.indexes())
+ *     .indexUid("movies")
+ *     .documents(client.indexes().documents("movies"))
+ *     .settings(client.indexes().settings("movies"))
+ *     .jsonHandler(jsonHandler)
+ *     .listener(progress -&gt; System.out.println(progress))
+ *     .build();
+ * backup.backup(Paths.get("movies.ndjson.gz")).block();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IndexBackup {
+
+    private final ReactiveDocuments documents;
+
+    @Nullable
+    private final ReactiveIndexes indexes;
+
+    @Nullable
+    private final String indexUid;
+
+    @Nullable
+    private final ReactiveSettings settings;
+
+    private final JsonHandler jsonHandler;
+
+    private final int pageSize;
+
+    private final int batchSize;
+
+    private final int concurrency;
+
+    @Nullable
+    private final Consumer<Progress> listener;
+
+    private IndexBackup(Builder builder) {
+        this.documents = builder.documents;
+        this.indexes = builder.indexes;
+        this.indexUid = builder.indexUid;
+        this.settings = builder.settings;
+        this.jsonHandler = builder.jsonHandler;
+        this.pageSize = builder.pageSize;
+        this.batchSize = builder.batchSize;
+        this.concurrency = builder.concurrency;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Settings sidecar of a backup file.
+     *
+     * @param file backup file
+     * @return sidecar file
+     */
+    public static Path sidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + ".settings.json");
+    }
+
+    /**
+     * Index sidecar of a backup file.
+     *
+     * @param file backup file
+     * @return sidecar file
+     */
+    public static Path indexSidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + ".index.json");
+    }
+
+    /**
+     * Stream all documents of the index to {@code file}. The file is written to a temporary sibling
+     * and moved into place once complete.
+     *
+     * @param file target gzip NDJSON file
+     * @return backup progress once complete
+     */
+    public Mono<Progress> backup(Path file) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Mono<Void> indexSidecar = Mono.justOrEmpty(indexes)
+            .flatMap(operator -> operator.get(indexUid))
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(index -> write(indexSidecar(file), index))
+            .then();
+        Mono<Void> sidecar = Mono.justOrEmpty(settings)
+            .flatMap(operator -> operator.get())
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(setting -> write(sidecar(file), setting))
+            .then();
+        return indexSidecar.then(sidecar).then(Mono.defer(() -> {
+            Progress progress = new Progress();
+            Flux<Page<Map<String, Object>>> pages = documents.list(0, pageSize)
+                .expand(page -> {
+                    int next = Optional.ofNullable(page.getOffset()).orElse(0) + pageSize;
+                    boolean more = Optional.ofNullable(page.getResults()).map(results -> results.size()).orElse(0) == pageSize
+                                   && next < Optional.ofNullable(page.getTotal()).orElse(Integer.MAX_VALUE);
+                    return more ? documents.list(next, pageSize) : Mono.empty();
+                });
+            return Mono.using(
+                () -> new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16), 1 << 16),
+                out -> pages
+                    .publishOn(Schedulers.boundedElastic(), 2)
+                    .doOnNext(page -> {
+                        long bytes = 0;
+                        List<Map<String, Object>> results = Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+                        try {
+                            for (Map<String, Object> document : results) {
+                                byte[] line = jsonHandler.toJson(document).getBytes(StandardCharsets.UTF_8);
+                                out.write(line);
+                                out.write('\n');
+                                bytes += line.length + 1;
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        progress.add(results.size(), bytes);
+                        report(progress);
+                    })
+                    .then(Mono.fromCallable(() -> {
+                        out.close();
+                        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        return progress.finish();
+                    })),
+                IndexBackup::closeQuietly);
+        }));
+    }
+
+    /**
+     * Stream {@code file} back into the index, creating the index with the backed up primary key and applying the
+     * settings sidecar first if present. Fails if the index already exists with a different primary key.
+     *
+     * @param file gzip NDJSON file written by {@link #backup(Path)}
+     * @return restore progress once every batch is enqueued
+     */
+    public Mono<Progress> restore(Path file) {
+        return Mono.defer(() -> restore(file, new Progress()));
+    }
+
+    private Mono<Progress> restore(Path file, Progress progress) {
+        Path indexSidecar = indexSidecar(file);
+        Mono<Void> createIndex = Mono.justOrEmpty(indexes)
+            .filter(ignored -> Files.exists(indexSidecar))
+            .flatMap(operator -> Mono.fromCallable(() -> new String(Files.readAllBytes(indexSidecar), StandardCharsets.UTF_8))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(json -> jsonHandler.fromJson(json, Index.class))
+                .flatMap(saved -> prepare(operator, saved.getPrimaryKey())))
+            .doOnNext(progress.tasks::add)
+            .then();
+        Path sidecar = sidecar(file);
+        Mono<Void> applySettings = Mono.justOrEmpty(settings)
+            .filter(ignored -> Files.exists(sidecar))
+            .flatMap(operator -> Mono.fromCallable(() -> new String(Files.readAllBytes(sidecar), StandardCharsets.UTF_8))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(json -> jsonHandler.fromJson(json, Setting.class))
+                .flatMap(operator::update))
+            .doOnNext(progress.tasks::add)
+            .then();
+        Flux<String> lines = Flux.using(
+                () -> new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file), 1 << 16), StandardCharsets.UTF_8), 1 << 16),
+                reader -> Flux.<String>generate(sink -> {
+                    try {
+                        String line = reader.readLine();
+                        if (Objects.isNull(line)) {
+                            sink.complete();
+                        } else {
+                            sink.next(line);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                }),
+                IndexBackup::closeQuietly)
+            .subscribeOn(Schedulers.boundedElastic())
+            .filter(line -> !line.isEmpty());
+        return createIndex.then(applySettings).then(lines
+            .buffer(batchSize)
+            .flatMap(batch -> {
+                long bytes = 0;
+                StringJoiner joiner = new StringJoiner(",", "[", "]");
+                for (String line : batch) {
+                    joiner.add(line);
+                    bytes += utf8Length(line) + 1;
+                }
+                long batchBytes = bytes;
+                return documents.save(joiner.toString())
+                    .doOnNext(taskInfo -> {
+                        progress.tasks.add(taskInfo);
+                        progress.add(batch.size(), batchBytes);
+                        report(progress);
+                    });
+            }, concurrency, 1)
+            .then(Mono.fromCallable(progress::finish)));
+    }
+
+    /**
+     * Create the index with the primary key, or set it on an existing index that has none.
+     *
+     * @return task, empty if the index already has that primary key
+     */
+    private Mono<TaskInfo> prepare(ReactiveIndexes operator, @Nullable String primaryKey) {
+        return operator.get(indexUid)
+            .map(Optional::of)
+            .onErrorResume(HttpFailureException.class, e -> e.getStatusCode() == 404 ? Mono.just(Optional.empty()) : Mono.error(e))
+            .flatMap(existing -> {
+                if (!existing.isPresent()) {
+                    return operator.create(indexUid, primaryKey);
+                }
+                String current = existing.get().getPrimaryKey();
+                if (Objects.isNull(primaryKey) || Objects.equals(current, primaryKey)) {
+                    return Mono.empty();
+                }
+                if (Objects.isNull(current)) {
+                    return operator.update(indexUid, primaryKey);
+                }
+                return Mono.error(new IllegalStateException(String.format(
+                    "index [%s] has primary key [%s], the backup has [%s]", indexUid, current, primaryKey)));
+            });
+    }
+
+    private void write(Path path, Object value) {
+        try {
+            Files.write(path, jsonHandler.toJson(value).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void report(Progress progress) {
+        if (Objects.nonNull(listener)) {
+            listener.accept(progress);
+        }
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Running throughput of a backup or restore.
+     */
+    public static class Progress {
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicLong documents = new AtomicLong();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final List<TaskInfo> tasks = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile long endNanos = -1;
+
+        private void add(long documents, long bytes) {
+            this.documents.addAndGet(documents);
+            this.bytes.addAndGet(bytes);
+        }
+
+        private Progress finish() {
+            endNanos = System.nanoTime();
+            return this;
+        }
+
+        /**
+         * @return number of documents processed so far
+         */
+        public long getDocuments() {
+            return documents.get();
+        }
+
+        /**
+         * @return uncompressed NDJSON bytes processed so far
+         */
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * @return tasks enqueued by a restore
+         */
+        public List<TaskInfo> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * @return elapsed time, frozen once complete
+         */
+        public Duration getElapsed() {
+            long end = endNanos;
+            return Duration.ofNanos((end < 0 ? System.nanoTime() : end) - startNanos);
+        }
+
+        /**
+         * @return average documents per second
+         */
+        public double docsPerSecond() {
+            return perSecond(getDocuments());
+        }
+
+        /**
+         * @return average bytes per second
+         */
+        public double bytesPerSecond() {
+            return perSecond(getBytes());
+        }
+
+        private double perSecond(long count) {
+            long nanos = getElapsed().toNanos();
+            return nanos > 0 ? count * 1_000_000_000d / nanos : 0d;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d docs, %d bytes in %dms (%.1f docs/s, %.1f bytes/s)",
+                getDocuments(), getBytes(), getElapsed().toMillis(), docsPerSecond(), bytesPerSecond());
+        }
+    }
+
+    /**
+     * {@code IndexBackup} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private ReactiveIndexes indexes;
+        private String indexUid;
+        private ReactiveSettings settings;
+        private JsonHandler jsonHandler;
+        private int pageSize = 1000;
+        private int batchSize = 1000;
+        private int concurrency = 4;
+        private Consumer<Progress> listener;
+
+        private Builder() {
+        }
+
+        /**
+         * Documents operator of the index.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Indexes operator, to back up the primary key and create the index with it on restore.
+         * The primary key is skipped if absent.
+         *
+         * @param val the {@code indexes} to set
+         * @return a reference to this Builder
+         */
+        public Builder indexes(ReactiveIndexes val) {
+            indexes = val;
+            return this;
+        }
+
+        /**
+         * Uid of the index, required with {@code indexes}.
+         *
+         * @param val the {@code indexUid} to set
+         * @return a reference to this Builder
+         */
+        public Builder indexUid(String val) {
+            indexUid = val;
+            return this;
+        }
+
+        /**
+         * Settings operator of the index, settings are skipped if absent.
+         *
+         * @param val the {@code settings} to set
+         * @return a reference to this Builder
+         */
+        public Builder settings(ReactiveSettings val) {
+            settings = val;
+            return this;
+        }
+
+        /**
+         * Json handler for documents and settings.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Documents per page when backing up, default 1000.
+         *
+         * @param val the {@code pageSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder pageSize(int val) {
+            pageSize = val;
+            return this;
+        }
+
+        /**
+         * Documents per batch when restoring, default 1000.
+         *
+         * @param val the {@code batchSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder batchSize(int val) {
+            batchSize = val;
+            return this;
+        }
+
+        /**
+         * Maximum concurrent uploads when restoring, default 4.
+         *
+         * @param val the {@code concurrency} to set
+         * @return a reference to this Builder
+         */
+        public Builder concurrency(int val) {
+            concurrency = val;
+            return this;
+        }
+
+        /**
+         * Progress listener, called after every page or batch.
+         *
+         * @param val the {@code listener} to set
+         * @return a reference to this Builder
+         */
+        public Builder listener(Consumer<Progress> val) {
+            listener = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code IndexBackup} built from the parameters previously set.
+         *
+         * @return a {@code IndexBackup} built with parameters of this {@code IndexBackup.Builder}
+         */
+        public IndexBackup build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(Objects.isNull(indexes) || StringUtils.isNotBlank(indexUid), "indexUid must not be blank with indexes");
+            Asserts.status(pageSize > 0, "pageSize must be positive");
+            Asserts.status(batchSize > 0, "batchSize must be positive");
+            Asserts.status(concurrency > 0, "concurrency must be positive");
+            return new IndexBackup(this);
+        }
+    }
+
+}
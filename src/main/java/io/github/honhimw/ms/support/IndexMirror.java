@@ -0,0 +1,816 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local read-only mirror of a small index, answering reads in memory.
+ * <p>
+ * {@link #reload()} pages through every document into a fresh {@link MirrorTable} and swaps it in, with hash indexes
+ * on {@code indexedAttributes}. Reads through {@link #wrap(ReactiveDocuments)} are then answered locally:
+ * {@code get}, {@code batchGet} and {@code list}, with their {@code filter} evaluated by {@link FilterPredicate}.
+ * {@code =} and {@code IN} conditions on the primary key or an indexed attribute narrow the rows to test,
+ * any other filter scans the mirror. Results are in insertion order, which may differ from the server's order.
+ * <p>
+ * Writes go to the server. Once a write through the wrapper has succeeded, the written ids are re-fetched and
+ * replaced or removed in the mirror; writes without known ids ({@code delete(filter)}, {@code deleteAll}, unreadable
+ * raw json) reload the whole mirror. With {@code watchWrites} set, the succeeded document tasks of the index are
+ * followed with {@link ReactiveTasks#watch(GetTasksRequest)}, and every task uid not written through the wrapper,
+ * i.e. a write by another client, re-syncs what it touched:
+ * <ul>
+ *     <li>a deletion by filter re-syncs the mirrored documents matching its {@code originalFilter}</li>
+ *     <li>an addition or update re-fetches the documents whose {@code modifiedAttribute} is not less than the
+ *     highest value mirrored, if that attribute is set: a filterable number every writer raises on each write,
+ *     e.g. epoch millis</li>
+ *     <li>anything else reloads, as Meilisearch does not report the ids a task wrote; a burst of such tasks
+ *     reloads once</li>
+ * </ul>
+ * The watch starts from the tasks known at its first poll, so a foreign write finishing after the initial load has
+ * read its documents but before that poll may be missed. The primary key must be one of the index's
+ * {@code filterableAttributes}.
+ * <p>
+ * Documents returned by the mirror are copies. Reads before the first reload completes go to the server.
+ *
+ * <pre>
+ * IndexMirror mirror = IndexMirror.builder()
+ *     .documents(client.indexes().documents("countries"))
+ *     .tasks(client.tasks())
+ *     .indexUid("countries")
+ *     .jsonHandler(jsonHandler)
+ *     .primaryKey("code")
+ *     .indexedAttributes(Arrays.asList("region", "currency"))
+ *     .watchWrites(true)
+ *     .modifiedAttribute("updatedAt")
+ *     .build();
+ * mirror.start();
+ * ReactiveDocuments countries = mirror.wrap(client.indexes().documents("countries"));
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IndexMirror implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexMirror.class);
+
+    private static final List<TaskType> DOCUMENT_TASKS = Arrays.asList(
+        TaskType.DOCUMENT_ADDITION_OR_UPDATE, TaskType.DOCUMENT_DELETION, TaskType.INDEX_SWAP);
+
+    private final ReactiveDocuments documents;
+
+    private final ReactiveTasks tasks;
+
+    private final String indexUid;
+
+    private final JsonHandler jsonHandler;
+
+    private final String primaryKey;
+
+    private final List<String> indexedAttributes;
+
+    private final int pageSize;
+
+    private final int maxDocuments;
+
+    private final boolean watchWrites;
+
+    @Nullable
+    private final String modifiedAttribute;
+
+    private final Duration taskTimeout;
+
+    private volatile MirrorTable table;
+
+    /**
+     * Highest {@code modifiedAttribute} of the mirrored documents.
+     */
+    private volatile double modifiedWatermark = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Ids synced while a reload is running, re-synced once it is swapped in.
+     */
+    private final Set<Queue<String>> journals = new CopyOnWriteArraySet<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private long swappedGeneration;
+
+    /**
+     * Uids of the tasks written through the wrapper, not yet seen by the watch.
+     */
+    private final Set<Integer> ownTasks = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+
+    private final AtomicLong local = new AtomicLong();
+
+    private final AtomicLong remote = new AtomicLong();
+
+    private volatile Disposable polling;
+
+    private IndexMirror(Builder builder) {
+        this.documents = builder.documents;
+        this.tasks = builder.tasks;
+        this.indexUid = builder.indexUid;
+        this.jsonHandler = builder.jsonHandler;
+        this.primaryKey = builder.primaryKey;
+        this.indexedAttributes = new ArrayList<>(builder.indexedAttributes);
+        this.pageSize = builder.pageSize;
+        this.maxDocuments = builder.maxDocuments;
+        this.watchWrites = builder.watchWrites;
+        this.modifiedAttribute = builder.modifiedAttribute;
+        this.taskTimeout = builder.taskTimeout;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Load the mirror, then follow the writes of other clients if {@code watchWrites} is set.
+     *
+     * @return this
+     */
+    public IndexMirror start() {
+        Asserts.status(Objects.isNull(polling), "already started");
+        reloadPending.set(true);
+        Flux<Mono<Void>> refreshes = Flux.empty();
+        if (watchWrites) {
+            GetTasksRequest request = GetTasksRequest.builder()
+                .indexUids(Collections.singletonList(indexUid))
+                .statuses(Collections.singletonList(TaskStatus.SUCCEEDED))
+                .types(DOCUMENT_TASKS)
+                .build();
+            // filtered on arrival, the buffer requests them all, so that a burst needing reloads reloads once
+            refreshes = tasks.watch(request)
+                .filter(task -> !ownTasks.remove(task.uid()))
+                .<Mono<Void>>handle((task, sink) -> {
+                    Mono<Void> refresh = refresh(task);
+                    if (Objects.nonNull(refresh)) {
+                        sink.next(refresh);
+                    }
+                })
+                .onBackpressureBuffer();
+        }
+        // the watch first, so that its baseline is taken as early as possible
+        polling = Flux.merge(refreshes, Mono.just(pendingReload()))
+            .concatMap(refresh -> refresh.onErrorResume(throwable -> {
+                log.warn("index mirror [{}] refresh failed", indexUid, throwable);
+                return Mono.empty();
+            }), 1)
+            .subscribe();
+        return this;
+    }
+
+    /**
+     * Attach this mirror to a documents operator of the same index.
+     *
+     * @param delegate documents operator
+     * @return documents operator reading from the mirror
+     */
+    public ReactiveDocuments wrap(ReactiveDocuments delegate) {
+        return new MirroredDocuments(delegate);
+    }
+
+    /**
+     * Load every document into a new mirror and swap it in.
+     *
+     * @return number of documents loaded
+     */
+    public Mono<Integer> reload() {
+        return Mono.defer(() -> {
+            long current = generation.incrementAndGet();
+            Queue<String> journal = new ConcurrentLinkedQueue<>();
+            journals.add(journal);
+            MirrorTable building = new MirrorTable(primaryKey, indexedAttributes, Math.min(pageSize, maxDocuments));
+            double[] watermark = {Double.NEGATIVE_INFINITY};
+            return documents.list(page(0))
+                .flatMapMany(first -> {
+                    int total = Optional.ofNullable(first.getTotal()).orElse(0);
+                    if (total > maxDocuments) {
+                        return Flux.error(new IllegalStateException(String.format(
+                            "index [%s] has %d documents, more than maxDocuments %d", indexUid, total, maxDocuments)));
+                    }
+                    int pages = (total + pageSize - 1) / pageSize;
+                    return Flux.concat(Mono.just(first), Flux.range(1, Math.max(0, pages - 1))
+                        .concatMap(no -> documents.list(page(no * pageSize))));
+                })
+                .doOnNext(page -> {
+                    for (Map<String, Object> document : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                        building.put(document);
+                        watermark[0] = Math.max(watermark[0], modified(document));
+                    }
+                })
+                .then(Mono.defer(() -> {
+                    journals.remove(journal);
+                    synchronized (this) {
+                        if (current < swappedGeneration) {
+                            return Mono.just(building.size());
+                        }
+                        swappedGeneration = current;
+                        table = building;
+                        modifiedWatermark = watermark[0];
+                    }
+                    log.debug("index mirror [{}] loaded {} documents", indexUid, building.size());
+                    if (journal.isEmpty()) {
+                        return Mono.just(building.size());
+                    }
+                    return sync(new LinkedHashSet<>(journal)).then(Mono.fromSupplier(building::size));
+                }))
+                .doOnError(throwable -> journals.remove(journal));
+        });
+    }
+
+    /**
+     * Re-fetch documents from the server, replacing or removing them in the mirror.
+     *
+     * @param ids primary keys
+     * @return number of documents found on the server
+     */
+    public Mono<Integer> sync(Collection<String> ids) {
+        return Mono.defer(() -> {
+            for (Queue<String> journal : journals) {
+                journal.addAll(ids);
+            }
+            MirrorTable current = table;
+            if (Objects.isNull(current) || ids.isEmpty()) {
+                return Mono.just(0);
+            }
+            Set<String> missing = new HashSet<>(ids);
+            return documents.batchGet(primaryKey, ids, null)
+                .doOnNext(document -> {
+                    missing.remove(DocumentIds.of(document.get(primaryKey)));
+                    current.put(document);
+                    raiseWatermark(document);
+                })
+                .count()
+                .map(found -> {
+                    for (String id : missing) {
+                        current.remove(id);
+                    }
+                    return found.intValue();
+                });
+        });
+    }
+
+    /**
+     * @return true once the mirror is loaded
+     */
+    public boolean isLoaded() {
+        return Objects.nonNull(table);
+    }
+
+    /**
+     * @return number of mirrored documents, 0 if not loaded
+     */
+    public int size() {
+        MirrorTable current = table;
+        return Objects.nonNull(current) ? current.size() : 0;
+    }
+
+    /**
+     * @return number of reads answered locally
+     */
+    public long local() {
+        return local.get();
+    }
+
+    /**
+     * @return number of reads sent to the server
+     */
+    public long remote() {
+        return remote.get();
+    }
+
+    /**
+     * Stop polling.
+     */
+    @Override
+    public void close() {
+        Disposable current = polling;
+        if (Objects.nonNull(current)) {
+            current.dispose();
+        }
+    }
+
+    private GetDocumentRequest page(int offset) {
+        GetDocumentRequest request = new GetDocumentRequest();
+        request.setOffset(offset);
+        request.setLimit(pageSize);
+        return request;
+    }
+
+    /**
+     * Work to bring the mirror up to date with a task written by another client, null if a pending reload covers it.
+     */
+    @Nullable
+    private Mono<Void> refresh(TaskInfo task) {
+        if (task.getType() == TaskType.DOCUMENT_DELETION) {
+            Object filter = Optional.ofNullable(task.getDetails()).map(details -> details.get("originalFilter")).orElse(null);
+            if (filter instanceof String && StringUtils.isNotBlank((String) filter)) {
+                try {
+                    FilterPredicate predicate = FilterPredicate.compile((String) filter);
+                    return Mono.defer(() -> deleted(predicate));
+                } catch (IllegalArgumentException e) {
+                    log.debug("index mirror [{}] can not evaluate [{}], reloading", indexUid, filter, e);
+                }
+            }
+        } else if (task.getType() == TaskType.DOCUMENT_ADDITION_OR_UPDATE && Objects.nonNull(modifiedAttribute)) {
+            return Mono.defer(this::modified);
+        }
+        return reloadPending.compareAndSet(false, true) ? pendingReload() : null;
+    }
+
+    private Mono<Void> pendingReload() {
+        return Mono.defer(() -> {
+            reloadPending.set(false);
+            return reload().then();
+        });
+    }
+
+    /**
+     * Re-sync the mirrored documents matching the filter of a deletion.
+     */
+    private Mono<Void> deleted(FilterPredicate filter) {
+        MirrorTable current = table;
+        if (Objects.isNull(current)) {
+            return Mono.empty();
+        }
+        List<String> ids = new ArrayList<>();
+        for (Map<String, Object> document : current.find(filter, 0, Integer.MAX_VALUE, Collections.singletonList(primaryKey)).getResults()) {
+            ids.add(DocumentIds.of(document.get(primaryKey)));
+        }
+        return sync(ids).then();
+    }
+
+    /**
+     * Re-fetch the documents modified since the highest {@code modifiedAttribute} mirrored, reload if none is.
+     */
+    private Mono<Void> modified() {
+        MirrorTable current = table;
+        double since = modifiedWatermark;
+        if (Objects.isNull(current) || Double.isInfinite(since)) {
+            return reloadPending.compareAndSet(false, true) ? pendingReload() : Mono.empty();
+        }
+        String filter = String.format("%s >= %s", modifiedAttribute,
+            since == Math.rint(since) ? String.valueOf((long) since) : String.valueOf(since));
+        int[] offset = {0};
+        return documents.list(modifiedPage(filter, 0))
+            .expand(page -> {
+                List<Map<String, Object>> results = Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+                if (results.size() < pageSize) {
+                    return Mono.empty();
+                }
+                offset[0] += results.size();
+                return documents.list(modifiedPage(filter, offset[0]));
+            })
+            .doOnNext(page -> {
+                List<String> ids = new ArrayList<>();
+                for (Map<String, Object> document : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                    ids.add(DocumentIds.of(document.get(primaryKey)));
+                    current.put(document);
+                    raiseWatermark(document);
+                }
+                for (Queue<String> journal : journals) {
+                    journal.addAll(ids);
+                }
+            })
+            .then();
+    }
+
+    private GetDocumentRequest modifiedPage(String filter, int offset) {
+        GetDocumentRequest request = page(offset);
+        request.setFilter(filter);
+        return request;
+    }
+
+    private double modified(Map<String, Object> document) {
+        if (Objects.isNull(modifiedAttribute)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        Object value = document.get(modifiedAttribute);
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    private synchronized void raiseWatermark(Map<String, Object> document) {
+        modifiedWatermark = Math.max(modifiedWatermark, modified(document));
+    }
+
+    /**
+     * Once the write task succeeded, sync the written ids, or reload if unknown.
+     */
+    private void followUp(TaskInfo taskInfo, @Nullable Collection<String> ids) {
+        Integer uid = taskInfo.getTaskUid();
+        if (Objects.isNull(uid)) {
+            return;
+        }
+        if (watchWrites) {
+            ownTasks.add(uid);
+        }
+        tasks.waitForTask(uid, taskTimeout)
+            .flatMap(task -> {
+                if (task.getStatus() != TaskStatus.SUCCEEDED) {
+                    ownTasks.remove(uid);
+                    return Mono.empty();
+                }
+                return Objects.nonNull(ids) ? sync(ids).then() : reload().then();
+            })
+            .onErrorResume(throwable -> {
+                ownTasks.remove(uid);
+                log.warn("index mirror [{}] cannot follow task [{}], reloading", indexUid, uid, throwable);
+                return reload().then();
+            })
+            .subscribe(null, throwable -> log.warn("index mirror [{}] reload failed", indexUid, throwable));
+    }
+
+    @Nullable
+    private List<String> ids(Collection<?> collection) {
+        List<String> ids = new ArrayList<>(collection.size());
+        for (Object document : collection) {
+            Object id = jsonHandler.transform(document, TypeRefs.StringObjectMapRef.INSTANCE).get(primaryKey);
+            if (Objects.isNull(id)) {
+                return null;
+            }
+            ids.add(DocumentIds.of(id));
+        }
+        return ids;
+    }
+
+    @Nullable
+    private List<String> ids(String json) {
+        try {
+            String trimmed = json.trim();
+            if (trimmed.startsWith("{")) {
+                return ids(Collections.singletonList(jsonHandler.fromJson(trimmed, TypeRefs.StringObjectMapRef.INSTANCE)));
+            }
+            return ids(jsonHandler.fromJson(trimmed, TypeRefs.StringObjectMapListRef.INSTANCE));
+        } catch (RuntimeException e) {
+            log.debug("cannot read ids of a raw json write, index mirror [{}] reloads after it", indexUid, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private Page<Map<String, Object>> find(@Nullable String filter, int offset, int limit, @Nullable List<String> fields) {
+        MirrorTable current = table;
+        if (Objects.isNull(current)) {
+            return null;
+        }
+        FilterPredicate predicate = null;
+        if (StringUtils.isNotBlank(filter)) {
+            try {
+                predicate = FilterPredicate.compile(filter);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        local.incrementAndGet();
+        return current.find(predicate, offset, limit, fields);
+    }
+
+    private <T> Page<T> transform(Page<Map<String, Object>> page, TypeRef<T> typeRef) {
+        List<T> results = new ArrayList<>(page.getResults().size());
+        for (Map<String, Object> document : page.getResults()) {
+            results.add(jsonHandler.transform(document, typeRef));
+        }
+        Page<T> transformed = new Page<>();
+        transformed.setOffset(page.getOffset());
+        transformed.setLimit(page.getLimit());
+        transformed.setTotal(page.getTotal());
+        transformed.setResults(results);
+        return transformed;
+    }
+
+    private final class MirroredDocuments implements ReactiveDocuments {
+
+        private final ReactiveDocuments delegate;
+
+        private MirroredDocuments(ReactiveDocuments delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+            return Mono.defer(() -> {
+                Page<Map<String, Object>> found = find(page.getFilter(), page.toOffset(), page.toLimit(), page.getFields());
+                if (Objects.nonNull(found)) {
+                    return Mono.just(found);
+                }
+                remote.incrementAndGet();
+                return delegate.list(page);
+            });
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(@Nullable Integer offset, @Nullable Integer limit, TypeRef<T> typeRef) {
+            return Mono.defer(() -> {
+                Page<Map<String, Object>> found = find(null, Optional.ofNullable(offset).orElse(PageRequest.DEFAULT_OFFSET),
+                    Optional.ofNullable(limit).orElse(PageRequest.DEFAULT_LIMIT), null);
+                if (Objects.nonNull(found)) {
+                    return Mono.just(transform(found, typeRef));
+                }
+                remote.incrementAndGet();
+                return delegate.list(offset, limit, typeRef);
+            });
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(GetDocumentRequest page, TypeRef<T> typeRef) {
+            return Mono.defer(() -> {
+                Page<Map<String, Object>> found = find(page.getFilter(), page.toOffset(), page.toLimit(), page.getFields());
+                if (Objects.nonNull(found)) {
+                    return Mono.just(transform(found, typeRef));
+                }
+                remote.incrementAndGet();
+                return delegate.list(page, typeRef);
+            });
+        }
+
+        @Override
+        public Mono<TaskInfo> save(String json) {
+            return delegate.save(json).doOnNext(taskInfo -> followUp(taskInfo, ids(json)));
+        }
+
+        @Override
+        public Mono<TaskInfo> save(Collection<?> collection) {
+            return delegate.save(collection).doOnNext(taskInfo -> followUp(taskInfo, ids(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> saveVectorized(Collection<VectorizedDocument> collection) {
+            return delegate.saveVectorized(collection).doOnNext(taskInfo -> followUp(taskInfo, ids(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(String json) {
+            return delegate.update(json).doOnNext(taskInfo -> followUp(taskInfo, ids(json)));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(Collection<?> collection) {
+            return delegate.update(collection).doOnNext(taskInfo -> followUp(taskInfo, ids(collection)));
+        }
+
+        @Override
+        public Mono<TaskInfo> deleteAll() {
+            return delegate.deleteAll().doOnNext(taskInfo -> followUp(taskInfo, null));
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+            return Mono.defer(() -> {
+                Page<Map<String, Object>> found = find(fetch.getFilter(),
+                    Optional.ofNullable(fetch.getOffset()).orElse(PageRequest.DEFAULT_OFFSET),
+                    Optional.ofNullable(fetch.getLimit()).orElse(PageRequest.DEFAULT_LIMIT), fetch.getFields());
+                if (Objects.nonNull(found)) {
+                    return Mono.just(found);
+                }
+                remote.incrementAndGet();
+                return delegate.batchGet(fetch);
+            });
+        }
+
+        @Override
+        public <T> Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch, TypeRef<T> typeRef) {
+            return batchGet(fetch).map(page -> transform(page, typeRef));
+        }
+
+        @Override
+        public Mono<TaskInfo> batchDelete(List<String> ids) {
+            return delegate.batchDelete(ids).doOnNext(taskInfo -> followUp(taskInfo, new ArrayList<>(ids)));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(FilterableAttributesRequest filter) {
+            return delegate.delete(filter).doOnNext(taskInfo -> followUp(taskInfo, null));
+        }
+
+        @Override
+        public Mono<Map<String, Object>> get(String id, @Nullable String... fields) {
+            return Mono.defer(() -> {
+                MirrorTable current = table;
+                if (Objects.isNull(current)) {
+                    remote.incrementAndGet();
+                    return delegate.get(id, fields);
+                }
+                local.incrementAndGet();
+                return Mono.justOrEmpty(current.get(id, Objects.nonNull(fields) ? Arrays.asList(fields) : null));
+            });
+        }
+
+        @Override
+        public <T> Mono<T> get(String id, TypeRef<T> typeRef, @Nullable String... fields) {
+            return Mono.defer(() -> {
+                if (Objects.isNull(table)) {
+                    remote.incrementAndGet();
+                    return delegate.get(id, typeRef, fields);
+                }
+                return get(id, fields).map(document -> jsonHandler.transform(document, typeRef));
+            });
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(String id) {
+            return delegate.delete(id).doOnNext(taskInfo -> followUp(taskInfo, Collections.singletonList(id)));
+        }
+    }
+
+    /**
+     * {@code IndexMirror} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private ReactiveTasks tasks;
+        private String indexUid;
+        private JsonHandler jsonHandler;
+        private String primaryKey;
+        private List<String> indexedAttributes = Collections.emptyList();
+        private int pageSize = 1000;
+        private int maxDocuments = 200_000;
+        private boolean watchWrites;
+        private String modifiedAttribute;
+        private Duration taskTimeout = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Documents operator used to load the mirror.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Tasks operator used to follow writes.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * Uid of the mirrored index.
+         *
+         * @param val the {@code indexUid} to set
+         * @return a reference to this Builder
+         */
+        public Builder indexUid(String val) {
+            indexUid = val;
+            return this;
+        }
+
+        /**
+         * Json handler to read ids of written documents and to convert typed reads.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Primary key of the index.
+         *
+         * @param val the {@code primaryKey} to set
+         * @return a reference to this Builder
+         */
+        public Builder primaryKey(String val) {
+            primaryKey = val;
+            return this;
+        }
+
+        /**
+         * Top-level attributes with a hash index for {@code =} and {@code IN} filters, default none.
+         *
+         * @param val the {@code indexedAttributes} to set
+         * @return a reference to this Builder
+         */
+        public Builder indexedAttributes(List<String> val) {
+            indexedAttributes = val;
+            return this;
+        }
+
+        /**
+         * Documents per page when loading, default 1000.
+         *
+         * @param val the {@code pageSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder pageSize(int val) {
+            pageSize = val;
+            return this;
+        }
+
+        /**
+         * Largest index to mirror, default 200000. Loading a larger index fails.
+         *
+         * @param val the {@code maxDocuments} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxDocuments(int val) {
+            maxDocuments = val;
+            return this;
+        }
+
+        /**
+         * Whether to follow the writes of other clients after {@link #start()}, default false.
+         *
+         * @param val the {@code watchWrites} to set
+         * @return a reference to this Builder
+         */
+        public Builder watchWrites(boolean val) {
+            watchWrites = val;
+            return this;
+        }
+
+        /**
+         * Numeric attribute raised by every write and filterable, so that an addition or update by another
+         * client re-fetches only the documents it modified. Default none, such writes reload.
+         *
+         * @param val the {@code modifiedAttribute} to set
+         * @return a reference to this Builder
+         */
+        public Builder modifiedAttribute(String val) {
+            modifiedAttribute = val;
+            return this;
+        }
+
+        /**
+         * How long to follow a write task before reloading instead, default 1 minute.
+         *
+         * @param val the {@code taskTimeout} to set
+         * @return a reference to this Builder
+         */
+        public Builder taskTimeout(Duration val) {
+            taskTimeout = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code IndexMirror} built from the parameters previously set.
+         *
+         * @return a {@code IndexMirror} built with parameters of this {@code IndexMirror.Builder}
+         */
+        public IndexMirror build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(StringUtils.isNotBlank(indexUid), "indexUid must not be blank");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(StringUtils.isNotBlank(primaryKey), "primaryKey must not be blank");
+            Asserts.status(Objects.nonNull(indexedAttributes), "indexedAttributes must not be null");
+            Asserts.status(pageSize > 0, "pageSize must be positive");
+            Asserts.status(maxDocuments > 0, "maxDocuments must be positive");
+            Asserts.status(Objects.isNull(modifiedAttribute) || StringUtils.isNotBlank(modifiedAttribute), "modifiedAttribute must not be blank");
+            Asserts.status(Objects.nonNull(taskTimeout) && !taskTimeout.isNegative(), "taskTimeout must not be negative");
+            return new IndexMirror(this);
+        }
+    }
+
+}
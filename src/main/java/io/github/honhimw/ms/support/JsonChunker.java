@@ -0,0 +1,272 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Splits a NDJSON file or a JSON array file into byte-bounded JSON array chunks at record boundaries.
+ * <p>
+ * Records are top-level objects, found by tracking only string/escape state and nesting depth,
+ * documents themselves are never parsed. Chunking is deterministic for a given file and {@code chunkBytes},
+ * so a chunker opened at the end offset of chunk {@code n} produces chunk {@code n + 1} onwards exactly as before.
+ * A file ending inside a record yields the complete records before it, then an {@link EOFException} pointing at
+ * the truncated record.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class JsonChunker implements Closeable {
+
+    private final FileChannel channel;
+
+    private final int chunkBytes;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(1 << 16);
+
+    private long offset;
+
+    private final int base;
+
+    private int depth;
+
+    private boolean inString;
+
+    private boolean escape;
+
+    private int index;
+
+    private byte[] buffer;
+
+    private int length;
+
+    private int records;
+
+    private long chunkStart = -1;
+
+    private long chunkEnd;
+
+    private int recordMark;
+
+    private long recordStart;
+
+    private Chunk pending;
+
+    JsonChunker(Path file, int chunkBytes, long position, int index) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.chunkBytes = chunkBytes;
+        this.index = index;
+        this.base = detectBase();
+        this.offset = position;
+        this.depth = position > 0 ? base : 0;
+        this.buffer = new byte[Math.min(chunkBytes + 2, 1 << 20)];
+        this.buffer[0] = '[';
+        this.length = 1;
+        this.readBuffer.flip();
+    }
+
+    /**
+     * Next chunk.
+     *
+     * @return next chunk, or null at end of file
+     * @throws EOFException if the file ends inside a record, once the complete records before it have been returned
+     * @throws IOException  if an I/O error occurs
+     */
+    Chunk next() throws IOException {
+        if (pending != null) {
+            Chunk chunk = pending;
+            pending = null;
+            return chunk;
+        }
+        while (true) {
+            if (!readBuffer.hasRemaining()) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer, offset);
+                readBuffer.flip();
+                if (read <= 0) {
+                    if (depth <= base) {
+                        return records > 0 ? emit(length, chunkEnd) : null;
+                    }
+                    if (records > 0) {
+                        // drop the partial record, and its separating comma
+                        return emit(recordMark, chunkEnd);
+                    }
+                    throw new EOFException(String.format("truncated record at offset %d", recordStart));
+                }
+            }
+            byte b = readBuffer.get();
+            long position = offset++;
+            boolean inRecord = depth > base;
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (b == '\\') {
+                    escape = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                if (depth == base && b == '{') {
+                    inRecord = true;
+                    recordMark = length;
+                    recordStart = position;
+                    if (records > 0) {
+                        append((byte) ',');
+                    }
+                }
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            if (!inRecord) {
+                continue;
+            }
+            append(b);
+            if (depth == base) {
+                Chunk chunk = completeRecord(position + 1);
+                if (chunk != null) {
+                    return chunk;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Chunk completeRecord(long recordEnd) {
+        long previousEnd = chunkEnd;
+        records++;
+        chunkEnd = recordEnd;
+        if (chunkStart < 0) {
+            chunkStart = recordStart;
+        }
+        if (length + 1 <= chunkBytes) {
+            return null;
+        }
+        if (records == 1) {
+            return emit(length, chunkEnd);
+        }
+        int carryFrom = recordMark + 1;
+        byte[] carry = Arrays.copyOfRange(buffer, carryFrom, length);
+        records--;
+        Chunk chunk = emit(recordMark, previousEnd);
+        ensure(1 + carry.length);
+        System.arraycopy(carry, 0, buffer, 1, carry.length);
+        length = 1 + carry.length;
+        records = 1;
+        chunkStart = recordStart;
+        chunkEnd = recordEnd;
+        if (length + 1 > chunkBytes) {
+            pending = emit(length, chunkEnd);
+        }
+        return chunk;
+    }
+
+    private Chunk emit(int end, long endOffset) {
+        byte[] json = Arrays.copyOf(buffer, end + 1);
+        json[end] = ']';
+        Chunk chunk = new Chunk(index++, chunkStart, endOffset, json, records);
+        length = 1;
+        records = 0;
+        chunkStart = -1;
+        return chunk;
+    }
+
+    private void append(byte b) {
+        ensure(length + 1);
+        buffer[length++] = b;
+    }
+
+    private void ensure(int capacity) {
+        if (capacity + 1 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, capacity + 1));
+        }
+    }
+
+    private int detectBase() throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (true) {
+            head.clear();
+            int read = channel.read(head, position);
+            if (read <= 0) {
+                return 0;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = head.get(i);
+                if (b == '[') {
+                    return 1;
+                }
+                if (b == '{') {
+                    return 0;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * JSON array of whole records.
+     */
+    static final class Chunk {
+
+        /**
+         * Sequential chunk index.
+         */
+        final int index;
+
+        /**
+         * File offset of the first record.
+         */
+        final long start;
+
+        /**
+         * File offset right after the last record.
+         */
+        final long end;
+
+        /**
+         * JSON array of the records.
+         */
+        final byte[] json;
+
+        /**
+         * Number of records.
+         */
+        final int records;
+
+        Chunk(int index, long start, long end, byte[] json, int records) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+            this.json = json;
+            this.records = records;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the manner of HdrHistogram.
+ * <p>
+ * Latencies are recorded in microseconds, from 0 up to about 100 days, larger ones are clamped. Values below
+ * {@code 2^SUB_BUCKET_BITS} have their own bucket, above that every power of two is split into {@code 2^SUB_BUCKET_BITS}
+ * linear buckets, so a reported value is within 1/64 (1.6%) of the recorded one. Recording is one atomic increment
+ * plus two striped adders, safe from any number of threads; reads are not a consistent snapshot of concurrent writes.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest power of two of trackable values, in microseconds.
+     */
+    private static final int MAX_EXPONENT = 42;
+
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a latency, negative ones as zero.
+     *
+     * @param latency latency
+     */
+    public void record(Duration latency) {
+        long seconds = latency.getSeconds();
+        recordMicros(seconds >= MAX_VALUE / 1_000_000 ? MAX_VALUE : seconds * 1_000_000 + latency.getNano() / 1000);
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param micros latency in microseconds, negative as zero
+     */
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return number of recorded latencies
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return highest recorded latency, zero if none
+     */
+    public Duration max() {
+        return micros(max.get());
+    }
+
+    /**
+     * @return mean of the recorded latencies, zero if none
+     */
+    public Duration mean() {
+        long n = count.sum();
+        return n == 0 ? Duration.ZERO : micros(sum.sum() / n);
+    }
+
+    /**
+     * Latency at a percentile, as the highest value of its bucket.
+     *
+     * @param percentile percentile, from 0 to 100
+     * @return latency at or below which the given percentage of the recorded latencies are, zero if none
+     */
+    public Duration percentile(double percentile) {
+        Asserts.status(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return micros(Math.min(highest(i), max.get()));
+            }
+        }
+        return micros(max.get());
+    }
+
+    /**
+     * Clear all recorded latencies, concurrent records may partly survive.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%s, p50=%s, p90=%s, p99=%s, max=%s",
+            count(), mean(), percentile(50), percentile(90), percentile(99), max());
+    }
+
+    /**
+     * @param value value from 0 to {@link #MAX_VALUE}
+     * @return bucket of the value
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    /**
+     * @param index bucket
+     * @return highest value of the bucket
+     */
+    static long highest(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static Duration micros(long micros) {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.api.reactive.ReactiveTypedSearch;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live search queries of one index, re-run only when a write to the index has completed.
+ * <p>
+ * Writes are observed with {@link ReactiveTasks#watch(GetTasksRequest)}: the succeeded write tasks of the index, from
+ * the task poller the client shares with every other watch, subscribed while at least one query is. Each subscribed
+ * query runs once at subscription and again after every such task, a run still in flight is canceled by the next one.
+ * Subscribers of identical requests share one query and its latest response, and a response is only emitted if its
+ * content (hits, totals, facets) differs from the previous one. The server load is one search per distinct query and
+ * write, whatever the number of viewers, on top of the shared task poller.
+ *
+ * <pre>
+ * LiveSearch&lt;Movie&gt; live = LiveSearch.&lt;Movie&gt;builder()
+ *     .search(client.indexes().search("movies", Movie.class))
+ *     .tasks(client.tasks())
+ *     .indexUid("movies")
+ *     .jsonHandler(jsonHandler)
+ *     .build();
+ * Flux&lt;SearchResponse&lt;Movie&gt;&gt; updates = live.subscribe(SearchRequest.builder().q("matrix").build());
+ * </pre>
+ *
+ * @param <T> document type
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class LiveSearch<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveSearch.class);
+
+    private static final List<TaskType> WRITE_TASKS = Arrays.asList(
+        TaskType.DOCUMENT_ADDITION_OR_UPDATE, TaskType.DOCUMENT_DELETION, TaskType.SETTINGS_UPDATE,
+        TaskType.INDEX_SWAP, TaskType.INDEX_DELETION);
+
+    private final ReactiveTypedSearch<T> search;
+
+    private final JsonHandler jsonHandler;
+
+    private final String indexUid;
+
+    /**
+     * Uids of the succeeded write tasks, shared by all queries.
+     */
+    private final Flux<Integer> writes;
+
+    private final Map<String, Flux<SearchResponse<T>>> queries = new ConcurrentHashMap<>();
+
+    private final AtomicLong changes = new AtomicLong();
+
+    private final AtomicLong executions = new AtomicLong();
+
+    private LiveSearch(Builder<T> builder) {
+        this.search = builder.search;
+        this.jsonHandler = builder.jsonHandler;
+        this.indexUid = builder.indexUid;
+        ReactiveTasks tasks = builder.tasks;
+        GetTasksRequest request = GetTasksRequest.builder()
+            .indexUids(Collections.singletonList(indexUid))
+            .statuses(Collections.singletonList(TaskStatus.SUCCEEDED))
+            .types(WRITE_TASKS)
+            .build();
+        this.writes = tasks.watch(request)
+            .map(TaskInfo::uid)
+            .doOnNext(uid -> changes.incrementAndGet())
+            .share();
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @param <T> document type
+     * @return a new instance of the Builder class
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Subscribe to a query.
+     *
+     * @param request search request
+     * @return the current response, then every changed response after a write
+     */
+    public Flux<SearchResponse<T>> subscribe(SearchRequest request) {
+        String key = jsonHandler.toJson(request);
+        return Flux.defer(() -> queries.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<SearchResponse<T>>> self = new AtomicReference<>();
+            Flux<SearchResponse<T>> query = writes
+                .startWith(-1)
+                .switchMap(uid -> search.find(request)
+                    .doOnSubscribe(subscription -> executions.incrementAndGet())
+                    .onErrorResume(throwable -> {
+                        log.warn("live search [{}] query failed", indexUid, throwable);
+                        return Mono.empty();
+                    }))
+                .distinctUntilChanged(this::hash)
+                .doFinally(signal -> queries.remove(k, self.get()))
+                .replay(1)
+                .refCount();
+            self.set(query);
+            return query;
+        }));
+    }
+
+    /**
+     * @return number of distinct queries currently subscribed
+     */
+    public int queries() {
+        return queries.size();
+    }
+
+    /**
+     * @return number of write tasks observed
+     */
+    public long changes() {
+        return changes.get();
+    }
+
+    /**
+     * @return number of searches sent
+     */
+    public long executions() {
+        return executions.get();
+    }
+
+    private long hash(SearchResponse<T> response) {
+        List<Object> content = Arrays.asList(response.getHits(), response.getEstimatedTotalHits(),
+            response.getTotalHits(), response.getTotalPages(), response.getFacetDistribution(), response.getFacetStats());
+        return HashUtils.hash64(jsonHandler.toJson(content));
+    }
+
+    /**
+     * {@code LiveSearch} builder static inner class.
+     *
+     * @param <T> document type
+     */
+    public static final class Builder<T> {
+        private ReactiveTypedSearch<T> search;
+        private ReactiveTasks tasks;
+        private String indexUid;
+        private JsonHandler jsonHandler;
+
+        private Builder() {
+        }
+
+        /**
+         * Typed search operator of the index.
+         *
+         * @param val the {@code search} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> search(ReactiveTypedSearch<T> val) {
+            search = val;
+            return this;
+        }
+
+        /**
+         * Tasks operator whose {@link ReactiveTasks#watch(GetTasksRequest)} detects writes.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * Uid of the searched index.
+         *
+         * @param val the {@code indexUid} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> indexUid(String val) {
+            indexUid = val;
+            return this;
+        }
+
+        /**
+         * Json handler to key requests and hash responses.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code LiveSearch} built from the parameters previously set.
+         *
+         * @return a {@code LiveSearch} built with parameters of this {@code LiveSearch.Builder}
+         */
+        public LiveSearch<T> build() {
+            Asserts.status(Objects.nonNull(search), "search must not be null");
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(StringUtils.isNotBlank(indexUid), "indexUid must not be blank");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            return new LiveSearch<>(this);
+        }
+    }
+
+}
@@ -0,0 +1,364 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.Page;
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory columnar copy of an index's documents.
+ * <p>
+ * Each top-level attribute is one column array indexed by row, rows are addressed by primary key and reused after
+ * removal. Declared attributes have a hash index from normalized value (lower-cased strings, numbers as doubles)
+ * to rows, narrowing {@code =} and {@code IN} conditions of a filter before the remaining rows are tested.
+ * Reads take a shared lock, writes an exclusive one.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class MirrorTable {
+
+    /**
+     * Column value of an attribute that is present and null, {@code null} marks an absent attribute.
+     */
+    private static final Object NULL = new Object();
+
+    private final String primaryKey;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Row of each primary key, in insertion order.
+     */
+    private final Map<String, Integer> rows = new LinkedHashMap<>();
+
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    private final List<String> columnNames = new ArrayList<>();
+
+    private final Map<String, Map<String, Set<Integer>>> indexes = new HashMap<>();
+
+    private Object[][] columns = new Object[0][];
+
+    /**
+     * Insertion sequence of each row, to keep results in insertion order.
+     */
+    private long[] sequences;
+
+    private long sequence;
+
+    private int capacity;
+
+    private int nextRow;
+
+    private int[] free = new int[16];
+
+    private int freeCount;
+
+    MirrorTable(String primaryKey, Collection<String> indexed, int expectedSize) {
+        this.primaryKey = primaryKey;
+        this.capacity = Math.max(16, expectedSize);
+        this.sequences = new long[capacity];
+        for (String attribute : indexed) {
+            indexes.put(attribute, new HashMap<>());
+        }
+    }
+
+    /**
+     * Insert or replace a document.
+     *
+     * @param document document with its primary key
+     */
+    void put(Map<String, Object> document) {
+        Object key = document.get(primaryKey);
+        Asserts.status(Objects.nonNull(key), "document has no primary key");
+        String id = DocumentIds.of(key);
+        lock.writeLock().lock();
+        try {
+            Integer existing = rows.get(id);
+            int row;
+            if (Objects.nonNull(existing)) {
+                row = existing;
+                clear(row);
+            } else {
+                row = allocate();
+                rows.put(id, row);
+                sequences[row] = sequence++;
+            }
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                Object value = entry.getValue();
+                column(entry.getKey())[row] = Objects.isNull(value) ? NULL : value;
+                Map<String, Set<Integer>> index = indexes.get(entry.getKey());
+                if (Objects.nonNull(index)) {
+                    index(index, value, row, true);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id primary key
+     * @return true if the document was present
+     */
+    boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.remove(id);
+            if (Objects.isNull(row)) {
+                return false;
+            }
+            clear(row);
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = row;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of documents
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param id     primary key
+     * @param fields top-level attributes to return, all if empty or containing {@code *}
+     * @return a copy of the document, null if absent
+     */
+    @Nullable
+    Map<String, Object> get(String id, @Nullable Collection<String> fields) {
+        lock.readLock().lock();
+        try {
+            Integer row = rows.get(id);
+            return Objects.isNull(row) ? null : materialize(row, fields);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching a filter, in insertion order.
+     *
+     * @param filter filter, all documents if null
+     * @param offset documents to skip
+     * @param limit  maximum documents to return
+     * @param fields top-level attributes to return, all if empty or containing {@code *}
+     * @return page of copies of the documents, with the total number of matches
+     */
+    Page<Map<String, Object>> find(@Nullable FilterPredicate filter, int offset, int limit, @Nullable Collection<String> fields) {
+        List<Map<String, Object>> results = new ArrayList<>(Math.min(limit, 1024));
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            Collection<Integer> candidates = Objects.nonNull(filter) ? candidates(filter) : null;
+            if (Objects.isNull(candidates)) {
+                candidates = rows.values();
+            }
+            Cursor cursor = new Cursor();
+            Predicate<Cursor> predicate = Objects.nonNull(filter) ? filter.forType(this::value) : null;
+            for (Integer row : candidates) {
+                cursor.row = row;
+                if (Objects.isNull(predicate) || predicate.test(cursor)) {
+                    if (total >= offset && results.size() < limit) {
+                        results.add(materialize(row, fields));
+                    }
+                    total++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Page<Map<String, Object>> page = new Page<>();
+        page.setOffset(offset);
+        page.setLimit(limit);
+        page.setTotal(total);
+        page.setResults(results);
+        return page;
+    }
+
+    /**
+     * Rows that may match the filter, from the primary key or the most selective hash index, in insertion order.
+     *
+     * @return candidate rows, null if no index applies
+     */
+    @Nullable
+    private Collection<Integer> candidates(FilterPredicate filter) {
+        Set<Integer> best = null;
+        for (Map.Entry<String, List<String>> equality : filter.equalities().entrySet()) {
+            Set<Integer> matched = new HashSet<>();
+            if (primaryKey.equals(equality.getKey())) {
+                for (String value : equality.getValue()) {
+                    Integer row = rows.get(value);
+                    if (Objects.isNull(row)) {
+                        double number = FilterPredicate.number(value);
+                        row = Double.isNaN(number) || number != Math.rint(number) ? null : rows.get(String.valueOf((long) number));
+                    }
+                    if (Objects.nonNull(row)) {
+                        matched.add(row);
+                    }
+                }
+            } else {
+                Map<String, Set<Integer>> index = indexes.get(equality.getKey());
+                if (Objects.isNull(index)) {
+                    continue;
+                }
+                for (String value : equality.getValue()) {
+                    addAll(matched, index.get(stringKey(value)));
+                    double number = FilterPredicate.number(value);
+                    if (!Double.isNaN(number)) {
+                        addAll(matched, index.get(numberKey(number)));
+                    }
+                }
+            }
+            if (Objects.isNull(best) || matched.size() < best.size()) {
+                best = matched;
+            }
+        }
+        if (Objects.isNull(best)) {
+            return null;
+        }
+        Integer[] ordered = best.toArray(new Integer[0]);
+        Arrays.sort(ordered, (a, b) -> Long.compare(sequences[a], sequences[b]));
+        return Arrays.asList(ordered);
+    }
+
+    private static void addAll(Set<Integer> target, @Nullable Set<Integer> rows) {
+        if (Objects.nonNull(rows)) {
+            target.addAll(rows);
+        }
+    }
+
+    private Object value(Cursor cursor, String attribute) {
+        Integer column = columnIndex.get(attribute);
+        if (Objects.isNull(column)) {
+            return FilterPredicate.ABSENT;
+        }
+        Object value = columns[column][cursor.row];
+        if (Objects.isNull(value)) {
+            return FilterPredicate.ABSENT;
+        }
+        return value == NULL ? null : value;
+    }
+
+    private Map<String, Object> materialize(int row, @Nullable Collection<String> fields) {
+        boolean all = CollectionUtils.isEmpty(fields) || fields.contains("*");
+        Map<String, Object> document = new LinkedHashMap<>();
+        for (int c = 0; c < columns.length; c++) {
+            Object value = columns[c][row];
+            if (Objects.nonNull(value) && (all || fields.contains(columnNames.get(c)))) {
+                document.put(columnNames.get(c), value == NULL ? null : value);
+            }
+        }
+        return document;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (nextRow == capacity) {
+            capacity = capacity * 2;
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], capacity);
+            }
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+        return nextRow++;
+    }
+
+    private void clear(int row) {
+        for (int c = 0; c < columns.length; c++) {
+            Object value = columns[c][row];
+            if (Objects.nonNull(value)) {
+                Map<String, Set<Integer>> index = indexes.get(columnNames.get(c));
+                if (Objects.nonNull(index)) {
+                    index(index, value == NULL ? null : value, row, false);
+                }
+                columns[c][row] = null;
+            }
+        }
+    }
+
+    private Object[] column(String attribute) {
+        Integer column = columnIndex.get(attribute);
+        if (Objects.isNull(column)) {
+            column = columns.length;
+            columnIndex.put(attribute, column);
+            columnNames.add(attribute);
+            columns = Arrays.copyOf(columns, column + 1);
+            columns[column] = new Object[capacity];
+        }
+        return columns[column];
+    }
+
+    private static void index(Map<String, Set<Integer>> index, @Nullable Object value, int row, boolean add) {
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                index(index, element, row, add);
+            }
+            return;
+        }
+        String key;
+        if (value instanceof Number) {
+            key = numberKey(((Number) value).doubleValue());
+        } else if (value instanceof CharSequence || value instanceof Boolean) {
+            key = stringKey(value.toString());
+        } else {
+            return;
+        }
+        if (add) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(row);
+        } else {
+            Set<Integer> rows = index.get(key);
+            if (Objects.nonNull(rows) && rows.remove(row) && rows.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String stringKey(String value) {
+        return "s" + value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String numberKey(double value) {
+        return "n" + value;
+    }
+
+    /**
+     * Row being tested, reused across the rows of a query.
+     */
+    private static final class Cursor {
+        private int row;
+    }
+
+}
@@ -0,0 +1,523 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.api.reactive.ReactiveTypedDocuments;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Client-side near cache for single document lookups by id.
+ * <p>
+ * Wrap the documents operators of hot indexes with {@link #wrap(String, ReactiveDocuments)} or
+ * {@link #wrap(String, ReactiveTypedDocuments)}; {@code get(id)} without {@code fields} is then served from a
+ * size-bounded W-TinyLFU cache keyed by index and id, everything else passes through. When a write through a
+ * wrapped operator is enqueued, the affected entries are invalidated: {@code delete(id)} and {@code batchDelete(ids)}
+ * drop those ids, any other write drops the whole index. Since Meilisearch applies writes asynchronously, the task is
+ * then awaited with {@link ReactiveTasks#waitForTask(int, Duration)}: loads of that index are not admitted while any of
+ * its writes is unfinished, and the entries are invalidated again once the task has completed, dropping anything
+ * loaded in between. Every entry expires after {@code ttl} to bound staleness from writers outside this client.
+ * <p>
+ * Cached documents are shared between callers and must be treated as read-only.
+ *
+ * <pre>
+ * NearCache nearCache = NearCache.builder().tasks(client.tasks()).maximumSize(10_000).build();
+ * ReactiveDocuments documents = nearCache.wrap("products", client.indexes().documents("products"));
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class NearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCache.class);
+
+    private static final String MAP_VIEW = "map";
+
+    private final ReactiveTasks tasks;
+
+    private final Duration taskTimeout;
+
+    private final TinyLfuCache<String, Cached> cache;
+
+    private final long ttlNanos;
+
+    private final Map<String, IndexState> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger typedViews = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private NearCache(Builder builder) {
+        this.tasks = builder.tasks;
+        this.taskTimeout = builder.taskTimeout;
+        this.cache = new TinyLfuCache<>(builder.maximumSize);
+        this.ttlNanos = builder.ttl.toNanos();
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Attach this cache to a documents operator.
+     *
+     * @param indexUid  index of the operator
+     * @param documents documents operator
+     * @return caching documents operator
+     */
+    public ReactiveDocuments wrap(String indexUid, ReactiveDocuments documents) {
+        return new CachedDocuments(indexUid, documents);
+    }
+
+    /**
+     * Attach this cache to a typed documents operator.
+     *
+     * @param indexUid  index of the operator
+     * @param documents typed documents operator
+     * @param <T>       document type
+     * @return caching typed documents operator
+     */
+    public <T> ReactiveTypedDocuments<T> wrap(String indexUid, ReactiveTypedDocuments<T> documents) {
+        return new CachedTypedDocuments<>(indexUid, documents, "typed#" + typedViews.incrementAndGet());
+    }
+
+    /**
+     * Drop all cached documents of an index.
+     *
+     * @param indexUid index
+     */
+    public void invalidate(String indexUid) {
+        IndexState state = state(indexUid);
+        state.version.incrementAndGet();
+        state.generation.incrementAndGet();
+    }
+
+    /**
+     * Drop cached documents of an index by id.
+     *
+     * @param indexUid index
+     * @param ids      document ids
+     */
+    public void invalidate(String indexUid, Collection<String> ids) {
+        state(indexUid).version.incrementAndGet();
+        for (String id : ids) {
+            cache.remove(key(indexUid, id));
+        }
+    }
+
+    /**
+     * Drop everything.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * @return number of lookups served from the cache
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of lookups sent to the server
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of entries evicted or rejected by the size policy
+     */
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    /**
+     * @return number of cached ids
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Invalidate for an enqueued write, then fence loads of the index until its task has completed and invalidate again.
+     *
+     * @param ids ids written, null for the whole index
+     */
+    private void written(String indexUid, @Nullable Collection<String> ids, TaskInfo taskInfo) {
+        IndexState state = state(indexUid);
+        state.unfinished.incrementAndGet();
+        drop(indexUid, ids);
+        tasks.waitForTask(taskInfo.getTaskUid(), taskTimeout)
+            .doFinally(signal -> {
+                drop(indexUid, ids);
+                state.unfinished.decrementAndGet();
+            })
+            .subscribe(null, throwable -> log.debug("cannot wait for task [{}], invalidating anyway", taskInfo.getTaskUid(), throwable));
+    }
+
+    private void drop(String indexUid, @Nullable Collection<String> ids) {
+        if (Objects.isNull(ids)) {
+            invalidate(indexUid);
+        } else {
+            invalidate(indexUid, ids);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Mono<V> get(String indexUid, String id, String view, Supplier<Mono<V>> loader) {
+        IndexState state = state(indexUid);
+        String key = key(indexUid, id);
+        long generation = state.generation.get();
+        long version = state.version.get();
+        Cached cached = cache.get(key);
+        if (Objects.nonNull(cached) && cached.generation == generation && System.nanoTime() - cached.expiresAt < 0) {
+            Object value = cached.views.get(view);
+            if (Objects.nonNull(value)) {
+                hits.incrementAndGet();
+                return Mono.just((V) value);
+            }
+        }
+        misses.incrementAndGet();
+        return loader.get().doOnNext(value -> {
+            long now = System.nanoTime();
+            if (state.unfinished.get() > 0 || state.version.get() != version) {
+                return;
+            }
+            Map<String, Object> views = new ConcurrentHashMap<>(4);
+            views.put(view, value);
+            Cached fresh = new Cached(views, generation, now + ttlNanos);
+            Cached current = cache.putIfAbsent(key, fresh);
+            if (Objects.nonNull(current)) {
+                if (current.generation == generation && now - current.expiresAt < 0) {
+                    current.views.put(view, value);
+                } else {
+                    cache.put(key, fresh);
+                }
+            }
+            if (state.unfinished.get() > 0 || state.version.get() != version) {
+                // invalidated while admitting
+                cache.remove(key);
+            }
+        });
+    }
+
+    private IndexState state(String indexUid) {
+        return indexes.computeIfAbsent(indexUid, uid -> new IndexState());
+    }
+
+    private static String key(String indexUid, String id) {
+        return indexUid + '\u0000' + id;
+    }
+
+    private static boolean allFields(@Nullable String... fields) {
+        return Objects.isNull(fields) || fields.length == 0;
+    }
+
+    private static final class Cached {
+
+        private final Map<String, Object> views;
+
+        private final long generation;
+
+        private final long expiresAt;
+
+        private Cached(Map<String, Object> views, long generation, long expiresAt) {
+            this.views = views;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class IndexState {
+
+        /**
+         * Bumped when the whole index is invalidated, cached entries of an older generation are stale.
+         */
+        private final AtomicLong generation = new AtomicLong();
+
+        /**
+         * Bumped on every invalidation, a load that saw another version is not admitted.
+         */
+        private final AtomicLong version = new AtomicLong();
+
+        private final AtomicInteger unfinished = new AtomicInteger();
+    }
+
+    private final class CachedDocuments implements ReactiveDocuments {
+
+        private final String indexUid;
+
+        private final ReactiveDocuments delegate;
+
+        private CachedDocuments(String indexUid, ReactiveDocuments delegate) {
+            this.indexUid = indexUid;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+            return delegate.list(page);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(@Nullable Integer offset, @Nullable Integer limit, TypeRef<T> typeRef) {
+            return delegate.list(offset, limit, typeRef);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> list(GetDocumentRequest page, TypeRef<T> typeRef) {
+            return delegate.list(page, typeRef);
+        }
+
+        @Override
+        public Mono<TaskInfo> save(String json) {
+            return delegate.save(json).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> save(Collection<?> collection) {
+            return delegate.save(collection).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> saveVectorized(Collection<VectorizedDocument> collection) {
+            return delegate.saveVectorized(collection).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(String json) {
+            return delegate.update(json).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(Collection<?> collection) {
+            return delegate.update(collection).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> deleteAll() {
+            return delegate.deleteAll().doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+            return delegate.batchGet(fetch);
+        }
+
+        @Override
+        public <T> Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch, TypeRef<T> typeRef) {
+            return delegate.batchGet(fetch, typeRef);
+        }
+
+        @Override
+        public Mono<TaskInfo> batchDelete(List<String> ids) {
+            return delegate.batchDelete(ids).doOnNext(taskInfo -> written(indexUid, ids, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(FilterableAttributesRequest filter) {
+            return delegate.delete(filter).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<Map<String, Object>> get(String id, @Nullable String... fields) {
+            if (!allFields(fields)) {
+                return delegate.get(id, fields);
+            }
+            return NearCache.this.get(indexUid, id, MAP_VIEW, () -> delegate.get(id));
+        }
+
+        @Override
+        public <T> Mono<T> get(String id, TypeRef<T> typeRef, @Nullable String... fields) {
+            if (!allFields(fields)) {
+                return delegate.get(id, typeRef, fields);
+            }
+            return NearCache.this.get(indexUid, id, typeRef.getType().getTypeName(), () -> delegate.get(id, typeRef));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(String id) {
+            return delegate.delete(id).doOnNext(taskInfo -> written(indexUid, Collections.singleton(id), taskInfo));
+        }
+    }
+
+    private final class CachedTypedDocuments<T> implements ReactiveTypedDocuments<T> {
+
+        private final String indexUid;
+
+        private final ReactiveTypedDocuments<T> delegate;
+
+        private final String view;
+
+        private CachedTypedDocuments(String indexUid, ReactiveTypedDocuments<T> delegate, String view) {
+            this.indexUid = indexUid;
+            this.delegate = delegate;
+            this.view = view;
+        }
+
+        @Override
+        public Mono<Page<T>> list(GetDocumentRequest page) {
+            return delegate.list(page);
+        }
+
+        @Override
+        public Mono<TaskInfo> save(String json) {
+            return delegate.save(json).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> save(Collection<? extends T> collection) {
+            return delegate.save(collection).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(String json) {
+            return delegate.update(json).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> update(Collection<? extends T> collection) {
+            return delegate.update(collection).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> deleteAll() {
+            return delegate.deleteAll().doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch) {
+            return delegate.batchGet(fetch);
+        }
+
+        @Override
+        public Mono<TaskInfo> batchDelete(Collection<String> ids) {
+            return delegate.batchDelete(ids).doOnNext(taskInfo -> written(indexUid, ids, taskInfo));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(FilterableAttributesRequest filter) {
+            return delegate.delete(filter).doOnNext(taskInfo -> written(indexUid, null, taskInfo));
+        }
+
+        @Override
+        public Mono<T> get(String id, @Nullable String... fields) {
+            if (!allFields(fields)) {
+                return delegate.get(id, fields);
+            }
+            return NearCache.this.get(indexUid, id, view, () -> delegate.get(id));
+        }
+
+        @Override
+        public Mono<TaskInfo> delete(String id) {
+            return delegate.delete(id).doOnNext(taskInfo -> written(indexUid, Collections.singleton(id), taskInfo));
+        }
+    }
+
+    /**
+     * {@code NearCache} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveTasks tasks;
+        private Duration taskTimeout = Duration.ofMinutes(5);
+        private int maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Tasks operator used to learn when writes have completed.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * How long loads of an index stay fenced at most while one of its writes is unfinished, default 5min.
+         *
+         * @param val the {@code taskTimeout} to set
+         * @return a reference to this Builder
+         */
+        public Builder taskTimeout(Duration val) {
+            taskTimeout = val;
+            return this;
+        }
+
+        /**
+         * Maximum cached ids, default 10000.
+         *
+         * @param val the {@code maximumSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder maximumSize(int val) {
+            maximumSize = val;
+            return this;
+        }
+
+        /**
+         * Time to live of an entry, default 1 minute.
+         *
+         * @param val the {@code ttl} to set
+         * @return a reference to this Builder
+         */
+        public Builder ttl(Duration val) {
+            ttl = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code NearCache} built from the parameters previously set.
+         *
+         * @return a {@code NearCache} built with parameters of this {@code NearCache.Builder}
+         */
+        public NearCache build() {
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(taskTimeout) && !taskTimeout.isNegative() && !taskTimeout.isZero(), "taskTimeout must be positive");
+            Asserts.status(maximumSize > 0, "maximumSize must be positive");
+            Asserts.status(Objects.nonNull(ttl) && !ttl.isNegative(), "ttl must not be negative");
+            return new NearCache(this);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.Page;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Lazy iteration over paginated endpoints.
+ * <p>
+ * Pages are fetched one after another, each page's request is sent as soon as the previous page has arrived, so the
+ * next page is in flight while the current one is consumed, and no further page is fetched until the current one
+ * has been drained. Items are emitted on demand, and cancelling the {@link Flux} cancels the page in flight.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class Paginator {
+
+    /**
+     * Default number of items per page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Iterate an {@code offset}/{@code limit} paginated endpoint.
+     * Iteration ends at the {@code total} of the last fetched page, or at the first short page if there is no total.
+     *
+     * @param offset first offset
+     * @param limit  items per page
+     * @param fetch  page of an offset and limit
+     * @param <T>    item type
+     * @return all items from the offset
+     */
+    public static <T> Flux<T> offsets(int offset, int limit, BiFunction<Integer, Integer, Mono<Page<T>>> fetch) {
+        Asserts.status(limit > 0, "limit must be positive");
+        return cursor(offset, _offset -> fetch.apply(_offset, limit), (_offset, page) -> {
+            int size = results(page).size();
+            int next = _offset + size;
+            if (size == 0 || (Objects.nonNull(page.getTotal()) ? next >= page.getTotal() : size < limit)) {
+                return null;
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Iterate a cursor paginated endpoint.
+     *
+     * @param first cursor of the first page, may be null
+     * @param fetch page of a cursor
+     * @param next  cursor of the page after a page, null if it was the last one
+     * @param <C>   cursor type
+     * @param <T>   item type
+     * @return all items from the first cursor
+     */
+    public static <C, T> Flux<T> cursor(@Nullable C first, Function<C, Mono<Page<T>>> fetch, BiFunction<C, Page<T>, C> next) {
+        return Flux.<Mono<Optional<Page<T>>>, Sinks.One<Cursor<C>>>generate(() -> {
+                Sinks.One<Cursor<C>> initial = Sinks.one();
+                initial.tryEmitValue(new Cursor<>(first));
+                return initial;
+            }, (current, sink) -> {
+                Sinks.One<Cursor<C>> following = Sinks.one();
+                sink.next(current.asMono()
+                    .flatMap(cursor -> fetch.apply(cursor.value).doOnNext(page -> {
+                        C _next = next.apply(cursor.value, page);
+                        if (Objects.nonNull(_next)) {
+                            following.tryEmitValue(new Cursor<>(_next));
+                        }
+                    }))
+                    .doFinally(signal -> following.tryEmitEmpty())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty()));
+                return following;
+            })
+            // one page pending behind the one being drained: it waits for its cursor, then fetches
+            .flatMapSequential(page -> page, 2, 1)
+            .takeWhile(page -> page.isPresent())
+            .concatMapIterable(page -> results(page.get()), 1);
+    }
+
+    private static <T> List<T> results(Page<T> page) {
+        return Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+    }
+
+    /**
+     * Cursor holder, the first cursor may be null.
+     */
+    private static final class Cursor<C> {
+
+        private final C value;
+
+        private Cursor(C value) {
+            this.value = value;
+        }
+    }
+
+}
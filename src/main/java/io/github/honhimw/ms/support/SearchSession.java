@@ -0,0 +1,366 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTypedSearch;
+import io.github.honhimw.ms.model.SearchRequest;
+import io.github.honhimw.ms.model.SearchResponse;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Search-as-you-type over a stream of keystrokes.
+ * <p>
+ * Each subscription to {@link #search(Flux)} is one session:
+ * <ul>
+ *     <li>queries are debounced, and repeated queries are dropped</li>
+ *     <li>a new query cancels the in-flight request of the previous one, which releases its connection</li>
+ *     <li>responses of short queries (at most {@code maxPrefixLength} characters) that returned every match,
+ *     i.e. fewer hits than the limit, are kept; extensions of such a query are answered locally by filtering its hits
+ *     with {@code text}, without a request</li>
+ * </ul>
+ * A query is only answered locally where the server's result set can be reproduced: a single word of Latin letters
+ * and digits, shorter than {@code minWordSizeForTypo}, which Meilisearch matches as a word prefix without typos.
+ * Queries of several words always go to the server: only their last word is a prefix, the others are matched whole
+ * or concatenated, and the default {@code matchingStrategy} {@code last} returns documents matching only the leading
+ * words. Words are compared case- and accent-insensitively, synonyms of the index are not known.
+ * Locally answered hits keep the order of the prefix response and carry no facet distribution.
+ * Prefix reuse is disabled if {@code text} is not set.
+ *
+ * <pre>
+ * SearchSession&lt;Movie&gt; session = SearchSession.&lt;Movie&gt;builder()
+ *     .search(client.indexes().search("movies", Movie.class))
+ *     .text(movie -&gt; movie.getTitle())
+ *     .build();
+ * Flux&lt;SearchResponse&lt;Movie&gt;&gt; results = session.search(keystrokes);
+ * </pre>
+ *
+ * @param <T> document type
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class SearchSession<T> {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WORD = Pattern.compile("[\\p{IsLatin}\\p{Nd}]+");
+
+    private final ReactiveTypedSearch<T> search;
+
+    private final Function<String, SearchRequest> request;
+
+    @Nullable
+    private final Function<T, String> text;
+
+    private final Duration debounce;
+
+    private final int maxPrefixLength;
+
+    private final int minWordSizeForTypo;
+
+    private final int cacheSize;
+
+    private final Scheduler scheduler;
+
+    private final AtomicLong remote = new AtomicLong();
+
+    private final AtomicLong local = new AtomicLong();
+
+    private SearchSession(Builder<T> builder) {
+        this.search = builder.search;
+        this.request = builder.request;
+        this.text = builder.text;
+        this.debounce = builder.debounce;
+        this.maxPrefixLength = builder.maxPrefixLength;
+        this.minWordSizeForTypo = builder.minWordSizeForTypo;
+        this.cacheSize = builder.cacheSize;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @param <T> document type
+     * @return a new instance of the Builder class
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Search each keystroke query.
+     *
+     * @param keystrokes current query text after each keystroke
+     * @return responses of the latest queries
+     */
+    public Flux<SearchResponse<T>> search(Flux<String> keystrokes) {
+        return Flux.defer(() -> {
+            Map<String, SearchResponse<T>> prefixes = new LinkedHashMap<String, SearchResponse<T>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SearchResponse<T>> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+            Flux<String> queries = keystrokes;
+            if (!debounce.isZero()) {
+                queries = queries.sampleTimeout(q -> Mono.delay(debounce, scheduler));
+            }
+            return queries
+                .distinctUntilChanged()
+                .switchMap(q -> find(q, prefixes));
+        });
+    }
+
+    /**
+     * @return number of queries sent to the server
+     */
+    public long remote() {
+        return remote.get();
+    }
+
+    /**
+     * @return number of queries answered from a prefix response
+     */
+    public long local() {
+        return local.get();
+    }
+
+    private Mono<SearchResponse<T>> find(String q, Map<String, SearchResponse<T>> prefixes) {
+        String word = Objects.nonNull(text) ? word(q) : null;
+        if (Objects.nonNull(word)) {
+            SearchResponse<T> prefix = null;
+            synchronized (prefixes) {
+                for (int length = Math.min(word.length(), maxPrefixLength); length > 0 && Objects.isNull(prefix); length--) {
+                    prefix = prefixes.get(word.substring(0, length));
+                }
+            }
+            if (Objects.nonNull(prefix)) {
+                local.incrementAndGet();
+                return Mono.just(narrow(prefix, q, word));
+            }
+        }
+        return Mono.defer(() -> {
+            remote.incrementAndGet();
+            return search.find(request.apply(q));
+        }).doOnNext(response -> {
+            if (Objects.nonNull(word) && word.length() <= maxPrefixLength && complete(response)) {
+                synchronized (prefixes) {
+                    prefixes.put(word, response);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the normalized query if the server matches it as one word prefix without typos, otherwise null
+     */
+    @Nullable
+    private String word(String q) {
+        if (q.isEmpty() || Character.isWhitespace(q.charAt(q.length() - 1))) {
+            // a trailing space ends the last word, it is no longer matched as a prefix
+            return null;
+        }
+        String word = normalize(q.trim());
+        return word.length() < minWordSizeForTypo && WORD.matcher(word).matches() ? word : null;
+    }
+
+    private SearchResponse<T> narrow(SearchResponse<T> prefix, String q, String word) {
+        List<T> hits = new ArrayList<>();
+        for (T hit : prefix.getHits()) {
+            if (matches(normalize(Optional.ofNullable(text.apply(hit)).orElse("")), word)) {
+                hits.add(hit);
+            }
+        }
+        SearchResponse<T> response = new SearchResponse<>();
+        response.setHits(hits);
+        response.setOffset(prefix.getOffset());
+        response.setLimit(prefix.getLimit());
+        response.setHitsPerPage(prefix.getHitsPerPage());
+        response.setPage(prefix.getPage());
+        if (Objects.nonNull(prefix.getEstimatedTotalHits())) {
+            response.setEstimatedTotalHits(hits.size());
+        }
+        if (Objects.nonNull(prefix.getTotalHits())) {
+            response.setTotalHits(hits.size());
+            response.setTotalPages(hits.isEmpty() ? 0 : 1);
+        }
+        response.setProcessingTimeMs(0L);
+        response.setQuery(q);
+        return response;
+    }
+
+    /**
+     * The word must be a prefix of a word of the text.
+     */
+    private static boolean matches(String text, String word) {
+        int from = 0;
+        while ((from = text.indexOf(word, from)) >= 0) {
+            if (from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1))) {
+                return true;
+            }
+            from++;
+        }
+        return false;
+    }
+
+    private static String normalize(String value) {
+        return MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean complete(SearchResponse<?> response) {
+        List<?> hits = response.getHits();
+        Integer limit = Objects.nonNull(response.getLimit()) ? response.getLimit() : response.getHitsPerPage();
+        boolean firstPage = Optional.ofNullable(response.getOffset()).orElse(0) == 0
+            && Optional.ofNullable(response.getPage()).orElse(1) == 1;
+        return Objects.nonNull(hits) && Objects.nonNull(limit) && hits.size() < limit && firstPage;
+    }
+
+    /**
+     * {@code SearchSession} builder static inner class.
+     *
+     * @param <T> document type
+     */
+    public static final class Builder<T> {
+        private ReactiveTypedSearch<T> search;
+        private Function<String, SearchRequest> request = q -> SearchRequest.builder().q(q).build();
+        private Function<T, String> text;
+        private Duration debounce = Duration.ofMillis(50);
+        private int maxPrefixLength = 3;
+        private int minWordSizeForTypo = 5;
+        private int cacheSize = 32;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Typed search operator of the index.
+         *
+         * @param val the {@code search} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> search(ReactiveTypedSearch<T> val) {
+            search = val;
+            return this;
+        }
+
+        /**
+         * Request of a query, default only sets {@code q}.
+         * Prefix reuse assumes the request does not page past the first page.
+         *
+         * @param val the {@code request} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> request(Function<String, SearchRequest> val) {
+            request = val;
+            return this;
+        }
+
+        /**
+         * Searchable text of a hit, used to answer query extensions locally. Prefix reuse is disabled if not set.
+         *
+         * @param val the {@code text} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> text(Function<T, String> val) {
+            text = val;
+            return this;
+        }
+
+        /**
+         * Quiet period before a query is sent, default 50ms, {@link Duration#ZERO} to disable.
+         *
+         * @param val the {@code debounce} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> debounce(Duration val) {
+            debounce = val;
+            return this;
+        }
+
+        /**
+         * Longest query whose complete response is reused, default 3.
+         *
+         * @param val the {@code maxPrefixLength} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> maxPrefixLength(int val) {
+            maxPrefixLength = val;
+            return this;
+        }
+
+        /**
+         * Shortest word the index accepts one typo in, {@code typoTolerance.minWordSizeForTypos.oneTypo}, default 5.
+         * Longer queries are always sent to the server, 0 disables prefix reuse.
+         *
+         * @param val the {@code minWordSizeForTypo} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> minWordSizeForTypo(int val) {
+            minWordSizeForTypo = val;
+            return this;
+        }
+
+        /**
+         * Prefix responses kept per session, default 32.
+         *
+         * @param val the {@code cacheSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> cacheSize(int val) {
+            cacheSize = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the debounce timer, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder<T> scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code SearchSession} built from the parameters previously set.
+         *
+         * @return a {@code SearchSession} built with parameters of this {@code SearchSession.Builder}
+         */
+        public SearchSession<T> build() {
+            Asserts.status(Objects.nonNull(search), "search must not be null");
+            Asserts.status(Objects.nonNull(request), "request must not be null");
+            Asserts.status(Objects.nonNull(debounce) && !debounce.isNegative(), "debounce must not be negative");
+            Asserts.status(maxPrefixLength >= 0, "maxPrefixLength must not be negative");
+            Asserts.status(minWordSizeForTypo >= 0, "minWordSizeForTypo must not be negative");
+            Asserts.status(cacheSize > 0, "cacheSize must be positive");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new SearchSession<>(this);
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Task lifecycle latencies, telling whether ingest lag comes from queueing or from indexing.
+ * <p>
+ * Each finished task that has started is recorded twice: its queue wait ({@code startedAt - enqueuedAt}) and its
+ * processing time ({@code finishedAt - startedAt}), into an overall {@link Latency}, the one of its type and the one of
+ * its index. Tasks canceled before they started have no latency and are skipped, unfinished tasks too, so a stream
+ * emitting every status transition of a task records it once. Recording is lock-free.
+ *
+ * <pre>
+ * TaskAnalytics analytics = new TaskAnalytics();
+ * analytics.subscribe(client.tasks().watch(builder -&gt; {}));
+ * LatencyHistogram wait = analytics.byType(TaskType.DOCUMENT_ADDITION_OR_UPDATE).queueWait();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskAnalytics.class);
+
+    private final Latency overall = new Latency();
+
+    private final Map<TaskType, Latency> types = new ConcurrentHashMap<>();
+
+    private final Map<String, Latency> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Record the tasks of a stream, e.g. {@code tasks.watch(...)} or {@code tasks.all(...)}.
+     *
+     * @param tasks task stream
+     * @return subscription, dispose to stop recording
+     */
+    public Disposable subscribe(Flux<TaskInfo> tasks) {
+        return tasks.subscribe(this::record, throwable -> log.warn("task analytics stream failed", throwable));
+    }
+
+    /**
+     * Record a task if it has finished after having started.
+     *
+     * @param task task
+     * @return true if recorded
+     */
+    public boolean record(TaskInfo task) {
+        if (!task.finished() || Objects.isNull(task.getEnqueuedAt())
+            || Objects.isNull(task.getStartedAt()) || Objects.isNull(task.getFinishedAt())) {
+            return false;
+        }
+        Duration queueWait = Duration.between(task.getEnqueuedAt(), task.getStartedAt());
+        Duration processing = Duration.between(task.getStartedAt(), task.getFinishedAt());
+        overall.record(queueWait, processing);
+        if (Objects.nonNull(task.getType())) {
+            types.computeIfAbsent(task.getType(), type -> new Latency()).record(queueWait, processing);
+        }
+        if (Objects.nonNull(task.getIndexUid())) {
+            indexes.computeIfAbsent(task.getIndexUid(), indexUid -> new Latency()).record(queueWait, processing);
+        }
+        return true;
+    }
+
+    /**
+     * @return latencies of all tasks
+     */
+    public Latency overall() {
+        return overall;
+    }
+
+    /**
+     * @param type task type
+     * @return latencies of the tasks of the type, empty if none was recorded
+     */
+    public Latency byType(TaskType type) {
+        return types.computeIfAbsent(type, _type -> new Latency());
+    }
+
+    /**
+     * @param indexUid index uid
+     * @return latencies of the tasks of the index, empty if none was recorded
+     */
+    public Latency byIndex(String indexUid) {
+        return indexes.computeIfAbsent(indexUid, _indexUid -> new Latency());
+    }
+
+    /**
+     * @return latencies per task type, live view
+     */
+    public Map<TaskType, Latency> types() {
+        return Collections.unmodifiableMap(types);
+    }
+
+    /**
+     * @return latencies per index, live view
+     */
+    public Map<String, Latency> indexes() {
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Clear every recorded latency.
+     */
+    public void reset() {
+        overall.reset();
+        types.clear();
+        indexes.clear();
+    }
+
+    /**
+     * Queue wait and processing time histograms of a group of tasks.
+     */
+    public static final class Latency {
+
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+
+        private final LatencyHistogram processing = new LatencyHistogram();
+
+        private Latency() {
+        }
+
+        private void record(Duration queueWait, Duration processing) {
+            this.queueWait.record(queueWait);
+            this.processing.record(processing);
+        }
+
+        private void reset() {
+            queueWait.reset();
+            processing.reset();
+        }
+
+        /**
+         * @return time from enqueued to started
+         */
+        public LatencyHistogram queueWait() {
+            return queueWait;
+        }
+
+        /**
+         * @return time from started to finished
+         */
+        public LatencyHistogram processing() {
+            return processing;
+        }
+
+        @Override
+        public String toString() {
+            return "queueWait{" + queueWait + "}, processing{" + processing + "}";
+        }
+    }
+
+}
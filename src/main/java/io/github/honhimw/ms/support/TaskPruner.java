@@ -0,0 +1,461 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.model.GetTasksRequest;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background pruning of the task database.
+ * <p>
+ * Every {@code interval}, deletes the finished (succeeded, failed or canceled) tasks that finished longer than
+ * {@code retention} ago. A run deletes at most {@code maxBatches} batches of {@code batchSize} tasks: it lists the
+ * uids of a batch, deletes them with {@link ReactiveTasks#delete(GetTasksRequest)}, and waits for that deletion task
+ * to finish before the next batch. Before each batch it checks the load, and stops the run if more than
+ * {@code maxPendingTasks} tasks are enqueued or processing, leaving the rest to a quieter run. So that a steady write
+ * rate can not starve pruning, the first {@code minBatches} batches of every run are deleted regardless of the load,
+ * and so is every batch while more than {@code maxBacklog} prunable tasks are left.
+ *
+ * <pre>
+ * TaskPruner pruner = TaskPruner.builder()
+ *     .tasks(client.tasks())
+ *     .retention(Duration.ofDays(7))
+ *     .build();
+ * pruner.start();
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskPruner implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPruner.class);
+
+    private static final List<TaskStatus> FINISHED = Collections.unmodifiableList(
+        Arrays.asList(TaskStatus.SUCCEEDED, TaskStatus.FAILED, TaskStatus.CANCELED));
+
+    private final ReactiveTasks tasks;
+
+    private final Duration retention;
+
+    private final Duration interval;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final int maxPendingTasks;
+
+    private final int minBatches;
+
+    private final long maxBacklog;
+
+    private final Duration taskTimeout;
+
+    private final Scheduler scheduler;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder pruned = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder runs = new LongAdder();
+
+    private final LongAdder deferred = new LongAdder();
+
+    private final AtomicLong lastRunPruned = new AtomicLong();
+
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    private final LatencyHistogram batchTime = new LatencyHistogram();
+
+    private volatile Disposable schedule;
+
+    private TaskPruner(Builder builder) {
+        this.tasks = builder.tasks;
+        this.retention = builder.retention;
+        this.interval = builder.interval;
+        this.batchSize = builder.batchSize;
+        this.maxBatches = builder.maxBatches;
+        this.maxPendingTasks = builder.maxPendingTasks;
+        this.minBatches = builder.minBatches;
+        this.maxBacklog = builder.maxBacklog;
+        this.taskTimeout = builder.taskTimeout;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Run {@link #prune()} every {@code interval}, the first run after one interval. No-op if already started.
+     */
+    public synchronized void start() {
+        if (Objects.nonNull(schedule) && !schedule.isDisposed()) {
+            return;
+        }
+        schedule = Flux.interval(interval, interval, scheduler)
+            .onBackpressureDrop()
+            .concatMap(tick -> prune()
+                .onErrorResume(throwable -> {
+                    log.warn("task pruning failed", throwable);
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    /**
+     * Stop the periodic runs, a batch in flight is abandoned.
+     */
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(schedule)) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Prune once now. Completes empty if a run is already in progress.
+     *
+     * @return number of tasks deleted by this run
+     */
+    public Mono<Long> prune() {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            LocalDateTime cutoff = now().minus(retention);
+            AtomicLong deleted = new AtomicLong();
+            return Flux.range(0, maxBatches)
+                .concatMap(batch -> (batch < minBatches ? Mono.just(true) : allowed(cutoff))
+                    .flatMap(allowed -> allowed ? pruneBatch(cutoff) : Mono.just(0L)), 1)
+                .doOnNext(deleted::addAndGet)
+                .takeUntil(count -> count == 0)
+                .then(Mono.fromSupplier(deleted::get))
+                .doOnSuccess(count -> {
+                    runs.increment();
+                    lastRunPruned.set(count);
+                    runTime.record(Duration.ofNanos(System.nanoTime() - start));
+                    log.debug("task pruning deleted [{}] tasks finished before [{}]", count, cutoff);
+                })
+                .doFinally(signal -> running.set(false));
+        });
+    }
+
+    /**
+     * @return wall-clock time of the scheduler, in milliseconds like the server's task timestamps
+     */
+    private LocalDateTime now() {
+        long millis = scheduler.now(TimeUnit.MILLISECONDS);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return true if few enough tasks are enqueued or processing, or too many prunable tasks are left
+     */
+    private Mono<Boolean> allowed(LocalDateTime cutoff) {
+        GetTasksRequest pending = GetTasksRequest.builder()
+            .statuses(Arrays.asList(TaskStatus.ENQUEUED, TaskStatus.PROCESSING))
+            .limit(1)
+            .build();
+        GetTasksRequest backlog = GetTasksRequest.builder()
+            .statuses(FINISHED)
+            .beforeFinishedAt(cutoff)
+            .limit(1)
+            .build();
+        return tasks.list(pending)
+            .flatMap(page -> Optional.ofNullable(page.getTotal()).orElse(0) <= maxPendingTasks
+                ? Mono.just(true)
+                : tasks.list(backlog).map(prunable -> Optional.ofNullable(prunable.getTotal()).orElse(0) > maxBacklog))
+            .doOnNext(allowed -> {
+                if (!allowed) {
+                    deferred.increment();
+                }
+            });
+    }
+
+    /**
+     * Delete one batch of prunable tasks.
+     *
+     * @return number of deleted tasks, 0 if none was left
+     */
+    private Mono<Long> pruneBatch(LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        GetTasksRequest select = GetTasksRequest.builder()
+            .statuses(FINISHED)
+            .beforeFinishedAt(cutoff)
+            .limit(batchSize)
+            .build();
+        return tasks.list(select)
+            .flatMap(page -> {
+                List<String> uids = new ArrayList<>();
+                for (TaskInfo task : Optional.ofNullable(page.getResults()).orElse(Collections.emptyList())) {
+                    Integer uid = task.uid();
+                    if (Objects.nonNull(uid)) {
+                        uids.add(String.valueOf(uid));
+                    }
+                }
+                if (uids.isEmpty()) {
+                    return Mono.just(0L);
+                }
+                GetTasksRequest delete = GetTasksRequest.builder()
+                    .uids(uids)
+                    .statuses(FINISHED)
+                    .beforeFinishedAt(cutoff)
+                    .build();
+                return tasks.delete(delete)
+                    .flatMap(deletion -> tasks.waitForTask(deletion.uid(), taskTimeout))
+                    .map(deletion -> deleted(deletion, uids.size()))
+                    .doOnNext(count -> {
+                        pruned.add(count);
+                        batches.increment();
+                        batchTime.record(Duration.ofNanos(System.nanoTime() - start));
+                    });
+            });
+    }
+
+    private static long deleted(TaskInfo deletion, int requested) {
+        if (deletion.getStatus() != TaskStatus.SUCCEEDED) {
+            return 0;
+        }
+        Object deleted = Objects.nonNull(deletion.getDetails()) ? deletion.getDetails().get("deletedTasks") : null;
+        return deleted instanceof Number ? ((Number) deleted).longValue() : requested;
+    }
+
+    /**
+     * @return number of tasks deleted since creation
+     */
+    public long pruned() {
+        return pruned.sum();
+    }
+
+    /**
+     * @return number of tasks deleted by the latest completed run
+     */
+    public long lastRunPruned() {
+        return lastRunPruned.get();
+    }
+
+    /**
+     * @return number of completed runs
+     */
+    public long runs() {
+        return runs.sum();
+    }
+
+    /**
+     * @return number of deleted batches
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return number of times a run stopped early because the server was busy and the backlog small
+     */
+    public long deferred() {
+        return deferred.sum();
+    }
+
+    /**
+     * @return duration of the completed runs
+     */
+    public LatencyHistogram runTime() {
+        return runTime;
+    }
+
+    /**
+     * @return duration of the deleted batches, from listing to the deletion task's end
+     */
+    public LatencyHistogram batchTime() {
+        return batchTime;
+    }
+
+    /**
+     * {@code TaskPruner} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveTasks tasks;
+        private Duration retention = Duration.ofDays(7);
+        private Duration interval = Duration.ofHours(1);
+        private int batchSize = 1000;
+        private int maxBatches = 100;
+        private int maxPendingTasks = 0;
+        private int minBatches = 1;
+        private long maxBacklog = 100_000;
+        private Duration taskTimeout = Duration.ofMinutes(5);
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Tasks operator to prune.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * How long finished tasks are kept, default 7 days.
+         *
+         * @param val the {@code retention} to set
+         * @return a reference to this Builder
+         */
+        public Builder retention(Duration val) {
+            retention = val;
+            return this;
+        }
+
+        /**
+         * Interval between runs, default 1 hour.
+         *
+         * @param val the {@code interval} to set
+         * @return a reference to this Builder
+         */
+        public Builder interval(Duration val) {
+            interval = val;
+            return this;
+        }
+
+        /**
+         * Tasks deleted per deletion task, default 1000.
+         *
+         * @param val the {@code batchSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder batchSize(int val) {
+            batchSize = val;
+            return this;
+        }
+
+        /**
+         * Most batches per run, default 100.
+         *
+         * @param val the {@code maxBatches} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxBatches(int val) {
+            maxBatches = val;
+            return this;
+        }
+
+        /**
+         * Most enqueued or processing tasks for the server to count as idle, default 0.
+         *
+         * @param val the {@code maxPendingTasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxPendingTasks(int val) {
+            maxPendingTasks = val;
+            return this;
+        }
+
+        /**
+         * Batches of every run deleted regardless of the load, default 1.
+         *
+         * @param val the {@code minBatches} to set
+         * @return a reference to this Builder
+         */
+        public Builder minBatches(int val) {
+            minBatches = val;
+            return this;
+        }
+
+        /**
+         * Prunable tasks above which batches are deleted regardless of the load, default 100000.
+         *
+         * @param val the {@code maxBacklog} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxBacklog(long val) {
+            maxBacklog = val;
+            return this;
+        }
+
+        /**
+         * Longest wait for a deletion task, default 5 minutes.
+         *
+         * @param val the {@code taskTimeout} to set
+         * @return a reference to this Builder
+         */
+        public Builder taskTimeout(Duration val) {
+            taskTimeout = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the run timer, its clock sets the retention cutoff, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code TaskPruner} built from the parameters previously set.
+         *
+         * @return a {@code TaskPruner} built with parameters of this {@code TaskPruner.Builder}
+         */
+        public TaskPruner build() {
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(retention) && !retention.isNegative(), "retention must not be negative");
+            Asserts.status(Objects.nonNull(interval) && !interval.isNegative() && !interval.isZero(), "interval must be positive");
+            Asserts.status(batchSize > 0, "batchSize must be positive");
+            Asserts.status(maxBatches > 0, "maxBatches must be positive");
+            Asserts.status(maxPendingTasks >= 0, "maxPendingTasks must not be negative");
+            Asserts.status(minBatches >= 0, "minBatches must not be negative");
+            Asserts.status(maxBacklog >= 0, "maxBacklog must not be negative");
+            Asserts.status(Objects.nonNull(taskTimeout) && !taskTimeout.isNegative(), "taskTimeout must not be negative");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new TaskPruner(this);
+        }
+    }
+
+}
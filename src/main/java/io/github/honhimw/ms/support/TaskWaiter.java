@@ -0,0 +1,347 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Waits for tasks to finish, polling as seldom as possible.
+ * <p>
+ * While a task is enqueued, polls back off exponentially from {@code initialDelay} to {@code maxDelay}. Once it is
+ * processing, its processing time is predicted from the tasks of the same type and document count that succeeded
+ * before, and the next poll is timed at the end predicted from its {@code startedAt}, at most {@code maxDelay} away;
+ * past the predicted end, the back-off restarts from {@code initialDelay}. Every delay is randomized by
+ * {@code jitter} so that waiters do not poll in lockstep. Unfinished polls are plain values, the only error is a
+ * {@link TimeoutException} once the deadline has passed. Deadlines and {@code startedAt} are measured with the
+ * clock of the {@code scheduler}.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskWaiter {
+
+    private final ReactiveTasks tasks;
+
+    private final long initialDelay;
+
+    private final long maxDelay;
+
+    private final double multiplier;
+
+    private final double jitter;
+
+    private final Scheduler scheduler;
+
+    private final DurationPredictor predictor = new DurationPredictor();
+
+    private final LongAdder polls = new LongAdder();
+
+    private TaskWaiter(Builder builder) {
+        this.tasks = builder.tasks;
+        this.initialDelay = builder.initialDelay.toNanos();
+        this.maxDelay = builder.maxDelay.toNanos();
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Wait for a task to finish, however long it takes.
+     *
+     * @param uid task uid
+     * @return the finished task
+     */
+    public Mono<TaskInfo> await(int uid) {
+        return await(uid, null);
+    }
+
+    /**
+     * Wait for a task to finish.
+     *
+     * @param uid     task uid
+     * @param timeout longest wait, none if null
+     * @return the finished task, or a {@link TimeoutException} if it has not finished in time
+     */
+    public Mono<TaskInfo> await(int uid, @Nullable Duration timeout) {
+        return Mono.defer(() -> {
+            Attempt attempt = new Attempt(uid, timeout);
+            return tasks.get(uid)
+                .doOnSubscribe(subscription -> polls.increment())
+                .doOnNext(attempt::observe)
+                .filter(task -> task.finished())
+                .repeatWhenEmpty(repeats -> repeats.concatMap(repeat -> attempt.delay(), 1))
+                .doOnNext(this::record);
+        });
+    }
+
+    /**
+     * Learn the processing time of a finished task, e.g. from {@code tasks.watch(...)}.
+     *
+     * @param task task
+     */
+    public void record(TaskInfo task) {
+        if (task.getStatus() != TaskStatus.SUCCEEDED || Objects.isNull(task.getType())) {
+            return;
+        }
+        Duration processing = null;
+        if (Objects.nonNull(task.getStartedAt()) && Objects.nonNull(task.getFinishedAt())) {
+            processing = Duration.between(task.getStartedAt(), task.getFinishedAt());
+        } else if (StringUtils.isNotBlank(task.getDuration())) {
+            try {
+                processing = Duration.parse(task.getDuration());
+            } catch (DateTimeParseException ignored) {
+                // unknown format, nothing to learn
+            }
+        }
+        if (Objects.nonNull(processing)) {
+            predictor.record(task.getType(), DurationPredictor.documents(task.getDetails()), processing);
+        }
+    }
+
+    /**
+     * @param task enqueued or processing task
+     * @return predicted processing time, null if no similar task has been recorded
+     */
+    @Nullable
+    public Duration predict(TaskInfo task) {
+        if (Objects.isNull(task.getType())) {
+            return null;
+        }
+        return predictor.predict(task.getType(), DurationPredictor.documents(task.getDetails()));
+    }
+
+    /**
+     * @return number of polls sent
+     */
+    public long polls() {
+        return polls.sum();
+    }
+
+    /**
+     * Polling state of one wait.
+     */
+    private final class Attempt {
+
+        private final int uid;
+
+        private final long deadline;
+
+        private final boolean bounded;
+
+        private TaskInfo last;
+
+        /**
+         * When the task started processing, in {@link #now()} nanoseconds, the predicted end counts from there.
+         */
+        private long processingSince;
+
+        private int backoffs;
+
+        private boolean overrun;
+
+        private Attempt(int uid, @Nullable Duration timeout) {
+            this.uid = uid;
+            long now = now();
+            this.bounded = Objects.nonNull(timeout);
+            this.deadline = bounded ? now + Math.min(timeout.getSeconds(), Long.MAX_VALUE / 4_000_000_000L) * 1_000_000_000L + timeout.getNano() : 0;
+        }
+
+        private void observe(TaskInfo task) {
+            if (task.getStatus() == TaskStatus.PROCESSING) {
+                long now = now();
+                if (Objects.nonNull(task.getStartedAt())) {
+                    // a server clock ahead of ours must not push the predicted end further
+                    processingSince = Math.min(now, epochNanos(task.getStartedAt()));
+                } else if (Objects.isNull(last) || last.getStatus() != TaskStatus.PROCESSING) {
+                    processingSince = now;
+                }
+            }
+            last = task;
+        }
+
+        private Mono<Long> delay() {
+            long now = now();
+            long delay = next(now);
+            if (bounded) {
+                long left = deadline - now;
+                if (left <= 0) {
+                    return Mono.error(new TimeoutException(String.format("task [%d] not finished in time", uid)));
+                }
+                delay = Math.min(delay, left);
+            }
+            return Mono.delay(Duration.ofNanos(delay), scheduler);
+        }
+
+        private long next(long now) {
+            if (Objects.nonNull(last) && last.getStatus() == TaskStatus.PROCESSING) {
+                Duration predicted = predict(last);
+                if (Objects.nonNull(predicted)) {
+                    long remaining = predicted.toNanos() - (now - processingSince);
+                    if (remaining > 0) {
+                        return jittered(Math.min(remaining, maxDelay));
+                    }
+                    if (!overrun) {
+                        overrun = true;
+                        backoffs = 0;
+                    }
+                }
+            }
+            double backoff = initialDelay * Math.pow(multiplier, backoffs);
+            if (backoff < maxDelay) {
+                backoffs++;
+            }
+            return jittered((long) Math.min(backoff, maxDelay));
+        }
+
+        private long jittered(long delay) {
+            double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            return Math.max(1, (long) (delay * factor));
+        }
+    }
+
+    /**
+     * @return wall-clock time of the scheduler in nanoseconds, comparable with the task timestamps
+     */
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+
+    private static long epochNanos(LocalDateTime utc) {
+        return TimeUnit.SECONDS.toNanos(utc.toEpochSecond(ZoneOffset.UTC)) + utc.getNano();
+    }
+
+    /**
+     * {@code TaskWaiter} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveTasks tasks;
+        private Duration initialDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(5);
+        private double multiplier = 2;
+        private double jitter = 0.2;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Tasks operator to poll.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * First back-off delay, default 10ms.
+         *
+         * @param val the {@code initialDelay} to set
+         * @return a reference to this Builder
+         */
+        public Builder initialDelay(Duration val) {
+            initialDelay = val;
+            return this;
+        }
+
+        /**
+         * Longest delay between two polls, default 5 seconds.
+         *
+         * @param val the {@code maxDelay} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxDelay(Duration val) {
+            maxDelay = val;
+            return this;
+        }
+
+        /**
+         * Back-off growth per poll, default 2.
+         *
+         * @param val the {@code multiplier} to set
+         * @return a reference to this Builder
+         */
+        public Builder multiplier(double val) {
+            multiplier = val;
+            return this;
+        }
+
+        /**
+         * Relative randomization of every delay, from 0 to 1, default 0.2.
+         *
+         * @param val the {@code jitter} to set
+         * @return a reference to this Builder
+         */
+        public Builder jitter(double val) {
+            jitter = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the poll timer, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code TaskWaiter} built from the parameters previously set.
+         *
+         * @return a {@code TaskWaiter} built with parameters of this {@code TaskWaiter.Builder}
+         */
+        public TaskWaiter build() {
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(initialDelay) && !initialDelay.isNegative() && !initialDelay.isZero(), "initialDelay must be positive");
+            Asserts.status(Objects.nonNull(maxDelay) && maxDelay.compareTo(initialDelay) >= 0, "maxDelay must not be less than initialDelay");
+            Asserts.status(multiplier >= 1, "multiplier must not be less than 1");
+            Asserts.status(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new TaskWaiter(this);
+        }
+    }
+
+}
@@ -0,0 +1,493 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.model.GetTasksRequest;
+import io.github.honhimw.ms.model.Page;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream of task status transitions, tailing {@code /tasks} with one poller for all subscribers.
+ * <p>
+ * The poller runs while at least one {@link #watch(GetTasksRequest)} is subscribed. Its first poll takes the
+ * newest task uid and the unfinished tasks as a baseline, without emitting them. Each following poll fetches:
+ * <ul>
+ *     <li>tasks newer than the newest uid seen, walking the {@code from}/{@code next} cursor down to it</li>
+ *     <li>the {@code processing} tasks, if any known task is unfinished</li>
+ *     <li>tasks finished since the latest {@code finishedAt} seen ({@code afterFinishedAt}), if any known task is
+ *     unfinished, walking the cursor down to the oldest unfinished one</li>
+ *     <li>the unfinished tasks by {@code uids}, if the poll found no transition and at least {@code maxInterval}
+ *     has passed since the last such check: unfinished tasks that {@code /tasks} no longer returns, e.g. deleted
+ *     while enqueued, are dropped without being emitted</li>
+ * </ul>
+ * and emits each task whose status differs from the last one emitted for it, oldest first. The poll interval is
+ * {@code minInterval} while tasks are moving and doubles up to {@code maxInterval} while nothing happens.
+ * Subscribers filter the shared stream with the {@code uids}, {@code statuses}, {@code types}, {@code indexUids},
+ * {@code canceledBy} and date filters of their request; {@code limit} and {@code from} are ignored.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWatcher.class);
+
+    private final ReactiveTasks tasks;
+
+    private final Duration minInterval;
+
+    private final Duration maxInterval;
+
+    private final int pageSize;
+
+    private final Scheduler scheduler;
+
+    private final Sinks.Many<TaskInfo> sink = Sinks.many().multicast().directBestEffort();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    private volatile Disposable loop;
+
+    // poller state, only touched by the sequential poll loop
+
+    private boolean initialized;
+
+    private int newestUid = -1;
+
+    private final Map<Integer, TaskInfo> unfinished = new ConcurrentHashMap<>();
+
+    private LocalDateTime finishedCursor;
+
+    private long checkedAt;
+
+    private Duration interval;
+
+    private TaskWatcher(Builder builder) {
+        this.tasks = builder.tasks;
+        this.minInterval = builder.minInterval;
+        this.maxInterval = builder.maxInterval;
+        this.pageSize = builder.pageSize;
+        this.scheduler = builder.scheduler;
+        this.interval = minInterval;
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Watch task status transitions.
+     *
+     * @param request filters of the tasks to watch
+     * @return infinite stream of tasks whose status changed, completes when this watcher is closed
+     */
+    public Flux<TaskInfo> watch(GetTasksRequest request) {
+        return sink.asFlux()
+            .filter(task -> matches(request, task))
+            .onBackpressureBuffer()
+            .doOnSubscribe(subscription -> {
+                subscribers.incrementAndGet();
+                start();
+            })
+            .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * @return number of current subscribers
+     */
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * @return number of tracked unfinished tasks
+     */
+    int unfinished() {
+        return unfinished.size();
+    }
+
+    /**
+     * Stop polling and complete every watch.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Disposable current = loop;
+        if (Objects.nonNull(current)) {
+            current.dispose();
+        }
+        sink.tryEmitComplete();
+    }
+
+    private void start() {
+        if (!closed && running.compareAndSet(false, true)) {
+            schedule(Duration.ZERO);
+        }
+    }
+
+    private void schedule(Duration delay) {
+        loop = Mono.delay(delay, scheduler)
+            .then(Mono.defer(this::poll))
+            .onErrorResume(throwable -> {
+                log.warn("task watcher poll failed", throwable);
+                return Mono.just(false);
+            })
+            .subscribe(active -> {
+                if (closed || subscribers.get() == 0) {
+                    initialized = false;
+                    unfinished.clear();
+                    running.set(false);
+                    if (subscribers.get() > 0) {
+                        start();
+                    }
+                    return;
+                }
+                interval = active ? minInterval : min(interval.multipliedBy(2), maxInterval);
+                schedule(interval);
+            });
+    }
+
+    /**
+     * @return true if tasks are moving
+     */
+    private Mono<Boolean> poll() {
+        if (!initialized) {
+            return initialize().thenReturn(true);
+        }
+        int[] emitted = new int[1];
+        return newTasks(emitted)
+            .then(Mono.defer(() -> unfinished.isEmpty() ? Mono.empty() : processingTasks(emitted)))
+            .then(Mono.defer(() -> unfinished.isEmpty() ? Mono.empty() : finishedTasks(emitted)))
+            .then(Mono.defer(() -> vanishedTasks(emitted)))
+            .then(Mono.fromSupplier(() -> emitted[0] > 0 || !unfinished.isEmpty()));
+    }
+
+    private Mono<Void> initialize() {
+        GetTasksRequest newest = GetTasksRequest.builder().limit(1).build();
+        GetTasksRequest pending = GetTasksRequest.builder()
+            .statuses(Arrays.asList(TaskStatus.ENQUEUED, TaskStatus.PROCESSING))
+            .limit(pageSize)
+            .build();
+        return tasks.list(newest)
+            .doOnNext(page -> {
+                newestUid = -1;
+                for (TaskInfo task : results(page)) {
+                    newestUid = Math.max(newestUid, uid(task));
+                }
+            })
+            .thenMany(pages(pending, Integer.MIN_VALUE))
+            .doOnNext(task -> {
+                if (uid(task) <= newestUid) {
+                    unfinished.put(uid(task), task);
+                }
+            })
+            .then(Mono.fromRunnable(() -> {
+                finishedCursor = null;
+                initialized = true;
+            }));
+    }
+
+    private Mono<Void> newTasks(int[] emitted) {
+        GetTasksRequest request = GetTasksRequest.builder().limit(pageSize).build();
+        int since = newestUid;
+        return pages(request, since)
+            .filter(task -> uid(task) > since)
+            .collectList()
+            .doOnNext(found -> {
+                found.sort(Comparator.comparingInt(TaskWatcher::uid));
+                for (TaskInfo task : found) {
+                    newestUid = Math.max(newestUid, uid(task));
+                    if (!task.finished()) {
+                        unfinished.put(uid(task), task);
+                    }
+                    emit(task, emitted);
+                }
+            })
+            .then();
+    }
+
+    private Mono<Void> processingTasks(int[] emitted) {
+        GetTasksRequest request = GetTasksRequest.builder()
+            .statuses(Collections.singletonList(TaskStatus.PROCESSING))
+            .limit(pageSize)
+            .build();
+        return pages(request, Integer.MIN_VALUE)
+            .filter(task -> {
+                TaskInfo known = unfinished.get(uid(task));
+                return Objects.nonNull(known) && known.getStatus() != task.getStatus();
+            })
+            .collectList()
+            .doOnNext(found -> {
+                found.sort(Comparator.comparingInt(TaskWatcher::uid));
+                for (TaskInfo task : found) {
+                    unfinished.put(uid(task), task);
+                    emit(task, emitted);
+                }
+            })
+            .then();
+    }
+
+    private Mono<Void> finishedTasks(int[] emitted) {
+        LocalDateTime since = finishedCursor;
+        int oldest = Integer.MAX_VALUE;
+        for (TaskInfo task : unfinished.values()) {
+            oldest = Math.min(oldest, uid(task));
+            if (Objects.isNull(finishedCursor) && Objects.nonNull(task.getEnqueuedAt())
+                && (Objects.isNull(since) || task.getEnqueuedAt().isBefore(since))) {
+                since = task.getEnqueuedAt();
+            }
+        }
+        GetTasksRequest request = GetTasksRequest.builder()
+            .statuses(Arrays.asList(TaskStatus.SUCCEEDED, TaskStatus.FAILED, TaskStatus.CANCELED))
+            .afterFinishedAt(Objects.nonNull(since) ? since.minusSeconds(1) : null)
+            .limit(pageSize)
+            .build();
+        return pages(request, oldest - 1)
+            .filter(task -> unfinished.containsKey(uid(task)))
+            .collectList()
+            .doOnNext(found -> {
+                found.sort(Comparator.comparingInt(TaskWatcher::uid));
+                for (TaskInfo task : found) {
+                    finish(task, emitted);
+                }
+            })
+            .then();
+    }
+
+    private Mono<Void> vanishedTasks(int[] emitted) {
+        long now = scheduler.now(TimeUnit.MILLISECONDS);
+        if (unfinished.isEmpty() || emitted[0] > 0 || now - checkedAt < maxInterval.toMillis()) {
+            return Mono.empty();
+        }
+        checkedAt = now;
+        List<Integer> checked = new ArrayList<>(unfinished.keySet());
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < checked.size(); i += pageSize) {
+            List<String> chunk = new ArrayList<>();
+            for (Integer uid : checked.subList(i, Math.min(i + pageSize, checked.size()))) {
+                chunk.add(String.valueOf(uid));
+            }
+            chunks.add(chunk);
+        }
+        return Flux.fromIterable(chunks)
+            .concatMap(chunk -> pages(GetTasksRequest.builder().uids(chunk).limit(pageSize).build(), Integer.MIN_VALUE))
+            .collectList()
+            .doOnNext(found -> {
+                found.sort(Comparator.comparingInt(TaskWatcher::uid));
+                Set<Integer> present = new HashSet<>();
+                for (TaskInfo task : found) {
+                    present.add(uid(task));
+                    TaskInfo known = unfinished.get(uid(task));
+                    if (Objects.isNull(known)) {
+                        continue;
+                    }
+                    if (task.finished()) {
+                        finish(task, emitted);
+                    } else if (known.getStatus() != task.getStatus()) {
+                        unfinished.put(uid(task), task);
+                        emit(task, emitted);
+                    }
+                }
+                for (Integer uid : checked) {
+                    if (!present.contains(uid) && Objects.nonNull(unfinished.remove(uid))) {
+                        log.debug("task [{}] is gone, no longer watched", uid);
+                    }
+                }
+            })
+            .then();
+    }
+
+    private void finish(TaskInfo task, int[] emitted) {
+        unfinished.remove(uid(task));
+        if (Objects.nonNull(task.getFinishedAt())
+            && (Objects.isNull(finishedCursor) || task.getFinishedAt().isAfter(finishedCursor))) {
+            finishedCursor = task.getFinishedAt();
+        }
+        emit(task, emitted);
+    }
+
+    /**
+     * Tasks of a request, newest first, following the {@code next} cursor until a page reaches {@code downTo}.
+     */
+    private Flux<TaskInfo> pages(GetTasksRequest request, int downTo) {
+        return tasks.list(request)
+            .expand(page -> {
+                List<TaskInfo> results = results(page);
+                boolean reached = results.isEmpty() || uid(results.get(results.size() - 1)) <= downTo;
+                if (reached || Objects.isNull(page.getNext())) {
+                    return Mono.empty();
+                }
+                request.setFrom(String.valueOf(page.getNext()));
+                return tasks.list(request);
+            })
+            .concatMapIterable(TaskWatcher::results);
+    }
+
+    private void emit(TaskInfo task, int[] emitted) {
+        emitted[0]++;
+        sink.tryEmitNext(task);
+    }
+
+    private static List<TaskInfo> results(Page<TaskInfo> page) {
+        return Optional.ofNullable(page.getResults()).orElse(Collections.emptyList());
+    }
+
+    private static int uid(TaskInfo task) {
+        return Optional.ofNullable(task.uid()).orElse(-1);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Whether a task satisfies the filters of a request, {@code limit} and {@code from} aside.
+     *
+     * @param request request
+     * @param task    task
+     * @return true if matches
+     */
+    static boolean matches(GetTasksRequest request, TaskInfo task) {
+        return (CollectionUtils.isEmpty(request.getUids()) || request.getUids().contains(String.valueOf(task.uid())))
+            && (CollectionUtils.isEmpty(request.getStatuses()) || request.getStatuses().contains(task.getStatus()))
+            && (CollectionUtils.isEmpty(request.getTypes()) || request.getTypes().contains(task.getType()))
+            && (CollectionUtils.isEmpty(request.getIndexUids()) || request.getIndexUids().contains(task.getIndexUid()))
+            && (CollectionUtils.isEmpty(request.getCanceledBy()) || request.getCanceledBy().contains(String.valueOf(task.getCanceledBy())))
+            && within(task.getEnqueuedAt(), request.getAfterEnqueuedAt(), request.getBeforeEnqueuedAt())
+            && within(task.getStartedAt(), request.getAfterStartedAt(), request.getBeforeStartedAt())
+            && within(task.getFinishedAt(), request.getAfterFinishedAt(), request.getBeforeFinishedAt());
+    }
+
+    private static boolean within(LocalDateTime at, LocalDateTime after, LocalDateTime before) {
+        if (Objects.isNull(after) && Objects.isNull(before)) {
+            return true;
+        }
+        return Objects.nonNull(at)
+            && (Objects.isNull(after) || at.isAfter(after))
+            && (Objects.isNull(before) || at.isBefore(before));
+    }
+
+    /**
+     * {@code TaskWatcher} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveTasks tasks;
+        private Duration minInterval = Duration.ofMillis(100);
+        private Duration maxInterval = Duration.ofSeconds(5);
+        private int pageSize = 100;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder() {
+        }
+
+        /**
+         * Tasks operator to poll.
+         *
+         * @param val the {@code tasks} to set
+         * @return a reference to this Builder
+         */
+        public Builder tasks(ReactiveTasks val) {
+            tasks = val;
+            return this;
+        }
+
+        /**
+         * Poll interval while tasks are moving, default 100ms.
+         *
+         * @param val the {@code minInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder minInterval(Duration val) {
+            minInterval = val;
+            return this;
+        }
+
+        /**
+         * Longest poll interval while nothing happens, default 5 seconds.
+         *
+         * @param val the {@code maxInterval} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxInterval(Duration val) {
+            maxInterval = val;
+            return this;
+        }
+
+        /**
+         * Tasks per request, default 100.
+         *
+         * @param val the {@code pageSize} to set
+         * @return a reference to this Builder
+         */
+        public Builder pageSize(int val) {
+            pageSize = val;
+            return this;
+        }
+
+        /**
+         * Scheduler of the poll timer, default {@link Schedulers#parallel()}.
+         *
+         * @param val the {@code scheduler} to set
+         * @return a reference to this Builder
+         */
+        public Builder scheduler(Scheduler val) {
+            scheduler = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code TaskWatcher} built from the parameters previously set.
+         *
+         * @return a {@code TaskWatcher} built with parameters of this {@code TaskWatcher.Builder}
+         */
+        public TaskWatcher build() {
+            Asserts.status(Objects.nonNull(tasks), "tasks must not be null");
+            Asserts.status(Objects.nonNull(minInterval) && !minInterval.isNegative() && !minInterval.isZero(), "minInterval must be positive");
+            Asserts.status(Objects.nonNull(maxInterval) && maxInterval.compareTo(minInterval) >= 0, "maxInterval must not be less than minInterval");
+            Asserts.status(pageSize > 0, "pageSize must be positive");
+            Asserts.status(Objects.nonNull(scheduler), "scheduler must not be null");
+            return new TaskWatcher(this);
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache with a W-TinyLFU policy.
+ * <p>
+ * New entries land in a small LRU window (1% of capacity). When the window overflows, its eldest entry competes
+ * with the eldest entry of the main region's probation segment, and wins only if a count-min sketch of recent
+ * access frequency rates it higher. Entries hit while on probation are promoted to the protected segment (80% of
+ * the main region). This keeps a hot set resident under scans of one-off keys, which plain LRU would not.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+final class TinyLfuCache<K, V> {
+
+    private final int windowCapacity;
+
+    private final int mainCapacity;
+
+    private final int protectedCapacity;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, V> protect = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    private long evictions;
+
+    TinyLfuCache(int capacity) {
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = Math.max(1, capacity - windowCapacity);
+        this.protectedCapacity = Math.max(1, mainCapacity * 4 / 5);
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        V value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = protect.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            protect.put(key, value);
+            if (protect.size() > protectedCapacity) {
+                Map.Entry<K, V> demoted = removeEldest(protect);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+        return value;
+    }
+
+    synchronized void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        }
+        if (protect.containsKey(key)) {
+            protect.put(key, value);
+            return;
+        }
+        if (probation.containsKey(key)) {
+            probation.put(key, value);
+            return;
+        }
+        window.put(key, value);
+        if (window.size() > windowCapacity) {
+            Map.Entry<K, V> candidate = removeEldest(window);
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    synchronized V putIfAbsent(K key, V value) {
+        V existing = window.get(key);
+        if (existing == null) {
+            existing = protect.get(key);
+        }
+        if (existing == null) {
+            existing = probation.get(key);
+        }
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    synchronized V remove(K key) {
+        V value = window.remove(key);
+        if (value == null) {
+            value = probation.remove(key);
+        }
+        if (value == null) {
+            value = protect.remove(key);
+        }
+        return value;
+    }
+
+    synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protect.clear();
+    }
+
+    synchronized int size() {
+        return window.size() + probation.size() + protect.size();
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    private void admit(K key, V value) {
+        if (probation.size() + protect.size() < mainCapacity) {
+            probation.put(key, value);
+            return;
+        }
+        LinkedHashMap<K, V> victims = probation.isEmpty() ? protect : probation;
+        K victim = victims.keySet().iterator().next();
+        evictions++;
+        if (sketch.frequency(key.hashCode()) > sketch.frequency(victim.hashCode())) {
+            victims.remove(victim);
+            probation.put(key, value);
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> map) {
+        Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+        Map.Entry<K, V> eldest = iterator.next();
+        Map.Entry<K, V> copy = new AbstractMap.SimpleImmutableEntry<>(eldest);
+        iterator.remove();
+        return copy;
+    }
+
+    /**
+     * Count-min sketch of 4 rows with counters saturating at 15, all halved every {@code 10 * capacity} increments
+     * so that old popularity fades.
+     */
+    static final class FrequencySketch {
+
+        private static final int ROWS = 4;
+
+        private final byte[] table;
+
+        private final int mask;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+            this.table = new byte[ROWS * width];
+            this.mask = width - 1;
+            this.sampleSize = Math.max(10, capacity * 10);
+        }
+
+        void increment(int hashCode) {
+            long hash = HashUtils.fmix64(hashCode);
+            boolean added = false;
+            for (int i = 0; i < ROWS; i++) {
+                int slot = slot(hash, i);
+                if (table[slot] < 15) {
+                    table[slot]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hashCode) {
+            long hash = HashUtils.fmix64(hashCode);
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < ROWS; i++) {
+                frequency = Math.min(frequency, table[slot(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int slot(long hash, int row) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return row * (mask + 1) + ((h1 + row * h2) & mask);
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] >>= 1;
+            }
+            additions >>>= 1;
+        }
+    }
+
+}
@@ -111,6 +111,17 @@ public class TypeRefs {
         public static final StringObjectMapRef INSTANCE = new StringObjectMapRef();
     }
 
+    /**
+     * String-Object Map List type reference.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class StringObjectMapListRef extends TypeRef<List<Map<String, Object>>> {
+        /**
+         * Instance.
+         */
+        public static final StringObjectMapListRef INSTANCE = new StringObjectMapListRef();
+    }
+
     /**
      * RankingRule List type reference.
      */
@@ -0,0 +1,411 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.TaskInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Coalesces partial document updates per primary key before sending them with {@link ReactiveDocuments#update(Collection)}.
+ * <p>
+ * Updates are merged field by field with last-writer-wins, top-level fields only, matching how Meilisearch applies a
+ * partial update. Pending documents live in lock-striped maps keyed by primary key hash, so writers of different keys
+ * rarely contend. Every {@code window}, or as soon as {@code maxPending} distinct keys are buffered, all stripes are
+ * drained into one batch. Flushes are serialized so batches are enqueued in drain order. A batch whose payload the
+ * server refuses (400, 413, 415, 422), or that can not be encoded, will never be accepted, so it is dropped and handed
+ * to the {@code rejected} handler; a batch failing any other way, e.g. a transport error, a 5xx, a 429 or a 401 of an
+ * expired API key, is merged back under any newer values and retried with the next flush.
+ *
+ * <pre>
+ * try (UpdateCoalescer coalescer = UpdateCoalescer.builder()
+ *     .documents(client.indexes().documents("movies"))
+ *     .jsonHandler(jsonHandler)
+ *     .primaryKey("id")
+ *     .window(Duration.ofSeconds(1))
+ *     .rejected((batch, error) -&gt; deadLetters.addAll(batch))
+ *     .build()) {
+ *     coalescer.add(partial);
+ * }
+ * </pre>
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class UpdateCoalescer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateCoalescer.class);
+
+    private final ReactiveDocuments documents;
+
+    private final JsonHandler jsonHandler;
+
+    private final String primaryKey;
+
+    private final int maxPending;
+
+    private final BiConsumer<List<Map<String, Object>>, Throwable> rejected;
+
+    private final List<Map<String, Map<String, Object>>> stripes;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong flushed = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Sinks.Many<Sinks.One<TaskInfo>> requests = Sinks.many().unicast().onBackpressureBuffer();
+
+    private final Disposable worker;
+
+    private final Disposable ticker;
+
+    private volatile boolean closed;
+
+    private UpdateCoalescer(Builder builder) {
+        this.documents = builder.documents;
+        this.jsonHandler = builder.jsonHandler;
+        this.primaryKey = builder.primaryKey;
+        this.maxPending = builder.maxPending;
+        this.rejected = builder.rejected;
+        int size = Integer.highestOneBit(Math.max(1, builder.stripes - 1)) << 1;
+        this.stripes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            stripes.add(new LinkedHashMap<>());
+        }
+        this.worker = requests.asFlux()
+            .concatMap(reply -> send()
+                .doOnSuccess(taskInfo -> {
+                    if (Objects.isNull(taskInfo)) {
+                        reply.tryEmitEmpty();
+                    } else {
+                        reply.tryEmitValue(taskInfo);
+                    }
+                })
+                .doOnError(reply::tryEmitError)
+                .onErrorResume(throwable -> Mono.empty()))
+            .subscribe();
+        this.ticker = Flux.interval(builder.window, builder.window)
+            .subscribe(tick -> request());
+    }
+
+    /**
+     * Creates and returns a new instance of the Builder class.
+     *
+     * @return a new instance of the Builder class
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Buffer a partial update, merging it into any pending update of the same document.
+     *
+     * @param partial partial document, must contain the primary key
+     */
+    public void add(Object partial) {
+        Asserts.status(!closed, "coalescer closed");
+        Map<String, Object> fields = jsonHandler.transform(partial, TypeRefs.StringObjectMapRef.INSTANCE);
+        Object id = fields.get(primaryKey);
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException(String.format("document has no primary key [%s]", primaryKey));
+        }
+        String key = DocumentIds.of(id);
+        received.incrementAndGet();
+        Map<String, Map<String, Object>> stripe = stripe(key);
+        boolean created;
+        synchronized (stripe) {
+            Map<String, Object> merged = stripe.get(key);
+            created = Objects.isNull(merged);
+            if (created) {
+                stripe.put(key, new LinkedHashMap<>(fields));
+            } else {
+                merged.putAll(fields);
+            }
+        }
+        if (created && pending.incrementAndGet() >= maxPending) {
+            request();
+        }
+    }
+
+    /**
+     * Buffer partial updates.
+     *
+     * @param partials partial documents
+     */
+    public void addAll(Collection<?> partials) {
+        for (Object partial : partials) {
+            add(partial);
+        }
+    }
+
+    /**
+     * Flush all pending updates now.
+     *
+     * @return task of the merged batch, empty if nothing was pending
+     */
+    public Mono<TaskInfo> flush() {
+        return Mono.defer(() -> {
+            Sinks.One<TaskInfo> reply = Sinks.one();
+            emit(reply);
+            return reply.asMono();
+        });
+    }
+
+    /**
+     * @return number of distinct documents waiting for the next flush
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * @return number of partial updates received
+     */
+    public long received() {
+        return received.get();
+    }
+
+    /**
+     * @return number of merged documents sent
+     */
+    public long flushed() {
+        return flushed.get();
+    }
+
+    /**
+     * @return number of merged documents dropped because the server rejected their batch
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop the window timer and flush what is left.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ticker.dispose();
+        try {
+            flush().block();
+        } catch (RuntimeException e) {
+            log.error("final coalesced flush failed, {} documents dropped", pending.get(), e);
+        }
+        worker.dispose();
+    }
+
+    private void request() {
+        emit(Sinks.one());
+    }
+
+    private void emit(Sinks.One<TaskInfo> reply) {
+        synchronized (requests) {
+            requests.tryEmitNext(reply);
+        }
+    }
+
+    private Mono<TaskInfo> send() {
+        List<Map<String, Object>> batch = drain();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return documents.update(batch)
+            .doOnNext(taskInfo -> flushed.addAndGet(batch.size()))
+            .doOnError(throwable -> {
+                if (Failures.isRejected(throwable)) {
+                    log.error("coalesced update of {} documents rejected, dropping the batch", batch.size(), throwable);
+                    dropped.addAndGet(batch.size());
+                    reject(batch, throwable);
+                } else {
+                    log.warn("coalesced update of {} documents failed, retrying with the next flush", batch.size(), throwable);
+                    restore(batch);
+                }
+            });
+    }
+
+    private void reject(List<Map<String, Object>> batch, Throwable throwable) {
+        if (Objects.nonNull(rejected)) {
+            try {
+                rejected.accept(batch, throwable);
+            } catch (RuntimeException e) {
+                log.warn("rejected batch handler failed", e);
+            }
+        }
+    }
+
+    private List<Map<String, Object>> drain() {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (Map<String, Map<String, Object>> stripe : stripes) {
+            synchronized (stripe) {
+                batch.addAll(stripe.values());
+                stripe.clear();
+            }
+        }
+        pending.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void restore(List<Map<String, Object>> batch) {
+        for (Map<String, Object> fields : batch) {
+            String key = DocumentIds.of(fields.get(primaryKey));
+            Map<String, Map<String, Object>> stripe = stripe(key);
+            boolean created;
+            synchronized (stripe) {
+                Map<String, Object> merged = stripe.get(key);
+                created = Objects.isNull(merged);
+                if (created) {
+                    stripe.put(key, fields);
+                } else {
+                    fields.forEach(merged::putIfAbsent);
+                }
+            }
+            if (created) {
+                pending.incrementAndGet();
+            }
+        }
+    }
+
+    private Map<String, Map<String, Object>> stripe(String key) {
+        return stripes.get((int) HashUtils.fmix64(key.hashCode()) & (stripes.size() - 1));
+    }
+
+    /**
+     * {@code UpdateCoalescer} builder static inner class.
+     */
+    public static final class Builder {
+        private ReactiveDocuments documents;
+        private JsonHandler jsonHandler;
+        private String primaryKey;
+        private Duration window = Duration.ofSeconds(1);
+        private int maxPending = 10_000;
+        private int stripes = 16;
+        private BiConsumer<List<Map<String, Object>>, Throwable> rejected;
+
+        private Builder() {
+        }
+
+        /**
+         * Target documents operator.
+         *
+         * @param val the {@code documents} to set
+         * @return a reference to this Builder
+         */
+        public Builder documents(ReactiveDocuments val) {
+            documents = val;
+            return this;
+        }
+
+        /**
+         * Json handler to read fields of partial documents.
+         *
+         * @param val the {@code jsonHandler} to set
+         * @return a reference to this Builder
+         */
+        public Builder jsonHandler(JsonHandler val) {
+            jsonHandler = val;
+            return this;
+        }
+
+        /**
+         * Primary key of the index.
+         *
+         * @param val the {@code primaryKey} to set
+         * @return a reference to this Builder
+         */
+        public Builder primaryKey(String val) {
+            primaryKey = val;
+            return this;
+        }
+
+        /**
+         * Coalescing window, default 1s.
+         *
+         * @param val the {@code window} to set
+         * @return a reference to this Builder
+         */
+        public Builder window(Duration val) {
+            window = val;
+            return this;
+        }
+
+        /**
+         * Distinct pending documents that trigger an early flush, default 10000.
+         *
+         * @param val the {@code maxPending} to set
+         * @return a reference to this Builder
+         */
+        public Builder maxPending(int val) {
+            maxPending = val;
+            return this;
+        }
+
+        /**
+         * Number of lock stripes, rounded up to a power of two, default 16.
+         *
+         * @param val the {@code stripes} to set
+         * @return a reference to this Builder
+         */
+        public Builder stripes(int val) {
+            stripes = val;
+            return this;
+        }
+
+        /**
+         * Handler of batches the server rejected, e.g. to dead-letter them; rejected batches are only logged if absent.
+         *
+         * @param val the {@code rejected} to set
+         * @return a reference to this Builder
+         */
+        public Builder rejected(BiConsumer<List<Map<String, Object>>, Throwable> val) {
+            rejected = val;
+            return this;
+        }
+
+        /**
+         * Returns a {@code UpdateCoalescer} built from the parameters previously set.
+         *
+         * @return a {@code UpdateCoalescer} built with parameters of this {@code UpdateCoalescer.Builder}
+         */
+        public UpdateCoalescer build() {
+            Asserts.status(Objects.nonNull(documents), "documents must not be null");
+            Asserts.status(Objects.nonNull(jsonHandler), "jsonHandler must not be null");
+            Asserts.status(Objects.nonNull(primaryKey), "primaryKey must not be null");
+            Asserts.status(Objects.nonNull(window) && !window.isNegative() && !window.isZero(), "window must be positive");
+            Asserts.status(maxPending > 0, "maxPending must be positive");
+            Asserts.status(stripes > 0, "stripes must be positive");
+            return new UpdateCoalescer(this);
+        }
+    }
+
+}
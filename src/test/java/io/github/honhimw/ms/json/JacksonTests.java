@@ -14,6 +14,7 @@
 
 package io.github.honhimw.ms.json;
 
+import io.github.honhimw.ms.model.PrimitiveVector;
 import lombok.*;
 import org.junit.jupiter.api.Test;
 
@@ -22,7 +23,10 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -152,6 +156,33 @@ public class JacksonTests {
         assert Objects.equals(transform.getSimple(), value);
     }
 
+    @Test
+    @SneakyThrows
+    void primitiveVector() {
+        Pojo pojo = new Pojo();
+        String key = "vector";
+        pojo.setVector(PrimitiveVector.of(0.5f, -1.25f, 3f));
+        String json = jsonHandler.toJson(pojo);
+        assert json.equals(String.format("{\"%s\":%s}", key, "[0.5,-1.25,3.0]"));
+        pojo.setVector(PrimitiveVector.of(0.1d, 2d));
+        json = jsonHandler.toJson(pojo);
+        assert json.equals(String.format("{\"%s\":%s}", key, "[0.1,2.0]"));
+        Pojo2 transform = jsonHandler.transform(pojo, Pojo2.class);
+        assert transform.getVector().size() == 2 && transform.getVector().get(0).doubleValue() == 0.1d;
+        PrimitiveVector vector = jsonHandler.fromJson("[0.5,-1.25,3]", PrimitiveVector.class);
+        assert vector.isFloat() && vector.equals(PrimitiveVector.of(0.5f, -1.25f, 3f));
+    }
+
+    @Test
+    @SneakyThrows
+    void attributes() {
+        List<String> attributes = jsonHandler.attributes(TypeRef.of(Pojo.class));
+        assert attributes.size() == 9;
+        assert attributes.containsAll(Arrays.asList("string", "integer", "_double", "date", "localDate", "localDateTime", "instant", "simple", "vector"));
+        assert jsonHandler.attributes(TypeRef.of(Pojo.class)) == attributes;
+        assert jsonHandler.attributes(TypeRef.of(Map.class)).isEmpty();
+    }
+
     @Data
     @EqualsAndHashCode(callSuper = false)
     @NoArgsConstructor
@@ -165,6 +196,7 @@ public class JacksonTests {
         private LocalDateTime localDateTime;
         private Instant instant;
         private Simple simple;
+        private List<Number> vector;
     }
 
     @Data
@@ -180,6 +212,7 @@ public class JacksonTests {
         private LocalDateTime localDateTime;
         private Instant instant;
         private Simple simple;
+        private List<Number> vector;
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.json;
+
+import io.github.honhimw.ms.model.SearchIds;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class SearchIdsReaderTests {
+
+    @Test
+    void numeric() {
+        String json = "{\"hits\":[{\"id\":1,\"_rankingScore\":0.9,\"_formatted\":{\"id\":\"1\",\"tags\":[\"a\",\"]\"]}},"
+            + "{\"_rankingScore\":0.5, \"id\" : -42}],\"query\":\"x\",\"processingTimeMs\":3,\"limit\":20,\"offset\":0,"
+            + "\"estimatedTotalHits\":2,\"facetDistribution\":null,\"semanticHitCount\":0,\"flag\":true}";
+        SearchIds ids = SearchIdsReader.read(json, "id");
+        assert ids.size() == 2;
+        assert ids.isNumeric();
+        assert ids.longId(0) == 1 && ids.longId(1) == -42;
+        assert ids.score(0) == 0.9 && ids.score(1) == 0.5;
+        assert ids.getEstimatedTotalHits() == 2;
+        assert ids.getTotalHits() == null;
+        assert ids.getProcessingTimeMs() == 3;
+    }
+
+    @Test
+    void string() {
+        StringBuilder json = new StringBuilder("{\"hits\":[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"sku\":").append(i);
+            json.append(",\"_rankingScore\":").append(1d / (i + 1)).append('}');
+        }
+        json.append(",{\"sku\":\"a\\\"b\\u0041\"}],\"totalHits\":101}");
+        SearchIds ids = SearchIdsReader.read(json.toString().getBytes(StandardCharsets.UTF_8), "sku");
+        assert ids.size() == 101;
+        assert !ids.isNumeric();
+        assert ids.id(0).equals("0") && ids.id(99).equals("99");
+        assert ids.id(100).equals("a\"bA");
+        assert Double.isNaN(ids.score(100));
+        assert ids.getTotalHits() == 101;
+    }
+
+    @Test
+    void empty() {
+        SearchIds ids = SearchIdsReader.read("{\"hits\":[],\"estimatedTotalHits\":0}", "id");
+        assert ids.size() == 0;
+        assert ids.longIds().length == 0;
+    }
+
+    @Test
+    void malformed() {
+        for (String json : new String[]{"[]", "{\"hits\":[{\"id\":1}", "{\"hits\":[{\"id\":[1]}]}"}) {
+            try {
+                SearchIdsReader.read(json, "id");
+                assert false : json;
+            } catch (IllegalArgumentException e) {
+                assert e.getMessage().startsWith("json decode exception") : e.getMessage();
+            }
+        }
+    }
+
+}
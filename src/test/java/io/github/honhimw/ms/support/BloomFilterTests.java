@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class BloomFilterTests {
+
+    @Test
+    void noFalseNegative() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("id-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assert filter.mightContain("id-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("id-" + i);
+        }
+        int positives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                positives++;
+            }
+        }
+        assert positives < 2_000 : positives;
+    }
+
+    @Test
+    void put() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assert !filter.mightContain("a");
+        assert filter.put("a");
+        assert !filter.put("a");
+        assert filter.mightContain("a");
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ConsistencyTokenTests {
+
+    @Test
+    void roundTrip() {
+        ConsistencyToken token = ConsistencyToken.of("movies:v2", 42);
+        assert token.toString().equals("movies:v2:42");
+        assert ConsistencyToken.parse(token.toString()).equals(token);
+        assert token.max(ConsistencyToken.of("movies:v2", 7)) == token;
+        assert ConsistencyToken.of("movies:v2", 7).max(token) == token;
+    }
+
+    @Test
+    void invalid() {
+        for (String text : Arrays.asList("", "movies", ":42", "movies:", "movies:x", "movies:-1")) {
+            try {
+                ConsistencyToken.parse(text);
+                assert false : text;
+            } catch (IllegalArgumentException e) {
+                assert e.getMessage().startsWith("invalid consistency token") : text;
+            }
+        }
+    }
+
+}
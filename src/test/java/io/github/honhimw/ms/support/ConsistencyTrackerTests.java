@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ConsistencyTrackerTests {
+
+    private FakeTasks tasks;
+
+    private ConsistencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks();
+        tracker = ConsistencyTracker.builder()
+            .tasks(tasks)
+            .pollInterval(Duration.ofMillis(5))
+            .build();
+    }
+
+    @Test
+    void readYourWrites() {
+        ConsistencyTracker.Session session = tracker.session();
+        TaskInfo write = session.write(Mono.fromCallable(() -> tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null))).block();
+        StepVerifier.create(session.read("movies", Mono.just("read")))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            .then(() -> tasks.process(write.getTaskUid()))
+            .expectNext("read")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+        assert tracker.watermark("movies") == write.getTaskUid();
+        // other indexes and sessions never wait
+        StepVerifier.create(tracker.session().read("movies", Mono.just("other")))
+            .expectNext("other")
+            .expectComplete()
+            .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void notFound() {
+        TaskInfo pending = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        StepVerifier.create(tracker.await(ConsistencyToken.of("movies", 99)))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+        assert tracker.watermark("movies") == -1;
+        // the earlier task is still awaited
+        StepVerifier.create(tracker.await(ConsistencyToken.of("movies", pending.getTaskUid())))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            .then(() -> tasks.process(pending.getTaskUid()))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void otherIndex() {
+        TaskInfo books = tasks.enqueue("books", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        tasks.process(books.getTaskUid());
+        StepVerifier.create(tracker.await(ConsistencyToken.of("movies", books.getTaskUid())))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+        assert tracker.watermark("movies") == -1;
+    }
+
+}
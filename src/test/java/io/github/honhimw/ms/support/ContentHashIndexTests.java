@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ContentHashIndexTests {
+
+    @Test
+    void update() {
+        ContentHashIndex index = new ContentHashIndex();
+        assert index.update("1", 100L);
+        assert !index.update("1", 100L);
+        assert index.update("1", 101L);
+        assert index.get("1", 0L) == 101L;
+        assert index.get("2", -1L) == -1L;
+        assert index.size() == 1;
+    }
+
+    @Test
+    void resize() {
+        ContentHashIndex index = new ContentHashIndex(4);
+        for (int i = 0; i < 100_000; i++) {
+            index.put("key-" + i, i);
+        }
+        assert index.size() == 100_000;
+        for (int i = 0; i < 100_000; i++) {
+            assert index.get("key-" + i, -1L) == i;
+        }
+    }
+
+    @Test
+    void retainSeen() {
+        ContentHashIndex index = new ContentHashIndex();
+        index.put("1", 1L);
+        index.put("2", 2L);
+        index.put("3", 3L);
+        index.clearSeen();
+        index.update("1", 1L);
+        index.update("3", 30L);
+        List<String> unseen = index.unseenKeys();
+        assert unseen.size() == 1 && unseen.contains("2");
+        assert index.retainSeen() == 1;
+        assert index.size() == 2;
+        assert !index.contains("2");
+        assert index.get("3", 0L) == 30L;
+        assert index.unseenKeys().size() == 2;
+    }
+
+    @Test
+    void touch() {
+        ContentHashIndex index = new ContentHashIndex();
+        index.put("1", 1L);
+        index.put("2", 2L);
+        index.clearSeen();
+        assert !index.touch("1", 1L);
+        assert index.touch("2", 20L);
+        assert index.touch("3", 3L);
+        // hashes left unchanged, absent keys not added
+        assert index.get("2", 0L) == 2L;
+        assert !index.contains("3");
+        assert index.unseenKeys().isEmpty();
+    }
+
+    @Test
+    @SneakyThrows
+    void persist() {
+        Path file = Files.createTempFile("content-hash", ".idx");
+        try {
+            ContentHashIndex index = new ContentHashIndex();
+            for (int i = 0; i < 1000; i++) {
+                index.put("中文-" + i, i * 31L);
+            }
+            index.save(file);
+            ContentHashIndex loaded = ContentHashIndex.load(file);
+            assert loaded.size() == 1000;
+            assert loaded.get("中文-999", -1L) == 999 * 31L;
+            assert loaded.unseenKeys().size() == 1000;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
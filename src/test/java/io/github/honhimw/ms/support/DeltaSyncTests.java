@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.json.GsonJsonHandler;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DeltaSyncTests {
+
+    private Path stateFile;
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    private DeltaSync deltaSync;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        stateFile = Files.createTempFile("delta", ".state");
+        Files.delete(stateFile);
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("movies", "id", tasks);
+        deltaSync = DeltaSync.builder()
+            .documents(documents)
+            .tasks(tasks)
+            .jsonHandler(FakeDocuments.JSON)
+            .primaryKey("id")
+            .stateFile(stateFile)
+            .batchSize(2)
+            .build();
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        Files.deleteIfExists(stateFile);
+    }
+
+    @Test
+    void incremental() {
+        DeltaSync.Result first = deltaSync.sync(Flux.fromIterable(movies(5, "a"))).block();
+        assert first.getUpserted() == 5 && first.getFailed() == 0 && first.getTasks().size() == 3;
+        assert documents.store().size() == 5;
+
+        List<Map<String, Object>> changed = movies(5, "a");
+        changed.get(3).put("title", "changed");
+        changed.remove(4);
+        DeltaSync.Result second = deltaSync.sync(Flux.fromIterable(changed)).block();
+        assert second.getScanned() == 4 && second.getUpserted() == 1 && second.getDeleted() == 1 : second;
+        assert documents.store().size() == 4;
+        assert "changed".equals(documents.store().get("3").get("title"));
+
+        DeltaSync.Result third = deltaSync.sync(Flux.fromIterable(changed)).block();
+        assert third.getUpserted() == 0 && third.getDeleted() == 0 && third.getTasks().isEmpty();
+    }
+
+    @Test
+    void failedTaskIsResent() {
+        documents.invalid(document -> "bad".equals(document.get("title")));
+        List<Map<String, Object>> source = movies(4, "a");
+        source.get(1).put("title", "bad");
+        DeltaSync.Result first = deltaSync.sync(Flux.fromIterable(source)).block();
+        // documents 0 and 1 share the failed batch
+        assert first.getFailed() == 2 && first.getFailedTasks().size() == 1 : first;
+        assert documents.store().size() == 2;
+
+        documents.invalid(document -> false);
+        DeltaSync.Result second = deltaSync.sync(Flux.fromIterable(source)).block();
+        assert second.getUpserted() == 2 && second.getFailed() == 0 : second;
+        assert documents.store().size() == 4;
+
+        DeltaSync.Result third = deltaSync.sync(Flux.fromIterable(source)).block();
+        assert third.getUpserted() == 0;
+    }
+
+    @Test
+    void failedPassKeepsState() {
+        deltaSync.sync(Flux.fromIterable(movies(2, "a"))).block();
+        documents.failNext(new IllegalStateException("connection reset"));
+        try {
+            deltaSync.sync(Flux.fromIterable(movies(2, "b"))).block();
+            assert false;
+        } catch (IllegalStateException expected) {
+            // the pass failed
+        }
+        DeltaSync.Result retry = deltaSync.sync(Flux.fromIterable(movies(2, "b"))).block();
+        assert retry.getUpserted() == 2 : retry;
+    }
+
+    @Test
+    void gsonNumbers() {
+        deltaSync.sync(Flux.fromIterable(movies(3, "a"))).block();
+        // Gson reads the numeric ids as 0.0, 1.0 and 2.0
+        DeltaSync gson = DeltaSync.builder()
+            .documents(documents)
+            .tasks(tasks)
+            .jsonHandler(new GsonJsonHandler())
+            .primaryKey("id")
+            .stateFile(stateFile)
+            .batchSize(2)
+            .build();
+        DeltaSync.Result same = gson.sync(Flux.fromIterable(movies(3, "a"))).block();
+        assert same.getUpserted() == 0 && same.getDeleted() == 0 : same;
+        DeltaSync.Result removed = gson.sync(Flux.fromIterable(movies(2, "a"))).block();
+        assert removed.getDeleted() == 1 : removed;
+        assert documents.store().keySet().equals(new HashSet<>(Arrays.asList("0", "1"))) : documents.store().keySet();
+    }
+
+    private static List<Map<String, Object>> movies(int count, String title) {
+        List<Map<String, Object>> movies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            movies.add(MapBuilder.<String, Object>builder().put("id", i).put("title", title + i).build());
+        }
+        return movies;
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.json.GsonJsonHandler;
+import io.github.honhimw.ms.json.JacksonJsonHandler;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.BatchGetDocumentsRequest;
+import io.github.honhimw.ms.model.Page;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Every case runs with documents as Jackson and as Gson read them, Gson reads the numeric ids as {@code 1.0}.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentsLoaderTests {
+
+    private static final List<JsonHandler> HANDLERS = Arrays.asList(new JacksonJsonHandler(), new GsonJsonHandler());
+
+    private static final Duration WINDOW = Duration.ofMillis(10);
+
+    @Test
+    void window() {
+        for (JsonHandler json : HANDLERS) {
+            Fixture fixture = new Fixture(json, 100);
+            Map<String, Object> first = new HashMap<>();
+            Map<String, Object> second = new HashMap<>();
+            fixture.loader.load("1").subscribe(first::putAll);
+            fixture.loader.load("2").subscribe(second::putAll);
+            assert fixture.fetches.isEmpty();
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            assert fixture.fetches.size() == 1 : fixture.fetches;
+            assert fixture.loader.requests() == 2 && fixture.loader.batches() == 1;
+            assert "one".equals(first.get("title")) : first;
+            assert "two".equals(second.get("title")) : second;
+
+            // a load after the flush opens a new window
+            fixture.loader.load("3").subscribe();
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            assert fixture.loader.batches() == 2;
+        }
+    }
+
+    @Test
+    void maxBatchSize() {
+        for (JsonHandler json : HANDLERS) {
+            Fixture fixture = new Fixture(json, 2);
+            fixture.loader.load("1").subscribe();
+            fixture.loader.load("2").subscribe();
+            // sent without waiting for the window
+            assert fixture.fetches.size() == 1 : fixture.fetches;
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            assert fixture.fetches.size() == 1 : fixture.fetches;
+        }
+    }
+
+    @Test
+    void projections() {
+        for (JsonHandler json : HANDLERS) {
+            Fixture fixture = new Fixture(json, 100);
+            Map<String, Object> titled = new HashMap<>();
+            Map<String, Object> rated = new HashMap<>();
+            Map<String, Object> both = new HashMap<>();
+            fixture.loader.load("1", "title").subscribe(titled::putAll);
+            fixture.loader.load("2", "rating").subscribe(rated::putAll);
+            fixture.loader.load("3", "title", "rating").subscribe(both::putAll);
+            fixture.loader.load("1", "rating", "title").subscribe();
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            // the field order does not matter, three distinct projections
+            assert fixture.fetches.size() == 3 : fixture.fetches;
+            // the primary key is fetched to match results, and removed again unless asked for
+            assert fixture.fetches.stream().allMatch(fetch -> fetch.getFields().contains("id"));
+            assert titled.keySet().equals(Collections.singleton("title")) : titled;
+            assert rated.keySet().equals(Collections.singleton("rating")) : rated;
+            assert both.keySet().equals(new HashSet<>(Arrays.asList("title", "rating"))) : both;
+        }
+    }
+
+    @Test
+    void splitBack() {
+        for (JsonHandler json : HANDLERS) {
+            Fixture fixture = new Fixture(json, 100);
+            List<Map<String, Object>> loaded = Collections.synchronizedList(new ArrayList<>());
+            for (String id : Arrays.asList("3", "1", "2", "1")) {
+                fixture.loader.load(id, "id", "title").subscribe(loaded::add);
+            }
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            assert fixture.fetches.size() == 1 : fixture.fetches;
+            assert fixture.fetches.get(0).getLimit() == 3;
+            assert loaded.size() == 4 : loaded;
+            Map<String, String> titles = new HashMap<>();
+            for (Map<String, Object> document : loaded) {
+                titles.put(DocumentIds.of(document.get("id")), (String) document.get("title"));
+            }
+            assert titles.equals(fixture.titles) : titles;
+            // the same id loaded twice gets two copies
+            Object[] ones = loaded.stream().filter(document -> "1".equals(DocumentIds.of(document.get("id")))).toArray();
+            assert ones.length == 2 && ones[0] != ones[1];
+        }
+    }
+
+    @Test
+    void missing() {
+        for (JsonHandler json : HANDLERS) {
+            Fixture fixture = new Fixture(json, 100);
+            AtomicReference<Map<String, Object>> found = new AtomicReference<>();
+            AtomicReference<Boolean> empty = new AtomicReference<>();
+            fixture.loader.load("1").subscribe(found::set);
+            fixture.loader.load("404").hasElement().subscribe(hasElement -> empty.set(!hasElement));
+            fixture.scheduler.advanceTimeBy(WINDOW);
+            assert Objects.nonNull(found.get());
+            assert Boolean.TRUE.equals(empty.get());
+        }
+    }
+
+    private static final class Fixture {
+
+        private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+        private final List<BatchGetDocumentsRequest> fetches = Collections.synchronizedList(new ArrayList<>());
+
+        private final Map<String, String> titles = new HashMap<>();
+
+        private final DocumentsLoader loader;
+
+        private Fixture(JsonHandler json, int maxBatchSize) {
+            FakeDocuments documents = new FakeDocuments("movies", "id", new FakeTasks()) {
+                @Override
+                public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+                    fetches.add(fetch);
+                    return super.batchGet(fetch);
+                }
+            };
+            String[] names = {"one", "two", "three"};
+            for (int i = 0; i < names.length; i++) {
+                Map<String, Object> movie = new LinkedHashMap<>();
+                movie.put("id", i + 1);
+                movie.put("title", names[i]);
+                movie.put("rating", 7 + i);
+                documents.put(json.transform(movie, TypeRefs.StringObjectMapRef.INSTANCE));
+                titles.put(String.valueOf(i + 1), names[i]);
+            }
+            loader = DocumentsLoader.builder()
+                .documents(documents)
+                .primaryKey("id")
+                .window(WINDOW)
+                .maxBatchSize(maxBatchSize)
+                .scheduler(scheduler)
+                .build();
+        }
+    }
+
+}
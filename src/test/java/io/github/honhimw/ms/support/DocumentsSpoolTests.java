@@ -0,0 +1,199 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.model.TaskInfo;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DocumentsSpoolTests {
+
+    private Path directory;
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        directory = Files.createTempDirectory("spool");
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("movies", "id", tasks);
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void drain() {
+        try (DocumentsSpool spool = spool(documents)) {
+            assert spool.save(Collections.singletonList(movie(1, "a"))).block() == 1L;
+            assert spool.update(Collections.singletonList(movie(1, "b"))).block() == 2L;
+            assert spool.save(Collections.singletonList(movie(2, "c"))).block() == 3L;
+            assert spool.batchDelete(Collections.singletonList("2")).block() == 4L;
+            await(() -> spool.appliedSeq() == 4);
+            assert spool.lag() == 0;
+            assert Integer.valueOf(3).equals(spool.appliedTaskUid());
+        }
+        Map<String, Map<String, Object>> store = documents.store();
+        assert store.size() == 1 && "b".equals(store.get("1").get("title"));
+    }
+
+    @Test
+    @SneakyThrows
+    void recover() {
+        for (int i = 0; i < 100; i++) {
+            documents.failNext(new HttpFailureException(503, "unavailable"));
+        }
+        try (DocumentsSpool spool = spool(documents)) {
+            spool.save(Collections.singletonList(movie(1, "a"))).block();
+            spool.save(Collections.singletonList(movie(2, "b"))).block();
+            assert spool.appliedSeq() == 0;
+        }
+        FakeDocuments restarted = new FakeDocuments("movies", "id", tasks);
+        try (DocumentsSpool spool = spool(restarted)) {
+            await(() -> spool.appliedSeq() == 2);
+        }
+        assert restarted.store().size() == 2;
+        // checkpointed records are not replayed
+        FakeDocuments again = new FakeDocuments("movies", "id", tasks);
+        try (DocumentsSpool spool = spool(again)) {
+            assert spool.appliedSeq() == 2;
+            assert spool.save(Collections.singletonList(movie(3, "c"))).block() == 3L;
+            await(() -> spool.appliedSeq() == 3);
+        }
+        assert again.writes().size() == 1;
+    }
+
+    @Test
+    @SneakyThrows
+    void poison() {
+        documents.reject(document -> "bad".equals(document.get("title")));
+        try (DocumentsSpool spool = spool(documents)) {
+            spool.save(Collections.singletonList(movie(1, "bad"))).block();
+            spool.save(Collections.singletonList(movie(2, "good"))).block();
+            await(() -> spool.appliedSeq() == 2);
+        }
+        assert documents.store().keySet().equals(Collections.singleton("2"));
+    }
+
+    @Test
+    @SneakyThrows
+    void unauthorized() {
+        // an expired API key is not a rejected payload, the record waits until the key works again
+        documents.failNext(new HttpFailureException(401, "invalid_api_key"));
+        documents.failNext(new HttpFailureException(403, "invalid_api_key"));
+        try (DocumentsSpool spool = spool(documents)) {
+            spool.save(Collections.singletonList(movie(1, "a"))).block();
+            await(() -> spool.appliedSeq() == 1);
+        }
+        assert documents.store().keySet().equals(Collections.singleton("1"));
+    }
+
+    @Test
+    @SneakyThrows
+    void diskFull() {
+        Path full = Paths.get("/dev/full");
+        Assumptions.assumeTrue(Files.isWritable(full));
+        // every write of the first segment fails with ENOSPC
+        Files.createSymbolicLink(directory.resolve(String.format("%020d.log", 1)), full);
+        try (DocumentsSpool spool = spool(documents)) {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    spool.save(Collections.singletonList(movie(i, "a"))).block();
+                    assert false;
+                } catch (RuntimeException expected) {
+                    // not acknowledged
+                }
+            }
+            assert spool.appliedSeq() == 0;
+        }
+        assert documents.writes().isEmpty();
+    }
+
+    @Test
+    @SneakyThrows
+    void synchronousFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        FakeDocuments throwing = new FakeDocuments("movies", "id", tasks) {
+            @Override
+            public Mono<TaskInfo> save(String json) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("connection pool closed");
+                }
+                return super.save(json);
+            }
+        };
+        try (DocumentsSpool spool = spool(throwing)) {
+            spool.save(Collections.singletonList(movie(1, "a"))).block();
+            await(() -> spool.appliedSeq() == 1);
+        }
+        assert calls.get() == 2;
+    }
+
+    @SneakyThrows
+    private DocumentsSpool spool(FakeDocuments target) {
+        return DocumentsSpool.builder()
+            .documents(target)
+            .jsonHandler(FakeDocuments.JSON)
+            .directory(directory)
+            .syncInterval(Duration.ofMillis(5))
+            .retryBackoff(Duration.ofMillis(20))
+            .build();
+    }
+
+    private static Map<String, Object> movie(int id, String title) {
+        return MapBuilder.<String, Object>builder().put("id", id).put("title", title).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class DurationPredictorTests {
+
+    @Test
+    void unknown() {
+        DurationPredictor predictor = new DurationPredictor();
+        assert predictor.predict(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 10) == null;
+        predictor.record(TaskType.SETTINGS_UPDATE, -1, Duration.ofSeconds(3));
+        assert predictor.predict(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 10) == null;
+        assert predictor.predict(TaskType.SETTINGS_UPDATE, -1).equals(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void magnitude() {
+        DurationPredictor predictor = new DurationPredictor();
+        predictor.record(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 1000, Duration.ofSeconds(1));
+        predictor.record(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 100_000, Duration.ofSeconds(60));
+        // same magnitude as 1000
+        assert predictor.predict(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 1010).equals(Duration.ofSeconds(1));
+        assert predictor.predict(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 100_500).equals(Duration.ofSeconds(60));
+        // no such magnitude, scaled by the time per document
+        Duration scaled = predictor.predict(TaskType.DOCUMENT_ADDITION_OR_UPDATE, 10_000);
+        assert scaled.compareTo(Duration.ofSeconds(1)) > 0 && scaled.compareTo(Duration.ofSeconds(60)) < 0 : scaled;
+    }
+
+    @Test
+    void average() {
+        DurationPredictor predictor = new DurationPredictor();
+        for (int i = 0; i < 50; i++) {
+            predictor.record(TaskType.INDEX_CREATION, -1, Duration.ofMillis(100));
+        }
+        predictor.record(TaskType.INDEX_CREATION, -1, Duration.ofMillis(1100));
+        Duration predicted = predictor.predict(TaskType.INDEX_CREATION, -1);
+        assert predicted.compareTo(Duration.ofMillis(100)) > 0 && predicted.compareTo(Duration.ofMillis(1100)) < 0 : predicted;
+    }
+
+    @Test
+    void documents() {
+        assert DurationPredictor.documents(null) == -1;
+        Map<String, Object> details = new HashMap<>();
+        assert DurationPredictor.documents(details) == -1;
+        details.put("indexedDocuments", 7);
+        assert DurationPredictor.documents(details) == 7;
+        details.put("receivedDocuments", 9.0);
+        assert DurationPredictor.documents(details) == 9;
+    }
+
+}
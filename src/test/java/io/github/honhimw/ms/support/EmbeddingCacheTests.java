@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class EmbeddingCacheTests {
+
+    @Test
+    void lru() {
+        EmbeddingCache cache = new EmbeddingCache(2);
+        cache.put(EmbeddingCache.key("a"), new float[]{1f});
+        cache.put(EmbeddingCache.key("b"), new float[]{2f});
+        assert cache.get(EmbeddingCache.key("a")) != null;
+        cache.put(EmbeddingCache.key("c"), new float[]{3f});
+        assert cache.size() == 2;
+        assert cache.get(EmbeddingCache.key("b")) == null;
+        assert cache.get(EmbeddingCache.key("a"))[0] == 1f;
+        assert cache.get(EmbeddingCache.key("c"))[0] == 3f;
+    }
+
+    @Test
+    @SneakyThrows
+    void persist() {
+        Path file = Files.createTempFile("embedding", ".cache");
+        try {
+            EmbeddingCache cache = new EmbeddingCache(100);
+            for (int i = 0; i < 10; i++) {
+                cache.put(EmbeddingCache.key("text " + i), new float[]{i, i * 0.5f, -i});
+            }
+            cache.save(file);
+            EmbeddingCache loaded = EmbeddingCache.load(file, 5);
+            assert loaded.size() == 5;
+            assert loaded.get(EmbeddingCache.key("text 0")) == null;
+            assert Arrays.equals(loaded.get(EmbeddingCache.key("text 9")), new float[]{9f, 4.5f, -9f});
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.VectorizedDocument;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class EmbeddingPipelineTests {
+
+    private final List<List<String>> calls = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Embeds a text as {@code [length, first char]}.
+     */
+    private final Function<List<String>, Mono<List<float[]>>> embedder = texts -> Mono.fromCallable(() -> {
+        calls.add(new ArrayList<>(texts));
+        List<float[]> vectors = new ArrayList<>();
+        for (String text : texts) {
+            vectors.add(new float[]{text.length(), text.charAt(0)});
+        }
+        return vectors;
+    });
+
+    @Test
+    @SneakyThrows
+    void batchesAndDuplicates() {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder().embedder(embedder).batchSize(2).build();
+        List<float[]> vectors = pipeline.embedAll(Arrays.asList("a", "bb", "a", "ccc", "dddd", "bb", "eeeee")).block();
+        assert vectors.size() == 7;
+        assert Arrays.equals(vectors.get(2), new float[]{1, 'a'});
+        assert Arrays.equals(vectors.get(5), new float[]{2, 'b'});
+        // 5 distinct texts in batches of 2
+        assert pipeline.calls() == 3 && calls.stream().mapToInt(List::size).sum() == 5 : calls;
+        assert pipeline.misses() == 7 && pipeline.cached() == 5;
+
+        pipeline.embedAll(Arrays.asList("bb", "ffffff")).block();
+        assert pipeline.hits() == 1 && pipeline.calls() == 4;
+        assert calls.get(3).equals(Collections.singletonList("ffffff"));
+    }
+
+    @Test
+    @SneakyThrows
+    void copies() {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder().embedder(embedder).build();
+        List<float[]> vectors = pipeline.embedAll(Arrays.asList("a", "a")).block();
+        assert vectors.get(0) != vectors.get(1);
+        vectors.get(0)[0] = 42;
+        pipeline.embed("a").block()[0] = 42;
+        assert Arrays.equals(pipeline.embed("a").block(), new float[]{1, 'a'});
+    }
+
+    @Test
+    @SneakyThrows
+    void embedderInKey() {
+        Path dir = Files.createTempDirectory("embedding");
+        Path file = dir.resolve("embedding.cache");
+        try {
+            EmbeddingPipeline small = EmbeddingPipeline.builder().embedder(embedder).model("small").cacheFile(file).build();
+            small.embed("a").block();
+            small.persist();
+
+            EmbeddingPipeline large = EmbeddingPipeline.builder().embedder(embedder).model("large").cacheFile(file).build();
+            large.embed("a").block();
+            assert large.hits() == 0 && large.calls() == 1;
+            EmbeddingPipeline other = EmbeddingPipeline.builder().embedder(embedder).embedderName("other").model("small").cacheFile(file).build();
+            other.embed("a").block();
+            assert other.hits() == 0 && other.calls() == 1;
+            EmbeddingPipeline same = EmbeddingPipeline.builder().embedder(embedder).model("small").cacheFile(file).build();
+            same.embed("a").block();
+            assert same.hits() == 1 && same.calls() == 0;
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void vectorize() {
+        EmbeddingPipeline pipeline = EmbeddingPipeline.builder().embedder(embedder).embedderName("custom").build();
+        VectorizedDocument text = new VectorizedDocument();
+        text.setId("1");
+        text.setText("hello");
+        VectorizedDocument vectorized = new VectorizedDocument();
+        vectorized.setId("2");
+        vectorized.setText("world");
+        vectorized.set_vectors(new HashMap<>(Collections.singletonMap("custom", Collections.singletonList(1))));
+        pipeline.vectorize(Arrays.asList(text, vectorized)).block();
+        assert text.get_vectors().get("custom").size() == 2;
+        assert calls.equals(Collections.singletonList(Collections.singletonList("hello"))) : calls;
+    }
+
+    @Test
+    @SneakyThrows
+    void shortResults() {
+        EmbeddingPipeline fewer = EmbeddingPipeline.builder().embedder(texts -> Mono.just(Collections.singletonList(new float[]{1}))).build();
+        StepVerifier.create(fewer.embedAll(Arrays.asList("a", "b")))
+            .expectErrorMatches(e -> e instanceof IllegalStateException && e.getMessage().contains("1 vectors for 2 texts"))
+            .verify(Duration.ofSeconds(10));
+
+        EmbeddingPipeline nothing = EmbeddingPipeline.builder().embedder(texts -> Mono.empty()).build();
+        StepVerifier.create(nothing.embed("a"))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(10));
+
+        EmbeddingPipeline empty = EmbeddingPipeline.builder().embedder(texts -> Mono.just(Arrays.asList(new float[]{1}, new float[0]))).build();
+        StepVerifier.create(empty.embedAll(Arrays.asList("a", "b")))
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(10));
+        // nothing of a failed batch is cached
+        assert empty.cached() == 0;
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.json.GsonJsonHandler;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.GetDocumentRequest;
+import io.github.honhimw.ms.model.Page;
+import io.github.honhimw.ms.model.TaskInfo;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class ExistenceFilterTests {
+
+    private FakeTasks tasks;
+
+    private final AtomicInteger lists = new AtomicInteger();
+
+    private FakeDocuments documents;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("products", "id", tasks) {
+            @Override
+            public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+                return super.list(page).doOnNext(result -> {
+                    // ids scanned by the first page are deleted before the second one
+                    if (lists.incrementAndGet() == 1) {
+                        batchDelete(Arrays.asList("0", "1", "2")).block();
+                    }
+                });
+            }
+        };
+        for (int i = 0; i < 30; i++) {
+            documents.put(product(i));
+        }
+    }
+
+    @Test
+    void rebuild() {
+        ExistenceFilter filter = filter();
+        ReactiveDocuments wrapped = filter.wrap(documents);
+        assert filter.mightContain("999");
+        // the deletion shifts unscanned ids into the first page, the partial filter is not swapped in
+        try {
+            filter.rebuild().block();
+            assert false : "rebuild should fail";
+        } catch (IllegalStateException e) {
+            assert e.getMessage().contains("27 of 30") : e.getMessage();
+        }
+        assert lists.get() == 2 : lists.get();
+        assert filter.mightContain("999");
+        assert filter.rebuild().block() == 27L;
+        for (int i = 3; i < 30; i++) {
+            assert filter.mightContain(String.valueOf(i)) : i;
+        }
+        assert wrapped.get("999").block() == null;
+        assert "p5".equals(wrapped.get("5").block().get("name"));
+        assert filter.skipped() == 1 && filter.passed() == 1;
+    }
+
+    @Test
+    void gsonIds() {
+        JsonHandler gson = new GsonJsonHandler();
+        FakeDocuments numbers = new FakeDocuments("products", "id", tasks);
+        for (int i = 0; i < 10; i++) {
+            // ids as a Gson backed client reads them, 5.0
+            numbers.put(gson.transform(product(i), TypeRefs.StringObjectMapRef.INSTANCE));
+        }
+        ExistenceFilter filter = ExistenceFilter.builder()
+            .documents(numbers)
+            .tasks(tasks)
+            .jsonHandler(gson)
+            .primaryKey("id")
+            .pageSize(7)
+            .build();
+        ReactiveDocuments wrapped = filter.wrap(numbers);
+        assert filter.rebuild().block() == 10L;
+        assert filter.mightContain("5");
+        assert "p5".equals(wrapped.get("5").block().get("name"));
+        wrapped.save(Collections.singletonList(product(100))).block();
+        assert filter.mightContain("100");
+    }
+
+    @Test
+    void unfinishedWrites() {
+        tasks.autoProcess(false);
+        ExistenceFilter filter = filter();
+        ReactiveDocuments wrapped = filter.wrap(documents);
+        filter.rebuild().block();
+        TaskInfo write = wrapped.save(Collections.singletonList(product(100))).block();
+        assert filter.unfinished() == 1;
+        // the scan does not see the write yet, it is replayed from the journal
+        filter.rebuild().block();
+        assert filter.mightContain("100");
+
+        tasks.process(write.getTaskUid());
+        await(() -> filter.unfinished() == 0);
+        filter.rebuild().block();
+        assert filter.mightContain("100");
+    }
+
+    @Test
+    void concurrentRebuildsJoin() {
+        FakeDocuments slow = new FakeDocuments("products", "id", tasks) {
+            @Override
+            public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+                lists.incrementAndGet();
+                return super.list(page).delayElement(Duration.ofMillis(20));
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            slow.put(product(i));
+        }
+        ExistenceFilter filter = ExistenceFilter.builder()
+            .documents(slow)
+            .tasks(tasks)
+            .jsonHandler(FakeDocuments.JSON)
+            .primaryKey("id")
+            .pageSize(7)
+            .build();
+        Tuple2<Long, Long> both = Mono.zip(filter.rebuild(), filter.rebuild()).block();
+        assert both.getT1() == 10L && both.getT2() == 10L;
+        assert lists.get() == 2 : lists.get();
+        // a later rebuild runs again
+        filter.rebuild().block();
+        assert lists.get() == 4 : lists.get();
+    }
+
+    private ExistenceFilter filter() {
+        return ExistenceFilter.builder()
+            .documents(documents)
+            .tasks(tasks)
+            .jsonHandler(FakeDocuments.JSON)
+            .primaryKey("id")
+            .pageSize(7)
+            .build();
+    }
+
+    private static Map<String, Object> product(int id) {
+        return MapBuilder.<String, Object>builder().put("id", id).put("name", "p" + id).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}
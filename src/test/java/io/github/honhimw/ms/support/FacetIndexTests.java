@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveFacetingSettings;
+import io.github.honhimw.ms.api.reactive.ReactiveSearch;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FacetIndexTests {
+
+    private final Map<String, Integer> distribution = new LinkedHashMap<>();
+
+    private final AtomicInteger facetSearches = new AtomicInteger();
+
+    @Test
+    void local() {
+        values(3);
+        FacetIndex index = FacetIndex.builder().search(search()).facetName("genres").build();
+        assert index.refresh().block() == 3;
+        FacetSearchResponse response = index.facetSearch(FacetSearchRequest.builder().facetName("genres").facetQuery("genre-1").build()).block();
+        assert response.getFacetHits().size() == 1 && "genre-1".equals(response.getFacetHits().get(0).getValue());
+        assert index.local() == 1 && facetSearches.get() == 0;
+    }
+
+    @Test
+    void truncated() {
+        values(3);
+        FacetIndex index = FacetIndex.builder().search(search()).facetName("genres").maxValuesPerFacet(3).build();
+        try {
+            index.refresh().block();
+            assert false;
+        } catch (IllegalStateException expected) {
+            assert expected.getMessage().contains("maxValuesPerFacet");
+        }
+        assert !index.isLoaded();
+        index.facetSearch(FacetSearchRequest.builder().facetName("genres").facetQuery("genre").build()).block();
+        assert facetSearches.get() == 1;
+    }
+
+    @Test
+    void limitFromSettings() {
+        values(150);
+        Faceting faceting = new Faceting();
+        faceting.setMaxValuesPerFacet(1000);
+        FacetIndex index = FacetIndex.builder()
+            .search(search())
+            .faceting(new ReactiveFacetingSettings() {
+                @Override
+                public Mono<Faceting> get() {
+                    return Mono.just(faceting);
+                }
+
+                @Override
+                public Mono<TaskInfo> update(Faceting val) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Mono<TaskInfo> reset() {
+                    throw new UnsupportedOperationException();
+                }
+            })
+            .facetName("genres")
+            .build();
+        // above the default limit of 100, below the configured one
+        assert index.refresh().block() == 150;
+        faceting.setMaxValuesPerFacet(150);
+        try {
+            index.refresh().block();
+            assert false;
+        } catch (IllegalStateException expected) {
+            assert !index.isLoaded();
+        }
+    }
+
+    private void values(int count) {
+        distribution.clear();
+        for (int i = 0; i < count; i++) {
+            distribution.put("genre-" + i, i + 1);
+        }
+    }
+
+    private ReactiveSearch search() {
+        return new ReactiveSearch() {
+            @Override
+            public Mono<SearchResponse<Map<String, Object>>> find(String q) {
+                return find(SearchRequest.builder().q(q).build());
+            }
+
+            @Override
+            public <T> Mono<SearchResponse<T>> find(String q, TypeRef<T> typeRef) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Mono<SearchResponse<Map<String, Object>>> find(SearchRequest request) {
+                return Mono.fromSupplier(() -> {
+                    SearchResponse<Map<String, Object>> response = new SearchResponse<>();
+                    response.setHits(Collections.emptyList());
+                    response.setFacetDistribution(Collections.singletonMap("genres", new LinkedHashMap<>(distribution)));
+                    return response;
+                });
+            }
+
+            @Override
+            public <T> Mono<SearchResponse<T>> find(SearchRequest request, TypeRef<T> typeRef) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Mono<FacetSearchResponse> facetSearch(FacetSearchRequest request) {
+                facetSearches.incrementAndGet();
+                return Mono.just(new FacetSearchResponse());
+            }
+
+            @Override
+            public Mono<SearchIds> ids(SearchRequest request, String primaryKey) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.FacetSearchResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FacetValuesTests {
+
+    private static FacetValues values() {
+        Map<String, Integer> distribution = new HashMap<>();
+        distribution.put("New York", 30);
+        distribution.put("Newark", 5);
+        distribution.put("York", 12);
+        distribution.put("Zürich", 8);
+        distribution.put("Science Fiction", 40);
+        return new FacetValues(distribution);
+    }
+
+    private static List<String> names(List<FacetSearchResponse.FacetHit> hits) {
+        return hits.stream().map(FacetSearchResponse.FacetHit::getValue).collect(Collectors.toList());
+    }
+
+    @Test
+    void wordPrefix() {
+        FacetValues values = values();
+        assert names(values.lookup("new", 10, false)).equals(Arrays.asList("New York", "Newark"));
+        assert names(values.lookup("york", 10, false)).equals(Arrays.asList("New York", "York"));
+        assert names(values.lookup("FIC", 10, false)).equals(Collections.singletonList("Science Fiction"));
+        assert values.lookup("ork", 10, false).isEmpty();
+    }
+
+    @Test
+    void normalized() {
+        FacetValues values = values();
+        assert names(values.lookup("zur", 10, false)).equals(Collections.singletonList("Zürich"));
+        assert values.lookup("zür", 10, false).get(0).getCount() == 8;
+    }
+
+    @Test
+    void limitAndOrder() {
+        FacetValues values = values();
+        assert values.size() == 5;
+        assert values.lookup("", 100, false).size() == 5;
+        assert names(values.lookup("", 2, true)).equals(Arrays.asList("Science Fiction", "New York"));
+    }
+
+}
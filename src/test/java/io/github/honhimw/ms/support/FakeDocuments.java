@@ -0,0 +1,322 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.json.JacksonJsonHandler;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * In-memory documents of one index, writes are applied when their {@link FakeTasks} task is processed.
+ * <p>
+ * Requests can be made to fail: {@link #failNext(Throwable)} fails the next requests in order, documents matching
+ * {@link #reject(Predicate)} are refused with a 400 like an invalid document, and documents matching
+ * {@link #invalid(Predicate)} are accepted but fail their task.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FakeDocuments implements ReactiveDocuments {
+
+    public static final JsonHandler JSON = new JacksonJsonHandler();
+
+    private final String indexUid;
+
+    private final String primaryKey;
+
+    private final FakeTasks tasks;
+
+    private final Map<String, Map<String, Object>> store = new TreeMap<>();
+
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    private final List<List<Map<String, Object>>> writes = Collections.synchronizedList(new ArrayList<>());
+
+    private Predicate<Map<String, Object>> rejected = document -> false;
+
+    private Predicate<Map<String, Object>> invalid = document -> false;
+
+    public FakeDocuments(String indexUid, String primaryKey, FakeTasks tasks) {
+        this.indexUid = indexUid;
+        this.primaryKey = primaryKey;
+        this.tasks = tasks;
+    }
+
+    /**
+     * @return primary key of the documents
+     */
+    protected String primaryKey() {
+        return primaryKey;
+    }
+
+    public FakeDocuments failNext(Throwable throwable) {
+        failures.add(throwable);
+        return this;
+    }
+
+    public FakeDocuments reject(Predicate<Map<String, Object>> val) {
+        rejected = val;
+        return this;
+    }
+
+    public FakeDocuments invalid(Predicate<Map<String, Object>> val) {
+        invalid = val;
+        return this;
+    }
+
+    /**
+     * @return the documents of every accepted save or update request
+     */
+    public List<List<Map<String, Object>>> writes() {
+        return writes;
+    }
+
+    public synchronized Map<String, Map<String, Object>> store() {
+        return new TreeMap<>(store);
+    }
+
+    public synchronized void put(Map<String, Object> document) {
+        store.put(DocumentIds.of(document.get(primaryKey())), new LinkedHashMap<>(document));
+    }
+
+    @Override
+    public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+        return request(() -> {
+            List<Map<String, Object>> matched = matching(page.getFilter());
+            int offset = Optional.ofNullable(page.getOffset()).orElse(0);
+            int limit = Optional.ofNullable(page.getLimit()).orElse(20);
+            Page<Map<String, Object>> result = new Page<>();
+            result.setOffset(offset);
+            result.setLimit(limit);
+            result.setTotal(matched.size());
+            result.setResults(new ArrayList<>(matched.subList(Math.min(offset, matched.size()), Math.min(offset + limit, matched.size()))));
+            return result;
+        });
+    }
+
+    @Override
+    public <T> Mono<Page<T>> list(@Nullable Integer offset, @Nullable Integer limit, TypeRef<T> typeRef) {
+        GetDocumentRequest request = new GetDocumentRequest();
+        request.setOffset(offset);
+        request.setLimit(limit);
+        return list(request, typeRef);
+    }
+
+    @Override
+    public <T> Mono<Page<T>> list(GetDocumentRequest page, TypeRef<T> typeRef) {
+        return list(page).map(result -> typed(result, typeRef));
+    }
+
+    @Override
+    public Mono<TaskInfo> save(String json) {
+        return save(JSON.fromJson(json, new TypeRef<List<Map<String, Object>>>() {
+        }));
+    }
+
+    @Override
+    public Mono<TaskInfo> save(Collection<?> collection) {
+        return write(collection, false);
+    }
+
+    @Override
+    public Mono<TaskInfo> saveVectorized(Collection<VectorizedDocument> collection) {
+        return write(collection, false);
+    }
+
+    @Override
+    public Mono<TaskInfo> update(String json) {
+        return update(JSON.fromJson(json, new TypeRef<List<Map<String, Object>>>() {
+        }));
+    }
+
+    @Override
+    public Mono<TaskInfo> update(Collection<?> collection) {
+        return write(collection, true);
+    }
+
+    @Override
+    public Mono<TaskInfo> deleteAll() {
+        return request(() -> tasks.enqueue(indexUid, TaskType.DOCUMENT_DELETION, () -> {
+            synchronized (this) {
+                store.clear();
+            }
+        }));
+    }
+
+    @Override
+    public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+        return request(() -> {
+            List<Map<String, Object>> matched = matching(fetch.getFilter());
+            int offset = Optional.ofNullable(fetch.getOffset()).orElse(0);
+            int limit = Optional.ofNullable(fetch.getLimit()).orElse(20);
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (Map<String, Object> document : matched.subList(Math.min(offset, matched.size()), Math.min(offset + limit, matched.size()))) {
+                results.add(project(document, fetch.getFields()));
+            }
+            Page<Map<String, Object>> page = new Page<>();
+            page.setOffset(offset);
+            page.setLimit(limit);
+            page.setTotal(matched.size());
+            page.setResults(results);
+            return page;
+        });
+    }
+
+    @Override
+    public <T> Mono<Page<T>> batchGet(BatchGetDocumentsRequest fetch, TypeRef<T> typeRef) {
+        return batchGet(fetch).map(page -> typed(page, typeRef));
+    }
+
+    @Override
+    public Mono<TaskInfo> batchDelete(List<String> ids) {
+        List<String> _ids = new ArrayList<>(ids);
+        Map<String, Object> details = new HashMap<>();
+        details.put("providedIds", _ids.size());
+        return request(() -> tasks.enqueue(indexUid, TaskType.DOCUMENT_DELETION, details, () -> {
+            synchronized (this) {
+                _ids.forEach(store::remove);
+            }
+        }));
+    }
+
+    @Override
+    public Mono<TaskInfo> delete(FilterableAttributesRequest filter) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("originalFilter", filter.getFilter());
+        return request(() -> tasks.enqueue(indexUid, TaskType.DOCUMENT_DELETION, details, () -> {
+            synchronized (this) {
+                FilterPredicate predicate = FilterPredicate.compile(filter.getFilter());
+                store.values().removeIf(predicate);
+            }
+        }));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> get(String id, @Nullable String... fields) {
+        return request(() -> {
+            synchronized (this) {
+                Map<String, Object> document = store.get(id);
+                if (Objects.isNull(document)) {
+                    throw new HttpFailureException(404, String.format("Document `%s` not found.", id));
+                }
+                return project(document, Objects.nonNull(fields) && fields.length > 0 ? Arrays.asList(fields) : null);
+            }
+        });
+    }
+
+    @Override
+    public <T> Mono<T> get(String id, TypeRef<T> typeRef, @Nullable String... fields) {
+        return get(id, fields).map(document -> JSON.transform(document, typeRef));
+    }
+
+    @Override
+    public Mono<TaskInfo> delete(String id) {
+        return batchDelete(Collections.singletonList(id));
+    }
+
+    private Mono<TaskInfo> write(Collection<?> collection, boolean partial) {
+        return request(() -> {
+            List<Map<String, Object>> documents = new ArrayList<>();
+            for (Object one : collection) {
+                Map<String, Object> document = new LinkedHashMap<>(JSON.transform(one, TypeRefs.StringObjectMapRef.INSTANCE));
+                if (rejected.test(document)) {
+                    throw new HttpFailureException(400, String.format("invalid document [%s]", document.get(primaryKey())));
+                }
+                documents.add(document);
+            }
+            writes.add(documents);
+            return tasks.enqueue(indexUid, TaskType.DOCUMENT_ADDITION_OR_UPDATE, () -> {
+                synchronized (this) {
+                    for (Map<String, Object> document : documents) {
+                        Object id = document.get(primaryKey());
+                        if (Objects.isNull(id) || invalid.test(document)) {
+                            throw new IllegalArgumentException(String.format("invalid document [%s]", id));
+                        }
+                    }
+                    for (Map<String, Object> document : documents) {
+                        Object id = document.get(primaryKey());
+                        Map<String, Object> existing = store.get(DocumentIds.of(id));
+                        if (partial && Objects.nonNull(existing)) {
+                            existing.putAll(document);
+                        } else {
+                            store.put(DocumentIds.of(id), new LinkedHashMap<>(document));
+                        }
+                    }
+                }
+            });
+        });
+    }
+
+    private <R> Mono<R> request(java.util.concurrent.Callable<R> callable) {
+        return Mono.fromCallable(() -> {
+            Throwable failure = failures.poll();
+            if (Objects.nonNull(failure)) {
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                }
+                throw (Exception) failure;
+            }
+            return callable.call();
+        });
+    }
+
+    private synchronized List<Map<String, Object>> matching(@Nullable String filter) {
+        Predicate<Map<String, Object>> predicate = StringUtils.isNotBlank(filter) ? FilterPredicate.compile(filter) : document -> true;
+        List<Map<String, Object>> matched = new ArrayList<>();
+        for (Map<String, Object> document : store.values()) {
+            if (predicate.test(document)) {
+                matched.add(new LinkedHashMap<>(document));
+            }
+        }
+        return matched;
+    }
+
+    private static Map<String, Object> project(Map<String, Object> document, @Nullable List<String> fields) {
+        if (CollectionUtils.isEmpty(fields) || fields.contains("*")) {
+            return new LinkedHashMap<>(document);
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            if (document.containsKey(field)) {
+                projected.put(field, document.get(field));
+            }
+        }
+        return projected;
+    }
+
+    private static <T> Page<T> typed(Page<Map<String, Object>> page, TypeRef<T> typeRef) {
+        Page<T> typed = new Page<>();
+        typed.setOffset(page.getOffset());
+        typed.setLimit(page.getLimit());
+        typed.setTotal(page.getTotal());
+        List<T> results = new ArrayList<>();
+        for (Map<String, Object> document : page.getResults()) {
+            results.add(JSON.transform(document, typeRef));
+        }
+        typed.setResults(results);
+        return typed;
+    }
+
+}
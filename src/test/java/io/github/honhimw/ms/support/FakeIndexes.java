@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.*;
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.json.TypeRef;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-memory indexes backed by {@link FakeTasks}: creating an index or changing its primary key is applied when the
+ * task is processed, and {@link #documents(String)} returns one {@link FakeDocuments} per index.
+ * Search, settings and stats are not supported.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FakeIndexes implements ReactiveIndexes {
+
+    private final FakeTasks tasks;
+
+    private final Map<String, Index> indexes = new TreeMap<>();
+
+    private final Map<String, FakeDocuments> documents = new HashMap<>();
+
+    public FakeIndexes(FakeTasks tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public synchronized Mono<Page<Index>> list(@Nullable Integer offset, @Nullable Integer limit) {
+        List<Index> all = new ArrayList<>(indexes.values());
+        int _offset = Optional.ofNullable(offset).orElse(0);
+        int _limit = Optional.ofNullable(limit).orElse(20);
+        Page<Index> page = new Page<>();
+        page.setOffset(_offset);
+        page.setLimit(_limit);
+        page.setTotal(all.size());
+        page.setResults(new ArrayList<>(all.subList(Math.min(_offset, all.size()), Math.min(_offset + _limit, all.size()))));
+        return Mono.just(page);
+    }
+
+    @Override
+    public Mono<Index> get(String uid) {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                Index index = indexes.get(uid);
+                if (Objects.isNull(index)) {
+                    throw new HttpFailureException(404, String.format("Index `%s` not found.", uid));
+                }
+                return new Index(index.getUid(), index.getPrimaryKey(), index.getCreatedAt(), index.getUpdatedAt());
+            }
+        });
+    }
+
+    @Override
+    public Mono<TaskInfo> create(String uid, @Nullable String primaryKey) {
+        return Mono.fromCallable(() -> tasks.enqueue(uid, TaskType.INDEX_CREATION, () -> {
+            synchronized (this) {
+                if (indexes.containsKey(uid)) {
+                    throw new IllegalStateException(String.format("Index `%s` already exists.", uid));
+                }
+                LocalDateTime now = LocalDateTime.now();
+                indexes.put(uid, new Index(uid, primaryKey, now, now));
+            }
+        }));
+    }
+
+    @Override
+    public Mono<TaskInfo> update(String uid, String primaryKey) {
+        return Mono.fromCallable(() -> tasks.enqueue(uid, TaskType.INDEX_UPDATE, () -> {
+            synchronized (this) {
+                Index index = indexes.get(uid);
+                if (Objects.isNull(index)) {
+                    throw new IllegalStateException(String.format("Index `%s` not found.", uid));
+                }
+                if (Objects.nonNull(index.getPrimaryKey()) && !index.getPrimaryKey().equals(primaryKey)) {
+                    throw new IllegalStateException("Index already has a primary key");
+                }
+                index.setPrimaryKey(primaryKey);
+                index.setUpdatedAt(LocalDateTime.now());
+            }
+        }));
+    }
+
+    @Override
+    public Mono<TaskInfo> delete(String uid) {
+        return Mono.fromCallable(() -> tasks.enqueue(uid, TaskType.INDEX_DELETION, () -> {
+            synchronized (this) {
+                indexes.remove(uid);
+                documents.remove(uid);
+            }
+        }));
+    }
+
+    /**
+     * Documents of the index, keyed by the current primary key of the index or {@code id} if it has none.
+     */
+    @Override
+    public synchronized FakeDocuments documents(String uid) {
+        return documents.computeIfAbsent(uid, key -> new FakeDocuments(key, "id", tasks) {
+            @Override
+            protected String primaryKey() {
+                synchronized (FakeIndexes.this) {
+                    return Optional.ofNullable(indexes.get(key)).map(Index::getPrimaryKey).orElse("id");
+                }
+            }
+        });
+    }
+
+    @Override
+    public Mono<TaskInfo> swap(List<Map.Entry<String, String>> uids) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ReactiveSingleIndex single(String uid) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> ReactiveTypedDocuments<T> documents(String uid, TypeRef<T> typeRef) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ReactiveSearch search(String uid) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> ReactiveTypedSearch<T> search(String uid, TypeRef<T> typeRef) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> ReactiveTypedDetailsSearch<T> searchWithDetails(String uid, TypeRef<T> typeRef) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ReactiveSettings settings(String uid) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<Stats> stats() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Mono<IndexStats> stats(String uid) {
+        throw new UnsupportedOperationException();
+    }
+
+}
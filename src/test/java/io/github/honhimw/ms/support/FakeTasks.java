@@ -0,0 +1,300 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.http.HttpFailureException;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory task queue behaving like {@code /tasks}: tasks are enqueued with the change they apply, and are
+ * processed when a test says so, or right away with {@link #autoProcess(boolean)}.
+ *
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FakeTasks implements ReactiveTasks {
+
+    private final TreeMap<Integer, TaskInfo> tasks = new TreeMap<>();
+
+    private final Map<Integer, Runnable> actions = new HashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private int nextUid;
+
+    private boolean autoProcess;
+
+    private Scheduler scheduler = Schedulers.parallel();
+
+    private TaskWatcher watcher;
+
+    /**
+     * @param val whether tasks are processed as soon as they are enqueued
+     * @return this
+     */
+    public FakeTasks autoProcess(boolean val) {
+        autoProcess = val;
+        return this;
+    }
+
+    /**
+     * @param val scheduler of {@link #waitForTask(int, Duration)} and {@link #watch(GetTasksRequest)}, its clock stamps
+     *            the tasks
+     * @return this
+     */
+    public FakeTasks scheduler(Scheduler val) {
+        scheduler = val;
+        return this;
+    }
+
+    /**
+     * @return number of requests received
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    public TaskInfo enqueue(@Nullable String indexUid, TaskType type, @Nullable Runnable action) {
+        return enqueue(indexUid, type, null, action);
+    }
+
+    public synchronized TaskInfo enqueue(@Nullable String indexUid, TaskType type, @Nullable Map<String, Object> details, @Nullable Runnable action) {
+        int uid = nextUid++;
+        TaskInfo task = new TaskInfo();
+        task.setUid(uid);
+        task.setIndexUid(indexUid);
+        task.setType(type);
+        task.setStatus(TaskStatus.ENQUEUED);
+        task.setEnqueuedAt(now());
+        task.setDetails(details);
+        tasks.put(uid, task);
+        if (Objects.nonNull(action)) {
+            actions.put(uid, action);
+        }
+        TaskInfo summary = new TaskInfo(uid, indexUid, TaskStatus.ENQUEUED, type, task.getEnqueuedAt());
+        if (autoProcess) {
+            process(uid);
+        }
+        return summary;
+    }
+
+    public synchronized void start(int uid) {
+        TaskInfo task = tasks.get(uid);
+        task.setStatus(TaskStatus.PROCESSING);
+        task.setStartedAt(now());
+    }
+
+    /**
+     * Start if needed and run the action of a task, which fails the task if it throws.
+     */
+    public synchronized void process(int uid) {
+        TaskInfo task = tasks.get(uid);
+        if (Objects.isNull(task) || task.finished()) {
+            return;
+        }
+        if (task.getStatus() == TaskStatus.ENQUEUED) {
+            start(uid);
+        }
+        Runnable action = actions.remove(uid);
+        try {
+            if (Objects.nonNull(action)) {
+                action.run();
+            }
+            finish(task, TaskStatus.SUCCEEDED, null);
+        } catch (RuntimeException e) {
+            finish(task, TaskStatus.FAILED, e.getMessage());
+        }
+    }
+
+    public synchronized void processAll() {
+        for (Integer uid : new ArrayList<>(tasks.keySet())) {
+            process(uid);
+        }
+    }
+
+    public synchronized void fail(int uid, String message) {
+        TaskInfo task = tasks.get(uid);
+        if (task.getStatus() == TaskStatus.ENQUEUED) {
+            start(uid);
+        }
+        actions.remove(uid);
+        finish(task, TaskStatus.FAILED, message);
+    }
+
+    /**
+     * Drop a task from the database, as a task deletion does.
+     */
+    public synchronized void remove(int uid) {
+        tasks.remove(uid);
+        actions.remove(uid);
+    }
+
+    public synchronized TaskInfo task(int uid) {
+        return copy(tasks.get(uid));
+    }
+
+    @Override
+    public Mono<Page<TaskInfo>> list(GetTasksRequest request) {
+        return Mono.fromSupplier(() -> {
+            requests.incrementAndGet();
+            synchronized (this) {
+                int limit = Optional.ofNullable(request.getLimit()).orElse(20);
+                int from = Objects.nonNull(request.getFrom()) ? Integer.parseInt(request.getFrom()) : Integer.MAX_VALUE;
+                List<TaskInfo> matched = new ArrayList<>();
+                for (TaskInfo task : tasks.descendingMap().values()) {
+                    if (TaskWatcher.matches(request, task)) {
+                        matched.add(task);
+                    }
+                }
+                List<TaskInfo> results = new ArrayList<>();
+                Integer next = null;
+                for (TaskInfo task : matched) {
+                    if (task.uid() > from) {
+                        continue;
+                    }
+                    if (results.size() == limit) {
+                        next = task.uid();
+                        break;
+                    }
+                    results.add(copy(task));
+                }
+                Page<TaskInfo> page = new Page<>();
+                page.setLimit(limit);
+                page.setTotal(matched.size());
+                page.setResults(results);
+                page.setFrom(results.isEmpty() ? null : results.get(0).uid());
+                page.setNext(next);
+                return page;
+            }
+        });
+    }
+
+    @Override
+    public Mono<TaskInfo> delete(GetTasksRequest request) {
+        return list(GetTasksRequest.builder()
+            .uids(request.getUids())
+            .statuses(request.getStatuses())
+            .types(request.getTypes())
+            .indexUids(request.getIndexUids())
+            .beforeFinishedAt(request.getBeforeFinishedAt())
+            .afterFinishedAt(request.getAfterFinishedAt())
+            .limit(Integer.MAX_VALUE)
+            .build())
+            .map(page -> {
+                List<Integer> uids = new ArrayList<>();
+                for (TaskInfo task : page.getResults()) {
+                    if (task.finished()) {
+                        uids.add(task.uid());
+                    }
+                }
+                TaskInfo deletion = enqueue(null, TaskType.TASK_DELETION, () -> uids.forEach(this::remove));
+                synchronized (this) {
+                    Map<String, Object> details = new HashMap<>();
+                    details.put("deletedTasks", uids.size());
+                    tasks.get(deletion.uid()).setDetails(details);
+                }
+                return deletion;
+            });
+    }
+
+    @Override
+    public Mono<TaskInfo> get(Integer uid) {
+        return Mono.fromCallable(() -> {
+            requests.incrementAndGet();
+            synchronized (this) {
+                TaskInfo task = tasks.get(uid);
+                if (Objects.isNull(task)) {
+                    throw new HttpFailureException(404, String.format("Task `%d` not found.", uid));
+                }
+                return copy(task);
+            }
+        });
+    }
+
+    @Override
+    public Mono<TaskInfo> cancel(CancelTasksRequest request) {
+        return Mono.error(new UnsupportedOperationException());
+    }
+
+    @Override
+    public Flux<TaskInfo> watch(GetTasksRequest request) {
+        synchronized (this) {
+            if (Objects.isNull(watcher)) {
+                watcher = TaskWatcher.builder()
+                    .tasks(this)
+                    .minInterval(Duration.ofMillis(10))
+                    .maxInterval(Duration.ofMillis(50))
+                    .scheduler(scheduler)
+                    .build();
+            }
+            return watcher.watch(request);
+        }
+    }
+
+    @Override
+    public Mono<TaskInfo> waitForTask(int uid, @Nullable Duration timeout) {
+        return TaskWaiter.builder()
+            .tasks(this)
+            .initialDelay(Duration.ofMillis(5))
+            .maxDelay(Duration.ofMillis(50))
+            .scheduler(scheduler)
+            .build()
+            .await(uid, timeout);
+    }
+
+    private void finish(TaskInfo task, TaskStatus status, @Nullable String message) {
+        task.setStatus(status);
+        task.setFinishedAt(now());
+        if (Objects.nonNull(message)) {
+            TaskError error = new TaskError();
+            error.setMessage(message);
+            task.setError(error);
+        }
+    }
+
+    private LocalDateTime now() {
+        long millis = scheduler.now(TimeUnit.MILLISECONDS);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static TaskInfo copy(@Nullable TaskInfo task) {
+        if (Objects.isNull(task)) {
+            return null;
+        }
+        TaskInfo copy = new TaskInfo(task.getTaskUid(), task.getIndexUid(), task.getStatus(), task.getType(), task.getEnqueuedAt());
+        copy.setUid(task.getUid());
+        copy.setStartedAt(task.getStartedAt());
+        copy.setFinishedAt(task.getFinishedAt());
+        copy.setDetails(task.getDetails());
+        copy.setError(task.getError());
+        copy.setCanceledBy(task.getCanceledBy());
+        return copy;
+    }
+
+}
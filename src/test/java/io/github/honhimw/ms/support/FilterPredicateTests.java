@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FilterPredicateTests {
+
+    private static Map<String, Object> movie(int id, String genre, Object rating, int year) {
+        Map<String, Object> movie = new HashMap<>();
+        movie.put("id", id);
+        movie.put("genres", Arrays.asList(genre, "Drama"));
+        movie.put("rating", rating);
+        movie.put("year", year);
+        return movie;
+    }
+
+    @Test
+    void builderRoundTrip() {
+        String filter = FilterBuilder.builder(expression -> expression.equal("genres", "action"))
+            .and(expression -> expression.to("year", 2000, 2010))
+            .orGroup(group -> group
+                .base(expression -> expression.gt("rating", 8.5))
+                .and(expression -> expression.unequal("genres", "comedy")))
+            .build();
+        FilterPredicate predicate = FilterPredicate.compile(filter);
+        assert predicate.test(movie(1, "Action", 7, 2005));
+        assert !predicate.test(movie(2, "Action", 7, 2011));
+        assert predicate.test(movie(3, "Horror", 9, 1990));
+        assert !predicate.test(movie(4, "Comedy", 9, 1990));
+    }
+
+    @Test
+    void operators() {
+        Map<String, Object> doc = movie(1, "Sci-Fi", null, 1999);
+        doc.put("tags", Collections.emptyList());
+        doc.put("title", "it's");
+        assert FilterPredicate.compile("id = 1").test(doc);
+        assert FilterPredicate.compile("id = '1.0'").test(doc);
+        assert FilterPredicate.compile("genres = 'sci-fi'").test(doc);
+        assert FilterPredicate.compile("title = 'IT\\'S'").test(doc);
+        assert FilterPredicate.compile("year >= 1999 AND year <= 1999 AND NOT year > 1999 AND NOT year < 1999").test(doc);
+        assert FilterPredicate.compile("genres IN [drama, horror]").test(doc);
+        assert FilterPredicate.compile("genres NOT IN ['horror']").test(doc);
+        assert FilterPredicate.compile("rating EXISTS AND missing NOT EXISTS").test(doc);
+        assert FilterPredicate.compile("rating IS NULL AND year IS NOT NULL AND missing IS NOT NULL").test(doc);
+        assert FilterPredicate.compile("tags IS EMPTY AND genres IS NOT EMPTY AND missing IS NOT EMPTY").test(doc);
+        assert FilterPredicate.compile("missing != 1 AND NOT missing = 1").test(doc);
+        assert !FilterPredicate.compile("missing = 1 OR rating = 1 OR rating > 0").test(doc);
+        assert FilterPredicate.compile("year = 2000 OR year = 1999 AND id = 1").test(doc);
+        assert !FilterPredicate.compile("(year = 2000 OR year = 1999) AND id = 2").test(doc);
+        assert FilterPredicate.compile("year 1990 to 2000 and not (id in [2, 3])").test(doc);
+    }
+
+    @Test
+    void nested() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("crew.size", 12);
+        doc.put("cast", Arrays.asList(Collections.singletonMap("name", "Alice"), Collections.singletonMap("name", "Bob")));
+        Map<String, Object> geo = new HashMap<>();
+        geo.put("lat", 48.8566);
+        geo.put("lng", "2.3522");
+        doc.put("_geo", geo);
+        assert FilterPredicate.compile("crew.size > 10").test(doc);
+        assert FilterPredicate.compile("cast.name = bob").test(doc);
+        assert !FilterPredicate.compile("cast.name = carol").test(doc);
+        assert FilterPredicate.compile("_geoRadius(48.85, 2.35, 2000)").test(doc);
+        assert !FilterPredicate.compile("_geoRadius(45.76, 4.83, 2000)").test(doc);
+        // [top right], [bottom left]
+        assert FilterPredicate.compile("_geoBoundingBox([49, 3], [48, 2])").test(doc);
+        assert !FilterPredicate.compile("_geoBoundingBox([49, 2], [48, 3])").test(doc);
+        assert !FilterPredicate.compile("_geoBoundingBox([47, 3], [46, 2])").test(doc);
+        // crossing the antimeridian
+        assert FilterPredicate.compile("_geoBoundingBox([49, -170], [48, 170])").test(MapBuilder.<String, Object>builder()
+            .put("_geo", MapBuilder.<String, Object>builder().put("lat", 48.5).put("lng", 179.5).build()).build());
+
+        // the example of the Meilisearch documentation
+        Predicate<Map<String, Object>> milan = FilterPredicate.compile("_geoBoundingBox([45.494181, 9.214024], [45.449484, 9.179175])");
+        geo.put("lat", 45.47);
+        geo.put("lng", 9.19);
+        assert milan.test(doc);
+        geo.put("lng", 50);
+        assert !milan.test(doc);
+    }
+
+    @Test
+    void typed() {
+        Predicate<int[]> predicate = FilterPredicate.compile("x > 1 AND y NOT EXISTS")
+            .forType((document, attribute) -> "x".equals(attribute) ? document[0] : FilterPredicate.ABSENT);
+        assert predicate.test(new int[]{2});
+        assert !predicate.test(new int[]{1});
+    }
+
+    @Test
+    void invalid() {
+        for (String filter : Arrays.asList("", "id", "id =", "id = 1 AND", "(id = 1", "id IN [1, 2", "id > abc",
+            "id 1 TO", "id IS FOO", "id = 'open", "id = 1)", "_geoRadius(1, 2)", "id > 1f", "id > 1d", "id > 0x10",
+            "id > NaN", "id > Infinity", "id > 1e", "id > .")) {
+            try {
+                FilterPredicate.compile(filter);
+                assert false : filter;
+            } catch (IllegalArgumentException e) {
+                assert e.getMessage().startsWith("invalid filter") : filter;
+            }
+        }
+    }
+
+    @Test
+    void numbers() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("rating", 10);
+        doc.put("code", "1f");
+        assert FilterPredicate.compile("rating = 1e1 AND rating > .5 AND rating < +10.5 AND rating >= 10.").test(doc);
+        // not numbers, compared as strings
+        assert FilterPredicate.compile("code = 1f").test(doc);
+        assert !FilterPredicate.compile("rating = 10f").test(doc);
+        assert !FilterPredicate.compile("rating = 0xA").test(doc);
+    }
+
+    @Test
+    void primitiveArrays() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("years", new int[]{1999, 2004});
+        doc.put("ratings", new double[]{7.5, 8.25});
+        doc.put("flags", new boolean[]{false, true});
+        assert FilterPredicate.compile("years = 2004 AND years IN [1, 1999] AND years 2000 TO 2010").test(doc);
+        assert FilterPredicate.compile("ratings > 8 AND ratings = 7.5").test(doc);
+        assert !FilterPredicate.compile("years > 2004 OR ratings < 7").test(doc);
+        assert FilterPredicate.compile("flags = true").test(doc);
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class FilterTemplateTests {
+
+    @Test
+    void sameAsBuilder() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.equal("genres", FilterTemplate.string("genre")))
+            .and(expression -> expression.to("year", FilterTemplate.number("from"), FilterTemplate.number("to")))
+            .orGroup(group -> group
+                .base(expression -> expression.gt("rating", FilterTemplate.number("rating")))
+                .and(expression -> expression.unequal("genres", FilterTemplate.string("genre")))));
+        assert template.names().equals(Arrays.asList("genre", "from", "to", "rating"));
+        String expected = FilterBuilder.builder(expression -> expression.equal("genres", "action"))
+            .and(expression -> expression.to("year", 2000, 2010))
+            .orGroup(group -> group
+                .base(expression -> expression.gt("rating", 8.5))
+                .and(expression -> expression.unequal("genres", "action")))
+            .build();
+        assert template.render("action", 2000, 2010, 8.5).equals(expected);
+        Map<String, Object> values = new HashMap<>();
+        values.put("genre", "action");
+        values.put("from", 2000);
+        values.put("to", 2010L);
+        values.put("rating", 8.5f);
+        assert template.render(values).equals(expected);
+        assert template.render("action", 2000, 2010, 8.5) == template.render("action", 2000, 2010, 8.5);
+    }
+
+    @Test
+    void escape() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.equal("title", FilterTemplate.string("title"))), 0);
+        assert template.render("it's a \\ test").equals("title = 'it\\'s a \\\\ test'");
+    }
+
+    @Test
+    void collections() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.in("id", FilterTemplate.strings("ids")))
+            .and(expression -> expression.in("year", FilterTemplate.numbers("years"))));
+        String expected = FilterBuilder.builder(expression -> expression.in("id", "a", "b"))
+            .and(expression -> expression.in("year", 1999, 2001))
+            .build();
+        assert template.render(Arrays.asList("a", "b"), new Integer[]{1999, 2001}).equals(expected);
+    }
+
+    @Test
+    void notIn() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.notIn("id", FilterTemplate.strings("ids"))));
+        String expected = FilterBuilder.builder(expression -> expression.notIn("id", "a", "b", "c")).build();
+        assert template.render(Arrays.asList("a", "b", "c")).equals(expected) : template.render(Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    void floats() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.gt("rating", FilterTemplate.number("rating"))));
+        assert template.render(0.1f).equals("rating > 0.1") : template.render(0.1f);
+        assert template.render(0.1d).equals("rating > 0.1");
+        try {
+            template.render(Float.NaN);
+            assert false;
+        } catch (IllegalArgumentException expected) {
+            // not finite
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void concurrent() {
+        FilterTemplate template = FilterTemplate.compile(filter -> filter
+            .base(expression -> expression.equal("genres", FilterTemplate.string("genre")))
+            .and(expression -> expression.ge("year", FilterTemplate.number("year"))));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String genre = "genre-" + (i % 100);
+                        if (!template.render(genre, i % 100).equals("genres = '" + genre + "' AND year >= " + (i % 100))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assert future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
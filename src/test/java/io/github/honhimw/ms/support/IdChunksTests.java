@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.json.GsonJsonHandler;
+import io.github.honhimw.ms.json.JsonHandler;
+import io.github.honhimw.ms.model.BatchGetDocumentsRequest;
+import io.github.honhimw.ms.model.Page;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IdChunksTests {
+
+    @Test
+    void byCount() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            ids.add(String.valueOf(i));
+        }
+        List<List<String>> chunks = IdChunks.split(ids, 1_000, Integer.MAX_VALUE);
+        assert chunks.size() == 3;
+        assert chunks.get(0).size() == 1_000;
+        assert chunks.get(2).size() == 500;
+        List<String> merged = new ArrayList<>();
+        chunks.forEach(merged::addAll);
+        assert merged.equals(ids);
+    }
+
+    @Test
+    void byChars() {
+        List<List<String>> chunks = IdChunks.split(Arrays.asList("aaaa", "bbbb", "cccc"), 100, 16);
+        assert chunks.size() == 2;
+        assert chunks.get(0).equals(Arrays.asList("aaaa", "bbbb"));
+        assert chunks.get(1).equals(Collections.singletonList("cccc"));
+    }
+
+    @Test
+    void distinct() {
+        List<List<String>> chunks = IdChunks.split(Arrays.asList("b", "a", "b", "c", "a"), 2, 1_000);
+        assert chunks.size() == 2;
+        assert chunks.get(0).equals(Arrays.asList("b", "a"));
+        assert chunks.get(1).equals(Collections.singletonList("c"));
+        assert IdChunks.split(Collections.emptyList(), 2, 1_000).isEmpty();
+    }
+
+    @Test
+    void batchGetInputOrder() {
+        AtomicInteger fetches = new AtomicInteger();
+        FakeDocuments documents = new FakeDocuments("movies", "id", new FakeTasks()) {
+            @Override
+            public Mono<Page<Map<String, Object>>> batchGet(BatchGetDocumentsRequest fetch) {
+                fetches.incrementAndGet();
+                return super.batchGet(fetch);
+            }
+        };
+        JsonHandler gson = new GsonJsonHandler();
+        for (int i = 0; i < 10; i++) {
+            // ids as a Gson backed client reads them, 3.0
+            documents.put(gson.transform(MapBuilder.<String, Object>builder().put("id", i).put("title", "m" + i).build(), TypeRefs.StringObjectMapRef.INSTANCE));
+        }
+        List<Map<String, Object>> found = documents.batchGet("id", Arrays.asList("7", "3", "404", "0", "9"), Collections.singletonList("title"), 2, 2)
+            .collectList()
+            .block();
+        assert fetches.get() == 3 : fetches.get();
+        List<Object> titles = new ArrayList<>();
+        found.forEach(document -> titles.add(document.get("title")));
+        // the primary key was only fetched to order the chunks
+        assert titles.equals(Arrays.asList("m7", "m3", "m0", "m9")) : found;
+        assert found.stream().noneMatch(document -> document.containsKey("id"));
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IndexBackupTests {
+
+    private Path directory;
+
+    private FakeTasks tasks;
+
+    private FakeIndexes source;
+
+    private FakeIndexes target;
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        directory = Files.createTempDirectory("backup");
+        tasks = new FakeTasks().autoProcess(true);
+        source = new FakeIndexes(tasks);
+        source.create("movies", "movie_id").block();
+        for (int i = 0; i < 25; i++) {
+            source.documents("movies").put(MapBuilder.<String, Object>builder().put("movie_id", i).put("title", "t" + i).build());
+        }
+        target = new FakeIndexes(tasks);
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void roundTrip() {
+        Path file = directory.resolve("movies.ndjson.gz");
+        IndexBackup.Progress backup = backup(source).backup(file).block();
+        assert backup.getDocuments() == 25;
+        assert Files.exists(IndexBackup.indexSidecar(file));
+
+        IndexBackup.Progress restore = backup(target).restore(file).block();
+        assert restore.getDocuments() == 25;
+        // index creation + 3 batches
+        assert restore.getTasks().size() == 4 : restore.getTasks();
+        assert "movie_id".equals(target.get("movies").block().getPrimaryKey());
+        Map<String, Map<String, Object>> store = target.documents("movies").store();
+        assert store.size() == 25 && "t7".equals(store.get("7").get("title"));
+    }
+
+    @Test
+    void primaryKeyOfExistingIndex() {
+        Path file = directory.resolve("movies.ndjson.gz");
+        backup(source).backup(file).block();
+
+        target.create("movies", null).block();
+        backup(target).restore(file).block();
+        assert "movie_id".equals(target.get("movies").block().getPrimaryKey());
+
+        FakeIndexes conflicting = new FakeIndexes(tasks);
+        conflicting.create("movies", "id").block();
+        try {
+            backup(conflicting).restore(file).block();
+            assert false;
+        } catch (IllegalStateException expected) {
+            assert expected.getMessage().contains("movie_id");
+        }
+        assert conflicting.documents("movies").writes().isEmpty();
+    }
+
+    @Test
+    void resubscribe() {
+        Path file = directory.resolve("movies.ndjson.gz");
+        backup(source).backup(file).block();
+        Mono<IndexBackup.Progress> restore = backup(target).restore(file);
+        IndexBackup.Progress first = restore.block();
+        IndexBackup.Progress second = restore.block();
+        assert first != second;
+        assert first.getDocuments() == 25 && second.getDocuments() == 25;
+        // the index exists the second time
+        assert second.getTasks().size() == 3 : second.getTasks();
+    }
+
+    private IndexBackup backup(FakeIndexes indexes) {
+        return IndexBackup.builder()
+            .indexes(indexes)
+            .indexUid("movies")
+            .documents(indexes.documents("movies"))
+            .jsonHandler(FakeDocuments.JSON)
+            .pageSize(10)
+            .batchSize(10)
+            .build();
+    }
+
+}
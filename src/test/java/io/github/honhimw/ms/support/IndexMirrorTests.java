@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.model.FilterableAttributesRequest;
+import io.github.honhimw.ms.model.GetDocumentRequest;
+import io.github.honhimw.ms.model.Page;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class IndexMirrorTests {
+
+    private final AtomicInteger reloads = new AtomicInteger();
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    private IndexMirror mirror;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("countries", "code", tasks) {
+            @Override
+            public Mono<Page<Map<String, Object>>> list(GetDocumentRequest page) {
+                if (StringUtils.isBlank(page.getFilter())) {
+                    reloads.incrementAndGet();
+                }
+                return super.list(page);
+            }
+        };
+        documents.put(country("fr", "europe", 1));
+        documents.put(country("jp", "asia", 2));
+        documents.put(country("de", "europe", 3));
+        mirror = IndexMirror.builder()
+            .documents(documents)
+            .tasks(tasks)
+            .indexUid("countries")
+            .jsonHandler(FakeDocuments.JSON)
+            .primaryKey("code")
+            .indexedAttributes(Collections.singletonList("region"))
+            .watchWrites(true)
+            .modifiedAttribute("updatedAt")
+            .build()
+            .start();
+        // loaded, and the watch has taken its baseline
+        await(() -> mirror.isLoaded() && tasks.requests() >= 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mirror.close();
+    }
+
+    @Test
+    void foreignUpdate() {
+        documents.update(Arrays.asList(country("jp", "pacific", 4), country("it", "europe", 4))).block();
+        ReactiveDocuments mirrored = mirror.wrap(documents);
+        // the page is applied document by document, "it" may be mirrored before "jp" is replaced
+        await(() -> mirror.size() == 4 && "pacific".equals(mirrored.get("jp").block().get("region")));
+        assert reloads.get() == 1 : reloads.get();
+    }
+
+    @Test
+    void foreignFilterDeletion() {
+        FilterableAttributesRequest request = new FilterableAttributesRequest();
+        request.setFilter("region = 'europe'");
+        documents.delete(request).block();
+        await(() -> mirror.size() == 1);
+        assert reloads.get() == 1 : reloads.get();
+    }
+
+    @Test
+    void foreignDeletionByIds() {
+        documents.batchDelete(Collections.singletonList("fr")).block();
+        await(() -> mirror.size() == 2);
+        assert reloads.get() == 2 : reloads.get();
+    }
+
+    @Test
+    @SneakyThrows
+    void ownWrite() {
+        ReactiveDocuments mirrored = mirror.wrap(documents);
+        mirrored.batchDelete(Collections.singletonList("fr")).block();
+        await(() -> mirror.size() == 2);
+        // several watcher polls, none reloads
+        Thread.sleep(200);
+        assert reloads.get() == 1 : reloads.get();
+    }
+
+    private static Map<String, Object> country(String code, String region, int updatedAt) {
+        return MapBuilder.<String, Object>builder().put("code", code).put("region", region).put("updatedAt", updatedAt).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class JsonChunkerTests {
+
+    @Test
+    @SneakyThrows
+    void ndjson() {
+        Path file = write("{\"id\":1,\"title\":\"a}b\"}\n{\"id\":2,\"title\":\"c\\\"{\"}\n\n{\"id\":3,\"tags\":[\"x\",\"y\"]}\n");
+        try {
+            List<JsonChunker.Chunk> chunks = chunks(file, 1 << 20, 0, 0);
+            assert chunks.size() == 1;
+            assert chunks.get(0).records == 3;
+            assert new String(chunks.get(0).json, StandardCharsets.UTF_8)
+                .equals("[{\"id\":1,\"title\":\"a}b\"},{\"id\":2,\"title\":\"c\\\"{\"},{\"id\":3,\"tags\":[\"x\",\"y\"]}]");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void array() {
+        Path file = write(" [\n  {\"id\":1},\n  {\"id\":2, \"nested\": {\"a\": [1, 2]}}\n]\n");
+        try {
+            List<JsonChunker.Chunk> chunks = chunks(file, 1 << 20, 0, 0);
+            assert chunks.size() == 1;
+            assert new String(chunks.get(0).json, StandardCharsets.UTF_8)
+                .equals("[{\"id\":1},{\"id\":2, \"nested\": {\"a\": [1, 2]}}]");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void boundedAndResumable() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                sb.append(",\n");
+            }
+            sb.append("{\"id\":").append(i).append(",\"title\":\"movie ").append(i).append("\"}");
+        }
+        sb.append("]");
+        Path file = write(sb.toString());
+        try {
+            List<JsonChunker.Chunk> chunks = chunks(file, 256, 0, 0);
+            int records = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                JsonChunker.Chunk chunk = chunks.get(i);
+                assert chunk.index == i;
+                assert chunk.json.length <= 256;
+                records += chunk.records;
+            }
+            assert records == 1000;
+            JsonChunker.Chunk resumeAfter = chunks.get(10);
+            List<JsonChunker.Chunk> resumed = chunks(file, 256, resumeAfter.end, resumeAfter.index + 1);
+            assert resumed.size() == chunks.size() - 11;
+            for (int i = 0; i < resumed.size(); i++) {
+                JsonChunker.Chunk expected = chunks.get(i + 11);
+                assert resumed.get(i).index == expected.index;
+                assert resumed.get(i).start == expected.start;
+                assert new String(resumed.get(i).json, StandardCharsets.UTF_8).equals(new String(expected.json, StandardCharsets.UTF_8));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void oversizedRecord() {
+        Path file = write("{\"id\":1}\n{\"id\":2,\"text\":\"" + new String(new char[100]).replace('\0', 'x') + "\"}\n{\"id\":3}\n");
+        try {
+            List<JsonChunker.Chunk> chunks = chunks(file, 32, 0, 0);
+            assert chunks.size() == 3;
+            assert chunks.get(1).records == 1 && chunks.get(1).json.length > 32;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void truncated() {
+        Path file = write("[{\"id\":1},{\"id\":2},{\"id\":3,\"title\":\"cut");
+        try (JsonChunker chunker = new JsonChunker(file, 1 << 20, 0, 0)) {
+            JsonChunker.Chunk chunk = chunker.next();
+            assert new String(chunk.json, StandardCharsets.UTF_8).equals("[{\"id\":1},{\"id\":2}]");
+            assert chunk.records == 2 && chunk.end == 18;
+            try {
+                chunker.next();
+                assert false;
+            } catch (EOFException e) {
+                assert e.getMessage().contains("offset 19") : e.getMessage();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        Path partialOnly = write("{\"id\":1,\"title\":\"cut");
+        try (JsonChunker chunker = new JsonChunker(partialOnly, 1 << 20, 0, 0)) {
+            try {
+                chunker.next();
+                assert false;
+            } catch (EOFException expected) {
+                // nothing complete to return
+            }
+        } finally {
+            Files.deleteIfExists(partialOnly);
+        }
+    }
+
+    @SneakyThrows
+    private static Path write(String content) {
+        Path file = Files.createTempFile("chunker", ".json");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @SneakyThrows
+    private static List<JsonChunker.Chunk> chunks(Path file, int chunkBytes, long position, int index) {
+        List<JsonChunker.Chunk> chunks = new ArrayList<>();
+        try (JsonChunker chunker = new JsonChunker(file, chunkBytes, position, index)) {
+            JsonChunker.Chunk chunk;
+            while ((chunk = chunker.next()) != null) {
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+}
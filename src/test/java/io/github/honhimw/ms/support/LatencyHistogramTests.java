@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class LatencyHistogramTests {
+
+    @Test
+    void buckets() {
+        for (long value = 0; value < 1L << 20; value++) {
+            int index = LatencyHistogram.index(value);
+            assert LatencyHistogram.highest(index) >= value : value;
+            assert index == 0 || LatencyHistogram.highest(index - 1) < value : value;
+        }
+        long large = 123_456_789_012L;
+        long highest = LatencyHistogram.highest(LatencyHistogram.index(large));
+        assert highest >= large && highest - large <= large / 64;
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assert histogram.percentile(99).isZero();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(Duration.ofMillis(i));
+        }
+        assert histogram.count() == 1000;
+        assert histogram.max().equals(Duration.ofMillis(1000));
+        assert within(histogram.percentile(50), Duration.ofMillis(500));
+        assert within(histogram.percentile(99), Duration.ofMillis(990));
+        assert histogram.percentile(100).equals(Duration.ofMillis(1000));
+        assert within(histogram.mean(), Duration.ofMillis(500));
+    }
+
+    @Test
+    void clamp() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Duration.ofMillis(-5));
+        histogram.record(Duration.ofDays(10_000));
+        assert histogram.percentile(1).isZero();
+        assert histogram.max().compareTo(Duration.ofDays(100)) > 0;
+        histogram.reset();
+        assert histogram.count() == 0;
+        assert histogram.percentile(50).isZero();
+    }
+
+    private static boolean within(Duration actual, Duration expected) {
+        long diff = Math.abs(actual.toNanos() - expected.toNanos());
+        return diff <= expected.toNanos() / 50;
+    }
+
+}
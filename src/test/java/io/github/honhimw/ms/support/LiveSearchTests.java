@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTypedSearch;
+import io.github.honhimw.ms.model.FacetSearchRequest;
+import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchRequest;
+import io.github.honhimw.ms.model.SearchResponse;
+import io.github.honhimw.ms.model.TaskType;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class LiveSearchTests {
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    private LiveSearch<Map<String, Object>> live;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("movies", "id", tasks);
+        documents.put(movie(1, "matrix"));
+        live = LiveSearch.<Map<String, Object>>builder()
+            .search(search())
+            .tasks(tasks)
+            .indexUid("movies")
+            .jsonHandler(FakeDocuments.JSON)
+            .build();
+    }
+
+    @Test
+    @SneakyThrows
+    void rerunOnWrite() {
+        List<SearchResponse<Map<String, Object>>> first = new CopyOnWriteArrayList<>();
+        List<SearchResponse<Map<String, Object>>> second = new CopyOnWriteArrayList<>();
+        SearchRequest request = SearchRequest.builder().q("matrix").build();
+        Disposable a = live.subscribe(request).subscribe(first::add);
+        Disposable b = live.subscribe(SearchRequest.builder().q("matrix").build()).subscribe(second::add);
+        // one shared query, and the watch has taken its baseline
+        await(() -> first.size() == 1 && second.size() == 1 && tasks.requests() >= 2);
+        assert live.queries() == 1 && searches.get() == 1 : searches.get();
+
+        documents.save(Collections.singletonList(movie(2, "matrix reloaded"))).block();
+        await(() -> first.size() == 2 && second.size() == 2);
+        assert first.get(1).getHits().size() == 2;
+        assert searches.get() == 2 : searches.get();
+
+        // a write that does not change the hits re-runs the query but emits nothing
+        documents.save(Collections.singletonList(movie(3, "heat"))).block();
+        await(() -> live.changes() == 2 && searches.get() == 3);
+        Thread.sleep(50);
+        assert first.size() == 2;
+
+        a.dispose();
+        b.dispose();
+        assert live.queries() == 0;
+    }
+
+    @Test
+    @SneakyThrows
+    void otherIndex() {
+        List<SearchResponse<Map<String, Object>>> responses = new CopyOnWriteArrayList<>();
+        Disposable subscription = live.subscribe(SearchRequest.builder().q("matrix").build()).subscribe(responses::add);
+        await(() -> responses.size() == 1 && tasks.requests() >= 2);
+        tasks.enqueue("books", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        // settings change the results too, and come after the other index's write
+        tasks.enqueue("movies", TaskType.SETTINGS_UPDATE, null);
+        await(() -> live.changes() == 1);
+        Thread.sleep(50);
+        assert live.changes() == 1 && searches.get() == 2 : searches.get();
+        subscription.dispose();
+    }
+
+    private ReactiveTypedSearch<Map<String, Object>> search() {
+        return new ReactiveTypedSearch<Map<String, Object>>() {
+            @Override
+            public Mono<SearchResponse<Map<String, Object>>> find(String q) {
+                return find(SearchRequest.builder().q(q).build());
+            }
+
+            @Override
+            public Mono<SearchResponse<Map<String, Object>>> find(SearchRequest request) {
+                return Mono.fromSupplier(() -> {
+                    searches.incrementAndGet();
+                    List<Map<String, Object>> hits = new ArrayList<>();
+                    for (Map<String, Object> movie : documents.store().values()) {
+                        if (String.valueOf(movie.get("title")).contains(request.getQ())) {
+                            hits.add(movie);
+                        }
+                    }
+                    SearchResponse<Map<String, Object>> response = new SearchResponse<>();
+                    response.setHits(hits);
+                    response.setEstimatedTotalHits(hits.size());
+                    return response;
+                });
+            }
+
+            @Override
+            public Mono<FacetSearchResponse> facetSearch(FacetSearchRequest request) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static Map<String, Object> movie(int id, String title) {
+        return MapBuilder.<String, Object>builder().put("id", id).put("title", title).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.Page;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class MirrorTableTests {
+
+    private static Map<String, Object> country(Object code, String region, Object population) {
+        Map<String, Object> country = new LinkedHashMap<>();
+        country.put("code", code);
+        country.put("region", region);
+        country.put("population", population);
+        return country;
+    }
+
+    private static MirrorTable table() {
+        MirrorTable table = new MirrorTable("code", Collections.singletonList("region"), 2);
+        table.put(country("FR", "Europe", 68));
+        table.put(country("JP", "Asia", 125));
+        table.put(country("DE", "Europe", 84));
+        table.put(country(42.0, "Nowhere", null));
+        return table;
+    }
+
+    @Test
+    void getAndFields() {
+        MirrorTable table = table();
+        assert table.size() == 4;
+        assert table.get("JP", null).equals(country("JP", "Asia", 125));
+        assert table.get("JP", Collections.singletonList("region")).equals(Collections.singletonMap("region", "Asia"));
+        assert table.get("42", null).containsKey("population");
+        assert table.get("XX", null) == null;
+    }
+
+    @Test
+    void find() {
+        MirrorTable table = table();
+        Page<Map<String, Object>> page = table.find(FilterPredicate.compile("region = europe AND population > 70"), 0, 20, null);
+        assert page.getTotal() == 1;
+        assert page.getResults().get(0).get("code").equals("DE");
+        page = table.find(FilterPredicate.compile("region IN [Europe, Asia]"), 1, 1, Collections.singletonList("code"));
+        assert page.getTotal() == 3;
+        assert page.getResults().equals(Collections.singletonList(Collections.singletonMap("code", "JP")));
+        assert table.find(FilterPredicate.compile("code IN [FR, 42]"), 0, 20, null).getTotal() == 2;
+        assert table.find(FilterPredicate.compile("population IS NULL"), 0, 20, null).getTotal() == 1;
+        assert table.find(null, 0, 2, null).getResults().size() == 2;
+    }
+
+    @Test
+    void replaceAndRemove() {
+        MirrorTable table = table();
+        table.put(country("FR", "Asia", 68));
+        assert table.find(FilterPredicate.compile("region = Europe"), 0, 20, null).getTotal() == 1;
+        assert table.find(FilterPredicate.compile("region = Asia"), 0, 20, null).getTotal() == 2;
+        assert table.remove("JP");
+        assert !table.remove("JP");
+        table.put(country("IT", "Europe", 59));
+        List<Map<String, Object>> europe = table.find(FilterPredicate.compile("region = Europe"), 0, 20, null).getResults();
+        assert europe.get(0).get("code").equals("DE") && europe.get(1).get("code").equals("IT");
+        assert table.size() == 4;
+    }
+
+}
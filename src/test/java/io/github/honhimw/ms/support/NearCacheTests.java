@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveDocuments;
+import io.github.honhimw.ms.model.TaskInfo;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class NearCacheTests {
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks();
+        documents = new FakeDocuments("products", "id", tasks);
+        documents.put(product(1, "a"));
+        nearCache = NearCache.builder().tasks(tasks).build();
+    }
+
+    @Test
+    void hit() {
+        ReactiveDocuments cached = nearCache.wrap("products", documents);
+        assert "a".equals(cached.get("1").block().get("name"));
+        assert "a".equals(cached.get("1").block().get("name"));
+        assert nearCache.hits() == 1 && nearCache.misses() == 1;
+    }
+
+    @Test
+    void fencedUntilTaskCompletes() {
+        ReactiveDocuments cached = nearCache.wrap("products", documents);
+        cached.get("1").block();
+        TaskInfo write = cached.update(Collections.singletonList(product(1, "b"))).block();
+        // the task is unfinished, loads pass through and are not admitted
+        assert "a".equals(cached.get("1").block().get("name"));
+        assert "a".equals(cached.get("1").block().get("name"));
+        assert nearCache.hits() == 0 && nearCache.misses() == 3;
+
+        tasks.process(write.getTaskUid());
+        await(() -> {
+            cached.get("1").block();
+            return nearCache.hits() > 0;
+        });
+        assert "b".equals(cached.get("1").block().get("name"));
+    }
+
+    @Test
+    void deleteById() {
+        documents.put(product(2, "c"));
+        ReactiveDocuments cached = nearCache.wrap("products", documents);
+        cached.get("1").block();
+        cached.get("2").block();
+        TaskInfo delete = cached.delete("2").block();
+        // only the deleted id is dropped, but the index is fenced until the task completes
+        assert nearCache.size() == 1;
+        tasks.process(delete.getTaskUid());
+        await(() -> {
+            cached.get("1").block();
+            return nearCache.hits() > 0;
+        });
+        assert !cached.get("2").onErrorResume(e -> Mono.empty()).blockOptional().isPresent();
+    }
+
+    private static Map<String, Object> product(int id, String name) {
+        return MapBuilder.<String, Object>builder().put("id", id).put("name", name).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}
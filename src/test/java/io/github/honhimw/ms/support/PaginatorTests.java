@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.Tasks;
+import io.github.honhimw.ms.model.*;
+import jakarta.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class PaginatorTests {
+
+    @Test
+    void lastPage() {
+        AtomicInteger fetches = new AtomicInteger();
+        StepVerifier.create(Paginator.offsets(0, 2, (offset, limit) -> {
+                fetches.incrementAndGet();
+                return Mono.just(page(offset, limit, 5, true));
+            }))
+            .expectNext(0, 1, 2, 3, 4)
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+        // the short third page ends the iteration, no page is fetched past the total
+        assert fetches.get() == 3 : fetches.get();
+
+        fetches.set(0);
+        StepVerifier.create(Paginator.offsets(0, 2, (offset, limit) -> {
+                fetches.incrementAndGet();
+                return Mono.just(page(offset, limit, 4, false));
+            }))
+            .expectNext(0, 1, 2, 3)
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+        // without a total, only an empty page tells a full last page from a full middle one
+        assert fetches.get() == 3 : fetches.get();
+    }
+
+    @Test
+    void empty() {
+        AtomicInteger fetches = new AtomicInteger();
+        StepVerifier.create(Paginator.offsets(0, 2, (offset, limit) -> {
+                fetches.incrementAndGet();
+                return Mono.just(page(offset, limit, 0, true));
+            }))
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+        assert fetches.get() == 1;
+
+        StepVerifier.create(Paginator.<String, Integer>cursor("first", cursor -> Mono.empty(), (cursor, page) -> "next"))
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void cancelDuringPrefetch() {
+        Sinks.One<Page<Integer>> second = Sinks.one();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger fetches = new AtomicInteger();
+        StepVerifier.create(Paginator.offsets(0, 2, (offset, limit) -> {
+                fetches.incrementAndGet();
+                if (offset == 0) {
+                    return Mono.just(page(offset, limit, 10, true));
+                }
+                return second.asMono().doOnCancel(() -> cancelled.set(true));
+            }), 1)
+            .expectNext(0)
+            .then(() -> {
+                // the second page is requested as soon as the first arrived
+                assert fetches.get() == 2 : fetches.get();
+                assert !cancelled.get();
+            })
+            .thenCancel()
+            .verify(Duration.ofSeconds(10));
+        assert cancelled.get();
+        // a late response of the cancelled page does not fetch the next one
+        second.tryEmitValue(page(2, 2, 10, true));
+        assert fetches.get() == 2;
+    }
+
+    @Test
+    void tasksStreamDefault() {
+        FakeTasks fake = new FakeTasks();
+        for (int i = 0; i < 5; i++) {
+            fake.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        }
+        // only the abstract methods, stream and iterator fall back to the interface defaults
+        Tasks tasks = new Tasks() {
+            @Override
+            public Page<TaskInfo> list(GetTasksRequest request) {
+                return fake.list(request).block();
+            }
+
+            @Override
+            public TaskInfo delete(GetTasksRequest request) {
+                return fake.delete(request).block();
+            }
+
+            @Override
+            public TaskInfo get(Integer uid) {
+                return fake.get(uid).block();
+            }
+
+            @Override
+            public TaskInfo cancel(CancelTasksRequest request) {
+                return fake.cancel(request).block();
+            }
+
+            @Override
+            public void waitForTask(int uid) {
+                fake.waitForTask(uid).block();
+            }
+
+            @Override
+            public TaskInfo waitForTask(int uid, @Nullable Duration timeout) {
+                return fake.waitForTask(uid, timeout).block();
+            }
+
+            @Override
+            public void waitForTask(int uid, int maxAttempts, Duration fixedDelay) {
+                fake.waitForTask(uid, maxAttempts, fixedDelay).block();
+            }
+        };
+        int requests = fake.requests();
+        try (Stream<TaskInfo> stream = tasks.stream(GetTasksRequest.builder().limit(2).build())) {
+            List<Integer> uids = stream.map(TaskInfo::uid).collect(Collectors.toList());
+            assert uids.equals(Arrays.asList(4, 3, 2, 1, 0)) : uids;
+        }
+        assert fake.requests() - requests == 3 : fake.requests() - requests;
+        Iterator<TaskInfo> iterator = tasks.iterator(GetTasksRequest.builder().limit(2).build());
+        assert iterator.next().uid() == 4;
+    }
+
+    private static Page<Integer> page(int offset, int limit, int total, boolean withTotal) {
+        List<Integer> results = new ArrayList<>();
+        for (int i = offset; i < Math.min(offset + limit, total); i++) {
+            results.add(i);
+        }
+        Page<Integer> page = new Page<>();
+        page.setOffset(offset);
+        page.setLimit(limit);
+        page.setTotal(withTotal ? total : null);
+        page.setResults(results.isEmpty() ? Collections.emptyList() : results);
+        return page;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTypedSearch;
+import io.github.honhimw.ms.model.FacetSearchRequest;
+import io.github.honhimw.ms.model.FacetSearchResponse;
+import io.github.honhimw.ms.model.SearchRequest;
+import io.github.honhimw.ms.model.SearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class SearchSessionTests {
+
+    private static final List<String> TITLES = Arrays.asList("Star Wars", "Stargate", "Mustard", "Café Society", "Casablanca", "Star Trek");
+
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+    private SearchSession<String> session;
+
+    @BeforeEach
+    void setUp() {
+        queries.clear();
+        session = SearchSession.<String>builder()
+            .search(new Titles())
+            .text(title -> title)
+            .debounce(Duration.ZERO)
+            .build();
+    }
+
+    @Test
+    void prefixExtension() {
+        List<List<String>> hits = search("s", "st", "sta", "star");
+        assert queries.equals(Collections.singletonList("s")) : queries;
+        assert hits.get(0).equals(Arrays.asList("Star Wars", "Stargate", "Café Society", "Star Trek")) : hits.get(0);
+        // a word must start with the query, "Mustard" contains "star"
+        assert hits.get(3).equals(Arrays.asList("Star Wars", "Stargate", "Star Trek")) : hits.get(3);
+        assert session.local() == 3;
+    }
+
+    @Test
+    void accents() {
+        List<List<String>> hits = search("c", "caf");
+        assert queries.equals(Collections.singletonList("c")) : queries;
+        assert hits.get(1).equals(Collections.singletonList("Café Society")) : hits.get(1);
+    }
+
+    @Test
+    void severalWords() {
+        // "star w" is not answered from "s": "star" is a whole word and `last` also returns titles without a "w" word
+        search("s", "star", "star ", "star w");
+        assert queries.equals(Arrays.asList("s", "star ", "star w")) : queries;
+    }
+
+    @Test
+    void typoTolerance() {
+        search("s", "starg");
+        assert queries.equals(Arrays.asList("s", "starg")) : queries;
+    }
+
+    @Test
+    void operators() {
+        search("s", "s-", "\"s");
+        assert queries.equals(Arrays.asList("s", "s-", "\"s")) : queries;
+    }
+
+    private List<List<String>> search(String... keystrokes) {
+        return session.search(Flux.fromArray(keystrokes).concatMap(q -> Mono.just(q).delayElement(Duration.ofMillis(5))))
+            .map(SearchResponse::getHits)
+            .collectList()
+            .block(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Matches each query word as a word prefix, every word must match.
+     */
+    private class Titles implements ReactiveTypedSearch<String> {
+
+        @Override
+        public Mono<SearchResponse<String>> find(String q) {
+            return find(SearchRequest.builder().q(q).build());
+        }
+
+        @Override
+        public Mono<SearchResponse<String>> find(SearchRequest request) {
+            return Mono.fromCallable(() -> {
+                queries.add(request.getQ());
+                String[] words = request.getQ().toLowerCase(Locale.ROOT).replace('é', 'e').trim().split("\\W+");
+                List<String> hits = TITLES.stream()
+                    .filter(title -> {
+                        List<String> titleWords = Arrays.asList(title.toLowerCase(Locale.ROOT).replace('é', 'e').split("\\W+"));
+                        return Arrays.stream(words).allMatch(word -> titleWords.stream().anyMatch(one -> one.startsWith(word)));
+                    })
+                    .collect(Collectors.toList());
+                SearchResponse<String> response = new SearchResponse<>();
+                response.setHits(hits);
+                response.setOffset(0);
+                response.setLimit(20);
+                response.setQuery(request.getQ());
+                return response;
+            });
+        }
+
+        @Override
+        public Mono<FacetSearchResponse> facetSearch(FacetSearchRequest request) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.GetTasksRequest;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskPrunerTests {
+
+    private final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+
+    private FakeTasks tasks;
+
+    @BeforeEach
+    void setUp() {
+        // one clock stamps the tasks and sets the pruner's cutoff
+        tasks = new FakeTasks().scheduler(clock);
+        for (int i = 0; i < 5; i++) {
+            tasks.process(tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid());
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void idle() {
+        tasks.autoProcess(true);
+        TaskPruner pruner = pruner().build();
+        assert prune(pruner) == 5L;
+        assert pruner.batches() == 3 && pruner.deferred() == 0;
+    }
+
+    @Test
+    void busyPrunesMinBatches() {
+        // a steady write rate keeps one task enqueued
+        tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        tasks.autoProcess(true);
+        TaskPruner pruner = pruner().build();
+        assert prune(pruner) == 2L;
+        assert pruner.deferred() == 1 && remaining() == 3;
+    }
+
+    @Test
+    void busyPrunesBacklog() {
+        tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        tasks.autoProcess(true);
+        TaskPruner pruner = pruner().minBatches(0).maxBacklog(2).build();
+        // 5 and 3 prunable tasks are above the backlog limit, 1 is not
+        assert prune(pruner) == 4L;
+        assert pruner.deferred() == 1 && remaining() == 1;
+    }
+
+    private TaskPruner.Builder pruner() {
+        return TaskPruner.builder()
+            .tasks(tasks)
+            .retention(Duration.ZERO)
+            .batchSize(2)
+            .scheduler(clock);
+    }
+
+    /**
+     * Run once, advancing the clock through the waits for the deletion tasks.
+     */
+    private long prune(TaskPruner pruner) {
+        AtomicLong deleted = new AtomicLong(-1);
+        StepVerifier.withVirtualTime(pruner::prune, () -> clock, Long.MAX_VALUE)
+            .thenAwait(Duration.ofMinutes(1))
+            .consumeNextWith(deleted::set)
+            .verifyComplete();
+        return deleted.get();
+    }
+
+    private long remaining() {
+        return tasks.list(GetTasksRequest.builder().types(Collections.singletonList(TaskType.DOCUMENT_ADDITION_OR_UPDATE)).build())
+            .block().getResults().stream().filter(TaskInfo::finished).count();
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.api.reactive.ReactiveTasks;
+import io.github.honhimw.ms.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskWaiterTests {
+
+    private VirtualTimeScheduler scheduler;
+
+    private FakeTasks tasks;
+
+    private TaskWaiter waiter;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        tasks = new FakeTasks().scheduler(scheduler);
+        waiter = TaskWaiter.builder()
+            .tasks(tasks)
+            .initialDelay(Duration.ofMillis(10))
+            .maxDelay(Duration.ofSeconds(1))
+            .jitter(0)
+            .scheduler(scheduler)
+            .build();
+    }
+
+    @Test
+    void backoff() {
+        int uid = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        StepVerifier.withVirtualTime(() -> waiter.await(uid), () -> scheduler, Long.MAX_VALUE)
+            .expectSubscription()
+            // polls at 0, 10, 30 and 70ms
+            .thenAwait(Duration.ofMillis(70))
+            .then(() -> {
+                assert waiter.polls() == 4 : waiter.polls();
+                tasks.process(uid);
+            })
+            .expectNoEvent(Duration.ofMillis(79))
+            .thenAwait(Duration.ofMillis(1))
+            .expectNextMatches(task -> task.getStatus() == TaskStatus.SUCCEEDED)
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+        assert waiter.polls() == 5;
+    }
+
+    @Test
+    void timeout() {
+        int uid = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        StepVerifier.withVirtualTime(() -> waiter.await(uid, Duration.ofMillis(100)), () -> scheduler, Long.MAX_VALUE)
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(99))
+            .thenAwait(Duration.ofMillis(1))
+            .expectError(TimeoutException.class)
+            .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void predictedFromStartedAt() {
+        TaskInfo done = new TaskInfo();
+        done.setType(TaskType.DOCUMENT_ADDITION_OR_UPDATE);
+        done.setStatus(TaskStatus.SUCCEEDED);
+        done.setStartedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        done.setFinishedAt(LocalDateTime.of(2026, 1, 1, 0, 0, 1));
+        waiter.record(done);
+
+        int uid = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        tasks.start(uid);
+        scheduler.advanceTimeBy(Duration.ofMillis(600));
+        StepVerifier.withVirtualTime(() -> waiter.await(uid), () -> scheduler, Long.MAX_VALUE)
+            .expectSubscription()
+            // processing for 600ms already, the predicted end is 400ms away rather than a whole second
+            .thenAwait(Duration.ofMillis(399))
+            .then(() -> {
+                assert waiter.polls() == 1 : waiter.polls();
+                tasks.process(uid);
+            })
+            .thenAwait(Duration.ofMillis(1))
+            .expectNextMatches(task -> task.getStatus() == TaskStatus.SUCCEEDED)
+            .expectComplete()
+            .verify(Duration.ofSeconds(10));
+        assert waiter.polls() == 2;
+    }
+
+    @Test
+    void interfaceDefaults() {
+        FakeTasks real = new FakeTasks();
+        // only the abstract methods, waitForTask falls back to the interface default
+        ReactiveTasks minimal = new ReactiveTasks() {
+            @Override
+            public Mono<Page<TaskInfo>> list(GetTasksRequest request) {
+                return real.list(request);
+            }
+
+            @Override
+            public Mono<TaskInfo> delete(GetTasksRequest request) {
+                return real.delete(request);
+            }
+
+            @Override
+            public Mono<TaskInfo> get(Integer uid) {
+                return real.get(uid);
+            }
+
+            @Override
+            public Mono<TaskInfo> cancel(CancelTasksRequest request) {
+                return real.cancel(request);
+            }
+        };
+        int uid = real.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        StepVerifier.create(minimal.waitForTask(uid, Duration.ofMillis(50)))
+            .expectError(TimeoutException.class)
+            .verify(Duration.ofSeconds(10));
+        real.process(uid);
+        assert minimal.waitForTask(uid, Duration.ofSeconds(5)).block().getStatus() == TaskStatus.SUCCEEDED;
+    }
+
+}
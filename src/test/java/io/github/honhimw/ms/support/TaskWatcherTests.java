@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.model.GetTasksRequest;
+import io.github.honhimw.ms.model.TaskInfo;
+import io.github.honhimw.ms.model.TaskStatus;
+import io.github.honhimw.ms.model.TaskType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TaskWatcherTests {
+
+    private VirtualTimeScheduler scheduler;
+
+    private FakeTasks tasks;
+
+    private TaskWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        tasks = new FakeTasks().scheduler(scheduler);
+        watcher = TaskWatcher.builder()
+            .tasks(tasks)
+            .minInterval(Duration.ofMillis(10))
+            .maxInterval(Duration.ofMillis(80))
+            .scheduler(scheduler)
+            .build();
+    }
+
+    @Test
+    void transitions() {
+        int before = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        List<TaskInfo> seen = new CopyOnWriteArrayList<>();
+        Disposable watch = watcher.watch(GetTasksRequest.builder().indexUids(Collections.singletonList("movies")).build())
+            .subscribe(seen::add);
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        int uid = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        tasks.enqueue("books", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null);
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        tasks.start(before);
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        tasks.process(before);
+        tasks.process(uid);
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        watch.dispose();
+
+        // the baseline is not emitted, only its later transitions
+        assert statuses(seen, before).equals(Arrays.asList(TaskStatus.PROCESSING, TaskStatus.SUCCEEDED)) : seen;
+        assert statuses(seen, uid).equals(Arrays.asList(TaskStatus.ENQUEUED, TaskStatus.SUCCEEDED)) : seen;
+        assert seen.stream().allMatch(task -> "movies".equals(task.getIndexUid()));
+    }
+
+    @Test
+    void vanished() {
+        Disposable watch = watcher.watch(GetTasksRequest.builder().build()).subscribe();
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        int deleted = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        int kept = tasks.enqueue("movies", TaskType.DOCUMENT_ADDITION_OR_UPDATE, null).uid();
+        scheduler.advanceTimeBy(Duration.ofMillis(30));
+        assert watcher.unfinished() == 2 : watcher.unfinished();
+        tasks.remove(deleted);
+        // checked once nothing moved for maxInterval
+        scheduler.advanceTimeBy(Duration.ofMillis(200));
+        assert watcher.unfinished() == 1 : watcher.unfinished();
+        tasks.process(kept);
+        scheduler.advanceTimeBy(Duration.ofMillis(30));
+        assert watcher.unfinished() == 0 : watcher.unfinished();
+        watch.dispose();
+    }
+
+    @Test
+    void backoff() {
+        Disposable watch = watcher.watch(GetTasksRequest.builder().build()).subscribe();
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+        int requests = tasks.requests();
+        // idle polls at 20, 40, 80, 80, 80ms after the baseline
+        scheduler.advanceTimeBy(Duration.ofMillis(300));
+        assert tasks.requests() - requests == 5 : tasks.requests() - requests;
+        watch.dispose();
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        requests = tasks.requests();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assert tasks.requests() == requests;
+    }
+
+    private static List<TaskStatus> statuses(List<TaskInfo> seen, int uid) {
+        List<TaskStatus> statuses = new ArrayList<>();
+        for (TaskInfo task : seen) {
+            if (task.uid() == uid) {
+                statuses.add(task.getStatus());
+            }
+        }
+        return statuses;
+    }
+
+}
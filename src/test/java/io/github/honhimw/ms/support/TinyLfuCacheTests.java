@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class TinyLfuCacheTests {
+
+    @Test
+    void bounded() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("key-" + i, i);
+        }
+        assert cache.size() <= 100;
+        assert cache.evictions() >= 10_000 - 100;
+    }
+
+    @Test
+    void hotSetSurvivesScan() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get("hot-" + i) == null) {
+                    cache.put("hot-" + i, i);
+                }
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.get("scan-" + i) == null) {
+                cache.put("scan-" + i, i);
+            }
+        }
+        int resident = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("hot-" + i) != null) {
+                resident++;
+            }
+        }
+        assert resident >= 45 : resident;
+    }
+
+    @Test
+    void remove() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+        cache.put("a", 1);
+        assert cache.putIfAbsent("a", 2) == 1;
+        assert cache.remove("a") == 1;
+        assert cache.get("a") == null;
+        assert cache.putIfAbsent("a", 3) == null;
+        assert cache.get("a") == 3;
+    }
+
+}
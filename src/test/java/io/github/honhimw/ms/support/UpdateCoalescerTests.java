@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.honhimw.ms.support;
+
+import io.github.honhimw.ms.http.HttpFailureException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * @author hon_him
+ * @since 2026-10-19
+ */
+
+public class UpdateCoalescerTests {
+
+    private FakeTasks tasks;
+
+    private FakeDocuments documents;
+
+    private final List<Map<String, Object>> deadLetters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tasks = new FakeTasks().autoProcess(true);
+        documents = new FakeDocuments("movies", "id", tasks);
+    }
+
+    @Test
+    void coalesce() {
+        try (UpdateCoalescer coalescer = coalescer(100)) {
+            coalescer.add(movie(1, "title", "a"));
+            coalescer.add(movie(1, "year", 2000));
+            coalescer.add(movie(1, "title", "b"));
+            coalescer.add(movie(2, "title", "c"));
+            assert coalescer.pending() == 2;
+            assert coalescer.flush().block() != null;
+            assert coalescer.flush().block() == null;
+            assert coalescer.received() == 4 && coalescer.flushed() == 2;
+        }
+        assert documents.writes().size() == 1;
+        Map<String, Object> merged = documents.store().get("1");
+        assert "b".equals(merged.get("title")) && Integer.valueOf(2000).equals(merged.get("year"));
+    }
+
+    @Test
+    void retryServerError() {
+        documents.failNext(new HttpFailureException(503, "unavailable"));
+        try (UpdateCoalescer coalescer = coalescer(100)) {
+            coalescer.add(movie(1, "title", "a"));
+            try {
+                coalescer.flush().block();
+                assert false;
+            } catch (HttpFailureException expected) {
+                assert expected.getStatusCode() == 503;
+            }
+            // the newer value wins over the re-queued one
+            coalescer.add(movie(1, "title", "b"));
+            assert coalescer.pending() == 1;
+            coalescer.flush().block();
+            assert coalescer.dropped() == 0;
+        }
+        assert "b".equals(documents.store().get("1").get("title"));
+        assert deadLetters.isEmpty();
+    }
+
+    @Test
+    void dropRejected() {
+        documents.reject(document -> "bad".equals(document.get("title")));
+        try (UpdateCoalescer coalescer = coalescer(100)) {
+            coalescer.add(movie(1, "title", "bad"));
+            coalescer.add(movie(2, "title", "good"));
+            try {
+                coalescer.flush().block();
+                assert false;
+            } catch (HttpFailureException expected) {
+                assert expected.getStatusCode() == 400;
+            }
+            assert coalescer.pending() == 0 && coalescer.dropped() == 2;
+            assert deadLetters.size() == 2;
+            assert coalescer.flush().block() == null;
+        }
+        assert documents.writes().isEmpty();
+    }
+
+    @Test
+    void retryUnauthorized() {
+        documents.failNext(new HttpFailureException(401, "invalid_api_key"));
+        try (UpdateCoalescer coalescer = coalescer(100)) {
+            coalescer.add(movie(1, "title", "a"));
+            try {
+                coalescer.flush().block();
+                assert false;
+            } catch (HttpFailureException expected) {
+                assert expected.getStatusCode() == 401;
+            }
+            assert coalescer.pending() == 1 && coalescer.dropped() == 0;
+            assert coalescer.flush().block() != null;
+        }
+        assert deadLetters.isEmpty();
+        assert documents.writes().size() == 1;
+    }
+
+    @Test
+    void maxPending() {
+        documents.failNext(new HttpFailureException(502, "bad gateway"));
+        try (UpdateCoalescer coalescer = coalescer(2)) {
+            coalescer.add(movie(1, "title", "a"));
+            coalescer.add(movie(2, "title", "b"));
+            // the early flush fails and re-queues both, the next new key still triggers one
+            await(() -> coalescer.pending() == 2 && documents.writes().isEmpty());
+            coalescer.add(movie(3, "title", "c"));
+            await(() -> documents.store().size() == 3);
+        }
+    }
+
+    private UpdateCoalescer coalescer(int maxPending) {
+        return UpdateCoalescer.builder()
+            .documents(documents)
+            .jsonHandler(FakeDocuments.JSON)
+            .primaryKey("id")
+            .window(Duration.ofHours(1))
+            .maxPending(maxPending)
+            .rejected((batch, throwable) -> deadLetters.addAll(batch))
+            .build();
+    }
+
+    private static Map<String, Object> movie(int id, String field, Object value) {
+        return MapBuilder.<String, Object>builder().put("id", id).put(field, value).build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assert System.nanoTime() < deadline : "condition not met in time";
+            Thread.sleep(5);
+        }
+    }
+
+}